@@ -20,6 +20,9 @@ public class GenericApiConfig extends BaseConfig {
     private HotReloadSettings hotReload = new HotReloadSettings();
     private FileWatcherSettings fileWatcher = new FileWatcherSettings();
     private CacheSettings cache = new CacheSettings();
+    private AsyncSettings async = new AsyncSettings();
+    private BatchSettings batch = new BatchSettings();
+    private TracingSettings tracing = new TracingSettings();
 
     public GenericApiConfig() {
         super();
@@ -32,6 +35,8 @@ public class GenericApiConfig extends BaseConfig {
         Integer port = getInteger("server.port", 8080);
         logger.info("GenericApiConfig - Loading server configuration: host={}, port={}", host, port);
         server = new ServerConfig(host, port);
+        server.setThreadMode(ServerConfig.ThreadMode.fromString(getString("server.threadMode", "platform")));
+        server.setRequestTimeoutMs(getLong("server.requestTimeoutMs", ServerConfig.DEFAULT_REQUEST_TIMEOUT_MS));
         logger.info("GenericApiConfig - Server configuration created: {}", server);
 
         // Load other configuration values
@@ -42,6 +47,9 @@ public class GenericApiConfig extends BaseConfig {
         loadHotReloadConfig();
         loadFileWatcherConfig();
         loadCacheConfig();
+        loadAsyncConfig();
+        loadBatchConfig();
+        loadTracingConfig();
     }
 
     private void loadDatabaseConfig() {
@@ -75,6 +83,9 @@ public class GenericApiConfig extends BaseConfig {
         Boolean loadFromYaml = getBoolean("config.loadFromYaml", false);
         config.setLoadFromYaml(loadFromYaml);
 
+        // Optional precompiled snapshot of the YAML configuration
+        config.setSnapshot(getString("config.snapshot", null));
+
         // Load specific file paths (for backward compatibility with tests)
         loadSpecificFilePaths();
 
@@ -84,6 +95,7 @@ public class GenericApiConfig extends BaseConfig {
 
         logger.info("Configuration source: {}", configSource);
         logger.info("Load configuration from YAML: {}", loadFromYaml);
+        logger.info("Configuration snapshot: {}", config.getSnapshot() != null ? config.getSnapshot() : "disabled");
         logger.info("Configuration directories: {}", config.getDirectories());
         logger.info("Database patterns: {}", config.getDatabasePatterns());
         logger.info("Query patterns: {}", config.getQueryPatterns());
@@ -203,6 +215,7 @@ public class GenericApiConfig extends BaseConfig {
         Integer maxReloadAttempts = getInteger("config.hotReload.maxReloadAttempts", 3);
         Boolean rollbackOnFailure = getBoolean("config.hotReload.rollbackOnFailure", true);
         Boolean validateBeforeApply = getBoolean("config.hotReload.validateBeforeApply", true);
+        Long databasePollMs = getLong("config.hotReload.databasePollMs", 5000L);
 
         hotReload.setEnabled(enabled);
         hotReload.setWatchDirectories(watchDirectories);
@@ -210,9 +223,10 @@ public class GenericApiConfig extends BaseConfig {
         hotReload.setMaxReloadAttempts(maxReloadAttempts);
         hotReload.setRollbackOnFailure(rollbackOnFailure);
         hotReload.setValidateBeforeApply(validateBeforeApply);
+        hotReload.setDatabasePollMs(databasePollMs);
 
-        logger.info("Hot reload configuration: enabled={}, watchDirectories={}, debounceMs={}, maxAttempts={}, rollback={}, validate={}",
-                   enabled, watchDirectories, debounceMs, maxReloadAttempts, rollbackOnFailure, validateBeforeApply);
+        logger.info("Hot reload configuration: enabled={}, watchDirectories={}, debounceMs={}, maxAttempts={}, rollback={}, validate={}, databasePollMs={}",
+                   enabled, watchDirectories, debounceMs, maxReloadAttempts, rollbackOnFailure, validateBeforeApply, databasePollMs);
     }
 
     private void loadFileWatcherConfig() {
@@ -245,6 +259,55 @@ public class GenericApiConfig extends BaseConfig {
                    enabled, defaultTtlSeconds, maxSize, cleanupIntervalSeconds);
     }
 
+    private void loadAsyncConfig() {
+        // Load async job configuration
+        Integer maxQueuedJobs = getInteger("async.maxQueuedJobs", 100);
+        Integer resultTtlSeconds = getInteger("async.resultTtlSeconds", 600);
+        Integer maxStoredResults = getInteger("async.maxStoredResults", 500);
+        Long maxStoredRows = getLong("async.maxStoredRows", 500000L);
+        Integer cleanupIntervalSeconds = getInteger("async.cleanupIntervalSeconds", 30);
+        Integer streamThresholdRows = getInteger("async.streamThresholdRows", 1000);
+
+        async.setMaxQueuedJobs(maxQueuedJobs);
+        async.setResultTtlSeconds(resultTtlSeconds);
+        async.setMaxStoredResults(maxStoredResults);
+        async.setMaxStoredRows(maxStoredRows);
+        async.setCleanupIntervalSeconds(cleanupIntervalSeconds);
+        async.setStreamThresholdRows(streamThresholdRows);
+
+        logger.info("Async job configuration: maxQueuedJobs={}, resultTtlSeconds={}, maxStoredResults={}, maxStoredRows={}, streamThresholdRows={}",
+                   maxQueuedJobs, resultTtlSeconds, maxStoredResults, maxStoredRows, streamThresholdRows);
+    }
+
+    private void loadBatchConfig() {
+        // Load batch endpoint configuration
+        Integer maxItems = getInteger("batch.maxItems", 100);
+        Integer maxMergedValues = getInteger("batch.maxMergedValues", 500);
+        Boolean mergeEnabled = getBoolean("batch.mergeEnabled", true);
+        Integer timeoutMs = getInteger("batch.timeoutMs", 30000);
+
+        batch.setMaxItems(maxItems);
+        batch.setMaxMergedValues(maxMergedValues);
+        batch.setMergeEnabled(mergeEnabled);
+        batch.setTimeoutMs(timeoutMs);
+
+        logger.info("Batch configuration: maxItems={}, maxMergedValues={}, mergeEnabled={}, timeoutMs={}",
+                   maxItems, maxMergedValues, mergeEnabled, timeoutMs);
+    }
+
+    private void loadTracingConfig() {
+        // Load request tracing configuration
+        tracing.setEnabled(getBoolean("tracing.enabled", true));
+        tracing.setSlowestPerEndpoint(getInteger("tracing.slowestPerEndpoint", 10));
+        tracing.setExportEnabled(getBoolean("tracing.export.enabled", false));
+        tracing.setExportFile(getString("tracing.export.file", "logs/traces.otlp.jsonl"));
+        tracing.setExportThresholdMs(getInteger("tracing.export.thresholdMs", 0));
+        tracing.setExportQueueSize(getInteger("tracing.export.queueSize", 1000));
+
+        logger.info("Tracing configuration: enabled={}, slowestPerEndpoint={}, exportEnabled={}, exportFile={}",
+                   tracing.isEnabled(), tracing.getSlowestPerEndpoint(), tracing.isExportEnabled(), tracing.getExportFile());
+    }
+
     @Override
     protected String getConfigFileName() {
         // Check for custom config file system property (for testing)
@@ -387,6 +450,10 @@ public class GenericApiConfig extends BaseConfig {
         return config.hasSpecificPaths();
     }
 
+    public String getConfigSnapshot() {
+        return config.getSnapshot();
+    }
+
     public ValidationSettings getValidationSettings() {
         return validation;
     }
@@ -432,6 +499,10 @@ public class GenericApiConfig extends BaseConfig {
         return hotReload.validateBeforeApply;
     }
 
+    public long getHotReloadDatabasePollMs() {
+        return hotReload.databasePollMs;
+    }
+
     // File watcher configuration getters
     public FileWatcherSettings getFileWatcherSettings() {
         return fileWatcher;
@@ -470,6 +541,21 @@ public class GenericApiConfig extends BaseConfig {
         return cache.cleanupIntervalSeconds;
     }
 
+    // Async job configuration getters
+    public AsyncSettings getAsyncSettings() {
+        return async;
+    }
+
+    // Batch endpoint configuration getters
+    public BatchSettings getBatchSettings() {
+        return batch;
+    }
+
+    // Request tracing configuration getters
+    public TracingSettings getTracingSettings() {
+        return tracing;
+    }
+
     // Inner classes for configuration structure
     public static class DatabaseSettings {
         private String url = "jdbc:h2:./data/api-service-config;AUTO_SERVER=TRUE;DB_CLOSE_DELAY=-1";
@@ -515,6 +601,9 @@ public class GenericApiConfig extends BaseConfig {
         private String queriesPath = null;
         private String endpointsPath = null;
 
+        // Precompiled configuration snapshot file, or null to always load the YAML
+        private String snapshot = null;
+
         // Getters and setters
         public String getSource() { return source; }
         public void setSource(String source) { this.source = source; }
@@ -543,6 +632,9 @@ public class GenericApiConfig extends BaseConfig {
         public String getEndpointsPath() { return endpointsPath; }
         public void setEndpointsPath(String endpointsPath) { this.endpointsPath = endpointsPath; }
 
+        public String getSnapshot() { return snapshot; }
+        public void setSnapshot(String snapshot) { this.snapshot = snapshot; }
+
         // Helper methods to check if specific paths are configured
         public boolean hasSpecificPaths() {
             return databasesPath != null || queriesPath != null || endpointsPath != null;
@@ -570,6 +662,7 @@ public class GenericApiConfig extends BaseConfig {
         private int maxReloadAttempts = 3;
         private boolean rollbackOnFailure = true;
         private boolean validateBeforeApply = true;
+        private long databasePollMs = 5000; // watermark check interval when config.source is database; 0 disables
 
         // Getters and setters
         public boolean isEnabled() { return enabled; }
@@ -584,6 +677,8 @@ public class GenericApiConfig extends BaseConfig {
         public void setRollbackOnFailure(boolean rollbackOnFailure) { this.rollbackOnFailure = rollbackOnFailure; }
         public boolean isValidateBeforeApply() { return validateBeforeApply; }
         public void setValidateBeforeApply(boolean validateBeforeApply) { this.validateBeforeApply = validateBeforeApply; }
+        public long getDatabasePollMs() { return databasePollMs; }
+        public void setDatabasePollMs(long databasePollMs) { this.databasePollMs = databasePollMs; }
     }
 
     public static class FileWatcherSettings {
@@ -616,4 +711,67 @@ public class GenericApiConfig extends BaseConfig {
         public int getCleanupIntervalSeconds() { return cleanupIntervalSeconds; }
         public void setCleanupIntervalSeconds(int cleanupIntervalSeconds) { this.cleanupIntervalSeconds = cleanupIntervalSeconds; }
     }
+
+    public static class AsyncSettings {
+        private int maxQueuedJobs = 100;
+        private int resultTtlSeconds = 600;
+        private int maxStoredResults = 500;
+        private long maxStoredRows = 500000;
+        private int cleanupIntervalSeconds = 30;
+        private int streamThresholdRows = 1000;
+
+        // Getters and setters
+        public int getMaxQueuedJobs() { return maxQueuedJobs; }
+        public void setMaxQueuedJobs(int maxQueuedJobs) { this.maxQueuedJobs = maxQueuedJobs; }
+        public int getResultTtlSeconds() { return resultTtlSeconds; }
+        public void setResultTtlSeconds(int resultTtlSeconds) { this.resultTtlSeconds = resultTtlSeconds; }
+        public int getMaxStoredResults() { return maxStoredResults; }
+        public void setMaxStoredResults(int maxStoredResults) { this.maxStoredResults = maxStoredResults; }
+        public long getMaxStoredRows() { return maxStoredRows; }
+        public void setMaxStoredRows(long maxStoredRows) { this.maxStoredRows = maxStoredRows; }
+        public int getCleanupIntervalSeconds() { return cleanupIntervalSeconds; }
+        public void setCleanupIntervalSeconds(int cleanupIntervalSeconds) { this.cleanupIntervalSeconds = cleanupIntervalSeconds; }
+        public int getStreamThresholdRows() { return streamThresholdRows; }
+        public void setStreamThresholdRows(int streamThresholdRows) { this.streamThresholdRows = streamThresholdRows; }
+    }
+
+    public static class BatchSettings {
+        private int maxItems = 100;
+        private int maxMergedValues = 500;
+        private boolean mergeEnabled = true;
+        private int timeoutMs = 30000;
+
+        // Getters and setters
+        public int getMaxItems() { return maxItems; }
+        public void setMaxItems(int maxItems) { this.maxItems = maxItems; }
+        public int getMaxMergedValues() { return maxMergedValues; }
+        public void setMaxMergedValues(int maxMergedValues) { this.maxMergedValues = maxMergedValues; }
+        public boolean isMergeEnabled() { return mergeEnabled; }
+        public void setMergeEnabled(boolean mergeEnabled) { this.mergeEnabled = mergeEnabled; }
+        public int getTimeoutMs() { return timeoutMs; }
+        public void setTimeoutMs(int timeoutMs) { this.timeoutMs = timeoutMs; }
+    }
+
+    public static class TracingSettings {
+        private boolean enabled = true;
+        private int slowestPerEndpoint = 10;
+        private boolean exportEnabled = false;
+        private String exportFile = "logs/traces.otlp.jsonl";
+        private int exportThresholdMs = 0;
+        private int exportQueueSize = 1000;
+
+        // Getters and setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public int getSlowestPerEndpoint() { return slowestPerEndpoint; }
+        public void setSlowestPerEndpoint(int slowestPerEndpoint) { this.slowestPerEndpoint = slowestPerEndpoint; }
+        public boolean isExportEnabled() { return exportEnabled; }
+        public void setExportEnabled(boolean exportEnabled) { this.exportEnabled = exportEnabled; }
+        public String getExportFile() { return exportFile; }
+        public void setExportFile(String exportFile) { this.exportFile = exportFile; }
+        public int getExportThresholdMs() { return exportThresholdMs; }
+        public void setExportThresholdMs(int exportThresholdMs) { this.exportThresholdMs = exportThresholdMs; }
+        public int getExportQueueSize() { return exportQueueSize; }
+        public void setExportQueueSize(int exportQueueSize) { this.exportQueueSize = exportQueueSize; }
+    }
 }
@@ -13,6 +13,11 @@ import dev.cordal.common.metrics.CacheMetricsCollector;
 import dev.cordal.generic.GenericApiController;
 import dev.cordal.generic.GenericApiService;
 import dev.cordal.generic.GenericRepository;
+import dev.cordal.generic.RequestWatchdog;
+import dev.cordal.generic.async.AsyncJobController;
+import dev.cordal.generic.async.AsyncJobManager;
+import dev.cordal.generic.batch.BatchController;
+import dev.cordal.generic.batch.BatchExecutor;
 import dev.cordal.generic.config.ConfigurationLoader;
 import dev.cordal.generic.config.ConfigurationLoaderFactory;
 import dev.cordal.generic.config.EndpointConfigurationManager;
@@ -21,6 +26,7 @@ import dev.cordal.database.loader.DatabaseConfigurationLoader;
 import dev.cordal.database.repository.DatabaseConfigurationRepository;
 import dev.cordal.database.repository.QueryConfigurationRepository;
 import dev.cordal.database.repository.EndpointConfigurationRepository;
+import dev.cordal.generic.management.ApiMetricsExporter;
 import dev.cordal.generic.management.ConfigurationMetadataService;
 import dev.cordal.generic.management.ConfigurationManagementService;
 import dev.cordal.generic.management.ConfigurationManagementController;
@@ -29,6 +35,9 @@ import dev.cordal.generic.management.HealthMonitoringService;
 import dev.cordal.generic.management.ManagementController;
 import dev.cordal.generic.migration.ConfigurationMigrationService;
 import dev.cordal.generic.migration.ConfigurationMigrationController;
+import dev.cordal.generic.plan.ExecutionPlanRegistry;
+import dev.cordal.generic.trace.TraceController;
+import dev.cordal.generic.trace.Tracer;
 import dev.cordal.database.DatabaseManager;
 import dev.cordal.database.ConfigurationDataLoader;
 import dev.cordal.api.H2ServerController;
@@ -179,9 +188,11 @@ public class GenericApiGuiceModule extends AbstractModule {
     public GenericRepository provideGenericRepository(DatabaseConnectionManager databaseConnectionManager,
                                                      CacheManager cacheManager,
                                                      CacheMetricsCollector cacheMetricsCollector,
-                                                     dev.cordal.generic.cache.QueryResultCache queryResultCache) {
+                                                     dev.cordal.generic.cache.QueryResultCache queryResultCache,
+                                                     UsageStatisticsService statisticsService) {
         logger.info("Creating GenericRepository instance");
-        return new GenericRepository(databaseConnectionManager, cacheManager, cacheMetricsCollector, queryResultCache);
+        return new GenericRepository(databaseConnectionManager, cacheManager, cacheMetricsCollector, queryResultCache,
+                                     statisticsService);
     }
 
     @Provides
@@ -215,21 +226,92 @@ public class GenericApiGuiceModule extends AbstractModule {
         return new CacheManagementController(cacheManager, cacheMetricsCollector);
     }
 
+    @Provides
+    @Singleton
+    public ExecutionPlanRegistry provideExecutionPlanRegistry(EndpointConfigurationManager configurationManager,
+                                                             DatabaseConnectionManager databaseConnectionManager,
+                                                             GenericApiConfig genericApiConfig) {
+        logger.info("Creating ExecutionPlanRegistry instance");
+        return new ExecutionPlanRegistry(configurationManager, databaseConnectionManager,
+                                         genericApiConfig.getServerConfig().getRequestTimeoutMs());
+    }
+
     @Provides
     @Singleton
     public GenericApiService provideGenericApiService(GenericRepository genericRepository,
                                                      EndpointConfigurationManager configurationManager,
-                                                     DatabaseConnectionManager databaseConnectionManager) {
+                                                     DatabaseConnectionManager databaseConnectionManager,
+                                                     ExecutionPlanRegistry executionPlanRegistry,
+                                                     GenericApiConfig genericApiConfig) {
         logger.info("Creating GenericApiService instance");
-        return new GenericApiService(genericRepository, configurationManager, databaseConnectionManager);
+        return new GenericApiService(genericRepository, configurationManager, databaseConnectionManager,
+                                    executionPlanRegistry, genericApiConfig.getServerConfig().getThreadMode());
+    }
+
+    @Provides
+    @Singleton
+    public AsyncJobManager provideAsyncJobManager(GenericApiService genericApiService,
+                                                 GenericApiConfig genericApiConfig) {
+        logger.info("Creating AsyncJobManager instance");
+        return new AsyncJobManager(genericApiService, genericApiConfig.getAsyncSettings());
+    }
+
+    @Provides
+    @Singleton
+    public AsyncJobController provideAsyncJobController(AsyncJobManager asyncJobManager,
+                                                       GenericApiConfig genericApiConfig) {
+        logger.info("Creating AsyncJobController instance");
+        return new AsyncJobController(asyncJobManager, genericApiConfig.getAsyncSettings().getStreamThresholdRows());
+    }
+
+    @Provides
+    @Singleton
+    public BatchExecutor provideBatchExecutor(GenericApiService genericApiService,
+                                             GenericRepository genericRepository,
+                                             GenericApiConfig genericApiConfig) {
+        logger.info("Creating BatchExecutor instance");
+        return new BatchExecutor(genericApiService, genericRepository, genericApiConfig.getBatchSettings());
+    }
+
+    @Provides
+    @Singleton
+    public BatchController provideBatchController(BatchExecutor batchExecutor,
+                                                 RequestWatchdog requestWatchdog,
+                                                 GenericApiConfig genericApiConfig) {
+        logger.info("Creating BatchController instance");
+        return new BatchController(batchExecutor, requestWatchdog, genericApiConfig.getBatchSettings().getTimeoutMs());
+    }
+
+    @Provides
+    @Singleton
+    public RequestWatchdog provideRequestWatchdog() {
+        logger.info("Creating RequestWatchdog instance");
+        return new RequestWatchdog();
+    }
+
+    @Provides
+    @Singleton
+    public Tracer provideTracer(GenericApiConfig genericApiConfig) {
+        logger.info("Creating Tracer instance");
+        return new Tracer(genericApiConfig.getTracingSettings());
+    }
+
+    @Provides
+    @Singleton
+    public TraceController provideTraceController(Tracer tracer) {
+        logger.info("Creating TraceController instance");
+        return new TraceController(tracer);
     }
 
     @Provides
     @Singleton
     public GenericApiController provideGenericApiController(GenericApiService genericApiService,
-                                                           UsageStatisticsService statisticsService) {
+                                                           UsageStatisticsService statisticsService,
+                                                           AsyncJobManager asyncJobManager,
+                                                           RequestWatchdog requestWatchdog,
+                                                           Tracer tracer) {
         logger.info("Creating GenericApiController instance");
-        return new GenericApiController(genericApiService, statisticsService);
+        return new GenericApiController(genericApiService, statisticsService, asyncJobManager, requestWatchdog, tracer);
     }
 
     @Provides
@@ -246,6 +328,16 @@ public class GenericApiGuiceModule extends AbstractModule {
         return new UsageStatisticsService();
     }
 
+    @Provides
+    @Singleton
+    public ApiMetricsExporter provideApiMetricsExporter(UsageStatisticsService statisticsService,
+                                                        CacheMetricsCollector cacheMetricsCollector,
+                                                        DatabaseConnectionManager databaseConnectionManager,
+                                                        DatabaseManager databaseManager) {
+        logger.info("Creating ApiMetricsExporter instance");
+        return new ApiMetricsExporter(statisticsService, cacheMetricsCollector, databaseConnectionManager, databaseManager);
+    }
+
     @Provides
     @Singleton
     public HealthMonitoringService provideHealthMonitoringService(DatabaseConnectionManager databaseConnectionManager,
@@ -379,9 +471,13 @@ public class GenericApiGuiceModule extends AbstractModule {
     @Provides
     @Singleton
     public AtomicUpdateManager provideAtomicUpdateManager(DatabaseManager databaseManager,
-                                                         DynamicEndpointRegistry endpointRegistry) {
+                                                         DynamicEndpointRegistry endpointRegistry,
+                                                         ExecutionPlanRegistry executionPlanRegistry,
+                                                         DatabaseConnectionManager databaseConnectionManager,
+                                                         GenericRepository genericRepository) {
         logger.info("Creating AtomicUpdateManager instance");
-        return new AtomicUpdateManager(databaseManager, endpointRegistry);
+        return new AtomicUpdateManager(databaseManager, endpointRegistry, executionPlanRegistry,
+                                       databaseConnectionManager, genericRepository);
     }
 
     @Provides
@@ -392,9 +488,12 @@ public class GenericApiGuiceModule extends AbstractModule {
             ValidationPipeline validationPipeline,
             DynamicEndpointRegistry endpointRegistry,
             AtomicUpdateManager atomicUpdateManager,
-            GenericApiConfig config) {
+            GenericApiConfig config,
+            EndpointConfigurationManager configurationManager,
+            DatabaseConfigurationLoader databaseLoader) {
         logger.info("Creating ConfigurationReloadManager instance");
         return new ConfigurationReloadManager(fileWatcher, stateManager, validationPipeline,
-                                            endpointRegistry, atomicUpdateManager, config);
+                                            endpointRegistry, atomicUpdateManager, config, configurationManager,
+                                            databaseLoader);
     }
 }
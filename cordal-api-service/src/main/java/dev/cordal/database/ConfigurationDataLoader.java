@@ -175,7 +175,7 @@ public class ConfigurationDataLoader {
                 statement.setString(3, config.getDatabase());
                 statement.setString(4, config.getSql());
                 statement.setString(5, "SELECT"); // Default query type since QueryConfig doesn't have getType()
-                statement.setInt(6, 30); // Default timeout since QueryConfig doesn't have getTimeoutSeconds()
+                statement.setInt(6, config.getTimeoutSecondsOrDefault(30));
                 statement.executeUpdate();
 
                 logger.debug("Loaded query configuration: {}", key);
@@ -3,6 +3,7 @@ package dev.cordal.database.loader;
 import dev.cordal.database.repository.DatabaseConfigurationRepository;
 import dev.cordal.database.repository.QueryConfigurationRepository;
 import dev.cordal.database.repository.EndpointConfigurationRepository;
+import dev.cordal.database.repository.TableWatermark;
 import dev.cordal.generic.config.DatabaseConfig;
 import dev.cordal.generic.config.QueryConfig;
 import dev.cordal.generic.config.ApiEndpointConfig;
@@ -13,20 +14,40 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Configuration loader that reads configurations from H2 database instead of YAML files
  * This is an alternative to ConfigurationLoader for database-based configuration storage
+ *
+ * Loaded tables are kept as in-memory snapshots tagged with their {@link TableWatermark}. A read
+ * first compares the table's watermark with the snapshot's; if it is unchanged the snapshot is
+ * served, otherwise only rows updated since the snapshot are fetched and merged, and deleted rows
+ * are dropped when the row count shows there were deletions.
  */
 @Singleton
 public class DatabaseConfigurationLoader implements ConfigurationLoaderInterface {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseConfigurationLoader.class);
 
+    private static final String DATABASES = "databases";
+    private static final String QUERIES = "queries";
+    private static final String ENDPOINTS = "endpoints";
+
     private final DatabaseConfigurationRepository databaseRepository;
     private final QueryConfigurationRepository queryRepository;
     private final EndpointConfigurationRepository endpointRepository;
 
+    private volatile TableSnapshot<DatabaseConfig> databaseSnapshot;
+    private volatile TableSnapshot<QueryConfig> querySnapshot;
+    private volatile TableSnapshot<ApiEndpointConfig> endpointSnapshot;
+
     @Inject
     public DatabaseConfigurationLoader(DatabaseConfigurationRepository databaseRepository,
                                      QueryConfigurationRepository queryRepository,
@@ -41,10 +62,11 @@ public class DatabaseConfigurationLoader implements ConfigurationLoaderInterface
      * Load database configurations from the database
      */
     public Map<String, DatabaseConfig> loadDatabaseConfigurations() {
-        logger.info("Loading database configurations from database");
+        logger.debug("Loading database configurations from database");
         
         try {
-            Map<String, DatabaseConfig> configurations = databaseRepository.loadAll();
+            TableSnapshot<DatabaseConfig> snapshot = refreshDatabaseSnapshot();
+            Map<String, DatabaseConfig> configurations = new HashMap<>(snapshot.entries);
             
             if (configurations.isEmpty()) {
                 logger.error("FATAL CONFIGURATION ERROR: No database configurations found in database");
@@ -57,6 +79,11 @@ public class DatabaseConfigurationLoader implements ConfigurationLoaderInterface
                 throw new dev.cordal.common.exception.ConfigurationException("No database configurations found in database tables");
             }
 
+            if (!snapshot.fullLoad) {
+                logger.debug("Serving {} database configurations from in-memory snapshot", configurations.size());
+                return configurations;
+            }
+
             logger.info("Successfully loaded {} database configurations from database", configurations.size());
 
             // Log each database for debugging
@@ -82,10 +109,11 @@ public class DatabaseConfigurationLoader implements ConfigurationLoaderInterface
      * Load query configurations from the database
      */
     public Map<String, QueryConfig> loadQueryConfigurations() {
-        logger.info("Loading query configurations from database");
+        logger.debug("Loading query configurations from database");
         
         try {
-            Map<String, QueryConfig> configurations = queryRepository.loadAll();
+            TableSnapshot<QueryConfig> snapshot = refreshQuerySnapshot();
+            Map<String, QueryConfig> configurations = new HashMap<>(snapshot.entries);
             
             if (configurations.isEmpty()) {
                 logger.error("FATAL CONFIGURATION ERROR: No query configurations found in database");
@@ -98,6 +126,11 @@ public class DatabaseConfigurationLoader implements ConfigurationLoaderInterface
                 throw new dev.cordal.common.exception.ConfigurationException("No query configurations found in database tables");
             }
 
+            if (!snapshot.fullLoad) {
+                logger.debug("Serving {} query configurations from in-memory snapshot", configurations.size());
+                return configurations;
+            }
+
             logger.info("Successfully loaded {} query configurations from database", configurations.size());
 
             // Log each query for debugging
@@ -125,10 +158,11 @@ public class DatabaseConfigurationLoader implements ConfigurationLoaderInterface
      * Load endpoint configurations from the database
      */
     public Map<String, ApiEndpointConfig> loadEndpointConfigurations() {
-        logger.info("Loading endpoint configurations from database");
+        logger.debug("Loading endpoint configurations from database");
         
         try {
-            Map<String, ApiEndpointConfig> configurations = endpointRepository.loadAll();
+            TableSnapshot<ApiEndpointConfig> snapshot = refreshEndpointSnapshot();
+            Map<String, ApiEndpointConfig> configurations = new HashMap<>(snapshot.entries);
             
             if (configurations.isEmpty()) {
                 logger.error("FATAL CONFIGURATION ERROR: No endpoint configurations found in database");
@@ -141,6 +175,11 @@ public class DatabaseConfigurationLoader implements ConfigurationLoaderInterface
                 throw new dev.cordal.common.exception.ConfigurationException("No endpoint configurations found in database tables");
             }
 
+            if (!snapshot.fullLoad) {
+                logger.debug("Serving {} endpoint configurations from in-memory snapshot", configurations.size());
+                return configurations;
+            }
+
             logger.info("Successfully loaded {} endpoint configurations from database", configurations.size());
 
             // Log each endpoint for debugging
@@ -170,11 +209,10 @@ public class DatabaseConfigurationLoader implements ConfigurationLoaderInterface
         logger.debug("Getting configuration statistics from database");
         
         try {
-            int databaseCount = databaseRepository.getCount();
-            int queryCount = queryRepository.getCount();
-            int endpointCount = endpointRepository.getCount();
-            
-            ConfigurationStats stats = new ConfigurationStats(databaseCount, queryCount, endpointCount);
+            Map<String, TableWatermark> watermarks = readWatermarks();
+            ConfigurationStats stats = new ConfigurationStats(watermarks.get(DATABASES).getRowCount(),
+                                                              watermarks.get(QUERIES).getRowCount(),
+                                                              watermarks.get(ENDPOINTS).getRowCount());
             logger.debug("Configuration stats: {}", stats);
             
             return stats;
@@ -185,6 +223,121 @@ public class DatabaseConfigurationLoader implements ConfigurationLoaderInterface
         }
     }
 
+    /**
+     * Get the query configurations that run on a database, ordered by name
+     */
+    public List<QueryConfig> getQueryConfigurationsByDatabase(String databaseName) {
+        return refreshQuerySnapshot().entries.values().stream()
+            .filter(config -> databaseName.equals(config.getDatabase()))
+            .sorted(Comparator.comparing(QueryConfig::getName))
+            .toList();
+    }
+
+    /**
+     * Get the endpoint configurations that use a query, ordered by endpoint name
+     */
+    public List<ApiEndpointConfig> getEndpointConfigurationsByQuery(String queryName) {
+        return refreshEndpointSnapshot().entries.entrySet().stream()
+            .filter(entry -> queryName.equals(entry.getValue().getQuery()))
+            .sorted(Map.Entry.comparingByKey())
+            .map(Map.Entry::getValue)
+            .toList();
+    }
+
+    /**
+     * Read the current watermark of each configuration table. This is the cheap check a poller
+     * runs to find out whether anything changed since {@link #getSnapshotWatermarks()}.
+     */
+    public Map<String, TableWatermark> readWatermarks() {
+        return Map.of(DATABASES, databaseRepository.getWatermark(),
+                      QUERIES, queryRepository.getWatermark(),
+                      ENDPOINTS, endpointRepository.getWatermark());
+    }
+
+    /**
+     * Get the watermark each in-memory snapshot was taken at; tables not loaded yet are absent
+     */
+    public Map<String, TableWatermark> getSnapshotWatermarks() {
+        Map<String, TableWatermark> watermarks = new HashMap<>();
+        if (databaseSnapshot != null) watermarks.put(DATABASES, databaseSnapshot.watermark);
+        if (querySnapshot != null) watermarks.put(QUERIES, querySnapshot.watermark);
+        if (endpointSnapshot != null) watermarks.put(ENDPOINTS, endpointSnapshot.watermark);
+        return Map.copyOf(watermarks);
+    }
+
+    private synchronized TableSnapshot<DatabaseConfig> refreshDatabaseSnapshot() {
+        databaseSnapshot = refresh(DATABASES, databaseSnapshot, databaseRepository::getWatermark,
+            databaseRepository::loadAll, databaseRepository::loadUpdatedSince, databaseRepository::loadNames);
+        return databaseSnapshot;
+    }
+
+    private synchronized TableSnapshot<QueryConfig> refreshQuerySnapshot() {
+        querySnapshot = refresh(QUERIES, querySnapshot, queryRepository::getWatermark,
+            queryRepository::loadAll, queryRepository::loadUpdatedSince, queryRepository::loadNames);
+        return querySnapshot;
+    }
+
+    private synchronized TableSnapshot<ApiEndpointConfig> refreshEndpointSnapshot() {
+        endpointSnapshot = refresh(ENDPOINTS, endpointSnapshot, endpointRepository::getWatermark,
+            endpointRepository::loadAll, endpointRepository::loadUpdatedSince, endpointRepository::loadNames);
+        return endpointSnapshot;
+    }
+
+    /**
+     * Bring one table snapshot up to date. The watermark is read before any rows, so a write that
+     * lands while refreshing leaves the snapshot behind the table and is picked up on the next read.
+     */
+    private static <T> TableSnapshot<T> refresh(String table, TableSnapshot<T> current,
+                                                Supplier<TableWatermark> watermarkReader,
+                                                Supplier<Map<String, T>> loadAll,
+                                                Function<Timestamp, Map<String, T>> loadUpdatedSince,
+                                                Supplier<Set<String>> loadNames) {
+        TableWatermark watermark = watermarkReader.get();
+        if (current != null && current.watermark.equals(watermark)) {
+            return current.served();
+        }
+
+        if (current == null || current.watermark.getLastUpdated() == null || watermark.getLastUpdated() == null) {
+            return new TableSnapshot<>(watermark, Map.copyOf(loadAll.get()), true);
+        }
+
+        // Rows stamped exactly at the previous watermark are fetched again in case a write shared
+        // its timestamp with the last row we saw
+        Map<String, T> changed = loadUpdatedSince.apply(current.watermark.getLastUpdated());
+        Map<String, T> merged = new HashMap<>(current.entries);
+        merged.putAll(changed);
+        int removed = 0;
+        if (merged.size() != watermark.getRowCount()) {
+            int before = merged.size();
+            merged.keySet().retainAll(loadNames.get());
+            removed = before - merged.size();
+        }
+
+        logger.info("Refreshed {} configuration snapshot: {} rows fetched, {} removed, {} total",
+                   table, changed.size(), removed, merged.size());
+        return new TableSnapshot<>(watermark, Map.copyOf(merged), false);
+    }
+
+    /**
+     * Immutable contents of one configuration table at a watermark
+     */
+    private static final class TableSnapshot<T> {
+        private final TableWatermark watermark;
+        private final Map<String, T> entries;
+        // True only for the read that performed a full load, so its summary is logged once
+        private final boolean fullLoad;
+
+        private TableSnapshot(TableWatermark watermark, Map<String, T> entries, boolean fullLoad) {
+            this.watermark = watermark;
+            this.entries = entries;
+            this.fullLoad = fullLoad;
+        }
+
+        private TableSnapshot<T> served() {
+            return fullLoad ? new TableSnapshot<>(watermark, entries, false) : this;
+        }
+    }
+
     /**
      * Configuration statistics holder
      */
@@ -213,6 +213,85 @@ public class DatabaseConfigurationRepository {
         return 0;
     }
 
+    /**
+     * Read the change watermark of the database configuration table in one query
+     */
+    public TableWatermark getWatermark() {
+        String selectSql = "SELECT COUNT(*), MAX(updated_at) FROM config_databases";
+
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(selectSql);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            resultSet.next();
+            return new TableWatermark(resultSet.getInt(1), resultSet.getTimestamp(2));
+
+        } catch (SQLException e) {
+            logger.error("Failed to read database configuration watermark", e);
+            throw new RuntimeException("Failed to read database configuration watermark", e);
+        }
+    }
+
+    /**
+     * Load the database configurations inserted or updated at or after the given time
+     */
+    public Map<String, DatabaseConfig> loadUpdatedSince(Timestamp since) {
+        logger.debug("Loading database configurations updated since {}", since);
+        Map<String, DatabaseConfig> configurations = new HashMap<>();
+
+        String selectSql = """
+            SELECT name, description, url, username, password, driver,
+                   maximum_pool_size, minimum_idle, connection_timeout,
+                   idle_timeout, max_lifetime, leak_detection_threshold,
+                   connection_test_query
+            FROM config_databases
+            WHERE updated_at >= ?
+            """;
+
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(selectSql)) {
+
+            statement.setTimestamp(1, since);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    DatabaseConfig config = mapResultSetToConfig(resultSet);
+                    configurations.put(config.getName(), config);
+                }
+            }
+
+            logger.debug("Loaded {} database configurations updated since {}", configurations.size(), since);
+            return configurations;
+
+        } catch (SQLException e) {
+            logger.error("Failed to load database configurations updated since {}", since, e);
+            throw new RuntimeException("Failed to load database configurations updated since " + since, e);
+        }
+    }
+
+    /**
+     * Load the names of all database configurations
+     */
+    public Set<String> loadNames() {
+        Set<String> names = new HashSet<>();
+
+        String selectSql = "SELECT name FROM config_databases";
+
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(selectSql);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+            return names;
+
+        } catch (SQLException e) {
+            logger.error("Failed to load database configuration names", e);
+            throw new RuntimeException("Failed to load database configuration names", e);
+        }
+    }
+
     /**
      * Map ResultSet to DatabaseConfig object
      */
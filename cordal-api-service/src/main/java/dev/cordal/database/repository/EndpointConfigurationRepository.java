@@ -317,6 +317,84 @@ public class EndpointConfigurationRepository {
         return 0;
     }
 
+    /**
+     * Read the change watermark of the endpoint configuration table in one query
+     */
+    public TableWatermark getWatermark() {
+        String selectSql = "SELECT COUNT(*), MAX(updated_at) FROM config_endpoints";
+
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(selectSql);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            resultSet.next();
+            return new TableWatermark(resultSet.getInt(1), resultSet.getTimestamp(2));
+
+        } catch (SQLException e) {
+            logger.error("Failed to read endpoint configuration watermark", e);
+            throw new RuntimeException("Failed to read endpoint configuration watermark", e);
+        }
+    }
+
+    /**
+     * Load the endpoint configurations inserted or updated at or after the given time
+     */
+    public Map<String, ApiEndpointConfig> loadUpdatedSince(Timestamp since) {
+        logger.debug("Loading endpoint configurations updated since {}", since);
+        Map<String, ApiEndpointConfig> configurations = new HashMap<>();
+
+        String selectSql = """
+            SELECT name, description, path, method, query_name, response_format,
+                   cache_enabled, cache_ttl_seconds, rate_limit_enabled,
+                   rate_limit_requests, rate_limit_window_seconds
+            FROM config_endpoints
+            WHERE updated_at >= ?
+            """;
+
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(selectSql)) {
+
+            statement.setTimestamp(1, since);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ApiEndpointConfig config = mapResultSetToConfig(resultSet);
+                    configurations.put(resultSet.getString("name"), config);
+                }
+            }
+
+            logger.debug("Loaded {} endpoint configurations updated since {}", configurations.size(), since);
+            return configurations;
+
+        } catch (SQLException e) {
+            logger.error("Failed to load endpoint configurations updated since {}", since, e);
+            throw new RuntimeException("Failed to load endpoint configurations updated since " + since, e);
+        }
+    }
+
+    /**
+     * Load the names of all endpoint configurations
+     */
+    public Set<String> loadNames() {
+        Set<String> names = new HashSet<>();
+
+        String selectSql = "SELECT name FROM config_endpoints";
+
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(selectSql);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+            return names;
+
+        } catch (SQLException e) {
+            logger.error("Failed to load endpoint configuration names", e);
+            throw new RuntimeException("Failed to load endpoint configuration names", e);
+        }
+    }
+
     /**
      * Map ResultSet to ApiEndpointConfig object
      */
@@ -269,6 +269,82 @@ public class QueryConfigurationRepository {
         return 0;
     }
 
+    /**
+     * Read the change watermark of the query configuration table in one query
+     */
+    public TableWatermark getWatermark() {
+        String selectSql = "SELECT COUNT(*), MAX(updated_at) FROM config_queries";
+
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(selectSql);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            resultSet.next();
+            return new TableWatermark(resultSet.getInt(1), resultSet.getTimestamp(2));
+
+        } catch (SQLException e) {
+            logger.error("Failed to read query configuration watermark", e);
+            throw new RuntimeException("Failed to read query configuration watermark", e);
+        }
+    }
+
+    /**
+     * Load the query configurations inserted or updated at or after the given time
+     */
+    public Map<String, QueryConfig> loadUpdatedSince(Timestamp since) {
+        logger.debug("Loading query configurations updated since {}", since);
+        Map<String, QueryConfig> configurations = new HashMap<>();
+
+        String selectSql = """
+            SELECT name, description, database_name, sql_query, query_type, timeout_seconds
+            FROM config_queries
+            WHERE updated_at >= ?
+            """;
+
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(selectSql)) {
+
+            statement.setTimestamp(1, since);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    QueryConfig config = mapResultSetToConfig(resultSet);
+                    configurations.put(config.getName(), config);
+                }
+            }
+
+            logger.debug("Loaded {} query configurations updated since {}", configurations.size(), since);
+            return configurations;
+
+        } catch (SQLException e) {
+            logger.error("Failed to load query configurations updated since {}", since, e);
+            throw new RuntimeException("Failed to load query configurations updated since " + since, e);
+        }
+    }
+
+    /**
+     * Load the names of all query configurations
+     */
+    public Set<String> loadNames() {
+        Set<String> names = new HashSet<>();
+
+        String selectSql = "SELECT name FROM config_queries";
+
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(selectSql);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+            return names;
+
+        } catch (SQLException e) {
+            logger.error("Failed to load query configuration names", e);
+            throw new RuntimeException("Failed to load query configuration names", e);
+        }
+    }
+
     /**
      * Map ResultSet to QueryConfig object
      */
@@ -280,9 +356,11 @@ public class QueryConfigurationRepository {
         config.setDatabase(resultSet.getString("database_name"));
         config.setSql(resultSet.getString("sql_query"));
 
-        // Note: QueryConfig doesn't have queryType and timeoutSeconds fields in the current model
-        // These are stored in the database but not mapped to the config object
-        // This is consistent with the current ConfigurationDataLoader implementation
+        // Note: QueryConfig doesn't have a queryType field in the current model
+        int timeoutSeconds = resultSet.getInt("timeout_seconds");
+        if (!resultSet.wasNull() && timeoutSeconds > 0) {
+            config.setTimeoutMs(timeoutSeconds * 1000L);
+        }
 
         // Parameters are not stored in the database table currently
         // They are defined in YAML and loaded separately
@@ -300,6 +378,6 @@ public class QueryConfigurationRepository {
         statement.setString(3, config.getDatabase());
         statement.setString(4, config.getSql());
         statement.setString(5, "SELECT"); // Default query type since QueryConfig doesn't have this field
-        statement.setInt(6, 30); // Default timeout since QueryConfig doesn't have this field
+        statement.setInt(6, config.getTimeoutSecondsOrDefault(30));
     }
 }
@@ -0,0 +1,49 @@
+package dev.cordal.database.repository;
+
+import java.sql.Timestamp;
+import java.util.Objects;
+
+/**
+ * Change marker for one configuration table: its row count and the newest {@code updated_at}.
+ *
+ * Every insert or update moves the newest timestamp forward and every delete changes the row
+ * count, so two equal watermarks mean the table has not changed in between.
+ */
+public final class TableWatermark {
+    private final int rowCount;
+    private final Timestamp lastUpdated;
+
+    public TableWatermark(int rowCount, Timestamp lastUpdated) {
+        this.rowCount = rowCount;
+        this.lastUpdated = lastUpdated;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Newest {@code updated_at} in the table, or null if the table is empty
+     */
+    public Timestamp getLastUpdated() {
+        return lastUpdated;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TableWatermark that = (TableWatermark) o;
+        return rowCount == that.rowCount && Objects.equals(lastUpdated, that.lastUpdated);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rowCount, lastUpdated);
+    }
+
+    @Override
+    public String toString() {
+        return "TableWatermark{rows=" + rowCount + ", lastUpdated=" + lastUpdated + "}";
+    }
+}
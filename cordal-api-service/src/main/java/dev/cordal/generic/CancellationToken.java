@@ -0,0 +1,191 @@
+package dev.cordal.generic;
+
+import dev.cordal.common.exception.ApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cooperative cancellation handle for a unit of endpoint work.
+ *
+ * The token is bound to the executing thread for the duration of the work, and
+ * {@link GenericRepository} registers every JDBC statement it runs with the bound token.
+ * Cancelling the token calls {@link Statement#cancel()} on those statements so the
+ * database stops the query and releases the connection instead of running to completion.
+ *
+ * A token may also carry a deadline, which the repository turns into a JDBC query timeout
+ * so that the database enforces the remaining time budget even if nobody cancels the token.
+ */
+public final class CancellationToken {
+    private static final Logger logger = LoggerFactory.getLogger(CancellationToken.class);
+    private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Why the work was stopped
+     */
+    public enum Reason {
+        CANCELLED, TIMEOUT
+    }
+
+    private final Set<Statement> activeStatements = ConcurrentHashMap.newKeySet();
+    private volatile String cancelReason;
+    private volatile Reason reason;
+    private volatile long deadlineNanos;
+    private volatile long timeoutMs;
+
+    /**
+     * Get the token bound to the current thread, or null when none is bound
+     */
+    public static CancellationToken current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run the supplier with the given token bound to the current thread
+     */
+    public static <T> T runWith(CancellationToken token, Supplier<T> supplier) {
+        CancellationToken previous = CURRENT.get();
+        CURRENT.set(token);
+        try {
+            return supplier.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Give the work a time budget starting now; a non-positive timeout means no deadline
+     */
+    public void setTimeout(long timeoutMs) {
+        if (timeoutMs > 0) {
+            this.timeoutMs = timeoutMs;
+            this.deadlineNanos = System.nanoTime() + timeoutMs * 1_000_000L;
+        }
+    }
+
+    public boolean hasDeadline() {
+        return timeoutMs > 0;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    /**
+     * Milliseconds left before the deadline, or Long.MAX_VALUE when there is no deadline
+     */
+    public long getRemainingMillis() {
+        if (timeoutMs <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return (deadlineNanos - System.nanoTime()) / 1_000_000L;
+    }
+
+    /**
+     * Cancel the token and every statement currently registered with it.
+     *
+     * @return true if this call cancelled the token, false if it was already cancelled
+     */
+    public boolean cancel(String reason) {
+        return cancel(Reason.CANCELLED, reason);
+    }
+
+    /**
+     * Cancel the token for the given reason and every statement currently registered with it.
+     *
+     * @return true if this call cancelled the token, false if it was already cancelled
+     */
+    public boolean cancel(Reason reason, String message) {
+        synchronized (this) {
+            if (cancelReason != null) {
+                return false;
+            }
+            this.reason = reason;
+            cancelReason = message != null ? message : "cancelled";
+        }
+
+        for (Statement statement : activeStatements) {
+            cancelStatement(statement);
+        }
+        return true;
+    }
+
+    public boolean isCancelled() {
+        return cancelReason != null;
+    }
+
+    public String getCancelReason() {
+        return cancelReason;
+    }
+
+    /**
+     * Get why the token was cancelled, or null if it has not been cancelled
+     */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * Throw if the token has been cancelled; called before starting new database work
+     */
+    public void throwIfCancelled(String operation) {
+        if (cancelReason != null) {
+            throw cancellationException(operation);
+        }
+    }
+
+    /**
+     * Build the exception reported when work is stopped by this token
+     */
+    public ApiException cancellationException(String operation) {
+        if (reason == Reason.TIMEOUT) {
+            return timeoutMs > 0
+                ? timeoutException(operation, timeoutMs)
+                : new ApiException("QUERY_TIMEOUT", operation + " timed out: " + cancelReason, 504);
+        }
+        return new ApiException("QUERY_CANCELLED", operation + " was cancelled: " + cancelReason, 409);
+    }
+
+    /**
+     * Build the exception reported when work runs past its timeout
+     */
+    public static ApiException timeoutException(String operation, long timeoutMs) {
+        return new ApiException("QUERY_TIMEOUT", operation + " exceeded its timeout of " + timeoutMs + "ms", 504);
+    }
+
+    /**
+     * Register a statement that is about to execute. If the token has already been
+     * cancelled the statement is cancelled straight away.
+     */
+    void register(Statement statement) {
+        activeStatements.add(statement);
+        if (cancelReason != null) {
+            cancelStatement(statement);
+        }
+    }
+
+    /**
+     * Remove a statement once it has finished executing
+     */
+    void unregister(Statement statement) {
+        activeStatements.remove(statement);
+    }
+
+    private void cancelStatement(Statement statement) {
+        try {
+            statement.cancel();
+            logger.debug("Cancelled running statement ({})", cancelReason);
+        } catch (SQLException e) {
+            logger.warn("Failed to cancel running statement: {}", e.getMessage());
+        }
+    }
+}
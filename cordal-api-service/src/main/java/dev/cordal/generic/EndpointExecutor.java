@@ -0,0 +1,232 @@
+package dev.cordal.generic;
+
+import dev.cordal.common.config.ServerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Executor for asynchronous endpoint execution.
+ *
+ * In VIRTUAL mode every task gets its own virtual thread; in PLATFORM mode tasks run on a
+ * fixed pool of platform threads. Either way, at most {@code maxConcurrency} tasks run at once,
+ * where the limit is derived from the configured connection pool sizes so that blocking JDBC
+ * work never outnumbers the connections available to serve it, and at most {@code queueCapacity}
+ * more wait their turn; beyond that {@link #execute} throws {@link RejectedExecutionException}.
+ *
+ * A task that was accepted but never starts because the executor shut down first is handed to
+ * its {@link RejectableTask#onRejected} callback; callers waiting on a task's outcome should
+ * submit a {@link RejectableTask} or use {@link #supplyAsync}.
+ */
+public class EndpointExecutor implements Executor, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(EndpointExecutor.class);
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    private final ServerConfig.ThreadMode threadMode;
+    private final int maxConcurrency;
+    private final int maxPendingTasks;
+    private final Semaphore permits;
+    private final ExecutorService delegate;
+    private final AtomicInteger activeTasks = new AtomicInteger(0);
+    private final AtomicInteger pendingTasks = new AtomicInteger(0);
+
+    /**
+     * A task that is told when it will never run although {@link #execute} accepted it
+     */
+    public interface RejectableTask extends Runnable {
+        void onRejected(RejectedExecutionException cause);
+
+        static RejectableTask of(Runnable task, Consumer<RejectedExecutionException> onRejected) {
+            return new RejectableTask() {
+                @Override
+                public void run() {
+                    task.run();
+                }
+
+                @Override
+                public void onRejected(RejectedExecutionException cause) {
+                    onRejected.accept(cause);
+                }
+            };
+        }
+    }
+
+    /**
+     * Run a supplier on the given executor. Unlike {@link CompletableFuture#supplyAsync}, the
+     * returned future also completes exceptionally when an {@link EndpointExecutor} drops the
+     * task after accepting it. A rejection up front is thrown as by {@link Executor#execute}.
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, Executor executor) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(RejectableTask.of(() -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, future::completeExceptionally));
+        return future;
+    }
+
+    public EndpointExecutor(ServerConfig.ThreadMode threadMode, int maxConcurrency) {
+        this(threadMode, maxConcurrency, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public EndpointExecutor(ServerConfig.ThreadMode threadMode, int maxConcurrency, int queueCapacity) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive (received: " + maxConcurrency + ")");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be positive (received: " + queueCapacity + ")");
+        }
+        this.threadMode = threadMode != null ? threadMode : ServerConfig.ThreadMode.PLATFORM;
+        this.maxConcurrency = maxConcurrency;
+        this.maxPendingTasks = maxConcurrency + queueCapacity;
+        this.permits = new Semaphore(maxConcurrency);
+
+        if (this.threadMode == ServerConfig.ThreadMode.VIRTUAL) {
+            ThreadFactory factory = Thread.ofVirtual().name("endpoint-vt-", 0).factory();
+            this.delegate = Executors.newThreadPerTaskExecutor(factory);
+        } else {
+            AtomicInteger threadCounter = new AtomicInteger(0);
+            this.delegate = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "endpoint-worker-" + threadCounter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        }
+
+        logger.info("Endpoint executor initialized: mode={}, maxConcurrency={}, queueCapacity={}",
+                    this.threadMode, maxConcurrency, queueCapacity);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (delegate.isShutdown()) {
+            throw new RejectedExecutionException("Endpoint executor has been shut down");
+        }
+        // Count running and waiting tasks alike, so overload is rejected up front in both modes
+        // instead of piling up parked virtual threads
+        if (pendingTasks.incrementAndGet() > maxPendingTasks) {
+            pendingTasks.decrementAndGet();
+            throw new RejectedExecutionException("Endpoint executor is saturated (" + maxConcurrency
+                + " running, " + (maxPendingTasks - maxConcurrency) + " queued)");
+        }
+
+        try {
+            delegate.execute(new PermitTask(task));
+        } catch (RejectedExecutionException e) {
+            pendingTasks.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a task once it holds a permit; a task that never gets one is rejected, not dropped
+     */
+    private final class PermitTask implements Runnable {
+        private final Runnable task;
+
+        private PermitTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                // Blocking here is cheap for virtual threads and a no-op for the fixed pool,
+                // whose size already matches the permit count
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                reject("Endpoint executor was shut down before the task started");
+                return;
+            }
+
+            activeTasks.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                activeTasks.decrementAndGet();
+                permits.release();
+                pendingTasks.decrementAndGet();
+            }
+        }
+
+        private void reject(String reason) {
+            pendingTasks.decrementAndGet();
+            if (task instanceof RejectableTask rejectable) {
+                rejectable.onRejected(new RejectedExecutionException(reason));
+            } else {
+                logger.warn("Dropped an endpoint task that never started: {}", reason);
+            }
+        }
+    }
+
+    /**
+     * Get the threading mode used by this executor
+     */
+    public ServerConfig.ThreadMode getThreadMode() {
+        return threadMode;
+    }
+
+    /**
+     * Get the maximum number of tasks allowed to run concurrently
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Get the number of tasks currently running
+     */
+    public int getActiveTasks() {
+        return activeTasks.get();
+    }
+
+    /**
+     * Get the approximate number of tasks waiting for a thread or a permit
+     */
+    public int getQueuedTasks() {
+        return Math.max(0, pendingTasks.get() - activeTasks.get());
+    }
+
+    @Override
+    public void close() {
+        delegate.shutdown();
+        try {
+            if (!delegate.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("Endpoint executor did not terminate within 5 seconds, forcing shutdown");
+                rejectUnstarted(delegate.shutdownNow());
+            }
+        } catch (InterruptedException e) {
+            rejectUnstarted(delegate.shutdownNow());
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Endpoint executor shut down");
+    }
+
+    // Tasks still queued in the fixed pool; virtual threads waiting for a permit are interrupted instead
+    private static void rejectUnstarted(List<Runnable> unstarted) {
+        for (Runnable runnable : unstarted) {
+            if (runnable instanceof PermitTask permitTask) {
+                permitTask.reject("Endpoint executor was shut down before the task started");
+            }
+        }
+    }
+}
@@ -10,11 +10,17 @@ import dev.cordal.config.SwaggerConfig;
 import dev.cordal.util.ApiEndpoints;
 
 import dev.cordal.generic.config.ApiEndpointConfig;
+import dev.cordal.generic.plan.EndpointExecutionPlan;
+import dev.cordal.generic.plan.ExecutionPlanRegistry;
+import dev.cordal.hotreload.ConfigurationReloadManager;
+import dev.cordal.hotreload.DynamicEndpointRegistry;
+import dev.cordal.hotreload.EndpointRegistrationResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -110,6 +116,20 @@ public class GenericApiApplication extends BaseJavalinApplication {
             logger.info("Running endpoint connectivity validation after startup (validation.runOnStartup=true, validation.validateEndpoints=true)");
             runConfigurationValidation(true);
         }
+
+        // Start watching the configuration sources; does nothing unless config.hotReload.enabled is set
+        injector.getInstance(ConfigurationReloadManager.class).initialize();
+    }
+
+    @Override
+    protected void performCleanup() {
+        if (injector != null) {
+            injector.getInstance(ConfigurationReloadManager.class).shutdown();
+            injector.getInstance(dev.cordal.generic.async.AsyncJobManager.class).close();
+            injector.getInstance(RequestWatchdog.class).close();
+            injector.getInstance(dev.cordal.generic.trace.Tracer.class).close();
+            injector.getInstance(GenericApiService.class).shutdown();
+        }
     }
 
     /**
@@ -143,6 +163,13 @@ public class GenericApiApplication extends BaseJavalinApplication {
         logger.info("Swagger/OpenAPI configured");
     }
 
+    @Override
+    protected void configureFallbackRoutes() {
+        // Dynamic endpoints are served by one catch-all route per method, which must come after
+        // every static route including the Swagger ones
+        injector.getInstance(DynamicEndpointRegistry.class).setJavalinApp(app);
+    }
+
     @Override
     protected void configureRoutes() {
         logger.info("Configuring routes");
@@ -153,6 +180,10 @@ public class GenericApiApplication extends BaseJavalinApplication {
         dev.cordal.generic.migration.ConfigurationMigrationController migrationController = injector.getInstance(dev.cordal.generic.migration.ConfigurationMigrationController.class);
         dev.cordal.api.H2ServerController h2ServerController = injector.getInstance(dev.cordal.api.H2ServerController.class);
         dev.cordal.cache.CacheManagementController cacheManagementController = injector.getInstance(dev.cordal.cache.CacheManagementController.class);
+        dev.cordal.generic.async.AsyncJobController asyncJobController = injector.getInstance(dev.cordal.generic.async.AsyncJobController.class);
+        dev.cordal.generic.batch.BatchController batchController = injector.getInstance(dev.cordal.generic.batch.BatchController.class);
+        dev.cordal.generic.management.ApiMetricsExporter metricsExporter = injector.getInstance(dev.cordal.generic.management.ApiMetricsExporter.class);
+        dev.cordal.generic.trace.TraceController traceController = injector.getInstance(dev.cordal.generic.trace.TraceController.class);
         
         // Health check endpoint
         app.get(ApiEndpoints.HEALTH, ctx -> {
@@ -163,6 +194,9 @@ public class GenericApiApplication extends BaseJavalinApplication {
             ));
         });
 
+        // OpenMetrics scrape endpoint, served from in-memory counters
+        app.get(ApiEndpoints.METRICS, metricsExporter::handle);
+
         // Generic API management endpoints
         app.get(ApiEndpoints.GENERIC_HEALTH, genericApiController::getHealthStatus);
         app.get(ApiEndpoints.GENERIC_ENDPOINTS, genericApiController::getAvailableEndpoints);
@@ -171,6 +205,14 @@ public class GenericApiApplication extends BaseJavalinApplication {
         // Configuration endpoints
         app.get(ApiEndpoints.GENERIC_CONFIG, genericApiController::getCompleteConfiguration);
 
+        // Async job status, result retrieval and cancellation
+        app.get(ApiEndpoints.Jobs.STATISTICS, asyncJobController::getJobStatistics);
+        app.get(ApiEndpoints.Jobs.BY_ID, asyncJobController::getJob);
+        app.delete(ApiEndpoints.Jobs.BY_ID, asyncJobController::cancelJob);
+
+        // Batch execution of many endpoint calls in one request
+        app.post(ApiEndpoints.GENERIC_BATCH, batchController::executeBatch);
+
         // ========== GRANULAR CONFIGURATION ENDPOINTS (MUST BE BEFORE PARAMETERIZED ROUTES) ==========
 
         // Granular configuration endpoints - Endpoints
@@ -223,8 +265,14 @@ public class GenericApiApplication extends BaseJavalinApplication {
         app.get(ApiEndpoints.Management.STATISTICS, managementController::getUsageStatistics);
         app.get(ApiEndpoints.Management.STATISTICS_ENDPOINTS, managementController::getEndpointStatistics);
         app.get(ApiEndpoints.Management.STATISTICS_QUERIES, managementController::getQueryStatistics);
+        app.get(ApiEndpoints.Management.STATISTICS_SLOWEST_QUERIES, managementController::getSlowestQueries);
         app.get(ApiEndpoints.Management.STATISTICS_DATABASES, managementController::getDatabaseStatistics);
 
+        // Request trace endpoints
+        app.get(ApiEndpoints.Management.TRACES, traceController::getSlowestTraces);
+        app.delete(ApiEndpoints.Management.TRACES, traceController::clearTraces);
+        app.get(ApiEndpoints.Management.TRACES_ENDPOINT, traceController::getEndpointTraces);
+
         // Health monitoring endpoints
         app.get(ApiEndpoints.Management.HEALTH, managementController::getHealthStatus);
         app.get(ApiEndpoints.Management.HEALTH_DATABASES, managementController::getDatabaseHealth);
@@ -345,21 +393,19 @@ public class GenericApiApplication extends BaseJavalinApplication {
                 return;
             }
 
-            // Sort endpoints by path specificity (more specific paths first)
-            // This ensures routes like /api/generic/stock-trades/symbol/{symbol}
-            // are registered before /api/generic/stock-trades/{id}
-            List<Map.Entry<String, dev.cordal.generic.config.ApiEndpointConfig>> sortedEndpoints =
-                availableEndpoints.entrySet().stream()
-                    .sorted((e1, e2) -> comparePathSpecificity(e1.getValue().getPath(), e2.getValue().getPath()))
-                    .collect(java.util.stream.Collectors.toList());
-
-            // Register each available endpoint
-            for (Map.Entry<String, dev.cordal.generic.config.ApiEndpointConfig> entry : sortedEndpoints) {
-                String endpointName = entry.getKey();
-                dev.cordal.generic.config.ApiEndpointConfig config = entry.getValue();
-
-                registerSingleEndpoint(endpointName, config, genericApiController);
+            // Register every available endpoint with the dynamic endpoint registry in one update;
+            // its route trie prefers static segments over parameters, so registration order
+            // does not decide between /stock-trades/symbol/{symbol} and /stock-trades/{id}
+            DynamicEndpointRegistry endpointRegistry = injector.getInstance(DynamicEndpointRegistry.class);
+            endpointRegistry.setHandlerFactory((endpointName, config) -> createEndpointHandler(endpointName, config, genericApiController));
+            endpointRegistry.beginAtomicUpdate();
+            for (Map.Entry<String, dev.cordal.generic.config.ApiEndpointConfig> entry : availableEndpoints.entrySet()) {
+                EndpointRegistrationResult result = endpointRegistry.registerEndpoint(entry.getKey(), entry.getValue());
+                if (!result.isSuccess()) {
+                    logger.warn("Failed to register endpoint '{}': {}", entry.getKey(), result.getError());
+                }
             }
+            endpointRegistry.commitAtomicUpdate();
 
             // Log summary
             int totalEndpoints = availableEndpoints.size() + unavailableEndpoints.size();
@@ -378,18 +424,27 @@ public class GenericApiApplication extends BaseJavalinApplication {
     }
 
     /**
-     * Register a single endpoint with Javalin
+     * Create the handler that serves a dynamic endpoint once the registry has routed a request to it
      */
-    private void registerSingleEndpoint(String endpointName, ApiEndpointConfig config, GenericApiController genericApiController) {
+    private io.javalin.http.Handler createEndpointHandler(String endpointName, ApiEndpointConfig config,
+                                                          GenericApiController genericApiController) {
         String path = config.getPath();
         String method = config.getMethod().toUpperCase();
 
-        logger.debug("Registering endpoint: {} {} -> {}", method, path, endpointName);
+        logger.debug("Creating handler for endpoint: {} {} -> {}", method, path, endpointName);
 
-        // Create the handler that calls the generic controller
+        // Create the handler that runs the endpoint's current execution plan; plans are read from the
+        // registry on every request so that a rebuilt set of plans takes effect without re-registering routes
+        ExecutionPlanRegistry planRegistry =
+            genericApiController.getGenericApiService().getExecutionPlanRegistry();
         io.javalin.http.Handler handler = ctx -> {
             try {
-                genericApiController.handleEndpointRequest(ctx, endpointName);
+                Optional<EndpointExecutionPlan> plan = planRegistry.getPlan(endpointName);
+                if (plan.isPresent()) {
+                    genericApiController.handlePlanRequest(ctx, plan.get());
+                } else {
+                    genericApiController.handleEndpointRequest(ctx, endpointName);
+                }
             } catch (dev.cordal.common.exception.ApiException e) {
                 // ApiExceptions are expected validation/business logic errors
                 if (e.getStatusCode() >= 400 && e.getStatusCode() < 500) {
@@ -414,51 +469,7 @@ public class GenericApiApplication extends BaseJavalinApplication {
             }
         };
 
-        // Register the route based on HTTP method
-        switch (method) {
-            case "GET":
-                app.get(path, handler);
-                break;
-            case "POST":
-                app.post(path, handler);
-                break;
-            case "PUT":
-                app.put(path, handler);
-                break;
-            case "DELETE":
-                app.delete(path, handler);
-                break;
-            case "PATCH":
-                app.patch(path, handler);
-                break;
-            default:
-                logger.warn("Unsupported HTTP method '{}' for endpoint: {} {}", method, path, endpointName);
-        }
-    }
-
-    /**
-     * Compare path specificity for sorting
-     * More specific paths (fewer path parameters) should be registered first
-     */
-    private int comparePathSpecificity(String path1, String path2) {
-        // Count path parameters (segments with {})
-        long params1 = path1.chars().filter(ch -> ch == '{').count();
-        long params2 = path2.chars().filter(ch -> ch == '{').count();
-
-        // Fewer parameters = more specific = should come first
-        int paramComparison = Long.compare(params1, params2);
-        if (paramComparison != 0) {
-            return paramComparison;
-        }
-
-        // If same number of parameters, longer path is more specific
-        int lengthComparison = Integer.compare(path2.length(), path1.length());
-        if (lengthComparison != 0) {
-            return lengthComparison;
-        }
-
-        // Finally, sort alphabetically for consistency
-        return path1.compareTo(path2);
+        return handler;
     }
 
     /**
@@ -550,6 +561,9 @@ public class GenericApiApplication extends BaseJavalinApplication {
         // Configure Swagger/OpenAPI
         configureSwagger();
 
+        // Configure the catch-all routes for dynamic endpoints
+        configureFallbackRoutes();
+
         // Configure exception handling
         configureExceptionHandling();
 
@@ -603,14 +617,17 @@ public class GenericApiApplication extends BaseJavalinApplication {
         logger.info("   ├─ Usage Stats:     GET  {}/api/management/statistics", baseUrl);
         logger.info("   ├─ Endpoint Stats:  GET  {}/api/management/statistics/endpoints", baseUrl);
         logger.info("   ├─ Query Stats:     GET  {}/api/management/statistics/queries", baseUrl);
+        logger.info("   ├─ Slowest Queries: GET  {}/api/management/statistics/queries/slowest", baseUrl);
         logger.info("   ├─ Database Stats:  GET  {}/api/management/statistics/databases", baseUrl);
+        logger.info("   ├─ Slowest Traces:  GET  {}/api/management/traces", baseUrl);
         logger.info("   ├─ Health Status:   GET  {}/api/management/health", baseUrl);
         logger.info("   ├─ DB Health:       GET  {}/api/management/health/databases", baseUrl);
         logger.info("   ├─ Specific DB:     GET  {}/api/management/health/databases/{{name}}", baseUrl);
         logger.info("   ├─ Deployment Info: GET  {}/api/management/deployment", baseUrl);
         logger.info("   ├─ JAR Info:        GET  {}/api/management/jar", baseUrl);
         logger.info("   ├─ Readiness:       GET  {}/api/management/readiness", baseUrl);
-        logger.info("   └─ Liveness:        GET  {}/api/management/liveness", baseUrl);
+        logger.info("   ├─ Liveness:        GET  {}/api/management/liveness", baseUrl);
+        logger.info("   └─ OpenMetrics:     GET  {}/metrics", baseUrl);
         logger.info("");
 
         // API Documentation
@@ -1,19 +1,28 @@
 package dev.cordal.generic;
 
 import dev.cordal.common.exception.ApiException;
+import dev.cordal.generic.async.AsyncJob;
+import dev.cordal.generic.async.AsyncJobManager;
 import dev.cordal.generic.config.ApiEndpointConfig;
 import dev.cordal.generic.config.DatabaseConfig;
 import dev.cordal.generic.model.GenericResponse;
 import dev.cordal.generic.management.UsageStatisticsService;
+import dev.cordal.generic.plan.EndpointExecutionPlan;
+import dev.cordal.generic.routing.RouteMatch;
+import dev.cordal.generic.trace.RequestTrace;
+import dev.cordal.generic.trace.Tracer;
+import dev.cordal.util.ApiEndpoints;
+import io.javalin.http.ContentType;
 import io.javalin.http.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Generic API controller that handles all configured endpoints
@@ -24,11 +33,22 @@ public class GenericApiController {
     
     private final GenericApiService genericApiService;
     private final UsageStatisticsService statisticsService;
+    private final AsyncJobManager asyncJobManager;
+    private final RequestWatchdog requestWatchdog;
+    private final Tracer tracer;
 
-    @Inject
-    public GenericApiController(GenericApiService genericApiService, UsageStatisticsService statisticsService) {
+    public GenericApiController(GenericApiService genericApiService, UsageStatisticsService statisticsService,
+                                AsyncJobManager asyncJobManager, RequestWatchdog requestWatchdog) {
+        this(genericApiService, statisticsService, asyncJobManager, requestWatchdog, null);
+    }
+
+    public GenericApiController(GenericApiService genericApiService, UsageStatisticsService statisticsService,
+                                AsyncJobManager asyncJobManager, RequestWatchdog requestWatchdog, Tracer tracer) {
         this.genericApiService = genericApiService;
         this.statisticsService = statisticsService;
+        this.asyncJobManager = asyncJobManager;
+        this.requestWatchdog = requestWatchdog;
+        this.tracer = tracer;
     }
 
     /**
@@ -39,34 +59,56 @@ public class GenericApiController {
     }
     
     /**
-     * Handle generic endpoint requests
+     * Handle generic endpoint requests, resolving the endpoint's current execution plan by name
      */
     public void handleEndpointRequest(Context ctx, String endpointName) {
+        handle(ctx, endpointName, () -> genericApiService.getExecutionPlanRegistry().requirePlan(endpointName));
+    }
+
+    /**
+     * Handle a request for an endpoint whose execution plan has already been resolved
+     */
+    public void handlePlanRequest(Context ctx, EndpointExecutionPlan plan) {
+        handle(ctx, plan.getEndpointName(), () -> plan);
+    }
+
+    private void handle(Context ctx, String endpointName, Supplier<EndpointExecutionPlan> planSupplier) {
         logger.debug("Handling request for endpoint: {}", endpointName);
 
         long startTime = System.currentTimeMillis();
         boolean success = false;
+        RequestTrace trace = tracer != null ? tracer.start(endpointName) : null;
+        RequestTrace previousTrace = RequestTrace.bind(trace);
 
         try {
-            // Extract request parameters
-            Map<String, Object> requestParameters = extractRequestParameters(ctx);
+            EndpointExecutionPlan plan = planSupplier.get();
 
             // Check if async processing is requested
             boolean async = parseBooleanParameter(ctx, "async", false);
 
-            logger.debug("Request parameters for endpoint {}: {}, async: {}",
-                        endpointName, requestParameters, async);
-
             if (async) {
+                Map<String, Object> requestParameters = extractRequestParameters(ctx);
+                logger.debug("Request parameters for async endpoint {}: {}", endpointName, requestParameters);
                 handleAsyncRequest(ctx, endpointName, requestParameters);
             } else {
-                GenericResponse response = genericApiService.executeEndpoint(endpointName, requestParameters);
-                ctx.json(response);
+                GenericResponse response = executeWithCancellation(ctx, plan);
+                if (trace != null) {
+                    // Serialise here rather than in Javalin's result stream so the span covers it
+                    long serializationStart = System.nanoTime();
+                    ctx.contentType(ContentType.APPLICATION_JSON)
+                       .result(ctx.jsonMapper().toJsonString(response, GenericResponse.class));
+                    RequestTrace.record(RequestTrace.JSON_SERIALIZATION, serializationStart);
+                } else {
+                    ctx.json(response);
+                }
             }
 
             success = true;
 
         } catch (dev.cordal.common.exception.ApiException e) {
+            if (recordCancellationOutcome(endpointName, e)) {
+                throw e;
+            }
             // ApiExceptions are expected validation/business logic errors - log as info/warn, not error
             if (e.getStatusCode() >= 400 && e.getStatusCode() < 500) {
                 logger.info("VALIDATION ERROR (Expected): Endpoint '{}' returned {} - {} (This is normal client validation behavior)",
@@ -83,36 +125,116 @@ public class GenericApiController {
             // Record usage statistics
             long executionTime = System.currentTimeMillis() - startTime;
             statisticsService.recordEndpointUsage(endpointName, executionTime, success);
+            RequestTrace.restore(previousTrace);
+            if (trace != null) {
+                tracer.finish(trace, success);
+            }
         }
     }
-    
+
     /**
-     * Handle async endpoint requests
+     * Execute the endpoint with a cancellation token that is cancelled when the endpoint's
+     * deadline passes, stopping the running statement
+     */
+    private GenericResponse executeWithCancellation(Context ctx, EndpointExecutionPlan plan) {
+        CancellationToken token = new CancellationToken();
+
+        RequestWatchdog.Watch watch = requestWatchdog.watch(token, plan.getTimeoutMs());
+        try {
+            return CancellationToken.runWith(token, () -> {
+                long extractionStart = System.nanoTime();
+                PreparedRequest request = genericApiService.prepare(plan, contextParameterSource(ctx));
+                RequestTrace.record(RequestTrace.PARAMETER_EXTRACTION, extractionStart);
+                return genericApiService.executePrepared(request);
+            });
+        } finally {
+            watch.close();
+        }
+    }
+
+    /**
+     * Read request values straight from the context instead of copying them into a map, with the
+     * precedence of {@link #resolveParameter}
+     */
+    private EndpointExecutionPlan.ParameterSource contextParameterSource(Context ctx) {
+        boolean hasForm = isFormContent(ctx.contentType());
+        Map<String, String> pathParameters = pathParameters(ctx);
+        return (name, location) -> resolveParameter(ctx, hasForm, pathParameters, name);
+    }
+
+    /**
+     * Value of a request parameter: a form value wins over a path value, which wins over a
+     * query value. Form values are only read from form-encoded and multipart bodies.
+     */
+    private static String resolveParameter(Context ctx, boolean hasForm, Map<String, String> pathParameters,
+                                           String name) {
+        if (hasForm) {
+            String value = ctx.formParam(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        String value = pathParameters.get(name);
+        return value != null ? value : ctx.queryParam(name);
+    }
+
+    /**
+     * Path parameters captured by the dynamic endpoint router, or Javalin's own when the request
+     * was served by a statically registered route
+     */
+    private static Map<String, String> pathParameters(Context ctx) {
+        RouteMatch match = ctx.attribute(RouteMatch.ATTRIBUTE);
+        return match != null ? match.pathParameters() : ctx.pathParamMap();
+    }
+
+    private static boolean isFormContent(String contentType) {
+        return contentType != null
+            && (contentType.startsWith("application/x-www-form-urlencoded") || contentType.startsWith("multipart/"));
+    }
+
+    /**
+     * Log and count requests stopped by a deadline or cancellation in the usage statistics
+     *
+     * @return true if the exception was such an outcome
+     */
+    private boolean recordCancellationOutcome(String endpointName, ApiException e) {
+        switch (e.getErrorCode()) {
+            case "QUERY_TIMEOUT" -> {
+                logger.warn("TIMEOUT: Endpoint '{}' returned {} - {}", endpointName, e.getStatusCode(), e.getMessage());
+                statisticsService.recordEndpointTimeout(endpointName);
+                return true;
+            }
+            case "QUERY_CANCELLED" -> {
+                logger.debug("CANCELLED: Endpoint '{}' returned {} - {}", endpointName, e.getStatusCode(), e.getMessage());
+                statisticsService.recordEndpointCancellation(endpointName);
+                return true;
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Handle async endpoint requests by submitting a tracked job whose status and
+     * result can be fetched from the jobs endpoint
      */
     private void handleAsyncRequest(Context ctx, String endpointName, Map<String, Object> requestParameters) {
         logger.debug("Handling async request for endpoint: {}", endpointName);
 
-        // Generate a request ID for tracking
-        String requestId = java.util.UUID.randomUUID().toString();
-
-        // Submit the async request (fire and forget)
-        genericApiService.executeEndpointAsync(endpointName, requestParameters)
-            .whenComplete((result, throwable) -> {
-                if (throwable != null) {
-                    logger.error("Async request {} failed for endpoint {}", requestId, endpointName, throwable);
-                } else {
-                    logger.debug("Async request {} completed successfully for endpoint {}", requestId, endpointName);
-                }
-            });
+        AsyncJob job = asyncJobManager.submit(endpointName, requestParameters);
 
         // Return immediate response
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Request submitted for async processing");
-        response.put("requestId", requestId);
+        response.put("jobId", job.getId());
+        response.put("requestId", job.getId());
         response.put("endpoint", endpointName);
+        response.put("status", job.getStatus().name());
+        response.put("statusUrl", ApiEndpoints.Jobs.BASE + "/" + job.getId());
         response.put("timestamp", System.currentTimeMillis());
 
-        ctx.json(response);
+        ctx.status(202).json(response);
     }
     
     /**
@@ -576,29 +698,25 @@ public class GenericApiController {
     }
 
     /**
-     * Extract request parameters from context
+     * Extract request parameters from context, with the precedence of {@link #resolveParameter}
      */
     private Map<String, Object> extractRequestParameters(Context ctx) {
+        boolean hasForm = isFormContent(ctx.contentType());
+        Map<String, String> pathParameters = pathParameters(ctx);
+
+        Set<String> names = new LinkedHashSet<>(ctx.queryParamMap().keySet());
+        names.addAll(pathParameters.keySet());
+        if (hasForm) {
+            names.addAll(ctx.formParamMap().keySet());
+        }
+
         Map<String, Object> parameters = new HashMap<>();
-        
-        // Add query parameters
-        ctx.queryParamMap().forEach((key, values) -> {
-            if (values != null && !values.isEmpty()) {
-                // Use first value if multiple values provided
-                parameters.put(key, values.get(0));
+        for (String name : names) {
+            String value = resolveParameter(ctx, hasForm, pathParameters, name);
+            if (value != null) {
+                parameters.put(name, value);
             }
-        });
-        
-        // Add path parameters
-        ctx.pathParamMap().forEach(parameters::put);
-        
-        // Add form parameters if present
-        ctx.formParamMap().forEach((key, values) -> {
-            if (values != null && !values.isEmpty()) {
-                parameters.put(key, values.get(0));
-            }
-        });
-        
+        }
         return parameters;
     }
     
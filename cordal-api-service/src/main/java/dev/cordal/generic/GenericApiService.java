@@ -1,5 +1,6 @@
 package dev.cordal.generic;
 
+import dev.cordal.common.config.ServerConfig;
 import dev.cordal.common.exception.ApiException;
 import dev.cordal.generic.config.ApiEndpointConfig;
 import dev.cordal.generic.config.DatabaseConfig;
@@ -11,6 +12,8 @@ import dev.cordal.generic.dto.ResponseMetadata;
 import dev.cordal.generic.dto.*;
 import dev.cordal.generic.model.GenericResponse;
 import dev.cordal.generic.model.QueryParameter;
+import dev.cordal.generic.plan.EndpointExecutionPlan;
+import dev.cordal.generic.plan.ExecutionPlanRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,8 +21,6 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
-import java.util.concurrent.ForkJoinPool;
 
 /**
  * Generic API service that handles requests based on configuration
@@ -31,16 +32,73 @@ public class GenericApiService {
     private final GenericRepository genericRepository;
     private final EndpointConfigurationManager configurationManager;
     private final DatabaseConnectionManager databaseConnectionManager;
-    private final Executor asyncExecutor;
+    private final ExecutionPlanRegistry executionPlanRegistry;
+    private final EndpointExecutor asyncExecutor;
 
     @Inject
     public GenericApiService(GenericRepository genericRepository,
                            EndpointConfigurationManager configurationManager,
                            DatabaseConnectionManager databaseConnectionManager) {
+        this(genericRepository, configurationManager, databaseConnectionManager, ServerConfig.ThreadMode.PLATFORM);
+    }
+
+    public GenericApiService(GenericRepository genericRepository,
+                           EndpointConfigurationManager configurationManager,
+                           DatabaseConnectionManager databaseConnectionManager,
+                           ServerConfig.ThreadMode threadMode) {
+        this(genericRepository, configurationManager, databaseConnectionManager,
+             new ExecutionPlanRegistry(configurationManager, databaseConnectionManager), threadMode);
+    }
+
+    public GenericApiService(GenericRepository genericRepository,
+                           EndpointConfigurationManager configurationManager,
+                           DatabaseConnectionManager databaseConnectionManager,
+                           ExecutionPlanRegistry executionPlanRegistry,
+                           ServerConfig.ThreadMode threadMode) {
         this.genericRepository = genericRepository;
         this.configurationManager = configurationManager;
         this.databaseConnectionManager = databaseConnectionManager;
-        this.asyncExecutor = ForkJoinPool.commonPool();
+        this.executionPlanRegistry = executionPlanRegistry;
+        this.asyncExecutor = new EndpointExecutor(threadMode, calculateAsyncConcurrency());
+    }
+
+    /**
+     * Size the async executor from the configured connection pools so that
+     * async work cannot run more blocking JDBC calls than there are connections.
+     * Without any configured pool the processor count is used instead.
+     */
+    private int calculateAsyncConcurrency() {
+        int totalPoolSize = 0;
+        try {
+            for (DatabaseConfig databaseConfig : configurationManager.getAllDatabaseConfigurations().values()) {
+                DatabaseConfig.PoolConfig pool = databaseConfig.getPool();
+                totalPoolSize += pool != null ? pool.getMaximumPoolSize() : new DatabaseConfig.PoolConfig().getMaximumPoolSize();
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to read database pool sizes, using default async concurrency: {}", e.getMessage());
+        }
+        return totalPoolSize > 0 ? totalPoolSize : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Get the executor used for asynchronous endpoint execution
+     */
+    public EndpointExecutor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * Get the registry holding the compiled endpoint execution plans
+     */
+    public ExecutionPlanRegistry getExecutionPlanRegistry() {
+        return executionPlanRegistry;
+    }
+
+    /**
+     * Release resources held by the service
+     */
+    public void shutdown() {
+        asyncExecutor.close();
     }
     
     /**
@@ -57,37 +115,52 @@ public class GenericApiService {
     @Deprecated
     public GenericResponse executeEndpoint(String endpointName, Map<String, Object> requestParameters) {
         logger.debug("Executing endpoint: {} with parameters: {}", endpointName, requestParameters);
+        return executePrepared(prepareRequest(endpointName, requestParameters));
+    }
 
-        // Get endpoint configuration
-        ApiEndpointConfig endpointConfig = configurationManager.getEndpointConfig(endpointName)
-                .orElseThrow(() -> ApiException.notFound("Endpoint not found: " + endpointName));
-
-        // Get query configuration
-        QueryConfig queryConfig = configurationManager.getQueryConfig(endpointConfig.getQuery())
-                .orElseThrow(() -> ApiException.internalError("Query not found: " + endpointConfig.getQuery()));
-
-        // Check if the database for this endpoint is available
-        String databaseName = queryConfig.getDatabase();
-        if (!databaseConnectionManager.isDatabaseAvailable(databaseName)) {
-            String failureReason = databaseConnectionManager.getDatabaseFailureReason(databaseName);
-            logger.warn("Endpoint '{}' is unavailable because database '{}' is not available: {}",
-                       endpointName, databaseName, failureReason);
-            throw ApiException.serviceUnavailable(
-                "Endpoint '" + endpointName + "' is temporarily unavailable due to database connectivity issues. " +
-                "Database '" + databaseName + "' is not accessible: " + failureReason
-            );
-        }
+    /**
+     * Resolve the endpoint's execution plan, check that it can be served and bind the
+     * request parameters, without executing anything
+     */
+    public PreparedRequest prepareRequest(String endpointName, Map<String, Object> requestParameters) {
+        return prepare(executionPlanRegistry.requirePlan(endpointName),
+                       EndpointExecutionPlan.ParameterSource.of(requestParameters));
+    }
 
-        // Process parameters
-        List<QueryParameter> queryParameters = processParameters(endpointConfig, queryConfig, requestParameters);
+    /**
+     * Bind request values against a compiled plan
+     */
+    public PreparedRequest prepare(EndpointExecutionPlan plan, EndpointExecutionPlan.ParameterSource source) {
+        plan.checkExecutable();
 
+        int page = plan.resolvePage(source);
+        int size = plan.resolveSize(source);
+        return new PreparedRequest(plan, plan.bind(source, page, size), page, size);
+    }
+
+    /**
+     * Execute a prepared endpoint request
+     */
+    public GenericResponse executePrepared(PreparedRequest request) {
         // Execute based on response type
-        if (endpointConfig.getPagination() != null && endpointConfig.getPagination().isEnabled()) {
-            return executePaginatedEndpoint(endpointConfig, queryConfig, queryParameters, requestParameters);
+        if (request.isPaginated()) {
+            return executePaginatedEndpoint(request);
         } else {
-            return executeSingleEndpoint(queryConfig, queryParameters);
+            return executeSingleEndpoint(request);
         }
     }
+
+    /**
+     * Build the response for a non-paginated request from rows that were fetched on its behalf,
+     * applying the same rules as a direct execution
+     */
+    public GenericResponse buildResponse(PreparedRequest request, List<Map<String, Object>> results) {
+        if (request.isPaginated()) {
+            throw ApiException.internalError("Paginated endpoint '" + request.getEndpointName() +
+                                             "' cannot be answered from pre-fetched rows");
+        }
+        return toSingleResponse(results);
+    }
     
     /**
      * Execute endpoint request asynchronously with type-safe parameters
@@ -106,7 +179,7 @@ public class GenericApiService {
                                                                   Map<String, Object> requestParameters) {
         logger.debug("Executing endpoint asynchronously: {} with parameters: {}", endpointName, requestParameters);
         
-        return CompletableFuture.supplyAsync(() -> {
+        return EndpointExecutor.supplyAsync(() -> {
             try {
                 return executeEndpoint(endpointName, requestParameters);
             } catch (Exception e) {
@@ -119,43 +192,42 @@ public class GenericApiService {
     /**
      * Execute paginated endpoint
      */
-    private GenericResponse executePaginatedEndpoint(ApiEndpointConfig endpointConfig, 
-                                                   QueryConfig queryConfig,
-                                                   List<QueryParameter> queryParameters,
-                                                   Map<String, Object> requestParameters) {
-        
-        // Extract pagination parameters
-        int page = getIntParameter(requestParameters, "page", 0);
-        int size = getIntParameter(requestParameters, "size", endpointConfig.getPagination().getDefaultSize());
-        
+    private GenericResponse executePaginatedEndpoint(PreparedRequest request) {
+        EndpointExecutionPlan plan = request.getPlan();
+        int page = request.getPage();
+        int size = request.getSize();
+
         // Validate pagination parameters
-        validatePaginationParameters(page, size, endpointConfig.getPagination().getMaxSize());
-        
+        validatePaginationParameters(page, size, plan.getMaxPageSize());
+
         // Execute main query
-        List<Map<String, Object>> results = genericRepository.executeQuery(queryConfig, queryParameters);
-        
+        List<QueryParameter> queryParameters = request.getQueryParameters();
+        List<Map<String, Object>> results = genericRepository.executeQuery(plan.getQueryConfig(), queryParameters,
+                                                                          plan.getDataSource());
+
         // Execute count query if available
         long totalElements = 0;
-        if (endpointConfig.getCountQuery() != null) {
-            QueryConfig countQueryConfig = configurationManager.getQueryConfig(endpointConfig.getCountQuery())
-                    .orElseThrow(() -> ApiException.internalError("Count query not found: " + endpointConfig.getCountQuery()));
-            
-            // Remove pagination parameters for count query
-            List<QueryParameter> countParameters = removeParametersByName(queryParameters, Arrays.asList("limit", "offset"));
-            totalElements = genericRepository.executeCountQuery(countQueryConfig, countParameters);
+        if (plan.hasCountQuery()) {
+            QueryConfig countQueryConfig = plan.requireCountQueryConfig();
+            totalElements = genericRepository.executeCountQuery(countQueryConfig, plan.countParameters(queryParameters),
+                                                                plan.getCountDataSource());
         }
-        
+
         logger.debug("Paginated query returned {} results out of {} total", results.size(), totalElements);
-        
+
         return GenericResponse.paged(results, page, size, totalElements);
     }
-    
+
     /**
      * Execute single result endpoint
      */
-    private GenericResponse executeSingleEndpoint(QueryConfig queryConfig, List<QueryParameter> queryParameters) {
-        List<Map<String, Object>> results = genericRepository.executeQuery(queryConfig, queryParameters);
-        
+    private GenericResponse executeSingleEndpoint(PreparedRequest request) {
+        EndpointExecutionPlan plan = request.getPlan();
+        return toSingleResponse(genericRepository.executeQuery(plan.getQueryConfig(), request.getQueryParameters(),
+                                                               plan.getDataSource()));
+    }
+
+    private GenericResponse toSingleResponse(List<Map<String, Object>> results) {
         if (results.isEmpty()) {
             throw ApiException.notFound("No data found");
         }
@@ -167,86 +239,6 @@ public class GenericApiService {
         }
     }
     
-    /**
-     * Process and validate request parameters
-     */
-    private List<QueryParameter> processParameters(ApiEndpointConfig endpointConfig, 
-                                                  QueryConfig queryConfig,
-                                                  Map<String, Object> requestParameters) {
-        
-        List<QueryParameter> queryParameters = new ArrayList<>();
-        Map<String, Object> processedParams = new HashMap<>(requestParameters);
-        
-        // Add pagination parameters if enabled
-        if (endpointConfig.getPagination() != null && endpointConfig.getPagination().isEnabled()) {
-            int page = getIntParameter(processedParams, "page", 0);
-            int size = getIntParameter(processedParams, "size", endpointConfig.getPagination().getDefaultSize());
-            int offset = page * size;
-            
-            processedParams.put("limit", size);
-            processedParams.put("offset", offset);
-        }
-        
-        // Map parameters to query parameters
-        int position = 1;
-        for (QueryConfig.QueryParameter queryParam : queryConfig.getParameters()) {
-            Object value = processedParams.get(queryParam.getName());
-            
-            if (value == null && queryParam.isRequired()) {
-                throw ApiException.badRequest("Required parameter missing: " + queryParam.getName());
-            }
-            
-            if (value != null) {
-                QueryParameter param = QueryParameter.of(
-                    queryParam.getName(), 
-                    value, 
-                    queryParam.getType(), 
-                    position++
-                );
-                queryParameters.add(param);
-            }
-        }
-        
-        return queryParameters;
-    }
-    
-    /**
-     * Remove parameters by name from the list
-     */
-    private List<QueryParameter> removeParametersByName(List<QueryParameter> parameters, List<String> namesToRemove) {
-        return parameters.stream()
-                .filter(param -> !namesToRemove.contains(param.getName()))
-                .collect(ArrayList::new, (list, param) -> {
-                    // Adjust position for removed parameters
-                    param.setPosition(list.size() + 1);
-                    list.add(param);
-                }, ArrayList::addAll);
-    }
-    
-    /**
-     * Get integer parameter with default value
-     */
-    private int getIntParameter(Map<String, Object> parameters, String name, int defaultValue) {
-        Object value = parameters.get(name);
-        if (value == null) {
-            return defaultValue;
-        }
-        
-        if (value instanceof Integer) {
-            return (Integer) value;
-        }
-        
-        if (value instanceof String) {
-            try {
-                return Integer.parseInt((String) value);
-            } catch (NumberFormatException e) {
-                throw ApiException.badRequest("Invalid integer value for parameter: " + name);
-            }
-        }
-        
-        throw ApiException.badRequest("Invalid parameter type for: " + name);
-    }
-    
     /**
      * Validate pagination parameters
      */
@@ -341,6 +333,15 @@ public class GenericApiService {
         return configurationManager.getEndpointConfig(endpointName);
     }
 
+    /**
+     * Get the request deadline configured for an endpoint, or 0 when it has none
+     */
+    public long getEndpointTimeoutMs(String endpointName) {
+        return executionPlanRegistry.getPlan(endpointName)
+                .map(EndpointExecutionPlan::getTimeoutMs)
+                .orElse(0L);
+    }
+
     /**
      * Get all query configurations
      */
@@ -8,12 +8,15 @@ import dev.cordal.generic.cache.QueryResultCache;
 import dev.cordal.generic.config.QueryConfig;
 import dev.cordal.generic.database.DatabaseConnectionManager;
 import dev.cordal.generic.dto.QueryResult;
+import dev.cordal.generic.management.UsageStatisticsService;
 import dev.cordal.generic.model.QueryParameter;
+import dev.cordal.generic.trace.RequestTrace;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.sql.DataSource;
 import java.sql.*;
 import java.time.Duration;
 import java.util.*;
@@ -27,21 +30,33 @@ public class GenericRepository {
     private static final Logger logger = LoggerFactory.getLogger(GenericRepository.class);
     private static final String QUERY_RESULTS_CACHE = "query_results";
     private static final String COUNT_RESULTS_CACHE = "count_results";
+    // SQLSTATE reported by drivers such as H2 and PostgreSQL when a statement is cancelled or times out
+    private static final String SQL_STATE_QUERY_CANCELED = "57014";
 
     private final DatabaseConnectionManager databaseConnectionManager;
     private final CacheManager cacheManager;
     private final CacheMetricsCollector cacheMetricsCollector;
     private final QueryResultCache queryResultCache;
+    private final UsageStatisticsService statisticsService;
 
-    @Inject
     public GenericRepository(DatabaseConnectionManager databaseConnectionManager,
                            CacheManager cacheManager,
                            CacheMetricsCollector cacheMetricsCollector,
                            QueryResultCache queryResultCache) {
+        this(databaseConnectionManager, cacheManager, cacheMetricsCollector, queryResultCache, null);
+    }
+
+    @Inject
+    public GenericRepository(DatabaseConnectionManager databaseConnectionManager,
+                           CacheManager cacheManager,
+                           CacheMetricsCollector cacheMetricsCollector,
+                           QueryResultCache queryResultCache,
+                           UsageStatisticsService statisticsService) {
         this.databaseConnectionManager = databaseConnectionManager;
         this.cacheManager = cacheManager;
         this.cacheMetricsCollector = cacheMetricsCollector;
         this.queryResultCache = queryResultCache;
+        this.statisticsService = statisticsService;
         logger.info("Generic repository initialized with caching and metrics support");
     }
     
@@ -61,6 +76,15 @@ public class GenericRepository {
      */
     @Deprecated
     public List<Map<String, Object>> executeQuery(QueryConfig queryConfig, List<QueryParameter> parameters) {
+        return executeQuery(queryConfig, parameters, null);
+    }
+
+    /**
+     * Execute a query on a data source resolved ahead of time by an execution plan.
+     * A null data source falls back to looking up the query's database by name.
+     */
+    public List<Map<String, Object>> executeQuery(QueryConfig queryConfig, List<QueryParameter> parameters,
+                                                  DataSource dataSource) {
         logger.debug("Executing query: {} with {} parameters on database: {}",
                     queryConfig.getName(), parameters.size(), queryConfig.getDatabase());
 
@@ -68,7 +92,9 @@ public class GenericRepository {
         if (queryConfig.isCacheEnabled()) {
             String cacheKey = buildCacheKey(queryConfig, parameters);
             long cacheStartTime = System.currentTimeMillis();
+            long lookupStart = System.nanoTime();
             Optional<List<Map<String, Object>>> cachedResult = queryResultCache.get(QUERY_RESULTS_CACHE, cacheKey);
+            RequestTrace.record(RequestTrace.CACHE_LOOKUP, lookupStart);
 
             if (cachedResult.isPresent()) {
                 long cacheResponseTime = System.currentTimeMillis() - cacheStartTime;
@@ -82,7 +108,7 @@ public class GenericRepository {
 
         // Execute query against database
         long dbStartTime = System.currentTimeMillis();
-        List<Map<String, Object>> results = executeQueryDirect(queryConfig, parameters);
+        List<Map<String, Object>> results = executeQueryDirect(queryConfig, parameters, dataSource, null);
         long dbResponseTime = System.currentTimeMillis() - dbStartTime;
 
         // Store in cache if enabled and record cache miss
@@ -98,44 +124,142 @@ public class GenericRepository {
         return results;
     }
 
+    /**
+     * Look up cached results for a query without touching the database.
+     * Returns empty when caching is disabled for the query or the entry is missing.
+     */
+    public Optional<List<Map<String, Object>>> getCachedResults(QueryConfig queryConfig, List<QueryParameter> parameters) {
+        if (!queryConfig.isCacheEnabled()) {
+            return Optional.empty();
+        }
+
+        String cacheKey = buildCacheKey(queryConfig, parameters);
+        long cacheStartTime = System.currentTimeMillis();
+        long lookupStart = System.nanoTime();
+        Optional<List<Map<String, Object>>> cachedResult = queryResultCache.get(QUERY_RESULTS_CACHE, cacheKey);
+        RequestTrace.record(RequestTrace.CACHE_LOOKUP, lookupStart);
+        if (cachedResult.isPresent()) {
+            long cacheResponseTime = System.currentTimeMillis() - cacheStartTime;
+            cacheMetricsCollector.recordCacheHit(queryConfig.getName(), QUERY_RESULTS_CACHE, cacheKey, cacheResponseTime);
+        }
+        return cachedResult;
+    }
+
+    /**
+     * Store results that were fetched on behalf of a query (for example as part of a merged
+     * batch query) under that query's own cache key
+     */
+    public void cacheResults(QueryConfig queryConfig, List<QueryParameter> parameters,
+                             List<Map<String, Object>> results, long dbResponseTime) {
+        if (!queryConfig.isCacheEnabled()) {
+            return;
+        }
+
+        String cacheKey = buildCacheKey(queryConfig, parameters);
+        long ttlMs = Duration.ofSeconds(queryConfig.getCache().getTtl()).toMillis();
+        queryResultCache.put(QUERY_RESULTS_CACHE, cacheKey, results, ttlMs);
+        cacheMetricsCollector.recordCacheMiss(queryConfig.getName(), QUERY_RESULTS_CACHE, cacheKey, dbResponseTime);
+    }
+
+    /**
+     * Execute a query against the database without consulting or populating the cache
+     */
+    public List<Map<String, Object>> executeQueryUncached(QueryConfig queryConfig, List<QueryParameter> parameters) {
+        return executeQueryUncached(queryConfig, parameters, null);
+    }
+
+    /**
+     * Execute a query against the database without consulting or populating the cache, recording
+     * the JDBC type ({@link java.sql.Types}) of each result column by column label
+     *
+     * @param columnTypes receives the column types, may be null
+     */
+    public List<Map<String, Object>> executeQueryUncached(QueryConfig queryConfig, List<QueryParameter> parameters,
+                                                          Map<String, Integer> columnTypes) {
+        logger.debug("Executing uncached query: {} with {} parameters on database: {}",
+                    queryConfig.getName(), parameters.size(), queryConfig.getDatabase());
+        return executeQueryDirect(queryConfig, parameters, null, columnTypes);
+    }
+
     /**
      * Execute a query directly against the database (bypassing cache)
      */
-    private List<Map<String, Object>> executeQueryDirect(QueryConfig queryConfig, List<QueryParameter> parameters) {
+    private List<Map<String, Object>> executeQueryDirect(QueryConfig queryConfig, List<QueryParameter> parameters,
+                                                         DataSource dataSource, Map<String, Integer> columnTypes) {
         String sql = queryConfig.getSql();
         String databaseName = queryConfig.getDatabase();
         List<Map<String, Object>> results = new ArrayList<>();
+        long effectiveTimeoutMs = 0;
+        CancellationToken cancellationToken = CancellationToken.current();
+        if (cancellationToken != null) {
+            cancellationToken.throwIfCancelled("Query " + queryConfig.getName());
+        }
 
-        try (Connection connection = databaseConnectionManager.getConnection(databaseName);
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-
-            // Set parameters
-            setParameters(statement, parameters);
+        // Phase timestamps for the usage statistics; zero until the phase is reached
+        long startNanos = System.nanoTime();
+        long connectedNanos = 0;
+        long executedNanos = 0;
+        long fetchedNanos = 0;
+        long resultBytes = 0;
+        boolean success = false;
+
+        try (Connection connection = openConnection(databaseName, dataSource)) {
+            connectedNanos = System.nanoTime();
+
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                // Set parameters
+                setParameters(statement, parameters);
+
+                // Execute query
+                effectiveTimeoutMs = applyQueryTimeout(statement, queryConfig, cancellationToken, "Query " + queryConfig.getName());
+                if (cancellationToken != null) {
+                    cancellationToken.register(statement);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    executedNanos = System.nanoTime();
+                    ResultSetMetaData metaData = resultSet.getMetaData();
+                    int columnCount = metaData.getColumnCount();
+                    if (columnTypes != null) {
+                        for (int i = 1; i <= columnCount; i++) {
+                            columnTypes.put(metaData.getColumnLabel(i), metaData.getColumnType(i));
+                        }
+                    }
 
-            // Execute query
-            try (ResultSet resultSet = statement.executeQuery()) {
-                ResultSetMetaData metaData = resultSet.getMetaData();
-                int columnCount = metaData.getColumnCount();
+                    while (resultSet.next()) {
+                        Map<String, Object> row = new LinkedHashMap<>();
 
-                while (resultSet.next()) {
-                    Map<String, Object> row = new LinkedHashMap<>();
+                        for (int i = 1; i <= columnCount; i++) {
+                            String columnName = metaData.getColumnLabel(i);
+                            Object value = resultSet.getObject(i);
+                            row.put(columnName, value);
+                            resultBytes += estimateSize(value);
+                        }
 
-                    for (int i = 1; i <= columnCount; i++) {
-                        String columnName = metaData.getColumnLabel(i);
-                        Object value = resultSet.getObject(i);
-                        row.put(columnName, value);
+                        results.add(row);
+                    }
+                    fetchedNanos = System.nanoTime();
+                } finally {
+                    if (cancellationToken != null) {
+                        cancellationToken.unregister(statement);
                     }
-
-                    results.add(row);
                 }
             }
 
+            success = true;
             logger.debug("Query executed successfully, returned {} rows", results.size());
             return results;
 
         } catch (SQLException e) {
+            ApiException cancellation = translateCancellation(e, cancellationToken, effectiveTimeoutMs,
+                                                              "Query " + queryConfig.getName());
+            if (cancellation != null) {
+                throw cancellation;
+            }
             logger.error("Failed to execute query: {}", queryConfig.getName(), e);
             throw ApiException.internalError("Failed to execute query: " + queryConfig.getName(), e);
+        } finally {
+            recordExecution(queryConfig, startNanos, connectedNanos, executedNanos, fetchedNanos,
+                            results.size(), resultBytes, success);
         }
     }
     
@@ -143,6 +267,14 @@ public class GenericRepository {
      * Execute a count query and return the count value
      */
     public long executeCountQuery(QueryConfig queryConfig, List<QueryParameter> parameters) {
+        return executeCountQuery(queryConfig, parameters, null);
+    }
+
+    /**
+     * Execute a count query on a data source resolved ahead of time by an execution plan.
+     * A null data source falls back to looking up the query's database by name.
+     */
+    public long executeCountQuery(QueryConfig queryConfig, List<QueryParameter> parameters, DataSource dataSource) {
         logger.debug("Executing count query: {} with {} parameters on database: {}",
                     queryConfig.getName(), parameters.size(), queryConfig.getDatabase());
 
@@ -150,7 +282,9 @@ public class GenericRepository {
         if (queryConfig.isCacheEnabled()) {
             String cacheKey = buildCacheKey(queryConfig, parameters);
             long cacheStartTime = System.currentTimeMillis();
+            long lookupStart = System.nanoTime();
             Optional<Long> cachedResult = cacheManager.get(COUNT_RESULTS_CACHE, cacheKey, Long.class);
+            RequestTrace.record(RequestTrace.CACHE_LOOKUP, lookupStart);
 
             if (cachedResult.isPresent()) {
                 long cacheResponseTime = System.currentTimeMillis() - cacheStartTime;
@@ -164,7 +298,7 @@ public class GenericRepository {
 
         // Execute count query against database
         long dbStartTime = System.currentTimeMillis();
-        long count = executeCountQueryDirect(queryConfig, parameters);
+        long count = executeCountQueryDirect(queryConfig, parameters, dataSource);
         long dbResponseTime = System.currentTimeMillis() - dbStartTime;
 
         // Store in cache if enabled and record cache miss
@@ -183,34 +317,180 @@ public class GenericRepository {
     /**
      * Execute a count query directly against the database (bypassing cache)
      */
-    private long executeCountQueryDirect(QueryConfig queryConfig, List<QueryParameter> parameters) {
+    private long executeCountQueryDirect(QueryConfig queryConfig, List<QueryParameter> parameters,
+                                         DataSource dataSource) {
         String sql = queryConfig.getSql();
         String databaseName = queryConfig.getDatabase();
+        long effectiveTimeoutMs = 0;
+        CancellationToken cancellationToken = CancellationToken.current();
+        if (cancellationToken != null) {
+            cancellationToken.throwIfCancelled("Count query " + queryConfig.getName());
+        }
 
-        try (Connection connection = databaseConnectionManager.getConnection(databaseName);
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        long startNanos = System.nanoTime();
+        long connectedNanos = 0;
+        long executedNanos = 0;
+        long fetchedNanos = 0;
+        boolean success = false;
 
-            // Set parameters
-            setParameters(statement, parameters);
+        try (Connection connection = openConnection(databaseName, dataSource)) {
+            connectedNanos = System.nanoTime();
 
-            // Execute query
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    long count = resultSet.getLong(1);
-                    logger.debug("Count query executed successfully, returned count: {}", count);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                // Set parameters
+                setParameters(statement, parameters);
+
+                // Execute query
+                effectiveTimeoutMs = applyQueryTimeout(statement, queryConfig, cancellationToken, "Count query " + queryConfig.getName());
+                if (cancellationToken != null) {
+                    cancellationToken.register(statement);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    executedNanos = System.nanoTime();
+                    long count;
+                    if (resultSet.next()) {
+                        count = resultSet.getLong(1);
+                        logger.debug("Count query executed successfully, returned count: {}", count);
+                    } else {
+                        logger.warn("Count query returned no results");
+                        count = 0;
+                    }
+                    fetchedNanos = System.nanoTime();
+                    success = true;
                     return count;
-                } else {
-                    logger.warn("Count query returned no results");
-                    return 0;
+                } finally {
+                    if (cancellationToken != null) {
+                        cancellationToken.unregister(statement);
+                    }
                 }
             }
 
         } catch (SQLException e) {
+            ApiException cancellation = translateCancellation(e, cancellationToken, effectiveTimeoutMs,
+                                                              "Count query " + queryConfig.getName());
+            if (cancellation != null) {
+                throw cancellation;
+            }
             logger.error("Failed to execute count query: {}", queryConfig.getName(), e);
             throw ApiException.internalError("Failed to execute count query: " + queryConfig.getName(), e);
+        } finally {
+            recordExecution(queryConfig, startNanos, connectedNanos, executedNanos, fetchedNanos,
+                            success ? 1 : 0, success ? Long.BYTES : 0, success);
         }
     }
     
+    private Connection openConnection(String databaseName, DataSource dataSource) throws SQLException {
+        return dataSource != null ? dataSource.getConnection() : databaseConnectionManager.getConnection(databaseName);
+    }
+
+    /**
+     * Report a query execution to the usage statistics and the request trace. Phases that were
+     * never reached have a zero timestamp; the time up to the failure is charged to the phase
+     * that was running.
+     */
+    private void recordExecution(QueryConfig queryConfig, long startNanos, long connectedNanos, long executedNanos,
+                                 long fetchedNanos, int rowsReturned, long resultBytes, boolean success) {
+        long endNanos = System.nanoTime();
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            long acquired = connectedNanos != 0 ? connectedNanos : endNanos;
+            trace.span(RequestTrace.POOL_ACQUIRE, startNanos, acquired);
+            if (connectedNanos != 0) {
+                long executed = executedNanos != 0 ? executedNanos : endNanos;
+                trace.span(RequestTrace.STATEMENT_EXECUTE, connectedNanos, executed);
+                if (executedNanos != 0) {
+                    trace.span(RequestTrace.ROW_MATERIALIZATION, executedNanos, fetchedNanos != 0 ? fetchedNanos : endNanos);
+                }
+            }
+        }
+        if (statisticsService == null) {
+            return;
+        }
+        String databaseName = queryConfig.getDatabase();
+
+        if (connectedNanos == 0) {
+            statisticsService.recordDatabaseUsage(databaseName, (endNanos - startNanos) / 1_000_000, false);
+            statisticsService.recordQueryExecution(queryConfig.getName(), databaseName, endNanos - startNanos,
+                                                   0, 0, 0, 0, false);
+            return;
+        }
+        statisticsService.recordDatabaseUsage(databaseName, (connectedNanos - startNanos) / 1_000_000, true);
+
+        if (executedNanos == 0) {
+            executedNanos = endNanos;
+        }
+        if (fetchedNanos == 0) {
+            fetchedNanos = endNanos;
+        }
+        statisticsService.recordQueryExecution(queryConfig.getName(), databaseName, connectedNanos - startNanos,
+                                               executedNanos - connectedNanos, fetchedNanos - executedNanos,
+                                               rowsReturned, resultBytes, success);
+    }
+
+    /**
+     * Rough in-memory size of a column value: characters for text, length for binary data and
+     * a fixed width for numbers, booleans and temporal values
+     */
+    private static long estimateSize(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence text) {
+            return text.length();
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        return Long.BYTES;
+    }
+
+    /**
+     * Apply the statement timeout: the query's own timeoutMs, capped by whatever is left of
+     * the request deadline carried by the cancellation token
+     *
+     * @return the effective timeout in milliseconds, or 0 when none applies
+     */
+    private long applyQueryTimeout(PreparedStatement statement, QueryConfig queryConfig,
+                                   CancellationToken cancellationToken, String operation) throws SQLException {
+        long timeoutMs = queryConfig.hasTimeout() ? queryConfig.getTimeoutMs() : 0;
+
+        if (cancellationToken != null && cancellationToken.hasDeadline()) {
+            long remainingMs = cancellationToken.getRemainingMillis();
+            if (remainingMs <= 0) {
+                cancellationToken.cancel(CancellationToken.Reason.TIMEOUT, "deadline passed before the query started");
+                throw cancellationToken.cancellationException(operation);
+            }
+            timeoutMs = timeoutMs > 0 ? Math.min(timeoutMs, remainingMs) : remainingMs;
+        }
+
+        if (timeoutMs > 0) {
+            // JDBC timeouts have whole-second granularity; round up so short budgets are not disabled
+            statement.setQueryTimeout((int) Math.max(1, (timeoutMs + 999) / 1000));
+        }
+        return timeoutMs;
+    }
+
+    /**
+     * Map a SQLException caused by cancellation or a statement timeout to the matching
+     * ApiException, or return null if the failure is unrelated
+     */
+    private ApiException translateCancellation(SQLException e, CancellationToken cancellationToken,
+                                               long effectiveTimeoutMs, String operation) {
+        if (cancellationToken != null && cancellationToken.isCancelled()) {
+            logger.info("{} stopped: {}", operation, cancellationToken.getCancelReason());
+            return cancellationToken.cancellationException(operation);
+        }
+
+        if (effectiveTimeoutMs > 0 && (e instanceof SQLTimeoutException || SQL_STATE_QUERY_CANCELED.equals(e.getSQLState()))) {
+            logger.info("{} timed out after {}ms", operation, effectiveTimeoutMs);
+            if (cancellationToken != null) {
+                cancellationToken.cancel(CancellationToken.Reason.TIMEOUT, "statement timeout of " + effectiveTimeoutMs + "ms elapsed");
+            }
+            return CancellationToken.timeoutException(operation, effectiveTimeoutMs);
+        }
+        return null;
+    }
+
     /**
      * Execute a query that returns a single result
      */
@@ -244,6 +524,50 @@ public class GenericRepository {
         return Optional.of(results.get(0));
     }
 
+    /**
+     * Remove the cached results and counts of one query, leaving other queries' entries in place
+     *
+     * @return the number of cache entries removed
+     */
+    public int invalidateCachedResults(QueryConfig queryConfig) {
+        String[] patterns = cacheRegionPatterns(queryConfig).toArray(new String[0]);
+        int removed = cacheManager.invalidate(QUERY_RESULTS_CACHE, patterns)
+                    + cacheManager.invalidate(COUNT_RESULTS_CACHE, patterns);
+        logger.debug("Invalidated {} cached results for query: {}", removed, queryConfig.getName());
+        return removed;
+    }
+
+    /**
+     * Patterns matching every cache key {@link #buildCacheKey} can produce for a query: the key
+     * pattern with each parameter replaced by a wildcard, the default key of the query name
+     * followed by its parameters, and the hashed form used for long keys. A key pattern with no
+     * literal text of its own, such as "{symbol}", would match other queries' entries too, so
+     * those keys are left to expire instead.
+     */
+    static Set<String> cacheRegionPatterns(QueryConfig queryConfig) {
+        Set<String> patterns = new LinkedHashSet<>();
+        String queryName = queryConfig.getName();
+        if (queryName != null) {
+            patterns.add(queryName);
+            patterns.add(queryName + ":*");
+        }
+
+        String keyPattern = queryConfig.getCache() != null ? queryConfig.getCache().getKeyPattern() : null;
+        if (keyPattern != null) {
+            String wildcardPattern = keyPattern.replaceAll("\\{[^}]*}", "*");
+            if (wildcardPattern.chars().anyMatch(Character::isLetterOrDigit)) {
+                patterns.add(wildcardPattern);
+            }
+        }
+
+        // Serialized entries are stored under the same key with a suffix
+        Set<String> withSerialized = new LinkedHashSet<>(patterns);
+        for (String pattern : patterns) {
+            withSerialized.add(pattern + "_json");
+        }
+        return withSerialized;
+    }
+
     /**
      * Build a cache key for the given query and parameters
      */
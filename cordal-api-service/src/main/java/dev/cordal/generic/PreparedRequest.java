@@ -0,0 +1,71 @@
+package dev.cordal.generic;
+
+import dev.cordal.generic.config.ApiEndpointConfig;
+import dev.cordal.generic.config.QueryConfig;
+import dev.cordal.generic.model.QueryParameter;
+import dev.cordal.generic.plan.EndpointExecutionPlan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An endpoint request whose execution plan has been resolved and whose parameters have been
+ * validated and bound, ready to be executed by {@link GenericApiService#executePrepared(PreparedRequest)}
+ */
+public final class PreparedRequest {
+    private final EndpointExecutionPlan plan;
+    private final List<QueryParameter> queryParameters;
+    private final int page;
+    private final int size;
+
+    PreparedRequest(EndpointExecutionPlan plan, List<QueryParameter> queryParameters, int page, int size) {
+        this.plan = plan;
+        this.queryParameters = queryParameters;
+        this.page = page;
+        this.size = size;
+    }
+
+    public EndpointExecutionPlan getPlan() {
+        return plan;
+    }
+
+    public String getEndpointName() {
+        return plan.getEndpointName();
+    }
+
+    public ApiEndpointConfig getEndpointConfig() {
+        return plan.getEndpointConfig();
+    }
+
+    public QueryConfig getQueryConfig() {
+        return plan.getQueryConfig();
+    }
+
+    /**
+     * Get a copy of the bound query parameters; the repository sorts the list it is given
+     */
+    public List<QueryParameter> getQueryParameters() {
+        return new ArrayList<>(queryParameters);
+    }
+
+    /**
+     * Requested page number, 0 for non-paginated endpoints
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Requested page size, 0 for non-paginated endpoints
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Check if the endpoint returns paged results (and therefore also runs a count query)
+     */
+    public boolean isPaginated() {
+        return plan.isPaginated();
+    }
+}
@@ -0,0 +1,95 @@
+package dev.cordal.generic;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Watches in-flight requests and cancels their {@link CancellationToken} when the request
+ * deadline passes.
+ *
+ * A single daemon scheduler thread serves every request. A watch with a deadline costs one
+ * scheduled task that is removed from the queue as soon as the request finishes; a watch
+ * without one schedules nothing. Every endpoint has a deadline unless server.requestTimeoutMs is
+ * set to 0, so a query whose client has gone away is cancelled when the deadline passes; a
+ * client that is gone by the time the response is written is handled by Javalin's result
+ * pipeline.
+ */
+public class RequestWatchdog implements AutoCloseable {
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final AtomicInteger activeWatches = new AtomicInteger(0);
+
+    public RequestWatchdog() {
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "request-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Start watching a request
+     *
+     * @param token     token to cancel when the request should stop
+     * @param timeoutMs request deadline in milliseconds; non-positive means no deadline
+     * @return a watch that must be closed when the request finishes
+     */
+    public Watch watch(CancellationToken token, long timeoutMs) {
+        ScheduledFuture<?> deadlineTask = null;
+
+        if (timeoutMs > 0) {
+            token.setTimeout(timeoutMs);
+            deadlineTask = scheduler.schedule(
+                () -> token.cancel(CancellationToken.Reason.TIMEOUT, "request exceeded its timeout of " + timeoutMs + "ms"),
+                timeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        activeWatches.incrementAndGet();
+        return new Watch(deadlineTask);
+    }
+
+    /**
+     * Get the number of requests currently being watched
+     */
+    public int getActiveWatches() {
+        return activeWatches.get();
+    }
+
+    /**
+     * Get the number of deadlines waiting on the scheduler
+     */
+    int getPendingDeadlines() {
+        return scheduler.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Handle for a watched request; closing it removes the pending deadline
+     */
+    public final class Watch implements AutoCloseable {
+        private final ScheduledFuture<?> deadlineTask;
+        private boolean closed;
+
+        private Watch(ScheduledFuture<?> deadlineTask) {
+            this.deadlineTask = deadlineTask;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (deadlineTask != null) {
+                deadlineTask.cancel(false);
+            }
+            activeWatches.decrementAndGet();
+        }
+    }
+}
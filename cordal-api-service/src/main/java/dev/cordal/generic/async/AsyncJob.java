@@ -0,0 +1,232 @@
+package dev.cordal.generic.async;
+
+import dev.cordal.generic.CancellationToken;
+import dev.cordal.generic.model.GenericResponse;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An asynchronous endpoint execution tracked from submission until its result expires
+ */
+public class AsyncJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        public boolean isTerminal() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final String id;
+    private final String endpointName;
+    private final Map<String, Object> parameters;
+    private final long submittedAt;
+    private final CancellationToken cancellationToken = new CancellationToken();
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.QUEUED);
+
+    private volatile long startedAt;
+    private volatile long completedAt;
+    private volatile long expiresAt = Long.MAX_VALUE;
+    private volatile long storedRows;
+    private volatile GenericResponse result;
+    private volatile String errorCode;
+    private volatile String errorMessage;
+    private volatile int errorStatusCode;
+
+    public AsyncJob(String id, String endpointName, Map<String, Object> parameters) {
+        this.id = id;
+        this.endpointName = endpointName;
+        this.parameters = parameters;
+        this.submittedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Move the job from QUEUED to RUNNING; fails if the job was cancelled while queued
+     */
+    boolean markRunning() {
+        if (status.compareAndSet(Status.QUEUED, Status.RUNNING)) {
+            startedAt = System.currentTimeMillis();
+            return true;
+        }
+        return false;
+    }
+
+    boolean complete(GenericResponse response) {
+        this.result = response;
+        if (status.compareAndSet(Status.RUNNING, Status.COMPLETED)) {
+            completedAt = System.currentTimeMillis();
+            return true;
+        }
+        this.result = null;
+        return false;
+    }
+
+    /**
+     * Move the job from RUNNING to FAILED. The error is only recorded if this call wins, so a
+     * worker failing after a cancel does not overwrite the cancellation's error.
+     */
+    boolean fail(String code, String message, int statusCode) {
+        if (status.compareAndSet(Status.RUNNING, Status.FAILED)) {
+            this.errorCode = code;
+            this.errorMessage = message;
+            this.errorStatusCode = statusCode;
+            completedAt = System.currentTimeMillis();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Move a job that never started from QUEUED to FAILED, e.g. when the executor shut down first
+     */
+    boolean failQueued(String code, String message, int statusCode) {
+        if (status.compareAndSet(Status.QUEUED, Status.FAILED)) {
+            this.errorCode = code;
+            this.errorMessage = message;
+            this.errorStatusCode = statusCode;
+            completedAt = System.currentTimeMillis();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Cancel a queued or running job. Running jobs have their JDBC statement cancelled.
+     *
+     * @return true if the job was cancelled by this call
+     */
+    boolean cancel(String reason) {
+        Status current;
+        while (!(current = status.get()).isTerminal()) {
+            if (status.compareAndSet(current, Status.CANCELLED)) {
+                errorCode = "CANCELLED";
+                errorMessage = reason;
+                completedAt = System.currentTimeMillis();
+                cancellationToken.cancel(reason);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getEndpointName() {
+        return endpointName;
+    }
+
+    Map<String, Object> getParameters() {
+        return parameters;
+    }
+
+    public Status getStatus() {
+        return status.get();
+    }
+
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    public GenericResponse getResult() {
+        return result;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getCompletedAt() {
+        return completedAt;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public int getErrorStatusCode() {
+        return errorStatusCode;
+    }
+
+    /**
+     * Number of rows held by the result (1 for single-object results, 0 when there is no result)
+     */
+    public int getResultSize() {
+        return rowCount(result);
+    }
+
+    /**
+     * Number of rows held by a response (1 for single-object results, 0 for no response)
+     */
+    static int rowCount(GenericResponse response) {
+        if (response == null) {
+            return 0;
+        }
+        return response.getData() instanceof Collection<?> rows ? rows.size() : 1;
+    }
+
+    /**
+     * Rows this job counts against the result store, fixed when the job finishes
+     */
+    long getStoredRows() {
+        return storedRows;
+    }
+
+    void setStoredRows(long storedRows) {
+        this.storedRows = storedRows;
+    }
+
+    /**
+     * Status fields for the job, excluding the result payload
+     */
+    public Map<String, Object> toStatusMap() {
+        Status currentStatus = status.get();
+        Map<String, Object> statusMap = new LinkedHashMap<>();
+        statusMap.put("jobId", id);
+        statusMap.put("endpoint", endpointName);
+        statusMap.put("status", currentStatus.name());
+        statusMap.put("submittedAt", submittedAt);
+        if (startedAt > 0) {
+            statusMap.put("startedAt", startedAt);
+        }
+        if (currentStatus.isTerminal()) {
+            statusMap.put("completedAt", completedAt);
+            if (startedAt > 0) {
+                statusMap.put("executionTimeMs", completedAt - startedAt);
+            }
+            if (expiresAt != Long.MAX_VALUE) {
+                statusMap.put("expiresAt", expiresAt);
+            }
+        }
+        if (currentStatus == Status.COMPLETED) {
+            statusMap.put("resultSize", getResultSize());
+        }
+        if (currentStatus == Status.FAILED || currentStatus == Status.CANCELLED) {
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("code", errorCode);
+            error.put("message", errorMessage);
+            if (errorStatusCode > 0) {
+                error.put("statusCode", errorStatusCode);
+            }
+            statusMap.put("error", error);
+        }
+        return statusMap;
+    }
+}
@@ -0,0 +1,128 @@
+package dev.cordal.generic.async;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dev.cordal.common.exception.ApiException;
+import dev.cordal.generic.model.GenericResponse;
+import io.javalin.http.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Controller for async job status, result retrieval and cancellation
+ */
+public class AsyncJobController {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncJobController.class);
+    private static final int STREAM_FLUSH_INTERVAL_ROWS = 500;
+
+    private final AsyncJobManager jobManager;
+    private final int streamThresholdRows;
+    private final ObjectMapper objectMapper;
+
+    public AsyncJobController(AsyncJobManager jobManager, int streamThresholdRows) {
+        this.jobManager = jobManager;
+        this.streamThresholdRows = streamThresholdRows;
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    /**
+     * Get job status, including the result once the job has completed
+     */
+    public void getJob(Context ctx) {
+        String jobId = ctx.pathParam("jobId");
+        logger.debug("Getting async job: {}", jobId);
+
+        AsyncJob job = jobManager.getJob(jobId)
+                .orElseThrow(() -> ApiException.notFound("Async job not found or expired: " + jobId));
+
+        GenericResponse result = job.getStatus() == AsyncJob.Status.COMPLETED ? job.getResult() : null;
+        if (result != null && job.getResultSize() > streamThresholdRows) {
+            streamJobResult(ctx, job, result);
+            return;
+        }
+
+        Map<String, Object> response = job.toStatusMap();
+        if (result != null) {
+            response.put("result", result);
+        }
+        ctx.json(response);
+    }
+
+    /**
+     * Cancel a queued or running job
+     */
+    public void cancelJob(Context ctx) {
+        String jobId = ctx.pathParam("jobId");
+        logger.debug("Cancelling async job: {}", jobId);
+
+        if (!jobManager.cancel(jobId)) {
+            throw ApiException.conflict("Async job " + jobId + " has already finished");
+        }
+
+        AsyncJob job = jobManager.getJob(jobId)
+                .orElseThrow(() -> ApiException.notFound("Async job not found or expired: " + jobId));
+        ctx.json(job.toStatusMap());
+    }
+
+    /**
+     * Get job queue and result store statistics
+     */
+    public void getJobStatistics(Context ctx) {
+        logger.debug("Getting async job statistics");
+        ctx.json(jobManager.getStatistics());
+    }
+
+    /**
+     * Write a large result row by row so the full response body is never buffered in memory
+     */
+    private void streamJobResult(Context ctx, AsyncJob job, GenericResponse result) {
+        logger.debug("Streaming async job {} result with {} rows", job.getId(), job.getResultSize());
+
+        ctx.status(200);
+        ctx.contentType("application/json");
+
+        OutputStream outputStream = ctx.outputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartObject();
+            for (Map.Entry<String, Object> entry : job.toStatusMap().entrySet()) {
+                generator.writeObjectField(entry.getKey(), entry.getValue());
+            }
+
+            generator.writeObjectFieldStart("result");
+            generator.writeStringField("type", result.getType());
+            if (result.getPagination() != null) {
+                generator.writeObjectField("pagination", result.getPagination());
+            }
+            if (result.getMetadata() != null) {
+                generator.writeObjectField("metadata", result.getMetadata());
+            }
+            if (result.getTimestamp() != null) {
+                generator.writeNumberField("timestamp", result.getTimestamp());
+            }
+
+            generator.writeArrayFieldStart("data");
+            int written = 0;
+            for (Object row : (Collection<?>) result.getData()) {
+                generator.writeObject(row);
+                if (++written % STREAM_FLUSH_INTERVAL_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+
+            generator.writeEndObject();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            logger.warn("Failed to stream result for async job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package dev.cordal.generic.async;
+
+import dev.cordal.common.exception.ApiException;
+import dev.cordal.config.GenericApiConfig;
+import dev.cordal.generic.CancellationToken;
+import dev.cordal.generic.EndpointExecutor;
+import dev.cordal.generic.GenericApiService;
+import dev.cordal.generic.model.GenericResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs endpoint requests submitted with {@code ?async=true} and keeps their results
+ * available for retrieval.
+ *
+ * Submission is bounded: once {@code maxQueuedJobs} jobs are queued or running, new jobs are
+ * rejected instead of piling up behind the executor. Finished jobs are kept in a result store
+ * until their TTL expires or until {@code maxStoredResults} jobs or {@code maxStoredRows} result
+ * rows are exceeded, at which point the oldest finished jobs are evicted first. A job whose
+ * result alone holds more than {@code maxStoredRows} rows fails instead of being stored.
+ */
+public class AsyncJobManager implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncJobManager.class);
+
+    private final GenericApiService genericApiService;
+    private final Executor executor;
+    private final int maxQueuedJobs;
+    private final long resultTtlMs;
+    private final int maxStoredResults;
+    private final long maxStoredRows;
+
+    private final Map<String, AsyncJob> jobs = new ConcurrentHashMap<>();
+    private final Queue<AsyncJob> finishedOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingJobs = new AtomicInteger(0);
+    private final AtomicInteger storedResults = new AtomicInteger(0);
+    private final AtomicLong storedRows = new AtomicLong(0);
+    private final AtomicLong submittedCount = new AtomicLong(0);
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+    private final AtomicLong evictedCount = new AtomicLong(0);
+    private final ScheduledExecutorService cleanupScheduler;
+
+    public AsyncJobManager(GenericApiService genericApiService, GenericApiConfig.AsyncSettings settings) {
+        this(genericApiService, genericApiService.getAsyncExecutor(), settings);
+    }
+
+    public AsyncJobManager(GenericApiService genericApiService, Executor executor, GenericApiConfig.AsyncSettings settings) {
+        this.genericApiService = genericApiService;
+        this.executor = executor;
+        this.maxQueuedJobs = Math.max(1, settings.getMaxQueuedJobs());
+        this.resultTtlMs = TimeUnit.SECONDS.toMillis(Math.max(1, settings.getResultTtlSeconds()));
+        this.maxStoredResults = Math.max(1, settings.getMaxStoredResults());
+        this.maxStoredRows = Math.max(1, settings.getMaxStoredRows());
+
+        this.cleanupScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "async-job-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long cleanupIntervalSeconds = Math.max(1, settings.getCleanupIntervalSeconds());
+        cleanupScheduler.scheduleAtFixedRate(this::removeExpiredJobs,
+                                             cleanupIntervalSeconds, cleanupIntervalSeconds, TimeUnit.SECONDS);
+
+        logger.info("Async job manager initialized: maxQueuedJobs={}, resultTtlMs={}, maxStoredResults={}, maxStoredRows={}",
+                   maxQueuedJobs, resultTtlMs, maxStoredResults, maxStoredRows);
+    }
+
+    /**
+     * Submit an endpoint execution as a tracked job
+     *
+     * @throws ApiException 404 if the endpoint does not exist, 429 if the job queue is full
+     */
+    public AsyncJob submit(String endpointName, Map<String, Object> requestParameters) {
+        if (genericApiService.getEndpointConfiguration(endpointName).isEmpty()) {
+            throw ApiException.notFound("Endpoint not found: " + endpointName);
+        }
+
+        if (pendingJobs.incrementAndGet() > maxQueuedJobs) {
+            pendingJobs.decrementAndGet();
+            rejectedCount.incrementAndGet();
+            throw ApiException.tooManyRequests("Async job queue is full (" + maxQueuedJobs +
+                                               " jobs queued or running), retry later");
+        }
+
+        AsyncJob job = new AsyncJob(UUID.randomUUID().toString(), endpointName, new HashMap<>(requestParameters));
+        jobs.put(job.getId(), job);
+
+        try {
+            executor.execute(EndpointExecutor.RejectableTask.of(() -> runJob(job), cause -> rejectJob(job, cause)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            pendingJobs.decrementAndGet();
+            rejectedCount.incrementAndGet();
+            throw ApiException.serviceUnavailable("Async executor is not accepting jobs: " + e.getMessage());
+        }
+
+        submittedCount.incrementAndGet();
+        logger.debug("Submitted async job {} for endpoint {}", job.getId(), endpointName);
+        return job;
+    }
+
+    private void runJob(AsyncJob job) {
+        try {
+            if (!job.markRunning()) {
+                logger.debug("Skipping async job {} - cancelled before it started", job.getId());
+                return;
+            }
+
+            // The endpoint deadline starts when the job starts running, not when it was queued
+            job.getCancellationToken().setTimeout(genericApiService.getEndpointTimeoutMs(job.getEndpointName()));
+            GenericResponse response = CancellationToken.runWith(job.getCancellationToken(),
+                () -> genericApiService.executePrepared(
+                    genericApiService.prepareRequest(job.getEndpointName(), job.getParameters())));
+            int rows = AsyncJob.rowCount(response);
+            if (rows > maxStoredRows) {
+                if (job.fail("RESULT_TOO_LARGE", "Result of " + rows + " rows exceeds the async result store limit of "
+                             + maxStoredRows + " rows; use a smaller page or a synchronous request", 413)) {
+                    logger.info("Async job {} for endpoint {} produced {} rows, more than the store holds",
+                               job.getId(), job.getEndpointName(), rows);
+                }
+            } else if (job.complete(response)) {
+                logger.debug("Async job {} completed for endpoint {}", job.getId(), job.getEndpointName());
+            }
+        } catch (ApiException e) {
+            if (job.fail(e.getErrorCode(), e.getMessage(), e.getStatusCode())) {
+                logger.info("Async job {} failed for endpoint {}: {}", job.getId(), job.getEndpointName(), e.getMessage());
+            }
+        } catch (Exception e) {
+            if (job.fail("INTERNAL_ERROR", e.getMessage(), 500)) {
+                logger.error("Async job {} failed for endpoint {}", job.getId(), job.getEndpointName(), e);
+            }
+        } finally {
+            pendingJobs.decrementAndGet();
+            onJobFinished(job);
+        }
+    }
+
+    /**
+     * Fail a job the executor accepted but dropped before it started, e.g. on shutdown
+     */
+    private void rejectJob(AsyncJob job, RejectedExecutionException cause) {
+        try {
+            if (job.failQueued("SERVICE_UNAVAILABLE", "Async executor stopped before the job started: "
+                               + cause.getMessage(), 503)) {
+                logger.warn("Async job {} for endpoint {} was dropped before it started: {}",
+                           job.getId(), job.getEndpointName(), cause.getMessage());
+            }
+        } finally {
+            pendingJobs.decrementAndGet();
+            onJobFinished(job);
+        }
+    }
+
+    /**
+     * Start the result TTL for a finished job and enforce the result store size caps
+     */
+    private void onJobFinished(AsyncJob job) {
+        if (job.getExpiresAt() != Long.MAX_VALUE) {
+            return;
+        }
+        job.setExpiresAt(System.currentTimeMillis() + resultTtlMs);
+        job.setStoredRows(job.getResultSize());
+        finishedOrder.add(job);
+        storedResults.incrementAndGet();
+        storedRows.addAndGet(job.getStoredRows());
+
+        while (storedResults.get() > maxStoredResults || storedRows.get() > maxStoredRows) {
+            AsyncJob oldest = finishedOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            if (removeJob(oldest)) {
+                evictedCount.incrementAndGet();
+                logger.debug("Evicted async job {} - result store is full", oldest.getId());
+            }
+        }
+    }
+
+    private boolean removeJob(AsyncJob job) {
+        if (jobs.remove(job.getId(), job)) {
+            storedResults.decrementAndGet();
+            storedRows.addAndGet(-job.getStoredRows());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Look up a job; expired jobs are treated as missing
+     */
+    public Optional<AsyncJob> getJob(String jobId) {
+        AsyncJob job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        if (job.isExpired(System.currentTimeMillis())) {
+            removeJob(job);
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+
+    /**
+     * Cancel a queued or running job
+     *
+     * @return true if the job was cancelled, false if it had already finished
+     * @throws ApiException 404 if the job does not exist
+     */
+    public boolean cancel(String jobId) {
+        AsyncJob job = getJob(jobId)
+                .orElseThrow(() -> ApiException.notFound("Async job not found or expired: " + jobId));
+        boolean cancelled = job.cancel("cancelled by client");
+        if (cancelled) {
+            logger.info("Cancelled async job {} for endpoint {}", jobId, job.getEndpointName());
+        }
+        return cancelled;
+    }
+
+    /**
+     * Remove finished jobs whose result TTL has passed
+     */
+    void removeExpiredJobs() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (AsyncJob job : jobs.values()) {
+            if (job.isExpired(now) && removeJob(job)) {
+                removed++;
+            }
+        }
+        finishedOrder.removeIf(job -> job.isExpired(now));
+        if (removed > 0) {
+            logger.debug("Removed {} expired async job results", removed);
+        }
+    }
+
+    /**
+     * Get job queue and result store statistics
+     */
+    public Map<String, Object> getStatistics() {
+        int running = 0;
+        int queued = 0;
+        for (AsyncJob job : jobs.values()) {
+            switch (job.getStatus()) {
+                case RUNNING -> running++;
+                case QUEUED -> queued++;
+                default -> { }
+            }
+        }
+
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("queuedJobs", queued);
+        statistics.put("runningJobs", running);
+        statistics.put("storedResults", storedResults.get());
+        statistics.put("maxQueuedJobs", maxQueuedJobs);
+        statistics.put("maxStoredResults", maxStoredResults);
+        statistics.put("storedRows", storedRows.get());
+        statistics.put("maxStoredRows", maxStoredRows);
+        statistics.put("resultTtlMs", resultTtlMs);
+        statistics.put("totalSubmitted", submittedCount.get());
+        statistics.put("totalRejected", rejectedCount.get());
+        statistics.put("totalEvicted", evictedCount.get());
+        statistics.put("timestamp", System.currentTimeMillis());
+        return statistics;
+    }
+
+    @Override
+    public void close() {
+        cleanupScheduler.shutdownNow();
+        for (AsyncJob job : jobs.values()) {
+            job.cancel("service shutting down");
+        }
+        logger.info("Async job manager shut down");
+    }
+}
@@ -0,0 +1,54 @@
+package dev.cordal.generic.batch;
+
+import dev.cordal.common.exception.ApiException;
+import dev.cordal.generic.CancellationToken;
+import dev.cordal.generic.RequestWatchdog;
+import io.javalin.http.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Controller for the batch endpoint, which executes many endpoint calls in one request
+ */
+public class BatchController {
+    private static final Logger logger = LoggerFactory.getLogger(BatchController.class);
+
+    private final BatchExecutor batchExecutor;
+    private final RequestWatchdog requestWatchdog;
+    private final long timeoutMs;
+
+    public BatchController(BatchExecutor batchExecutor, RequestWatchdog requestWatchdog, long timeoutMs) {
+        this.batchExecutor = batchExecutor;
+        this.requestWatchdog = requestWatchdog;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Execute a batch of endpoint calls
+     * POST /api/generic/batch
+     * Body: { "requests": [ { "id": "optional", "endpoint": "name", "parameters": { ... } } ] }
+     */
+    public void executeBatch(Context ctx) {
+        BatchRequest request;
+        try {
+            request = ctx.bodyAsClass(BatchRequest.class);
+        } catch (Exception e) {
+            throw ApiException.badRequest("Invalid batch request body: " + e.getMessage());
+        }
+        if (request == null || !request.hasRequests()) {
+            throw ApiException.badRequest("Batch request must contain at least one item");
+        }
+        logger.debug("Executing batch of {} items", request.getRequests().size());
+
+        // One deadline covers the whole batch; the token is carried into every query the batch runs
+        CancellationToken token = new CancellationToken();
+        BatchResult result;
+        RequestWatchdog.Watch watch = requestWatchdog.watch(token, timeoutMs);
+        try {
+            result = CancellationToken.runWith(token, () -> batchExecutor.execute(request.getRequests()));
+        } finally {
+            watch.close();
+        }
+        ctx.json(result.toMap());
+    }
+}
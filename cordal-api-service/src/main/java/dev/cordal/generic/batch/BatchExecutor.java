@@ -0,0 +1,377 @@
+package dev.cordal.generic.batch;
+
+import dev.cordal.common.exception.ApiException;
+import dev.cordal.config.GenericApiConfig;
+import dev.cordal.generic.CancellationToken;
+import dev.cordal.generic.EndpointExecutor;
+import dev.cordal.generic.GenericApiService;
+import dev.cordal.generic.GenericRepository;
+import dev.cordal.generic.PreparedRequest;
+import dev.cordal.generic.config.QueryConfig;
+import dev.cordal.generic.model.GenericResponse;
+import dev.cordal.generic.model.QueryParameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executes many endpoint calls in one round-trip.
+ *
+ * Items are prepared up front so that invalid items fail individually without affecting the rest.
+ * Identical calls are executed once, cached results are served without touching the database,
+ * and the remaining calls are grouped by query: a group whose calls differ only in one
+ * {@code column = ?} parameter is fetched with a single {@code IN (...)} statement and split back
+ * per call, everything else runs in parallel on the endpoint executor.
+ */
+public class BatchExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(BatchExecutor.class);
+
+    private final GenericApiService genericApiService;
+    private final GenericRepository genericRepository;
+    private final Executor executor;
+    private final int maxItems;
+    private final int maxMergedValues;
+    private final boolean mergeEnabled;
+
+    public BatchExecutor(GenericApiService genericApiService, GenericRepository genericRepository,
+                         GenericApiConfig.BatchSettings settings) {
+        this(genericApiService, genericRepository, genericApiService.getAsyncExecutor(), settings);
+    }
+
+    public BatchExecutor(GenericApiService genericApiService, GenericRepository genericRepository,
+                         Executor executor, GenericApiConfig.BatchSettings settings) {
+        this.genericApiService = genericApiService;
+        this.genericRepository = genericRepository;
+        this.executor = executor;
+        this.maxItems = Math.max(1, settings.getMaxItems());
+        this.maxMergedValues = Math.max(2, settings.getMaxMergedValues());
+        this.mergeEnabled = settings.isMergeEnabled();
+    }
+
+    /**
+     * Execute the batch; the result lists one outcome per item in request order
+     *
+     * @throws ApiException 400 if the batch is empty or larger than {@code maxItems}
+     */
+    public BatchResult execute(List<BatchRequest.Item> items) {
+        if (items == null || items.isEmpty()) {
+            throw ApiException.badRequest("Batch request must contain at least one item");
+        }
+        if (items.size() > maxItems) {
+            throw ApiException.badRequest("Batch request cannot contain more than " + maxItems +
+                                          " items (received: " + items.size() + ")");
+        }
+
+        long startTime = System.currentTimeMillis();
+        Statistics statistics = new Statistics();
+
+        // Prepare every item and collapse identical calls into a single execution
+        Map<String, Execution> executions = new LinkedHashMap<>();
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            BatchRequest.Item item = items.get(i);
+            try {
+                if (item == null || item.getEndpoint() == null || item.getEndpoint().isBlank()) {
+                    throw ApiException.badRequest("Batch item " + i + " is missing the endpoint name");
+                }
+                PreparedRequest prepared = genericApiService.prepareRequest(item.getEndpoint(), new HashMap<>(item.getParameters()));
+                executions.computeIfAbsent(executionKey(prepared), key -> new Execution(prepared)).itemIndexes.add(i);
+            } catch (ApiException e) {
+                results[i] = BatchItemResult.failure(item != null ? item : new BatchRequest.Item(), e, BatchItemResult.Source.NONE);
+            }
+        }
+
+        // Serve cache hits directly and group the misses by query
+        Map<String, List<Execution>> missesByQuery = new LinkedHashMap<>();
+        for (Execution execution : executions.values()) {
+            if (!execution.request.isPaginated() && serveFromCache(execution)) {
+                statistics.cacheHits.incrementAndGet();
+                continue;
+            }
+            missesByQuery.computeIfAbsent(execution.request.getQueryConfig().getName(), key -> new ArrayList<>()).add(execution);
+        }
+
+        List<Runnable> tasks = new ArrayList<>();
+        for (List<Execution> group : missesByQuery.values()) {
+            planGroup(group, tasks, statistics);
+        }
+        runAll(tasks);
+
+        for (Execution execution : executions.values()) {
+            for (int index : execution.itemIndexes) {
+                results[index] = execution.toResult(items.get(index));
+            }
+        }
+
+        long executionTimeMs = System.currentTimeMillis() - startTime;
+        logger.debug("Batch of {} items finished in {}ms: {} executions, {} cache hits, {} merged queries",
+                    items.size(), executionTimeMs, executions.size(), statistics.cacheHits.get(), statistics.mergedQueries.get());
+
+        return new BatchResult(List.of(results), executions.size(), statistics.cacheHits.get(),
+                               statistics.mergedQueries.get(), statistics.queryExecutions.get(), executionTimeMs);
+    }
+
+    private boolean serveFromCache(Execution execution) {
+        PreparedRequest request = execution.request;
+        Optional<List<Map<String, Object>>> cached =
+            genericRepository.getCachedResults(request.getQueryConfig(), request.getQueryParameters());
+        if (cached.isEmpty()) {
+            return false;
+        }
+        execution.complete(() -> genericApiService.buildResponse(request, cached.get()), BatchItemResult.Source.CACHE);
+        return true;
+    }
+
+    /**
+     * Turn the cache misses for one query into tasks: merged IN (...) chunks when the calls
+     * differ in a single mergeable parameter, otherwise one task per call
+     */
+    private void planGroup(List<Execution> group, List<Runnable> tasks, Statistics statistics) {
+        Optional<MergePlan> mergePlan = mergeEnabled && group.size() > 1 ? MergePlan.of(group) : Optional.empty();
+        if (mergePlan.isEmpty()) {
+            for (Execution execution : group) {
+                tasks.add(() -> runSingle(execution, statistics));
+            }
+            return;
+        }
+
+        MergePlan plan = mergePlan.get();
+        for (int from = 0; from < group.size(); from += maxMergedValues) {
+            List<Execution> chunk = group.subList(from, Math.min(group.size(), from + maxMergedValues));
+            if (chunk.size() == 1) {
+                tasks.add(() -> runSingle(chunk.get(0), statistics));
+            } else {
+                tasks.add(() -> runMerged(plan, chunk, statistics));
+            }
+        }
+    }
+
+    private void runSingle(Execution execution, Statistics statistics) {
+        statistics.queryExecutions.incrementAndGet();
+        execution.complete(() -> genericApiService.executePrepared(execution.request), BatchItemResult.Source.QUERY);
+    }
+
+    private void runMerged(MergePlan plan, List<Execution> chunk, Statistics statistics) {
+        QueryConfig queryConfig = chunk.get(0).request.getQueryConfig();
+        QueryConfig mergedConfig = new QueryConfig(queryConfig.getName(), queryConfig.getDescription(),
+                                                   plan.rewrite.toSql(chunk.size()), queryConfig.getDatabase(),
+                                                   queryConfig.getParameters());
+        mergedConfig.setTimeoutMs(queryConfig.getTimeoutMs());
+
+        List<Map<String, Object>> rows;
+        Map<String, Integer> columnTypes = new HashMap<>();
+        long dbStartTime = System.currentTimeMillis();
+        try {
+            statistics.queryExecutions.incrementAndGet();
+            rows = genericRepository.executeQueryUncached(mergedConfig, plan.mergedParameters(chunk), columnTypes);
+        } catch (ApiException e) {
+            chunk.forEach(execution -> execution.fail(e, BatchItemResult.Source.MERGED));
+            return;
+        }
+        long dbResponseTime = System.currentTimeMillis() - dbStartTime;
+
+        String keyColumn = findColumn(columnTypes.keySet(), plan.rewrite.getColumn());
+        Optional<List<List<Map<String, Object>>>> split = keyColumn == null ? Optional.empty()
+            : InListRewrite.split(rows, keyColumn, columnTypes.get(keyColumn),
+                                  chunk.stream().map(plan::keyValue).toList());
+        if (split.isEmpty()) {
+            // The predicate column is not part of the result (e.g. it was aliased), or the rows do
+            // not map back onto the keys unambiguously; nothing is cached from the merged result
+            logger.debug("Rows of merged query {} cannot be split on column {}, executing {} calls individually",
+                        queryConfig.getName(), plan.rewrite.getColumn(), chunk.size());
+            chunk.forEach(execution -> runSingle(execution, statistics));
+            return;
+        }
+        statistics.mergedQueries.incrementAndGet();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            Execution execution = chunk.get(i);
+            List<Map<String, Object>> executionRows = split.get().get(i);
+            genericRepository.cacheResults(queryConfig, execution.request.getQueryParameters(), executionRows, dbResponseTime);
+            execution.complete(() -> genericApiService.buildResponse(execution.request, executionRows),
+                               BatchItemResult.Source.MERGED);
+        }
+    }
+
+    /**
+     * Run every task on the executor and wait for all of them. The caller's cancellation token is
+     * carried over so that a batch deadline also stops the queries it started.
+     */
+    private void runAll(List<Runnable> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        CancellationToken token = CancellationToken.current();
+        List<CompletableFuture<?>> futures = new ArrayList<>(tasks.size());
+        for (Runnable task : tasks) {
+            Runnable bound = token == null ? task : () -> CancellationToken.runWith(token, () -> {
+                task.run();
+                return null;
+            });
+            try {
+                futures.add(EndpointExecutor.supplyAsync(() -> {
+                    bound.run();
+                    return null;
+                }, executor));
+            } catch (RejectedExecutionException e) {
+                // Executor is saturated or shutting down; run the remaining work on the caller
+                futures.add(CompletableFuture.completedFuture(null));
+                bound.run();
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new)).join();
+    }
+
+    private static String findColumn(Collection<String> columns, String column) {
+        for (String key : columns) {
+            if (key.equalsIgnoreCase(column)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Identity of a call: the endpoint, its query and every bound parameter value
+     * (page and size are covered because they are bound as limit and offset)
+     */
+    private static String executionKey(PreparedRequest request) {
+        StringBuilder key = new StringBuilder(request.getEndpointName()).append('|').append(request.getQueryConfig().getName());
+        for (QueryParameter parameter : request.getQueryParameters()) {
+            key.append('|').append(parameter.getName()).append('=').append(InListRewrite.normalize(parameter.getTypedValue()));
+        }
+        return key.toString();
+    }
+
+    /**
+     * The calls of one query that can be merged: they bind the same parameters, and differ only in
+     * the value of a single parameter used in a {@code column = ?} predicate
+     */
+    private static final class MergePlan {
+        private final InListRewrite rewrite;
+        private final int keyIndex;
+
+        private MergePlan(InListRewrite rewrite, int keyIndex) {
+            this.rewrite = rewrite;
+            this.keyIndex = keyIndex;
+        }
+
+        static Optional<MergePlan> of(List<Execution> group) {
+            List<QueryParameter> first = group.get(0).request.getQueryParameters();
+            int keyIndex = -1;
+            for (Execution execution : group) {
+                List<QueryParameter> parameters = execution.request.getQueryParameters();
+                if (execution.request.isPaginated() || parameters.size() != first.size()) {
+                    return Optional.empty();
+                }
+                for (int i = 0; i < parameters.size(); i++) {
+                    QueryParameter parameter = parameters.get(i);
+                    QueryParameter reference = first.get(i);
+                    if (!parameter.getName().equals(reference.getName()) || parameter.getPosition() != reference.getPosition()) {
+                        return Optional.empty();
+                    }
+                    boolean sameValue = InListRewrite.normalize(parameter.getTypedValue())
+                        .equals(InListRewrite.normalize(reference.getTypedValue()));
+                    if (!sameValue && keyIndex != i) {
+                        if (keyIndex >= 0) {
+                            return Optional.empty();
+                        }
+                        keyIndex = i;
+                    }
+                }
+            }
+            if (keyIndex < 0) {
+                return Optional.empty();
+            }
+
+            int placeholderPosition = first.get(keyIndex).getPosition();
+            int index = keyIndex;
+            return InListRewrite.analyze(group.get(0).request.getQueryConfig().getSql(), placeholderPosition)
+                    .map(rewrite -> new MergePlan(rewrite, index));
+        }
+
+        Object keyValue(Execution execution) {
+            return execution.request.getQueryParameters().get(keyIndex).getTypedValue();
+        }
+
+        /**
+         * Expand the key parameter into one bound value per call, renumbering positions
+         */
+        List<QueryParameter> mergedParameters(List<Execution> chunk) {
+            List<QueryParameter> template = chunk.get(0).request.getQueryParameters();
+            List<QueryParameter> merged = new ArrayList<>(template.size() + chunk.size());
+            int position = 1;
+            for (int i = 0; i < template.size(); i++) {
+                if (i == keyIndex) {
+                    for (Execution execution : chunk) {
+                        QueryParameter key = execution.request.getQueryParameters().get(i);
+                        merged.add(QueryParameter.of(key.getName(), key.getValue(), key.getType(), position++));
+                    }
+                } else {
+                    QueryParameter parameter = template.get(i);
+                    merged.add(QueryParameter.of(parameter.getName(), parameter.getValue(), parameter.getType(), position++));
+                }
+            }
+            return merged;
+        }
+    }
+
+    /**
+     * One distinct call and the batch items that asked for it
+     */
+    private static final class Execution {
+        private final PreparedRequest request;
+        private final List<Integer> itemIndexes = new ArrayList<>(1);
+        private volatile GenericResponse response;
+        private volatile ApiException error;
+        private volatile BatchItemResult.Source source = BatchItemResult.Source.NONE;
+
+        private Execution(PreparedRequest request) {
+            this.request = request;
+        }
+
+        void complete(Supplier<GenericResponse> supplier, BatchItemResult.Source source) {
+            try {
+                this.response = supplier.get();
+                this.source = source;
+            } catch (ApiException e) {
+                fail(e, source);
+            } catch (Exception e) {
+                logger.error("Batch call to endpoint {} failed", request.getEndpointName(), e);
+                fail(ApiException.internalError("Batch call failed: " + e.getMessage(), e), source);
+            }
+        }
+
+        void fail(ApiException e, BatchItemResult.Source source) {
+            this.error = e;
+            this.source = source;
+        }
+
+        BatchItemResult toResult(BatchRequest.Item item) {
+            if (response != null) {
+                return BatchItemResult.success(item, response, source);
+            }
+            ApiException failure = error != null ? error
+                : ApiException.internalError("Batch call to endpoint " + request.getEndpointName() + " did not complete");
+            return BatchItemResult.failure(item, failure, source);
+        }
+    }
+
+    private static final class Statistics {
+        private final AtomicInteger cacheHits = new AtomicInteger();
+        private final AtomicInteger mergedQueries = new AtomicInteger();
+        private final AtomicInteger queryExecutions = new AtomicInteger();
+    }
+}
@@ -0,0 +1,102 @@
+package dev.cordal.generic.batch;
+
+import dev.cordal.common.exception.ApiException;
+import dev.cordal.generic.model.GenericResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of one item in a batch: either the endpoint response or the error it produced
+ */
+public class BatchItemResult {
+
+    /**
+     * Where the item's rows came from
+     */
+    public enum Source {
+        CACHE, MERGED, QUERY, NONE
+    }
+
+    private final String id;
+    private final String endpoint;
+    private final int status;
+    private final GenericResponse response;
+    private final String errorCode;
+    private final String errorMessage;
+    private final Source source;
+
+    private BatchItemResult(String id, String endpoint, int status, GenericResponse response,
+                            String errorCode, String errorMessage, Source source) {
+        this.id = id;
+        this.endpoint = endpoint;
+        this.status = status;
+        this.response = response;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+        this.source = source;
+    }
+
+    public static BatchItemResult success(BatchRequest.Item item, GenericResponse response, Source source) {
+        return new BatchItemResult(item.getId(), item.getEndpoint(), 200, response, null, null, source);
+    }
+
+    public static BatchItemResult failure(BatchRequest.Item item, ApiException error, Source source) {
+        return new BatchItemResult(item.getId(), item.getEndpoint(), error.getStatusCode(), null,
+                                   error.getErrorCode(), error.getMessage(), source);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public GenericResponse getResponse() {
+        return response;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public boolean isSuccess() {
+        return response != null;
+    }
+
+    /**
+     * Convert to the map rendered in the combined batch response
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        if (id != null) {
+            map.put("id", id);
+        }
+        map.put("endpoint", endpoint);
+        map.put("status", status);
+        map.put("source", source.name());
+        if (response != null) {
+            map.put("response", response);
+        } else {
+            map.put("error", Map.of(
+                "code", errorCode != null ? errorCode : "INTERNAL_ERROR",
+                "message", errorMessage != null ? errorMessage : ""
+            ));
+        }
+        return map;
+    }
+}
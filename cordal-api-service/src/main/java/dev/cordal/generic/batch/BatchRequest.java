@@ -0,0 +1,104 @@
+package dev.cordal.generic.batch;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request body for the batch endpoint: a list of endpoint calls to execute in one round-trip
+ *
+ * <pre>
+ * { "requests": [ { "id": "a", "endpoint": "stock-trades-by-symbol", "parameters": { "symbol": "AAPL" } } ] }
+ * </pre>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BatchRequest {
+
+    @JsonProperty("requests")
+    private List<Item> requests;
+
+    /**
+     * Default constructor for JSON deserialization
+     */
+    public BatchRequest() {
+    }
+
+    public BatchRequest(List<Item> requests) {
+        this.requests = requests;
+    }
+
+    public List<Item> getRequests() {
+        return requests;
+    }
+
+    public void setRequests(List<Item> requests) {
+        this.requests = requests;
+    }
+
+    /**
+     * Check if the batch contains any items
+     */
+    public boolean hasRequests() {
+        return requests != null && !requests.isEmpty();
+    }
+
+    /**
+     * A single endpoint call within a batch
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Item {
+
+        @JsonProperty("id")
+        private String id; // Optional client-supplied correlation id, echoed back in the result
+
+        @JsonProperty("endpoint")
+        private String endpoint;
+
+        @JsonProperty("parameters")
+        private Map<String, Object> parameters;
+
+        public Item() {
+        }
+
+        public Item(String id, String endpoint, Map<String, Object> parameters) {
+            this.id = id;
+            this.endpoint = endpoint;
+            this.parameters = parameters;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public void setEndpoint(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public Map<String, Object> getParameters() {
+            return parameters != null ? parameters : Map.of();
+        }
+
+        public void setParameters(Map<String, Object> parameters) {
+            this.parameters = parameters;
+        }
+
+        @Override
+        public String toString() {
+            return "Item{" +
+                    "id='" + id + '\'' +
+                    ", endpoint='" + endpoint + '\'' +
+                    ", parameters=" + parameters +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package dev.cordal.generic.batch;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Combined outcome of a batch request
+ */
+public class BatchResult {
+    private final List<BatchItemResult> results;
+    private final int distinctCalls;
+    private final int cacheHits;
+    private final int mergedQueries;
+    private final int queryExecutions;
+    private final long executionTimeMs;
+
+    public BatchResult(List<BatchItemResult> results, int distinctCalls, int cacheHits,
+                       int mergedQueries, int queryExecutions, long executionTimeMs) {
+        this.results = results;
+        this.distinctCalls = distinctCalls;
+        this.cacheHits = cacheHits;
+        this.mergedQueries = mergedQueries;
+        this.queryExecutions = queryExecutions;
+        this.executionTimeMs = executionTimeMs;
+    }
+
+    public List<BatchItemResult> getResults() {
+        return results;
+    }
+
+    public int getDistinctCalls() {
+        return distinctCalls;
+    }
+
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
+    public int getMergedQueries() {
+        return mergedQueries;
+    }
+
+    public int getQueryExecutions() {
+        return queryExecutions;
+    }
+
+    public long getExecutionTimeMs() {
+        return executionTimeMs;
+    }
+
+    public int getSucceeded() {
+        return (int) results.stream().filter(BatchItemResult::isSuccess).count();
+    }
+
+    /**
+     * Convert to the combined response body
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        int succeeded = getSucceeded();
+        summary.put("totalItems", results.size());
+        summary.put("succeeded", succeeded);
+        summary.put("failed", results.size() - succeeded);
+        summary.put("distinctCalls", distinctCalls);
+        summary.put("cacheHits", cacheHits);
+        summary.put("mergedQueries", mergedQueries);
+        summary.put("queryExecutions", queryExecutions);
+        summary.put("executionTimeMs", executionTimeMs);
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("results", results.stream().map(BatchItemResult::toMap).toList());
+        map.put("summary", summary);
+        map.put("timestamp", System.currentTimeMillis());
+        return map;
+    }
+}
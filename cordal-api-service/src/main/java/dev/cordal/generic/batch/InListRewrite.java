@@ -0,0 +1,302 @@
+package dev.cordal.generic.batch;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites a query with a {@code column = ?} predicate into a {@code column IN (?, ?, ...)} query
+ * so that several parameter values can be fetched with one statement.
+ *
+ * The rewrite is only offered when merging cannot change which rows belong to each value:
+ * queries that limit, aggregate, group or de-duplicate rows are rejected, and the predicate must
+ * be one of the top-level conditions of a WHERE clause that only combines conditions with AND.
+ * Merged rows are split back per value by comparing typed values, see {@link #split}.
+ */
+final class InListRewrite {
+
+    // Constructs whose result depends on the whole row set rather than on each row in isolation
+    private static final Pattern ROW_SET_DEPENDENT = Pattern.compile(
+        "\\b(LIMIT|OFFSET|FETCH|TOP|GROUP\\s+BY|HAVING|DISTINCT|UNION|INTERSECT|EXCEPT|OVER)\\b" +
+        "|\\b(COUNT|SUM|AVG|MIN|MAX)\\s*\\(",
+        Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern WHERE = Pattern.compile("\\bWHERE\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ORDER_BY = Pattern.compile("\\bORDER\\s+BY\\b", Pattern.CASE_INSENSITIVE);
+
+    // Connectives that let a row match through another condition than the merged equality
+    private static final Pattern NON_CONJUNCTIVE = Pattern.compile("\\b(OR|NOT|BETWEEN)\\b", Pattern.CASE_INSENSITIVE);
+
+    // "WHERE column = " or "AND column = " immediately before the placeholder
+    private static final Pattern EQUALS_PREFIX = Pattern.compile(
+        "\\b(?:WHERE|AND)\\s+([A-Za-z_]\\w*(?:\\.[A-Za-z_]\\w*)?)\\s*=\\s*$", Pattern.CASE_INSENSITIVE);
+
+    // What may follow the placeholder for it to be a plain operand of the equality
+    private static final Pattern PREDICATE_SUFFIX = Pattern.compile(
+        "^\\s*(?:$|;|AND\\b|ORDER\\s+BY\\b)", Pattern.CASE_INSENSITIVE);
+
+    private final String sqlBeforeColumn;
+    private final String sqlAfterPlaceholder;
+    private final String column;
+
+    private InListRewrite(String sqlBeforeColumn, String sqlAfterPlaceholder, String column) {
+        this.sqlBeforeColumn = sqlBeforeColumn;
+        this.sqlAfterPlaceholder = sqlAfterPlaceholder;
+        this.column = column;
+    }
+
+    /**
+     * Analyse the SQL for merging on the placeholder at the given 1-based position
+     *
+     * @return the rewrite, or empty if the query cannot be merged safely
+     */
+    static Optional<InListRewrite> analyze(String sql, int placeholderPosition) {
+        if (sql == null || placeholderPosition < 1) {
+            return Optional.empty();
+        }
+
+        // Quoted literals and identifiers are blanked so keywords and question marks in them are ignored
+        String masked = maskQuoted(sql);
+        if (ROW_SET_DEPENDENT.matcher(masked).find()) {
+            return Optional.empty();
+        }
+
+        int placeholderIndex = findPlaceholder(masked, placeholderPosition);
+        if (placeholderIndex < 0 || depthAt(masked, placeholderIndex) != 0) {
+            return Optional.empty();
+        }
+
+        // The placeholder must be in the top-level WHERE clause, which may only use AND
+        int whereIndex = lastTopLevelMatch(masked, WHERE, placeholderIndex);
+        if (whereIndex < 0) {
+            return Optional.empty();
+        }
+        int whereEnd = firstTopLevelMatch(masked, ORDER_BY, placeholderIndex);
+        String whereClause = masked.substring(whereIndex, whereEnd < 0 ? masked.length() : whereEnd);
+        if (NON_CONJUNCTIVE.matcher(whereClause).find()) {
+            return Optional.empty();
+        }
+
+        Matcher prefix = EQUALS_PREFIX.matcher(masked.substring(whereIndex, placeholderIndex));
+        if (!prefix.find() || !PREDICATE_SUFFIX.matcher(masked.substring(placeholderIndex + 1)).find()) {
+            return Optional.empty();
+        }
+
+        int columnStart = whereIndex + prefix.start(1);
+        String qualifiedColumn = prefix.group(1);
+        String column = qualifiedColumn.substring(qualifiedColumn.lastIndexOf('.') + 1);
+        return Optional.of(new InListRewrite(sql.substring(0, columnStart + qualifiedColumn.length()),
+                                             sql.substring(placeholderIndex + 1), column));
+    }
+
+    /**
+     * Build the merged SQL for the given number of values
+     */
+    String toSql(int valueCount) {
+        StringBuilder sql = new StringBuilder(sqlBeforeColumn.length() + sqlAfterPlaceholder.length() + valueCount * 3 + 8);
+        sql.append(sqlBeforeColumn).append(" IN (");
+        for (int i = 0; i < valueCount; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(')').append(sqlAfterPlaceholder).toString();
+    }
+
+    /**
+     * Unqualified name of the column the merged rows are split on
+     */
+    String getColumn() {
+        return column;
+    }
+
+    /**
+     * Normalise a parameter value so that, for example, an INTEGER parameter and a LONG parameter
+     * with the same value identify the same call
+     */
+    static String normalize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number) {
+            try {
+                return new BigDecimal(value.toString()).stripTrailingZeros().toPlainString();
+            } catch (NumberFormatException e) {
+                return value.toString();
+            }
+        }
+        return value.toString();
+    }
+
+    /**
+     * Split the rows of a merged query back per key value.
+     *
+     * Row and key values are converted to one representation for the column's JDBC type, so a
+     * TIMESTAMP column matches Timestamp and LocalDateTime keys alike and a CHAR column ignores
+     * its padding. The split is refused when the database may have matched differently: when a
+     * row matches none of the keys, when a key cannot be converted, or when string keys differ
+     * only in case and the column's collation may treat them as equal.
+     *
+     * @param jdbcType the column type from {@link java.sql.Types}
+     * @return the rows for each key in key order, or empty if the rows cannot be split reliably
+     */
+    static Optional<List<List<Map<String, Object>>>> split(List<Map<String, Object>> rows, String column,
+                                                          int jdbcType, List<Object> keyValues) {
+        Map<Object, List<Map<String, Object>>> rowsByKey = new HashMap<>();
+        Set<String> foldedKeys = new HashSet<>();
+        for (Object keyValue : keyValues) {
+            Object key = matchKey(keyValue, jdbcType);
+            if (key == null) {
+                return Optional.empty();
+            }
+            if (rowsByKey.putIfAbsent(key, new ArrayList<>()) == null
+                    && key instanceof String text && !foldedKeys.add(text.toLowerCase(Locale.ROOT))) {
+                return Optional.empty();
+            }
+        }
+
+        for (Map<String, Object> row : rows) {
+            Object key = matchKey(row.get(column), jdbcType);
+            List<Map<String, Object>> keyRows = key != null ? rowsByKey.get(key) : null;
+            if (keyRows == null) {
+                return Optional.empty();
+            }
+            keyRows.add(row);
+        }
+
+        List<List<Map<String, Object>>> split = new ArrayList<>(keyValues.size());
+        for (Object keyValue : keyValues) {
+            split.add(rowsByKey.get(matchKey(keyValue, jdbcType)));
+        }
+        return Optional.of(split);
+    }
+
+    /**
+     * Comparable representation of a value for a column of the given JDBC type, or null if the
+     * value cannot be compared reliably
+     */
+    static Object matchKey(Object value, int jdbcType) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            switch (jdbcType) {
+                case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT,
+                     Types.DECIMAL, Types.NUMERIC, Types.REAL, Types.FLOAT, Types.DOUBLE -> {
+                    BigDecimal number = value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+                    return number.stripTrailingZeros();
+                }
+                case Types.CHAR, Types.NCHAR -> {
+                    // CHAR values are blank-padded to the column length and compared without the padding
+                    return value.toString().stripTrailing();
+                }
+                case Types.VARCHAR, Types.NVARCHAR, Types.LONGVARCHAR, Types.LONGNVARCHAR -> {
+                    return value.toString();
+                }
+                case Types.BOOLEAN, Types.BIT -> {
+                    return value instanceof Boolean ? value : Boolean.valueOf(value.toString());
+                }
+                case Types.TIMESTAMP -> {
+                    if (value instanceof Timestamp timestamp) {
+                        return timestamp.toLocalDateTime();
+                    }
+                    if (value instanceof LocalDateTime dateTime) {
+                        return dateTime;
+                    }
+                    return Timestamp.valueOf(value.toString()).toLocalDateTime();
+                }
+                case Types.DATE -> {
+                    if (value instanceof java.sql.Date date) {
+                        return date.toLocalDate();
+                    }
+                    return value instanceof LocalDate ? value : LocalDate.parse(value.toString());
+                }
+                default -> {
+                    return null;
+                }
+            }
+        } catch (IllegalArgumentException | java.time.DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Copy of the SQL with the contents of quoted literals and identifiers replaced by blanks,
+     * keeping every other character at its index
+     */
+    private static String maskQuoted(String sql) {
+        char[] masked = sql.toCharArray();
+        char quote = 0;
+        for (int i = 0; i < masked.length; i++) {
+            char c = masked[i];
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else {
+                    masked[i] = ' ';
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            }
+        }
+        return new String(masked);
+    }
+
+    /**
+     * Find the index of the n-th JDBC placeholder in masked SQL
+     */
+    private static int findPlaceholder(String masked, int position) {
+        int seen = 0;
+        for (int i = 0; i < masked.length(); i++) {
+            if (masked.charAt(i) == '?' && ++seen == position) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int depthAt(String masked, int index) {
+        int depth = 0;
+        for (int i = 0; i < index; i++) {
+            char c = masked.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            }
+        }
+        return depth;
+    }
+
+    private static int lastTopLevelMatch(String masked, Pattern pattern, int before) {
+        int found = -1;
+        Matcher matcher = pattern.matcher(masked);
+        while (matcher.find() && matcher.start() < before) {
+            if (depthAt(masked, matcher.start()) == 0) {
+                found = matcher.start();
+            }
+        }
+        return found;
+    }
+
+    private static int firstTopLevelMatch(String masked, Pattern pattern, int from) {
+        Matcher matcher = pattern.matcher(masked);
+        while (matcher.find(from)) {
+            if (depthAt(masked, matcher.start()) == 0) {
+                return matcher.start();
+            }
+            from = matcher.end();
+        }
+        return -1;
+    }
+}
@@ -15,6 +15,7 @@ public class ApiEndpointConfig {
     private PaginationConfig pagination;
     private List<EndpointParameter> parameters;
     private ResponseConfig response;
+    private Long timeoutMs; // Request deadline in milliseconds (null = no deadline)
 
     // Default constructor
     public ApiEndpointConfig() {}
@@ -84,6 +85,21 @@ public class ApiEndpointConfig {
         this.response = response;
     }
 
+    public Long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public void setTimeoutMs(Long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Check if a request deadline is configured for this endpoint
+     */
+    public boolean hasTimeout() {
+        return timeoutMs != null && timeoutMs > 0;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -96,12 +112,13 @@ public class ApiEndpointConfig {
                Objects.equals(countQuery, that.countQuery) &&
                Objects.equals(pagination, that.pagination) &&
                Objects.equals(parameters, that.parameters) &&
-               Objects.equals(response, that.response);
+               Objects.equals(response, that.response) &&
+               Objects.equals(timeoutMs, that.timeoutMs);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(path, method, description, query, countQuery, pagination, parameters, response);
+        return Objects.hash(path, method, description, query, countQuery, pagination, parameters, response, timeoutMs);
     }
 
     @Override
@@ -115,6 +132,7 @@ public class ApiEndpointConfig {
                ", pagination=" + pagination +
                ", parameters=" + parameters +
                ", response=" + response +
+               ", timeoutMs=" + timeoutMs +
                '}';
     }
 
@@ -7,16 +7,28 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Singleton;
 import javax.inject.Inject;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.FileInputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.Files;
+import java.util.Collection;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 import java.util.stream.Collectors;
 import dev.cordal.config.GenericApiConfig;
@@ -34,11 +46,28 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
     private final ObjectMapper yamlMapper;
     private final GenericApiConfig genericApiConfig;
 
+    // Parsed files from earlier loads; a reload only reparses the files whose content changed
+    private final ParsedFileCache<QueriesWrapper> queryFileCache = new ParsedFileCache<>();
+    private final ParsedFileCache<DatabasesWrapper> databaseFileCache = new ParsedFileCache<>();
+    private final ParsedFileCache<EndpointsWrapper> endpointFileCache = new ParsedFileCache<>();
+
+    // Runs the blocking file reads of the three configuration types; idle threads time out
+    private final ExecutorService loadExecutor;
+
     @Inject
     public ConfigurationLoader(GenericApiConfig genericApiConfig) {
         this.yamlMapper = new ObjectMapper(new YAMLFactory());
         this.genericApiConfig = genericApiConfig;
 
+        AtomicInteger threadCounter = new AtomicInteger(0);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(3, 3, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "config-loader-" + threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        this.loadExecutor = executor;
+
         // Log the configuration directories and patterns that will be used
         logger.info("ConfigurationLoader initialized with directory scanning:");
         logger.info("  - Configuration directories: {}", genericApiConfig.getConfigDirectories());
@@ -107,11 +136,11 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
     /**
      * Scan directories for configuration files matching the specified patterns
      */
-    private java.util.List<Path> scanForConfigurationFiles(java.util.List<String> patterns) {
-        java.util.List<Path> matchingFiles = new java.util.ArrayList<>();
+    private List<Path> scanForConfigurationFiles(java.util.List<String> patterns) {
+        List<Path> matchingFiles = new java.util.ArrayList<>();
 
         for (String directory : genericApiConfig.getConfigDirectories()) {
-            logger.info("Scanning directory '{}' for configuration files with patterns: {}", directory, patterns);
+            logger.debug("Scanning directory '{}' for configuration files with patterns: {}", directory, patterns);
 
             try {
                 Path dirPath = Paths.get(directory).toAbsolutePath().normalize();
@@ -128,13 +157,13 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
 
                 // Scan directory for files matching patterns
                 try (java.util.stream.Stream<Path> files = Files.list(dirPath)) {
-                    java.util.List<Path> directoryMatches = files
+                    List<Path> directoryMatches = files
                         .filter(Files::isRegularFile)
                         .filter(file -> matchesAnyPattern(file.getFileName().toString(), patterns))
                         .sorted()
                         .collect(java.util.stream.Collectors.toList());
 
-                    logger.info("Found {} matching files in directory '{}': {}",
+                    logger.debug("Found {} matching files in directory '{}': {}",
                                directoryMatches.size(), directory,
                                directoryMatches.stream().map(p -> p.getFileName().toString()).collect(java.util.stream.Collectors.toList()));
 
@@ -146,7 +175,7 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
             }
         }
 
-        logger.info("Total configuration files found: {} files", matchingFiles.size());
+        logger.debug("Total configuration files found: {} files", matchingFiles.size());
         return matchingFiles;
     }
 
@@ -186,7 +215,7 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
 
         logger.info("Loading query configurations using directory scanning");
 
-        java.util.List<Path> queryFiles = scanForConfigurationFiles(genericApiConfig.getQueryPatterns());
+        List<Path> queryFiles = scanForConfigurationFiles(genericApiConfig.getQueryPatterns());
 
         if (queryFiles.isEmpty()) {
             // Check if this is a test scenario by examining the directories
@@ -216,12 +245,15 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
         }
 
         Map<String, QueryConfig> allQueries = new java.util.LinkedHashMap<>();
+        long parsesBefore = queryFileCache.getParseCount();
+        queryFileCache.retainOnly(queryFiles);
 
         for (Path queryFile : queryFiles) {
-            logger.info("Loading query configurations from file: {}", queryFile);
+            logger.debug("Loading query configurations from file: {}", queryFile);
 
-            try (InputStream inputStream = new FileInputStream(queryFile.toFile())) {
-                QueriesWrapper wrapper = yamlMapper.readValue(inputStream, QueriesWrapper.class);
+            try {
+                QueriesWrapper wrapper = queryFileCache.get(queryFile,
+                    content -> yamlMapper.readValue(content, QueriesWrapper.class));
                 Map<String, QueryConfig> queries = wrapper.getQueries();
 
                 if (queries == null || queries.isEmpty()) {
@@ -259,12 +291,7 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
                 }
 
                 allQueries.putAll(queries);
-                logger.info("Loaded {} query configurations from: {}", queries.size(), queryFile.getFileName());
-
-                // Log each query for debugging
-                queries.forEach((key, config) -> {
-                    logger.info("  - Query '{}': {} (database: {})", key, config.getName(), config.getDatabase());
-                });
+                logger.debug("Loaded {} query configurations from: {} {}", queries.size(), queryFile.getFileName(), queries.keySet());
 
             } catch (Exception e) {
                 logger.error("FATAL CONFIGURATION ERROR: Failed to load query configurations");
@@ -290,8 +317,9 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
                 "No query configurations found in " + queryFiles.size() + " processed files");
         }
 
-        logger.info("Successfully loaded {} total query configurations from {} files",
-                   allQueries.size(), queryFiles.size());
+        long reparsedFiles = queryFileCache.getParseCount() - parsesBefore;
+        logger.info("Successfully loaded {} total query configurations from {} files ({} reparsed, {} unchanged)",
+                   allQueries.size(), queryFiles.size(), reparsedFiles, queryFiles.size() - reparsedFiles);
         return allQueries;
     }
     
@@ -307,7 +335,7 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
 
         logger.info("Loading database configurations using directory scanning");
 
-        java.util.List<Path> databaseFiles = scanForConfigurationFiles(genericApiConfig.getDatabasePatterns());
+        List<Path> databaseFiles = scanForConfigurationFiles(genericApiConfig.getDatabasePatterns());
 
         if (databaseFiles.isEmpty()) {
             // Check if this is a test scenario by examining the directories
@@ -336,12 +364,15 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
 
         Map<String, DatabaseConfig> allDatabases = new java.util.LinkedHashMap<>();
         java.util.List<String> failedFiles = new java.util.ArrayList<>();
+        long parsesBefore = databaseFileCache.getParseCount();
+        databaseFileCache.retainOnly(databaseFiles);
 
         for (Path databaseFile : databaseFiles) {
-            logger.info("Loading database configurations from file: {}", databaseFile);
+            logger.debug("Loading database configurations from file: {}", databaseFile);
 
-            try (InputStream inputStream = new FileInputStream(databaseFile.toFile())) {
-                DatabasesWrapper wrapper = yamlMapper.readValue(inputStream, DatabasesWrapper.class);
+            try {
+                DatabasesWrapper wrapper = databaseFileCache.get(databaseFile,
+                    content -> yamlMapper.readValue(content, DatabasesWrapper.class));
                 Map<String, DatabaseConfig> databases = wrapper.getDatabases();
 
                 if (databases == null || databases.isEmpty()) {
@@ -381,23 +412,8 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
                     continue;
                 }
 
-                // Resolve system properties in database URLs before adding to the map
-                databases.forEach((key, config) -> {
-                    String originalUrl = config.getUrl();
-                    String resolvedUrl = resolveSystemProperties(originalUrl);
-                    if (!originalUrl.equals(resolvedUrl)) {
-                        config.setUrl(resolvedUrl);
-                        logger.debug("Resolved database URL for '{}': {} -> {}", key, originalUrl, resolvedUrl);
-                    }
-                });
-
-                allDatabases.putAll(databases);
-                logger.info("Loaded {} database configurations from: {}", databases.size(), databaseFile.getFileName());
-
-                // Log each database for debugging
-                databases.forEach((key, config) -> {
-                    logger.info("  - Database '{}': {} (url: {})", key, config.getName(), config.getUrl());
-                });
+                allDatabases.putAll(resolveDatabaseUrls(databases));
+                logger.debug("Loaded {} database configurations from: {} {}", databases.size(), databaseFile.getFileName(), databases.keySet());
 
             } catch (Exception e) {
                 String errorMessage = "Failed to load database configurations from file: " + databaseFile + " - " + e.getMessage();
@@ -441,8 +457,9 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
             }
         }
 
-        logger.info("Successfully loaded {} total database configurations from {} files ({} files failed)",
-                   allDatabases.size(), databaseFiles.size() - failedFiles.size(), failedFiles.size());
+        logger.info("Successfully loaded {} total database configurations from {} files ({} files failed, {} reparsed)",
+                   allDatabases.size(), databaseFiles.size() - failedFiles.size(), failedFiles.size(),
+                   databaseFileCache.getParseCount() - parsesBefore);
 
         if (!failedFiles.isEmpty()) {
             logger.warn("Application started with {} database configuration file(s) unavailable", failedFiles.size());
@@ -463,7 +480,7 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
 
         logger.info("Loading endpoint configurations using directory scanning");
 
-        java.util.List<Path> endpointFiles = scanForConfigurationFiles(genericApiConfig.getEndpointPatterns());
+        List<Path> endpointFiles = scanForConfigurationFiles(genericApiConfig.getEndpointPatterns());
 
         if (endpointFiles.isEmpty()) {
             logger.error("FATAL CONFIGURATION ERROR: No endpoint configuration files found");
@@ -480,12 +497,15 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
 
         Map<String, ApiEndpointConfig> allEndpoints = new java.util.LinkedHashMap<>();
         java.util.List<String> failedFiles = new java.util.ArrayList<>();
+        long parsesBefore = endpointFileCache.getParseCount();
+        endpointFileCache.retainOnly(endpointFiles);
 
         for (Path endpointFile : endpointFiles) {
-            logger.info("Loading endpoint configurations from file: {}", endpointFile);
+            logger.debug("Loading endpoint configurations from file: {}", endpointFile);
 
-            try (InputStream inputStream = new FileInputStream(endpointFile.toFile())) {
-                EndpointsWrapper wrapper = yamlMapper.readValue(inputStream, EndpointsWrapper.class);
+            try {
+                EndpointsWrapper wrapper = endpointFileCache.get(endpointFile,
+                    content -> yamlMapper.readValue(content, EndpointsWrapper.class));
                 Map<String, ApiEndpointConfig> endpoints = wrapper.getEndpoints();
 
                 if (endpoints == null || endpoints.isEmpty()) {
@@ -509,12 +529,7 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
                 }
 
                 allEndpoints.putAll(endpoints);
-                logger.info("Loaded {} endpoint configurations from: {}", endpoints.size(), endpointFile.getFileName());
-
-                // Log each endpoint for debugging
-                endpoints.forEach((key, config) -> {
-                    logger.info("  - Endpoint '{}': {} {} (query: {})", key, config.getMethod(), config.getPath(), config.getQuery());
-                });
+                logger.debug("Loaded {} endpoint configurations from: {} {}", endpoints.size(), endpointFile.getFileName(), endpoints.keySet());
 
             } catch (Exception e) {
                 String errorMessage = "Failed to load endpoint configurations from file: " + endpointFile + " - " + e.getMessage();
@@ -558,8 +573,9 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
             }
         }
 
-        logger.info("Successfully loaded {} total endpoint configurations from {} files ({} files failed)",
-                   allEndpoints.size(), endpointFiles.size() - failedFiles.size(), failedFiles.size());
+        logger.info("Successfully loaded {} total endpoint configurations from {} files ({} files failed, {} reparsed)",
+                   allEndpoints.size(), endpointFiles.size() - failedFiles.size(), failedFiles.size(),
+                   endpointFileCache.getParseCount() - parsesBefore);
 
         if (!failedFiles.isEmpty()) {
             logger.warn("Application started with {} endpoint configuration file(s) unavailable", failedFiles.size());
@@ -568,6 +584,175 @@ public class ConfigurationLoader implements ConfigurationLoaderInterface {
         return allEndpoints;
     }
 
+    /**
+     * Load all configurations, from the configured snapshot if it is current and otherwise from
+     * the YAML files
+     */
+    @Override
+    public VersionedConfiguration loadAllConfigurations(String source) {
+        String snapshot = genericApiConfig.getConfigSnapshot();
+        if (snapshot != null && !genericApiConfig.hasSpecificConfigPaths()) {
+            Optional<VersionedConfiguration> fromSnapshot = loadFromSnapshot(Paths.get(snapshot), source);
+            if (fromSnapshot.isPresent()) {
+                return fromSnapshot.get();
+            }
+        }
+        return loadAllFromYaml(source);
+    }
+
+    /**
+     * Load, validate and write a configuration snapshot of the current YAML files
+     *
+     * @throws ConfigurationException if the configuration does not load or fails validation
+     */
+    public VersionedConfiguration writeSnapshot(Path target) throws IOException {
+        if (genericApiConfig.hasSpecificConfigPaths()) {
+            throw new ConfigurationException("Configuration snapshots need directory scanning, but specific config paths are set");
+        }
+
+        List<Path> sources = scanSnapshotSources();
+        VersionedConfiguration configuration = loadAllFromYaml("yaml");
+        int validationErrors = EndpointConfigurationManager.validate(configuration);
+        if (validationErrors > 0) {
+            throw new ConfigurationException("Configuration validation failed with " + validationErrors +
+                                             " errors; snapshot not written");
+        }
+
+        // Keep ${property} placeholders in database URLs so they are resolved where the snapshot is used
+        Map<String, String> unresolvedUrls = new HashMap<>();
+        for (Path databaseFile : scanForConfigurationFiles(genericApiConfig.getDatabasePatterns())) {
+            DatabasesWrapper wrapper = yamlMapper.readValue(databaseFile.toFile(), DatabasesWrapper.class);
+            if (wrapper.getDatabases() != null) {
+                wrapper.getDatabases().forEach((name, config) -> unresolvedUrls.put(name, config.getUrl()));
+            }
+        }
+
+        ConfigurationSnapshotFile.write(target, sources, configuration.getDatabases(), configuration.getQueries(),
+                                        configuration.getEndpoints(), unresolvedUrls);
+        logger.info("Wrote configuration snapshot {} from {} files ({} databases, {} queries, {} endpoints)",
+                   target, sources.size(), configuration.getDatabases().size(),
+                   configuration.getQueries().size(), configuration.getEndpoints().size());
+        return configuration;
+    }
+
+    private Optional<VersionedConfiguration> loadFromSnapshot(Path snapshot, String source) {
+        long startTime = System.currentTimeMillis();
+        try {
+            Optional<ConfigurationSnapshotFile.Contents> contents =
+                ConfigurationSnapshotFile.readIfCurrent(snapshot, scanSnapshotSources());
+            if (contents.isEmpty()) {
+                logger.info("Configuration snapshot {} is missing or out of date, loading YAML files", snapshot);
+                return Optional.empty();
+            }
+
+            Map<String, DatabaseConfig> databases = resolveDatabaseUrls(contents.get().databases());
+            VersionedConfiguration configuration = VersionedConfiguration.prevalidated(
+                source, databases, contents.get().queries(), contents.get().endpoints());
+
+            logger.info("Loaded configuration snapshot {} ({} databases, {} queries, {} endpoints) in {}ms",
+                       snapshot, databases.size(), configuration.getQueries().size(),
+                       configuration.getEndpoints().size(), System.currentTimeMillis() - startTime);
+            return Optional.of(configuration);
+
+        } catch (IOException | RuntimeException e) {
+            // A damaged snapshot is treated like a stale one
+            logger.warn("Failed to read configuration snapshot {}, loading YAML files: {}", snapshot, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * All files the three configuration types are loaded from, in a stable order
+     */
+    private List<Path> scanSnapshotSources() {
+        Set<Path> sources = new TreeSet<>();
+        sources.addAll(scanForConfigurationFiles(genericApiConfig.getDatabasePatterns()));
+        sources.addAll(scanForConfigurationFiles(genericApiConfig.getQueryPatterns()));
+        sources.addAll(scanForConfigurationFiles(genericApiConfig.getEndpointPatterns()));
+        return new ArrayList<>(sources);
+    }
+
+    /**
+     * Load the three configuration types concurrently. Each type scans and parses its own files,
+     * so a reload takes as long as the slowest type rather than the sum of all three.
+     */
+    private VersionedConfiguration loadAllFromYaml(String source) {
+        CompletableFuture<Map<String, DatabaseConfig>> databases =
+            CompletableFuture.supplyAsync(this::loadDatabaseConfigurations, loadExecutor);
+        CompletableFuture<Map<String, QueryConfig>> queries =
+            CompletableFuture.supplyAsync(this::loadQueryConfigurations, loadExecutor);
+        CompletableFuture<Map<String, ApiEndpointConfig>> endpoints =
+            CompletableFuture.supplyAsync(this::loadEndpointConfigurations, loadExecutor);
+
+        // Report failures in the order a sequential load would have hit them
+        return VersionedConfiguration.unpublished(source, await(databases), await(queries), await(endpoints));
+    }
+
+    /**
+     * Reload only the configuration types that have a file among the changed files and carry the
+     * other types over from the current configuration. A batch that touches only query files, say,
+     * neither scans nor parses the database and endpoint files.
+     */
+    public VersionedConfiguration loadChangedConfigurations(VersionedConfiguration current,
+                                                            Collection<Path> changedFiles, String source) {
+        if (genericApiConfig.hasSpecificConfigPaths()) {
+            return loadAllConfigurations(source);
+        }
+
+        boolean databasesChanged = anyFileMatches(changedFiles, genericApiConfig.getDatabasePatterns());
+        boolean queriesChanged = anyFileMatches(changedFiles, genericApiConfig.getQueryPatterns());
+        boolean endpointsChanged = anyFileMatches(changedFiles, genericApiConfig.getEndpointPatterns());
+        logger.info("Reloading changed configuration types (databases: {}, queries: {}, endpoints: {}) for {} files",
+                   databasesChanged, queriesChanged, endpointsChanged, changedFiles.size());
+
+        CompletableFuture<Map<String, DatabaseConfig>> databases = databasesChanged
+            ? CompletableFuture.supplyAsync(this::loadDatabaseConfigurations, loadExecutor)
+            : CompletableFuture.completedFuture(current.getDatabases());
+        CompletableFuture<Map<String, QueryConfig>> queries = queriesChanged
+            ? CompletableFuture.supplyAsync(this::loadQueryConfigurations, loadExecutor)
+            : CompletableFuture.completedFuture(current.getQueries());
+        CompletableFuture<Map<String, ApiEndpointConfig>> endpoints = endpointsChanged
+            ? CompletableFuture.supplyAsync(this::loadEndpointConfigurations, loadExecutor)
+            : CompletableFuture.completedFuture(current.getEndpoints());
+
+        return VersionedConfiguration.unpublished(source, await(databases), await(queries), await(endpoints));
+    }
+
+    private boolean anyFileMatches(Collection<Path> files, java.util.List<String> patterns) {
+        return files.stream().anyMatch(file -> matchesAnyPattern(file.getFileName().toString(), patterns));
+    }
+
+    /**
+     * Resolve system properties in database URLs. A configuration whose URL changes is copied
+     * rather than updated in place, because parsed configurations are shared with the file cache
+     * and with configurations that have already been published.
+     */
+    private Map<String, DatabaseConfig> resolveDatabaseUrls(Map<String, DatabaseConfig> databases) {
+        Map<String, DatabaseConfig> resolved = new LinkedHashMap<>();
+        databases.forEach((key, config) -> {
+            String originalUrl = config.getUrl();
+            String resolvedUrl = resolveSystemProperties(originalUrl);
+            if (originalUrl != null && !originalUrl.equals(resolvedUrl)) {
+                logger.debug("Resolved database URL for '{}': {} -> {}", key, originalUrl, resolvedUrl);
+                resolved.put(key, config.withUrl(resolvedUrl));
+            } else {
+                resolved.put(key, config);
+            }
+        });
+        return resolved;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Load query configurations from a specific file (for backward compatibility with tests)
      */
@@ -51,6 +51,13 @@ public class ConfigurationLoaderFactory {
         }
     }
 
+    /**
+     * Get the database-backed loader, which also serves snapshot reads of the configuration tables
+     */
+    public DatabaseConfigurationLoader getDatabaseConfigurationLoader() {
+        return databaseConfigurationLoader;
+    }
+
     /**
      * Get the current configuration source
      */
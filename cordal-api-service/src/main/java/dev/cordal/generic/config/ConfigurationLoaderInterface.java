@@ -25,4 +25,16 @@ public interface ConfigurationLoaderInterface {
      * @return Map of endpoint configurations keyed by name
      */
     Map<String, ApiEndpointConfig> loadEndpointConfigurations();
+
+    /**
+     * Load databases, queries and endpoints as one unpublished configuration generation
+     * @param source the configuration source name recorded in the generation
+     * @return the loaded configurations
+     */
+    default VersionedConfiguration loadAllConfigurations(String source) {
+        return VersionedConfiguration.unpublished(source,
+                                                  loadDatabaseConfigurations(),
+                                                  loadQueryConfigurations(),
+                                                  loadEndpointConfigurations());
+    }
 }
@@ -0,0 +1,167 @@
+package dev.cordal.generic.config;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Binary file holding a validated configuration together with the SHA-256 of every YAML file it
+ * was built from.
+ *
+ * Layout: magic, format version, source count, then for each source its path and hash, then the
+ * length-prefixed configuration payload. The file is memory-mapped on load; the payload is only
+ * decoded when the recorded sources are exactly the current ones with the same content, so a
+ * stale snapshot costs one hash per source file before falling back to the YAML.
+ */
+final class ConfigurationSnapshotFile {
+
+    private static final int MAGIC = 0x43444C53; // "CDLS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HASH_LENGTH = 32;
+
+    private static final ObjectMapper payloadMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private ConfigurationSnapshotFile() {
+    }
+
+    /**
+     * Configurations decoded from a snapshot
+     */
+    record Contents(Map<String, DatabaseConfig> databases,
+                    Map<String, QueryConfig> queries,
+                    Map<String, ApiEndpointConfig> endpoints) {
+        Contents {
+            databases = databases != null ? databases : new LinkedHashMap<>();
+            queries = queries != null ? queries : new LinkedHashMap<>();
+            endpoints = endpoints != null ? endpoints : new LinkedHashMap<>();
+        }
+    }
+
+    /**
+     * Write a snapshot of the given configurations built from the given source files. The file is
+     * written next to the target and moved into place, so a reader never sees a partial snapshot.
+     *
+     * @param unresolvedUrls database URLs as written in the YAML, stored in place of the resolved
+     *                       ones so that system properties are applied again when the snapshot is read
+     */
+    static void write(Path target, List<Path> sources, Map<String, DatabaseConfig> databases,
+                      Map<String, QueryConfig> queries, Map<String, ApiEndpointConfig> endpoints,
+                      Map<String, String> unresolvedUrls) throws IOException {
+        ObjectNode databaseSection = payloadMapper.valueToTree(databases);
+        unresolvedUrls.forEach((name, url) -> {
+            if (databaseSection.get(name) instanceof ObjectNode database) {
+                database.put("url", url);
+            }
+        });
+
+        ObjectNode payload = payloadMapper.createObjectNode();
+        payload.set("databases", databaseSection);
+        payload.set("queries", payloadMapper.valueToTree(queries));
+        payload.set("endpoints", payloadMapper.valueToTree(endpoints));
+        byte[] payloadBytes = payloadMapper.writeValueAsBytes(payload);
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(payloadBytes.length + 256 * (sources.size() + 1));
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(sources.size());
+            for (Path source : sources) {
+                byte[] path = key(source).getBytes(StandardCharsets.UTF_8);
+                out.writeInt(path.length);
+                out.write(path);
+                out.write(ParsedFileCache.sha256(Files.readAllBytes(source)));
+            }
+            out.writeInt(payloadBytes.length);
+            out.write(payloadBytes);
+        }
+
+        Path absoluteTarget = target.toAbsolutePath();
+        if (absoluteTarget.getParent() != null) {
+            Files.createDirectories(absoluteTarget.getParent());
+        }
+        Path temporary = absoluteTarget.resolveSibling(absoluteTarget.getFileName() + ".tmp");
+        Files.write(temporary, buffer.toByteArray());
+        Files.move(temporary, absoluteTarget, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read a snapshot if it was built from exactly the given source files as they are now
+     *
+     * @return the configurations, or empty if the snapshot is missing, unreadable or stale
+     */
+    static Optional<Contents> readIfCurrent(Path snapshot, List<Path> sources) throws IOException {
+        if (!Files.isRegularFile(snapshot)) {
+            return Optional.empty();
+        }
+
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            if (mapped.getInt() != MAGIC || mapped.getInt() != FORMAT_VERSION) {
+                return Optional.empty();
+            }
+
+            int sourceCount = mapped.getInt();
+            if (sourceCount != sources.size()) {
+                return Optional.empty();
+            }
+            byte[] recordedHash = new byte[HASH_LENGTH];
+            for (Path source : sources) {
+                int pathLength = mapped.getInt();
+                if (!fits(mapped, pathLength)) {
+                    return Optional.empty();
+                }
+                byte[] path = new byte[pathLength];
+                mapped.get(path);
+                mapped.get(recordedHash);
+                if (!key(source).equals(new String(path, StandardCharsets.UTF_8))
+                        || !Files.isRegularFile(source)
+                        || !Arrays.equals(recordedHash, ParsedFileCache.sha256(Files.readAllBytes(source)))) {
+                    return Optional.empty();
+                }
+            }
+
+            int payloadLength = mapped.getInt();
+            if (!fits(mapped, payloadLength)) {
+                return Optional.empty();
+            }
+            ByteBuffer payload = mapped.slice(mapped.position(), payloadLength);
+            return Optional.of(payloadMapper.readValue(new ByteBufferBackedInputStream(payload), Contents.class));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            // Truncated or corrupt file; treat it like a stale one
+            return Optional.empty();
+        }
+    }
+
+    // A length read from the file is only trusted if the rest of the file can hold it
+    private static boolean fits(ByteBuffer buffer, int length) {
+        return length >= 0 && length <= buffer.remaining();
+    }
+
+    private static String key(Path source) {
+        return source.toAbsolutePath().normalize().toString();
+    }
+}
@@ -0,0 +1,41 @@
+package dev.cordal.generic.config;
+
+import dev.cordal.config.GenericApiConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command line tool that validates the YAML configuration and writes it as a binary snapshot.
+ *
+ * Run it as a build or deployment step and point {@code config.snapshot} at the output; the
+ * application then loads the snapshot at startup for as long as the YAML files are unchanged.
+ *
+ * Usage: {@code ConfigurationSnapshotTool [output-file]}
+ */
+public class ConfigurationSnapshotTool {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationSnapshotTool.class);
+
+    private static final String DEFAULT_SNAPSHOT = "config-snapshot.bin";
+
+    public static void main(String[] args) {
+        GenericApiConfig config = GenericApiConfig.loadFromFile();
+
+        String output = args.length > 0 ? args[0] : config.getConfigSnapshot();
+        Path target = Paths.get(output != null ? output : DEFAULT_SNAPSHOT);
+
+        try {
+            VersionedConfiguration configuration = new ConfigurationLoader(config).writeSnapshot(target);
+            System.out.println("Configuration snapshot written to " + target.toAbsolutePath());
+            System.out.println("  Databases: " + configuration.getDatabases().size());
+            System.out.println("  Queries:   " + configuration.getQueries().size());
+            System.out.println("  Endpoints: " + configuration.getEndpoints().size());
+        } catch (Exception e) {
+            logger.error("Failed to write configuration snapshot", e);
+            System.err.println("Failed to write configuration snapshot: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
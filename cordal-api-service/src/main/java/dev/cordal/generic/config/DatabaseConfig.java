@@ -29,6 +29,13 @@ public class DatabaseConfig {
         this.pool = pool;
     }
 
+    /**
+     * Copy of this configuration with a different URL; the pool settings are shared
+     */
+    public DatabaseConfig withUrl(String url) {
+        return new DatabaseConfig(name, description, url, username, password, driver, pool);
+    }
+
     // Getters and Setters
     public String getName() {
         return name;
@@ -128,6 +135,7 @@ public class DatabaseConfig {
         private long maxLifetime = 1800000;
         private long leakDetectionThreshold = 60000;
         private String connectionTestQuery = "SELECT 1";
+        private long drainTimeout = 30000; // How long a replaced pool may keep lending connections before it is closed
 
         // Default constructor
         public PoolConfig() {}
@@ -202,6 +210,14 @@ public class DatabaseConfig {
             this.connectionTestQuery = connectionTestQuery;
         }
 
+        public long getDrainTimeout() {
+            return drainTimeout;
+        }
+
+        public void setDrainTimeout(long drainTimeout) {
+            this.drainTimeout = drainTimeout;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -213,13 +229,14 @@ public class DatabaseConfig {
                    idleTimeout == that.idleTimeout &&
                    maxLifetime == that.maxLifetime &&
                    leakDetectionThreshold == that.leakDetectionThreshold &&
+                   drainTimeout == that.drainTimeout &&
                    Objects.equals(connectionTestQuery, that.connectionTestQuery);
         }
 
         @Override
         public int hashCode() {
             return Objects.hash(maximumPoolSize, minimumIdle, connectionTimeout, 
-                              idleTimeout, maxLifetime, leakDetectionThreshold, connectionTestQuery);
+                              idleTimeout, maxLifetime, leakDetectionThreshold, drainTimeout, connectionTestQuery);
         }
 
         @Override
@@ -232,6 +249,7 @@ public class DatabaseConfig {
                    ", maxLifetime=" + maxLifetime +
                    ", leakDetectionThreshold=" + leakDetectionThreshold +
                    ", connectionTestQuery='" + connectionTestQuery + '\'' +
+                   ", drainTimeout=" + drainTimeout +
                    '}';
         }
     }
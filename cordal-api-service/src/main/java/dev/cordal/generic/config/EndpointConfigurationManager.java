@@ -5,22 +5,27 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 
 /**
  * Manages API endpoint and query configurations
  * Supports both YAML and database configuration sources
+ *
+ * The configurations live in one immutable {@link VersionedConfiguration} behind a volatile
+ * reference. Reads take no lock; a reload builds and validates the next generation off to the
+ * side and publishes it with a single store, so code holding the previous generation finishes
+ * on it undisturbed.
  */
 @Singleton
 public class EndpointConfigurationManager {
     private static final Logger logger = LoggerFactory.getLogger(EndpointConfigurationManager.class);
 
-    private final Map<String, QueryConfig> queryConfigurations;
-    private final Map<String, ApiEndpointConfig> endpointConfigurations;
-    private final Map<String, DatabaseConfig> databaseConfigurations;
     private final ConfigurationLoaderFactory configurationLoaderFactory;
     private final String configurationSource;
+    private volatile VersionedConfiguration current;
 
     @Inject
     public EndpointConfigurationManager(ConfigurationLoaderFactory configurationLoaderFactory) {
@@ -31,16 +36,12 @@ public class EndpointConfigurationManager {
 
         logger.info("Using configuration source: {}", configurationSource);
 
-        // Get the appropriate configuration loader
-        ConfigurationLoaderInterface configurationLoader = configurationLoaderFactory.createConfigurationLoader();
-
-        // Load configurations from the selected source
-        this.databaseConfigurations = configurationLoader.loadDatabaseConfigurations();
-        this.queryConfigurations = configurationLoader.loadQueryConfigurations();
-        this.endpointConfigurations = configurationLoader.loadEndpointConfigurations();
+        // Load configurations from the selected source; the initial generation is published
+        // without validation, which is handled by the Guice module based on validation settings
+        this.current = loadAll().withVersion(1);
 
         logger.info("Configuration manager initialized with {} databases, {} queries and {} endpoints from {} source",
-                   databaseConfigurations.size(), queryConfigurations.size(), endpointConfigurations.size(), configurationSource);
+                   current.getDatabases().size(), current.getQueries().size(), current.getEndpoints().size(), configurationSource);
 
         // Note: We don't add default database configurations anymore
         // The configuration database is separate and managed by DatabaseManager
@@ -49,11 +50,95 @@ public class EndpointConfigurationManager {
         // Note: Configuration validation is now handled by the Guice module based on validation settings
     }
     
+    /**
+     * Get the currently published configuration generation
+     */
+    public VersionedConfiguration getCurrentConfiguration() {
+        return current;
+    }
+
+    /**
+     * Get the version number of the currently published configuration
+     */
+    public long getConfigurationVersion() {
+        return current.getVersion();
+    }
+
+    /**
+     * Load the configured source into a new, unpublished generation
+     */
+    public VersionedConfiguration loadFromSource() {
+        return loadAll();
+    }
+
+    // Private so the constructor does not call a method a subclass could override
+    private VersionedConfiguration loadAll() {
+        ConfigurationLoaderInterface configurationLoader = configurationLoaderFactory.createConfigurationLoader();
+        return configurationLoader.loadAllConfigurations(configurationSource);
+    }
+
+    /**
+     * Load a new, unpublished generation for a batch of changed configuration files. With the YAML
+     * source only the configuration types those files belong to are reloaded; any other source is
+     * loaded in full.
+     */
+    public VersionedConfiguration loadFromSource(Collection<Path> changedFiles) {
+        ConfigurationLoaderInterface configurationLoader = configurationLoaderFactory.createConfigurationLoader();
+        if (configurationLoader instanceof ConfigurationLoader yamlLoader && !changedFiles.isEmpty()) {
+            return yamlLoader.loadChangedConfigurations(current, changedFiles, configurationSource);
+        }
+        return configurationLoader.loadAllConfigurations(configurationSource);
+    }
+
+    /**
+     * Reload the configured source, validate it and publish it as the next version
+     */
+    public VersionedConfiguration reload() {
+        return publish(loadFromSource());
+    }
+
+    /**
+     * Validate a generation and publish it as the next version.
+     * Publishers are serialised with each other; readers are never blocked.
+     *
+     * @throws RuntimeException if the generation fails validation, in which case the
+     *         current generation stays published
+     */
+    public synchronized VersionedConfiguration publish(VersionedConfiguration candidate) {
+        int validationErrors = candidate.isPrevalidated() ? 0 : validate(candidate);
+        if (validationErrors > 0) {
+            throw new RuntimeException("Configuration validation failed with " + validationErrors +
+                                       " errors; keeping version " + current.getVersion());
+        }
+
+        return swap(candidate);
+    }
+
+    /**
+     * Republish an earlier generation under a new version, e.g. to roll back a reload whose
+     * follow-up steps failed. It has been live before, so it is not validated again.
+     */
+    public synchronized VersionedConfiguration restore(VersionedConfiguration earlier) {
+        logger.info("Restoring configuration version {}", earlier.getVersion());
+        return swap(earlier);
+    }
+
+    private VersionedConfiguration swap(VersionedConfiguration candidate) {
+        VersionedConfiguration previous = current;
+        VersionedConfiguration next = candidate.withVersion(previous.getVersion() + 1);
+        current = next;
+
+        logger.info("Published configuration version {} ({} databases, {} queries, {} endpoints), replacing version {}",
+                   next.getVersion(), next.getDatabases().size(), next.getQueries().size(),
+                   next.getEndpoints().size(), previous.getVersion());
+        return next;
+    }
+
     /**
      * Get query configuration by name
      */
     public Optional<QueryConfig> getQueryConfig(String queryName) {
-        QueryConfig config = queryConfigurations.get(queryName);
+        QueryConfig config = current.getQueries().get(queryName);
         if (config == null) {
             logger.warn("Query configuration not found: {}", queryName);
             return Optional.empty();
@@ -65,7 +150,7 @@ public class EndpointConfigurationManager {
      * Get endpoint configuration by name
      */
     public Optional<ApiEndpointConfig> getEndpointConfig(String endpointName) {
-        ApiEndpointConfig config = endpointConfigurations.get(endpointName);
+        ApiEndpointConfig config = current.getEndpoints().get(endpointName);
         if (config == null) {
             logger.warn("Endpoint configuration not found: {}", endpointName);
             return Optional.empty();
@@ -77,21 +162,21 @@ public class EndpointConfigurationManager {
      * Get all query configurations
      */
     public Map<String, QueryConfig> getAllQueryConfigurations() {
-        return queryConfigurations;
+        return current.getQueries();
     }
     
     /**
      * Get all endpoint configurations
      */
     public Map<String, ApiEndpointConfig> getAllEndpointConfigurations() {
-        return endpointConfigurations;
+        return current.getEndpoints();
     }
 
     /**
      * Get database configuration by name
      */
     public Optional<DatabaseConfig> getDatabaseConfig(String databaseName) {
-        DatabaseConfig config = databaseConfigurations.get(databaseName);
+        DatabaseConfig config = current.getDatabases().get(databaseName);
         if (config == null) {
             logger.warn("Database configuration not found: {}", databaseName);
             return Optional.empty();
@@ -103,21 +188,21 @@ public class EndpointConfigurationManager {
      * Get all database configurations
      */
     public Map<String, DatabaseConfig> getAllDatabaseConfigurations() {
-        return databaseConfigurations;
+        return current.getDatabases();
     }
     
     /**
      * Check if a query exists
      */
     public boolean hasQuery(String queryName) {
-        return queryConfigurations.containsKey(queryName);
+        return current.getQueries().containsKey(queryName);
     }
 
     /**
      * Check if a database exists
      */
     public boolean hasDatabase(String databaseName) {
-        return databaseConfigurations.containsKey(databaseName);
+        return current.getDatabases().containsKey(databaseName);
     }
 
     /**
@@ -145,15 +230,37 @@ public class EndpointConfigurationManager {
      * Check if an endpoint exists
      */
     public boolean hasEndpoint(String endpointName) {
-        return endpointConfigurations.containsKey(endpointName);
+        return current.getEndpoints().containsKey(endpointName);
     }
     
     /**
      * Validate all configurations
      */
     public void validateConfigurations() {
+        if (current.isPrevalidated()) {
+            logger.info("Skipping configuration validation: configuration was validated when its snapshot was built");
+            return;
+        }
+
         logger.info("Validating configurations...");
 
+        int validationErrors = validate(current);
+
+        if (validationErrors > 0) {
+            throw new RuntimeException("Configuration validation failed with " + validationErrors + " errors");
+        }
+
+        logger.info("Configuration validation completed successfully");
+    }
+
+    /**
+     * Validate one generation, logging each problem
+     *
+     * @return the number of errors found
+     */
+    static int validate(VersionedConfiguration configuration) {
+        Map<String, QueryConfig> queryConfigurations = configuration.getQueries();
+        Map<String, DatabaseConfig> databaseConfigurations = configuration.getDatabases();
         int validationErrors = 0;
 
         // Validate query -> database references
@@ -162,7 +269,7 @@ public class EndpointConfigurationManager {
             QueryConfig queryConfig = entry.getValue();
 
             // Check if database exists
-            if (queryConfig.getDatabase() != null && !hasDatabase(queryConfig.getDatabase())) {
+            if (queryConfig.getDatabase() != null && !databaseConfigurations.containsKey(queryConfig.getDatabase())) {
                 logger.error("Query '{}' references non-existent database: {}",
                            queryName, queryConfig.getDatabase());
                 validationErrors++;
@@ -176,19 +283,19 @@ public class EndpointConfigurationManager {
         }
 
         // Validate endpoint -> query references
-        for (Map.Entry<String, ApiEndpointConfig> entry : endpointConfigurations.entrySet()) {
+        for (Map.Entry<String, ApiEndpointConfig> entry : configuration.getEndpoints().entrySet()) {
             String endpointName = entry.getKey();
             ApiEndpointConfig endpointConfig = entry.getValue();
 
             // Check if main query exists
-            if (endpointConfig.getQuery() != null && !hasQuery(endpointConfig.getQuery())) {
+            if (endpointConfig.getQuery() != null && !queryConfigurations.containsKey(endpointConfig.getQuery())) {
                 logger.error("Endpoint '{}' references non-existent query: {}",
                            endpointName, endpointConfig.getQuery());
                 validationErrors++;
             }
 
             // Check if count query exists (if specified)
-            if (endpointConfig.getCountQuery() != null && !hasQuery(endpointConfig.getCountQuery())) {
+            if (endpointConfig.getCountQuery() != null && !queryConfigurations.containsKey(endpointConfig.getCountQuery())) {
                 logger.error("Endpoint '{}' references non-existent count query: {}",
                            endpointName, endpointConfig.getCountQuery());
                 validationErrors++;
@@ -220,12 +327,6 @@ public class EndpointConfigurationManager {
             }
         }
 
-        if (validationErrors > 0) {
-            throw new RuntimeException("Configuration validation failed with " + validationErrors + " errors");
-        }
-
-        logger.info("Configuration validation completed successfully");
+        return validationErrors;
     }
-
-
 }
@@ -0,0 +1,86 @@
+package dev.cordal.generic.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parsed form of configuration files keyed by path and by a SHA-256 hash of their content.
+ *
+ * A file is read and hashed on every lookup, which is cheap next to YAML parsing, and only
+ * parsed again when its hash differs from the one the cached object was parsed from. Files
+ * that fail to parse are not cached, so they are retried on the next lookup.
+ */
+final class ParsedFileCache<T> {
+
+    /**
+     * Turns the bytes of a file into its parsed form
+     */
+    @FunctionalInterface
+    interface Parser<T> {
+        T parse(byte[] content) throws IOException;
+    }
+
+    private final Map<Path, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder parses = new LongAdder();
+
+    /**
+     * Get the parsed form of a file, parsing it only if its content changed since the last lookup
+     */
+    T get(Path file, Parser<T> parser) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        byte[] hash = sha256(content);
+
+        Entry<T> cached = entries.get(file);
+        if (cached != null && Arrays.equals(cached.hash, hash)) {
+            hits.increment();
+            return cached.value;
+        }
+
+        T value = parser.parse(content);
+        parses.increment();
+        entries.put(file, new Entry<>(hash, value));
+        return value;
+    }
+
+    /**
+     * Drop the entries of files that are no longer among the given files
+     */
+    void retainOnly(Collection<Path> files) {
+        Set<Path> keep = new HashSet<>(files);
+        entries.keySet().removeIf(path -> !keep.contains(path));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    long getParseCount() {
+        return parses.sum();
+    }
+
+    static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entry<T>(byte[] hash, T value) {
+    }
+}
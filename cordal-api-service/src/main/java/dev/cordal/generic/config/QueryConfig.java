@@ -14,6 +14,7 @@ public class QueryConfig {
     private String database; // Reference to database configuration
     private List<QueryParameter> parameters;
     private CacheConfiguration cache;
+    private Long timeoutMs; // Statement timeout in milliseconds (null = no timeout)
 
     // Default constructor
     public QueryConfig() {}
@@ -87,6 +88,28 @@ public class QueryConfig {
         this.cache = cache;
     }
 
+    public Long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public void setTimeoutMs(Long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Check if a statement timeout is configured for this query
+     */
+    public boolean hasTimeout() {
+        return timeoutMs != null && timeoutMs > 0;
+    }
+
+    /**
+     * Get the timeout rounded up to whole seconds, as stored in the configuration database
+     */
+    public int getTimeoutSecondsOrDefault(int defaultSeconds) {
+        return hasTimeout() ? (int) Math.max(1, (timeoutMs + 999) / 1000) : defaultSeconds;
+    }
+
     /**
      * Check if caching is enabled for this query
      */
@@ -104,12 +127,13 @@ public class QueryConfig {
                Objects.equals(sql, that.sql) &&
                Objects.equals(database, that.database) &&
                Objects.equals(parameters, that.parameters) &&
-               Objects.equals(cache, that.cache);
+               Objects.equals(cache, that.cache) &&
+               Objects.equals(timeoutMs, that.timeoutMs);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, description, sql, database, parameters, cache);
+        return Objects.hash(name, description, sql, database, parameters, cache, timeoutMs);
     }
 
     @Override
@@ -121,6 +145,7 @@ public class QueryConfig {
                ", database='" + database + '\'' +
                ", parameters=" + parameters +
                ", cache=" + cache +
+               ", timeoutMs=" + timeoutMs +
                '}';
     }
 
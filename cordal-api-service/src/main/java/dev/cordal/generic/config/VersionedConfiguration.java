@@ -0,0 +1,95 @@
+package dev.cordal.generic.config;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One immutable generation of the database, query and endpoint configurations.
+ *
+ * {@link EndpointConfigurationManager} publishes generations through a single volatile reference.
+ * A reader that takes a generation once sees one consistent set of configurations for as long as
+ * it holds it, however many reloads are published meanwhile. Generations loaded but not yet
+ * published have version 0.
+ *
+ * A generation read from a configuration snapshot is marked prevalidated: it passed validation
+ * when the snapshot was built and its sources have not changed since.
+ */
+public final class VersionedConfiguration {
+    private final long version;
+    private final Instant createdAt;
+    private final String source;
+    private final Map<String, DatabaseConfig> databases;
+    private final Map<String, QueryConfig> queries;
+    private final Map<String, ApiEndpointConfig> endpoints;
+    private final boolean prevalidated;
+
+    private VersionedConfiguration(long version, Instant createdAt, String source,
+                                   Map<String, DatabaseConfig> databases,
+                                   Map<String, QueryConfig> queries,
+                                   Map<String, ApiEndpointConfig> endpoints,
+                                   boolean prevalidated) {
+        this.version = version;
+        this.createdAt = createdAt;
+        this.source = source;
+        this.databases = databases;
+        this.queries = queries;
+        this.endpoints = endpoints;
+        this.prevalidated = prevalidated;
+    }
+
+    /**
+     * Create an unpublished generation holding copies of the given maps
+     */
+    public static VersionedConfiguration unpublished(String source,
+                                                     Map<String, DatabaseConfig> databases,
+                                                     Map<String, QueryConfig> queries,
+                                                     Map<String, ApiEndpointConfig> endpoints) {
+        return new VersionedConfiguration(0, Instant.now(), source,
+                                          freeze(databases), freeze(queries), freeze(endpoints), false);
+    }
+
+    /**
+     * Create an unpublished generation that was validated before it was stored
+     */
+    static VersionedConfiguration prevalidated(String source,
+                                               Map<String, DatabaseConfig> databases,
+                                               Map<String, QueryConfig> queries,
+                                               Map<String, ApiEndpointConfig> endpoints) {
+        return new VersionedConfiguration(0, Instant.now(), source,
+                                          freeze(databases), freeze(queries), freeze(endpoints), true);
+    }
+
+    /**
+     * The same configurations under a published version number
+     */
+    VersionedConfiguration withVersion(long newVersion) {
+        return new VersionedConfiguration(newVersion, Instant.now(), source, databases, queries, endpoints, prevalidated);
+    }
+
+    private static <T> Map<String, T> freeze(Map<String, T> configurations) {
+        return configurations == null ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(configurations));
+    }
+
+    public long getVersion() { return version; }
+    public Instant getCreatedAt() { return createdAt; }
+    public String getSource() { return source; }
+    public Map<String, DatabaseConfig> getDatabases() { return databases; }
+    public Map<String, QueryConfig> getQueries() { return queries; }
+    public Map<String, ApiEndpointConfig> getEndpoints() { return endpoints; }
+
+    public boolean isPublished() {
+        return version > 0;
+    }
+
+    public boolean isPrevalidated() {
+        return prevalidated;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("VersionedConfiguration{version=%d, source=%s, databases=%d, queries=%d, endpoints=%d}",
+                           version, source, databases.size(), queries.size(), endpoints.size());
+    }
+}
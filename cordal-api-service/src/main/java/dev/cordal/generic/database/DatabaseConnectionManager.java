@@ -1,7 +1,9 @@
 package dev.cordal.generic.database;
 
 import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariConfigMXBean;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import dev.cordal.generic.config.DatabaseConfig;
 import dev.cordal.generic.config.EndpointConfigurationManager;
 import org.slf4j.Logger;
@@ -20,6 +22,9 @@ import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages multiple database connections based on configuration
@@ -31,6 +36,13 @@ public class DatabaseConnectionManager {
     private final Map<String, HikariDataSource> dataSources;
     private final Map<String, String> failedDatabases; // database name -> error message
     private final EndpointConfigurationManager configurationManager;
+    // Configuration each live pool was built from, to tell a resize from a replacement
+    private final Map<String, DatabaseConfig> poolConfigs = new ConcurrentHashMap<>();
+    // Stable data sources handed out to callers; each lends from the current pool of its database
+    private final Map<String, RoutedDataSource> routedDataSources = new ConcurrentHashMap<>();
+    // Replaced pools that are still lending connections to requests that started before the swap
+    private final Set<HikariDataSource> drainingPools = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService drainScheduler;
 
     @Inject
     public DatabaseConnectionManager(EndpointConfigurationManager configurationManager) {
@@ -82,6 +94,7 @@ public class DatabaseConnectionManager {
                     if (tableErrors.isEmpty()) {
                         // All tables exist - database is ready
                         dataSources.put(databaseName, dataSource);
+                        poolConfigs.put(databaseName, config);
                         logger.info("Successfully initialized and tested data source for database: {}", databaseName);
                     } else {
                         // Some tables are missing - mark database as unavailable
@@ -195,15 +208,15 @@ public class DatabaseConnectionManager {
     }
     
     /**
-     * Get the data source for the specified database
+     * Get the data source for the specified database. The returned data source stays valid when
+     * the database's pool is replaced; borrows made after the swap go to the new pool.
      */
     public DataSource getDataSource(String databaseName) {
-        HikariDataSource dataSource = dataSources.get(databaseName);
-        if (dataSource == null) {
+        if (!dataSources.containsKey(databaseName)) {
             throw new IllegalArgumentException("Database not configured: " + databaseName);
         }
-        
-        return dataSource;
+
+        return routedDataSources.computeIfAbsent(databaseName, name -> new RoutedDataSource(name, dataSources));
     }
     
     /**
@@ -281,6 +294,201 @@ public class DatabaseConnectionManager {
         return dataSources.keySet();
     }
     
+    /**
+     * Live view of the connection pools, keyed by database name
+     */
+    public Map<String, HikariDataSource> getDataSources() {
+        return java.util.Collections.unmodifiableMap(dataSources);
+    }
+
+    /**
+     * Bring a database's pool in line with a new or changed configuration without failing requests.
+     *
+     * If only pool sizing or timeouts changed, the live pool is resized in place. Otherwise a new
+     * pool is built, verified and warmed to its minimum idle size while the current pool keeps
+     * serving; new borrows then move to it in a single map update, and the previous pool is
+     * drained in the background: its idle connections are closed at once and the connections still
+     * in use are closed as they are returned, until nothing is in use or the drain timeout passes.
+     * If the new pool cannot be verified it is closed, the current pool stays in place and the
+     * error is thrown.
+     */
+    public synchronized void replaceDataSource(String databaseName, DatabaseConfig config) throws SQLException {
+        HikariDataSource current = dataSources.get(databaseName);
+        if (current != null && isResizeOnly(poolConfigs.get(databaseName), config)) {
+            resize(current, config.getPool());
+            poolConfigs.put(databaseName, config);
+            logger.info("Resized data source for database: {} ({})", databaseName, config.getPool());
+            return;
+        }
+
+        HikariDataSource replacement = null;
+        try {
+            replacement = createDataSource(databaseName, config);
+            try (Connection testConnection = replacement.getConnection();
+                 Statement statement = testConnection.createStatement()) {
+                statement.execute("SELECT 1");
+                List<String> tableErrors = testRequiredTablesForDatabase(databaseName, testConnection);
+                if (!tableErrors.isEmpty()) {
+                    throw new SQLException("Required tables missing: " + String.join("; ", tableErrors));
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (replacement != null) {
+                closeDataSource(databaseName, replacement);
+            }
+            if (e instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("Failed to initialize data source: " + e.getMessage(), e);
+        }
+
+        warmUp(databaseName, replacement, config.getPool());
+        HikariDataSource previous = dataSources.put(databaseName, replacement);
+        poolConfigs.put(databaseName, config);
+        failedDatabases.remove(databaseName);
+        if (previous != null) {
+            drain(databaseName, previous, drainTimeout(config));
+        }
+        logger.info("{} data source for database: {}", previous != null ? "Replaced" : "Added", databaseName);
+    }
+
+    /**
+     * Stop serving a database; its pool is drained like a replaced pool
+     *
+     * @return true if the database had a pool or a recorded failure
+     */
+    public synchronized boolean removeDataSource(String databaseName) {
+        HikariDataSource previous = dataSources.remove(databaseName);
+        DatabaseConfig previousConfig = poolConfigs.remove(databaseName);
+        routedDataSources.remove(databaseName);
+        boolean hadFailure = failedDatabases.remove(databaseName) != null;
+        if (previous != null) {
+            drain(databaseName, previous, drainTimeout(previousConfig));
+            logger.info("Removed data source for database: {}", databaseName);
+        }
+        return previous != null || hadFailure;
+    }
+
+    /**
+     * Number of replaced or removed pools that are still draining
+     */
+    public int getDrainingPoolCount() {
+        return drainingPools.size();
+    }
+
+    /**
+     * A change that only touches settings Hikari can adjust on a running pool
+     */
+    private static boolean isResizeOnly(DatabaseConfig current, DatabaseConfig next) {
+        if (current == null || current.getPool() == null || next.getPool() == null) {
+            return false;
+        }
+        return Objects.equals(current.getUrl(), next.getUrl())
+            && Objects.equals(current.getUsername(), next.getUsername())
+            && Objects.equals(current.getPassword(), next.getPassword())
+            && Objects.equals(current.getDriver(), next.getDriver())
+            && Objects.equals(current.getPool().getConnectionTestQuery(), next.getPool().getConnectionTestQuery());
+    }
+
+    private static void resize(HikariDataSource dataSource, DatabaseConfig.PoolConfig poolConfig) {
+        HikariConfigMXBean poolSettings = dataSource.getHikariConfigMXBean();
+        // Raise the maximum before the minimum and lower the minimum before the maximum so the
+        // minimum never exceeds the maximum on the way
+        if (poolConfig.getMaximumPoolSize() >= poolSettings.getMaximumPoolSize()) {
+            poolSettings.setMaximumPoolSize(poolConfig.getMaximumPoolSize());
+            poolSettings.setMinimumIdle(poolConfig.getMinimumIdle());
+        } else {
+            poolSettings.setMinimumIdle(poolConfig.getMinimumIdle());
+            poolSettings.setMaximumPoolSize(poolConfig.getMaximumPoolSize());
+        }
+        poolSettings.setConnectionTimeout(poolConfig.getConnectionTimeout());
+        poolSettings.setIdleTimeout(poolConfig.getIdleTimeout());
+        poolSettings.setMaxLifetime(poolConfig.getMaxLifetime());
+        poolSettings.setLeakDetectionThreshold(poolConfig.getLeakDetectionThreshold());
+    }
+
+    /**
+     * Wait, at most for the connection timeout, until a new pool holds its minimum idle connections,
+     * so the first requests after the swap do not pay for opening them
+     */
+    private static void warmUp(String databaseName, HikariDataSource dataSource, DatabaseConfig.PoolConfig poolConfig) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null || poolConfig == null) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + poolConfig.getConnectionTimeout();
+        while (pool.getTotalConnections() < poolConfig.getMinimumIdle() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (pool.getTotalConnections() < poolConfig.getMinimumIdle()) {
+            logger.warn("Data source for database '{}' holds {} of {} idle connections after warm-up",
+                       databaseName, pool.getTotalConnections(), poolConfig.getMinimumIdle());
+        }
+    }
+
+    private static long drainTimeout(DatabaseConfig config) {
+        return config != null && config.getPool() != null ? config.getPool().getDrainTimeout() : 30000;
+    }
+
+    /**
+     * Retire a pool that no longer receives new borrows: close its idle connections now and close
+     * the pool once its in-use connections have been returned or the timeout has passed
+     */
+    private void drain(String databaseName, HikariDataSource pool, long timeoutMs) {
+        HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+        if (poolBean == null) {
+            closeDataSource(databaseName, pool);
+            return;
+        }
+        poolBean.softEvictConnections();
+        drainingPools.add(pool);
+
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        ScheduledExecutorService scheduler = drainScheduler();
+        scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                int active = poolBean.getActiveConnections();
+                if (active > 0 && System.currentTimeMillis() < deadline) {
+                    poolBean.softEvictConnections();
+                    scheduler.schedule(this, 50, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                if (active > 0) {
+                    logger.warn("Closing replaced data source for database '{}' with {} connections still in use after {}ms",
+                               databaseName, active, timeoutMs);
+                }
+                closeDataSource(databaseName, pool);
+                drainingPools.remove(pool);
+                logger.info("Drained replaced data source for database: {}", databaseName);
+            }
+        }, 0, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized ScheduledExecutorService drainScheduler() {
+        if (drainScheduler == null) {
+            drainScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "pool-drain");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return drainScheduler;
+    }
+
+    private void closeDataSource(String databaseName, HikariDataSource dataSource) {
+        try {
+            dataSource.close();
+        } catch (Exception e) {
+            logger.warn("Failed to close data source for database: {}", databaseName, e);
+        }
+    }
+
     /**
      * Close all data sources
      */
@@ -300,6 +508,18 @@ public class DatabaseConnectionManager {
         }
         
         dataSources.clear();
+        routedDataSources.clear();
+
+        synchronized (this) {
+            if (drainScheduler != null) {
+                drainScheduler.shutdownNow();
+                drainScheduler = null;
+            }
+        }
+        for (HikariDataSource pool : drainingPools) {
+            closeDataSource(pool.getPoolName(), pool);
+        }
+        drainingPools.clear();
         logger.info("Database connection manager shutdown completed");
     }
 
@@ -0,0 +1,99 @@
+package dev.cordal.generic.database;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Stable data source for one configured database that lends connections from whichever pool is
+ * current for it.
+ *
+ * Execution plans and other long-lived holders keep this object rather than a pool, so when a
+ * pool is replaced every new borrow goes to the replacement without the holders being rebuilt.
+ * A borrow that raced with the retirement of the previous pool is retried once on the current one.
+ */
+final class RoutedDataSource implements DataSource {
+    private final String databaseName;
+    private final Map<String, HikariDataSource> pools;
+
+    RoutedDataSource(String databaseName, Map<String, HikariDataSource> pools) {
+        this.databaseName = databaseName;
+        this.pools = pools;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        HikariDataSource pool = currentPool();
+        try {
+            return pool.getConnection();
+        } catch (SQLException e) {
+            HikariDataSource current = pools.get(databaseName);
+            if (current != null && current != pool) {
+                return current.getConnection();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return currentPool().getConnection(username, password);
+    }
+
+    private HikariDataSource currentPool() throws SQLException {
+        HikariDataSource pool = pools.get(databaseName);
+        if (pool == null) {
+            throw new SQLException("Database not configured: " + databaseName);
+        }
+        return pool;
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return currentPool().getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        currentPool().setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        currentPool().setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return currentPool().getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return currentPool().unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || currentPool().isWrapperFor(iface);
+    }
+
+    @Override
+    public String toString() {
+        return "RoutedDataSource{" + databaseName + "}";
+    }
+}
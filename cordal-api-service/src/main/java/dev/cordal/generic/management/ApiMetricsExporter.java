@@ -0,0 +1,107 @@
+package dev.cordal.generic.management;
+
+import com.zaxxer.hikari.HikariDataSource;
+import dev.cordal.common.metrics.CacheMetricsCollector;
+import dev.cordal.common.metrics.OpenMetricsExporter;
+import dev.cordal.common.metrics.OpenMetricsWriter;
+import dev.cordal.database.DatabaseManager;
+import dev.cordal.generic.database.DatabaseConnectionManager;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * OpenMetrics exposition of the API service: endpoint, query and database usage counters,
+ * query cache statistics and the state of every connection pool
+ */
+@Singleton
+public class ApiMetricsExporter extends OpenMetricsExporter {
+    private static final double MILLIS_PER_SECOND = 1_000.0;
+
+    private final UsageStatisticsService statisticsService;
+    private final CacheMetricsCollector cacheMetricsCollector;
+    private final DatabaseConnectionManager databaseConnectionManager;
+    private final DatabaseManager databaseManager;
+
+    // Reused between scrapes, which the base class serialises
+    private final Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+
+    @Inject
+    public ApiMetricsExporter(UsageStatisticsService statisticsService,
+                              CacheMetricsCollector cacheMetricsCollector,
+                              DatabaseConnectionManager databaseConnectionManager,
+                              DatabaseManager databaseManager) {
+        this.statisticsService = statisticsService;
+        this.cacheMetricsCollector = cacheMetricsCollector;
+        this.databaseConnectionManager = databaseConnectionManager;
+        this.databaseManager = databaseManager;
+    }
+
+    @Override
+    protected void collect(OpenMetricsWriter writer) {
+        writeEndpoints(writer, statisticsService.getEndpointStatistics());
+        writeQueries(writer, statisticsService.getQueryStatistics());
+        writeDatabases(writer, statisticsService.getDatabaseStatistics());
+        writeCacheMetrics(writer, cacheMetricsCollector);
+
+        pools.clear();
+        pools.putAll(databaseConnectionManager.getDataSources());
+        if (databaseManager.getDataSource() instanceof HikariDataSource configPool) {
+            pools.put(configPool.getPoolName(), configPool);
+        }
+        writeConnectionPools(writer, pools);
+        pools.clear();
+    }
+
+    private void writeEndpoints(OpenMetricsWriter writer, Map<String, UsageStatisticsService.EndpointStatistics> endpoints) {
+        writer.family("cordal_endpoint_calls", OpenMetricsWriter.COUNTER, "Endpoint calls by outcome");
+        for (Map.Entry<String, UsageStatisticsService.EndpointStatistics> entry : endpoints.entrySet()) {
+            writer.sample("cordal_endpoint_calls_total", "endpoint", entry.getKey(), "outcome", "success", entry.getValue().getSuccessfulCalls());
+            writer.sample("cordal_endpoint_calls_total", "endpoint", entry.getKey(), "outcome", "failure", entry.getValue().getFailedCalls());
+            writer.sample("cordal_endpoint_calls_total", "endpoint", entry.getKey(), "outcome", "timeout", entry.getValue().getTimedOutCalls());
+            writer.sample("cordal_endpoint_calls_total", "endpoint", entry.getKey(), "outcome", "cancelled", entry.getValue().getCancelledCalls());
+        }
+        writer.family("cordal_endpoint_execution_seconds", OpenMetricsWriter.COUNTER, "Total time spent executing the endpoint");
+        for (Map.Entry<String, UsageStatisticsService.EndpointStatistics> entry : endpoints.entrySet()) {
+            writer.sample("cordal_endpoint_execution_seconds_total", "endpoint", entry.getKey(),
+                          entry.getValue().getTotalExecutionTime() / MILLIS_PER_SECOND);
+        }
+        writer.family("cordal_endpoint_execution_max_seconds", OpenMetricsWriter.GAUGE, "Slowest endpoint execution");
+        for (Map.Entry<String, UsageStatisticsService.EndpointStatistics> entry : endpoints.entrySet()) {
+            writer.sample("cordal_endpoint_execution_max_seconds", "endpoint", entry.getKey(),
+                          entry.getValue().getMaxExecutionTime() / MILLIS_PER_SECOND);
+        }
+    }
+
+    private void writeQueries(OpenMetricsWriter writer, Map<String, UsageStatisticsService.QueryStatistics> queries) {
+        writer.family("cordal_query_executions", OpenMetricsWriter.COUNTER, "Query executions by outcome");
+        for (Map.Entry<String, UsageStatisticsService.QueryStatistics> entry : queries.entrySet()) {
+            writer.sample("cordal_query_executions_total", "query", entry.getKey(), "outcome", "success", entry.getValue().getSuccessfulExecutions());
+            writer.sample("cordal_query_executions_total", "query", entry.getKey(), "outcome", "failure", entry.getValue().getFailedExecutions());
+        }
+        writer.family("cordal_query_execution_seconds", OpenMetricsWriter.COUNTER, "Total time spent executing the query");
+        for (Map.Entry<String, UsageStatisticsService.QueryStatistics> entry : queries.entrySet()) {
+            writer.sample("cordal_query_execution_seconds_total", "query", entry.getKey(),
+                          entry.getValue().getTotalExecutionTime() / MILLIS_PER_SECOND);
+        }
+        writer.family("cordal_query_rows", OpenMetricsWriter.COUNTER, "Rows returned by the query");
+        for (Map.Entry<String, UsageStatisticsService.QueryStatistics> entry : queries.entrySet()) {
+            writer.sample("cordal_query_rows_total", "query", entry.getKey(), entry.getValue().getTotalRowsReturned());
+        }
+    }
+
+    private void writeDatabases(OpenMetricsWriter writer, Map<String, UsageStatisticsService.DatabaseStatistics> databases) {
+        writer.family("cordal_database_connections", OpenMetricsWriter.COUNTER, "Connection acquisitions by outcome");
+        for (Map.Entry<String, UsageStatisticsService.DatabaseStatistics> entry : databases.entrySet()) {
+            writer.sample("cordal_database_connections_total", "database", entry.getKey(), "outcome", "success", entry.getValue().getSuccessfulConnections());
+            writer.sample("cordal_database_connections_total", "database", entry.getKey(), "outcome", "failure", entry.getValue().getFailedConnections());
+        }
+        writer.family("cordal_database_connection_seconds", OpenMetricsWriter.COUNTER, "Total time spent acquiring connections");
+        for (Map.Entry<String, UsageStatisticsService.DatabaseStatistics> entry : databases.entrySet()) {
+            writer.sample("cordal_database_connection_seconds_total", "database", entry.getKey(),
+                          entry.getValue().getTotalConnectionTime() / MILLIS_PER_SECOND);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package dev.cordal.generic.management;
 
+import dev.cordal.database.loader.DatabaseConfigurationLoader;
 import dev.cordal.database.repository.DatabaseConfigurationRepository;
 import dev.cordal.database.repository.QueryConfigurationRepository;
 import dev.cordal.database.repository.EndpointConfigurationRepository;
@@ -191,7 +192,9 @@ public class ConfigurationManagementService {
     public ConfigurationCollectionResponse<QueryConfig> getQueryConfigurationsByDatabase(String databaseName) {
         logger.debug("Getting query configurations for database: {}", databaseName);
 
-        List<QueryConfig> configurations = queryRepository.loadByDatabase(databaseName);
+        List<QueryConfig> configurations = configurationLoaderFactory.isDatabaseSource()
+            ? configurationLoaderFactory.getDatabaseConfigurationLoader().getQueryConfigurationsByDatabase(databaseName)
+            : queryRepository.loadByDatabase(databaseName);
 
         // Convert List to Map for ConfigurationListResponse
         Map<String, QueryConfig> configMap = configurations.stream()
@@ -323,7 +326,9 @@ public class ConfigurationManagementService {
     public ConfigurationCollectionResponse<ApiEndpointConfig> getEndpointConfigurationsByQuery(String queryName) {
         logger.debug("Getting endpoint configurations for query: {}", queryName);
 
-        List<ApiEndpointConfig> configurations = endpointRepository.loadByQuery(queryName);
+        List<ApiEndpointConfig> configurations = configurationLoaderFactory.isDatabaseSource()
+            ? configurationLoaderFactory.getDatabaseConfigurationLoader().getEndpointConfigurationsByQuery(queryName)
+            : endpointRepository.loadByQuery(queryName);
 
         // Convert List to Map for ConfigurationCollectionResponse
         // Since ApiEndpointConfig doesn't have getName(), we'll use the path as the key
@@ -423,9 +428,11 @@ public class ConfigurationManagementService {
         logger.debug("Getting configuration statistics");
 
         try {
-            int databaseCount = databaseRepository.getCount();
-            int queryCount = queryRepository.getCount();
-            int endpointCount = endpointRepository.getCount();
+            DatabaseConfigurationLoader.ConfigurationStats stats =
+                configurationLoaderFactory.getDatabaseConfigurationLoader().getConfigurationStats();
+            int databaseCount = stats.getDatabaseCount();
+            int queryCount = stats.getQueryCount();
+            int endpointCount = stats.getEndpointCount();
 
             return new ConfigurationStatisticsResponse(
                 configurationLoaderFactory.getConfigurationSource(),
@@ -180,6 +180,23 @@ public class ManagementController {
         }
     }
     
+    /**
+     * Get the slowest query executions, optionally limited with ?limit=N
+     */
+    public void getSlowestQueries(Context ctx) {
+        logger.debug("Getting slowest queries");
+        try {
+            String limitParam = ctx.queryParam("limit");
+            int limit = limitParam != null ? Integer.parseInt(limitParam) : SlowQueryLog.DEFAULT_CAPACITY;
+            ctx.json(statisticsService.getSlowestQueries(limit));
+        } catch (NumberFormatException e) {
+            ctx.status(400).json(Map.of("error", "Invalid limit: " + ctx.queryParam("limit")));
+        } catch (Exception e) {
+            logger.error("Error getting slowest queries", e);
+            ctx.status(500).json(Map.of("error", "Failed to get slowest queries: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Get database usage statistics
      */
@@ -0,0 +1,179 @@
+package dev.cordal.generic.management;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Call, error and latency counts over the last 1, 5 and 15 minutes.
+ *
+ * Time is cut into 10 second buckets kept in a ring that covers the longest window plus the
+ * bucket currently filling. The first call of a new period claims the bucket by swapping its
+ * period tag for a rotating marker, zeroes the counts and then publishes the new tag; callers
+ * arriving meanwhile spin briefly until it is published. The ring is striped across a few cell
+ * arrays picked by thread, created on first use, so concurrent calls on a hot endpoint rarely
+ * contend on the same cache line.
+ */
+public final class SlidingWindowCounter {
+
+    /**
+     * The reported windows
+     */
+    public enum Window {
+        ONE_MINUTE("1m", 60_000L),
+        FIVE_MINUTES("5m", 300_000L),
+        FIFTEEN_MINUTES("15m", 900_000L);
+
+        private final String label;
+        private final long millis;
+
+        Window(String label, long millis) {
+            this.label = label;
+            this.millis = millis;
+        }
+
+        public String getLabel() { return label; }
+        public long getMillis() { return millis; }
+    }
+
+    static final long BUCKET_MILLIS = 10_000L;
+    private static final int BUCKETS = (int) (Window.FIFTEEN_MINUTES.millis / BUCKET_MILLIS) + 1;
+
+    // Cell layout of a bucket: period tag, calls, errors, latency sum in milliseconds
+    private static final int FIELDS = 4;
+    private static final int PERIOD = 0;
+    private static final int CALLS = 1;
+    private static final int ERRORS = 2;
+    private static final int LATENCY = 3;
+    private static final long ROTATING = -1L;
+
+    private static final int STRIPES = Integer.highestOneBit(Math.min(8, Math.max(1, Runtime.getRuntime().availableProcessors())));
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+    private final long createdAtMillis;
+
+    public SlidingWindowCounter(long createdAtMillis) {
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    /**
+     * Count one call at the given wall clock time
+     */
+    public void record(long nowMillis, long latencyMs, boolean error) {
+        long period = nowMillis / BUCKET_MILLIS;
+        AtomicLongArray cells = stripe();
+        int base = (int) (period % BUCKETS) * FIELDS;
+
+        long tag = cells.get(base + PERIOD);
+        while (tag < period) {
+            if (tag != ROTATING && cells.compareAndSet(base + PERIOD, tag, ROTATING)) {
+                cells.set(base + CALLS, 0);
+                cells.set(base + ERRORS, 0);
+                cells.set(base + LATENCY, 0);
+                cells.set(base + PERIOD, period);
+                break;
+            }
+            Thread.onSpinWait();
+            tag = cells.get(base + PERIOD);
+        }
+
+        cells.getAndIncrement(base + CALLS);
+        if (error) {
+            cells.getAndIncrement(base + ERRORS);
+        }
+        cells.getAndAdd(base + LATENCY, latencyMs);
+    }
+
+    private AtomicLongArray stripe() {
+        int index = (int) Thread.currentThread().threadId() & (STRIPES - 1);
+        AtomicLongArray cells = stripes.get(index);
+        if (cells == null) {
+            cells = new AtomicLongArray(BUCKETS * FIELDS);
+            if (!stripes.compareAndSet(index, null, cells)) {
+                cells = stripes.get(index);
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Totals over one window ending at the given wall clock time
+     */
+    public Snapshot snapshot(Window window, long nowMillis) {
+        long period = nowMillis / BUCKET_MILLIS;
+        long oldest = period - window.millis / BUCKET_MILLIS;
+        long calls = 0;
+        long errors = 0;
+        long latency = 0;
+
+        for (int s = 0; s < STRIPES; s++) {
+            AtomicLongArray cells = stripes.get(s);
+            if (cells == null) {
+                continue;
+            }
+            for (int base = 0; base < BUCKETS * FIELDS; base += FIELDS) {
+                long tag = cells.get(base + PERIOD);
+                if (tag >= oldest && tag <= period) {
+                    calls += cells.get(base + CALLS);
+                    errors += cells.get(base + ERRORS);
+                    latency += cells.get(base + LATENCY);
+                }
+            }
+        }
+
+        // The window covers its full length plus the part of the current bucket elapsed so far,
+        // but never more than the counter has existed
+        long spanMillis = Math.min(window.millis + nowMillis % BUCKET_MILLIS, nowMillis - createdAtMillis);
+        double requestsPerSecond = calls * 1_000.0 / Math.max(1_000L, spanMillis);
+        return new Snapshot(calls, errors, latency, requestsPerSecond);
+    }
+
+    /**
+     * Snapshots of all windows, keyed by window label
+     */
+    public Map<String, Snapshot> snapshots(long nowMillis) {
+        Map<String, Snapshot> snapshots = new LinkedHashMap<>();
+        for (Window window : Window.values()) {
+            snapshots.put(window.label, snapshot(window, nowMillis));
+        }
+        return snapshots;
+    }
+
+    /**
+     * Totals of one window
+     */
+    public static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0.0);
+
+        private final long calls;
+        private final long errors;
+        private final long totalLatencyMs;
+        private final double requestsPerSecond;
+
+        Snapshot(long calls, long errors, long totalLatencyMs, double requestsPerSecond) {
+            this.calls = calls;
+            this.errors = errors;
+            this.totalLatencyMs = totalLatencyMs;
+            this.requestsPerSecond = requestsPerSecond;
+        }
+
+        /**
+         * Combine with the same window of another counter
+         */
+        Snapshot plus(Snapshot other) {
+            return new Snapshot(calls + other.calls, errors + other.errors,
+                                totalLatencyMs + other.totalLatencyMs, requestsPerSecond + other.requestsPerSecond);
+        }
+
+        public long getCalls() { return calls; }
+        public long getErrors() { return errors; }
+        public double getRequestsPerSecond() { return requestsPerSecond; }
+        public double getErrorRate() {
+            return calls > 0 ? (double) errors / calls * 100 : 0.0;
+        }
+        public double getAverageLatencyMs() {
+            return calls > 0 ? (double) totalLatencyMs / calls : 0.0;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package dev.cordal.generic.management;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the N slowest query executions seen, with their phase breakdown.
+ *
+ * Executions faster than the slowest N are rejected with a single volatile read, so the common
+ * case costs nothing beyond the comparison; only executions that make the list take the lock.
+ */
+public final class SlowQueryLog {
+    public static final int DEFAULT_CAPACITY = 25;
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final Comparator<Entry> BY_TOTAL_TIME = Comparator.comparingLong(Entry::totalNanos);
+
+    private final int capacity;
+    private final PriorityQueue<Entry> slowest;
+    private volatile long admissionNanos;
+
+    public SlowQueryLog(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.slowest = new PriorityQueue<>(this.capacity, BY_TOTAL_TIME);
+    }
+
+    /**
+     * One query execution, with time spent acquiring the connection, running the statement and
+     * materialising the rows
+     */
+    public record Entry(String queryName, String databaseName, long connectionNanos, long executionNanos,
+                        long fetchNanos, int rowsReturned, long resultBytes, boolean success, Instant timestamp) {
+
+        long totalNanos() {
+            return connectionNanos + executionNanos + fetchNanos;
+        }
+
+        public double getTotalTimeMs() { return totalNanos() / NANOS_PER_MILLI; }
+        public double getConnectionTimeMs() { return connectionNanos / NANOS_PER_MILLI; }
+        public double getExecutionTimeMs() { return executionNanos / NANOS_PER_MILLI; }
+        public double getFetchTimeMs() { return fetchNanos / NANOS_PER_MILLI; }
+    }
+
+    /**
+     * Offer an execution; it is kept if it is among the slowest seen
+     */
+    public void offer(String queryName, String databaseName, long connectionNanos, long executionNanos,
+                      long fetchNanos, int rowsReturned, long resultBytes, boolean success, long timestampMillis) {
+        long totalNanos = connectionNanos + executionNanos + fetchNanos;
+        if (totalNanos <= admissionNanos) {
+            return;
+        }
+
+        synchronized (slowest) {
+            if (slowest.size() >= capacity) {
+                if (totalNanos <= slowest.peek().totalNanos()) {
+                    return;
+                }
+                slowest.poll();
+            }
+            slowest.add(new Entry(queryName, databaseName, connectionNanos, executionNanos, fetchNanos,
+                                  rowsReturned, resultBytes, success, Instant.ofEpochMilli(timestampMillis)));
+            if (slowest.size() >= capacity) {
+                admissionNanos = slowest.peek().totalNanos();
+            }
+        }
+    }
+
+    /**
+     * The slowest executions, slowest first
+     */
+    public List<Entry> getSlowest(int limit) {
+        List<Entry> entries;
+        synchronized (slowest) {
+            entries = new ArrayList<>(slowest);
+        }
+        entries.sort(BY_TOTAL_TIME.reversed());
+        return entries.size() > limit ? entries.subList(0, Math.max(0, limit)) : entries;
+    }
+}
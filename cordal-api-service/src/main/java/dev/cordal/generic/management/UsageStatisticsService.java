@@ -5,13 +5,22 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Singleton;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
 /**
- * Service to track usage statistics for endpoints, queries, and database connections
+ * Service to track usage statistics for endpoints, queries, and database connections.
+ *
+ * Recording runs on every request, so lifetime totals are kept in striped adders and the
+ * 1, 5 and 15 minute rates in a {@link SlidingWindowCounter}; readers get live views of the
+ * statistics maps rather than copies.
  */
 @Singleton
 public class UsageStatisticsService {
@@ -20,13 +29,21 @@ public class UsageStatisticsService {
     private final Map<String, EndpointStatistics> endpointStats;
     private final Map<String, QueryStatistics> queryStats;
     private final Map<String, DatabaseStatistics> databaseStats;
+    private final SlowQueryLog slowQueryLog;
     private final Instant serviceStartTime;
+    private final LongSupplier clock;
     
     public UsageStatisticsService() {
+        this(System::currentTimeMillis);
+    }
+
+    UsageStatisticsService(LongSupplier clock) {
+        this.clock = clock;
         this.endpointStats = new ConcurrentHashMap<>();
         this.queryStats = new ConcurrentHashMap<>();
         this.databaseStats = new ConcurrentHashMap<>();
-        this.serviceStartTime = Instant.now();
+        this.slowQueryLog = new SlowQueryLog(SlowQueryLog.DEFAULT_CAPACITY);
+        this.serviceStartTime = Instant.ofEpochMilli(clock.getAsLong());
         
         logger.info("Usage statistics service initialized at {}", serviceStartTime);
     }
@@ -35,29 +52,68 @@ public class UsageStatisticsService {
      * Record endpoint usage
      */
     public void recordEndpointUsage(String endpointName, long executionTimeMs, boolean success) {
-        endpointStats.computeIfAbsent(endpointName, k -> new EndpointStatistics(k))
+        endpointStats.computeIfAbsent(endpointName, k -> new EndpointStatistics(k, clock))
                     .recordUsage(executionTimeMs, success);
         
         logger.debug("Recorded endpoint usage: {} ({}ms, success: {})", 
                     endpointName, executionTimeMs, success);
     }
     
+    /**
+     * Record an endpoint request that was stopped because it exceeded its deadline
+     */
+    public void recordEndpointTimeout(String endpointName) {
+        endpointStats.computeIfAbsent(endpointName, k -> new EndpointStatistics(k, clock))
+                    .recordTimeout();
+
+        logger.debug("Recorded endpoint timeout: {}", endpointName);
+    }
+
+    /**
+     * Record an endpoint request that was cancelled, e.g. an async job cancelled by its client
+     */
+    public void recordEndpointCancellation(String endpointName) {
+        endpointStats.computeIfAbsent(endpointName, k -> new EndpointStatistics(k, clock))
+                    .recordCancellation();
+
+        logger.debug("Recorded endpoint cancellation: {}", endpointName);
+    }
+
     /**
      * Record query usage
      */
     public void recordQueryUsage(String queryName, String databaseName, long executionTimeMs, boolean success, int rowsReturned) {
-        queryStats.computeIfAbsent(queryName, k -> new QueryStatistics(k))
+        queryStats.computeIfAbsent(queryName, k -> new QueryStatistics(k, clock))
                   .recordUsage(databaseName, executionTimeMs, success, rowsReturned);
         
         logger.debug("Recorded query usage: {} on {} ({}ms, {} rows, success: {})", 
                     queryName, databaseName, executionTimeMs, rowsReturned, success);
     }
     
+    /**
+     * Record a query execution with its phases: connection acquisition, statement execution and
+     * row materialisation, all in nanoseconds
+     */
+    public void recordQueryExecution(String queryName, String databaseName, long connectionNanos, long executionNanos,
+                                     long fetchNanos, int rowsReturned, long resultBytes, boolean success) {
+        queryStats.computeIfAbsent(queryName, k -> new QueryStatistics(k, clock))
+                  .recordExecution(databaseName, connectionNanos, executionNanos, fetchNanos,
+                                   rowsReturned, resultBytes, success);
+        slowQueryLog.offer(queryName, databaseName, connectionNanos, executionNanos, fetchNanos,
+                           rowsReturned, resultBytes, success, clock.getAsLong());
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Recorded query execution: {} on {} (connection {}us, execution {}us, fetch {}us, {} rows, {} bytes, success: {})",
+                        queryName, databaseName, connectionNanos / 1_000, executionNanos / 1_000, fetchNanos / 1_000,
+                        rowsReturned, resultBytes, success);
+        }
+    }
+
     /**
      * Record database connection usage
      */
     public void recordDatabaseUsage(String databaseName, long connectionTimeMs, boolean success) {
-        databaseStats.computeIfAbsent(databaseName, k -> new DatabaseStatistics(k))
+        databaseStats.computeIfAbsent(databaseName, k -> new DatabaseStatistics(k, clock))
                      .recordUsage(connectionTimeMs, success);
         
         logger.debug("Recorded database usage: {} ({}ms, success: {})", 
@@ -71,7 +127,7 @@ public class UsageStatisticsService {
         Map<String, Object> stats = new HashMap<>();
         
         stats.put("serviceStartTime", serviceStartTime);
-        stats.put("uptime", java.time.Duration.between(serviceStartTime, Instant.now()).toString());
+        stats.put("uptime", java.time.Duration.ofMillis(clock.getAsLong() - serviceStartTime.toEpochMilli()).toString());
         stats.put("endpoints", getEndpointStatistics());
         stats.put("queries", getQueryStatistics());
         stats.put("databases", getDatabaseStatistics());
@@ -81,113 +137,161 @@ public class UsageStatisticsService {
     }
     
     /**
-     * Get endpoint statistics
+     * Get endpoint statistics, as a live read-only view
      */
     public Map<String, EndpointStatistics> getEndpointStatistics() {
-        return new HashMap<>(endpointStats);
+        return Collections.unmodifiableMap(endpointStats);
     }
     
     /**
-     * Get query statistics
+     * Get query statistics, as a live read-only view
      */
     public Map<String, QueryStatistics> getQueryStatistics() {
-        return new HashMap<>(queryStats);
+        return Collections.unmodifiableMap(queryStats);
     }
     
     /**
-     * Get database statistics
+     * Get database statistics, as a live read-only view
      */
     public Map<String, DatabaseStatistics> getDatabaseStatistics() {
-        return new HashMap<>(databaseStats);
+        return Collections.unmodifiableMap(databaseStats);
+    }
+    
+    /**
+     * The slowest query executions recorded, slowest first
+     */
+    public List<SlowQueryLog.Entry> getSlowestQueries(int limit) {
+        return slowQueryLog.getSlowest(limit);
     }
     
     /**
      * Get summary statistics
      */
     public Map<String, Object> getSummaryStatistics() {
-        long totalEndpointCalls = endpointStats.values().stream()
-                                               .mapToLong(s -> s.getTotalCalls())
-                                               .sum();
-        
-        long totalQueryExecutions = queryStats.values().stream()
-                                              .mapToLong(s -> s.getTotalExecutions())
-                                              .sum();
-        
-        long totalDatabaseConnections = databaseStats.values().stream()
-                                                     .mapToLong(s -> s.getTotalConnections())
-                                                     .sum();
+        long totalEndpointCalls = 0;
+        long totalTimeouts = 0;
+        long totalCancellations = 0;
+        for (EndpointStatistics stats : endpointStats.values()) {
+            totalEndpointCalls += stats.getTotalCalls();
+            totalTimeouts += stats.getTimedOutCalls();
+            totalCancellations += stats.getCancelledCalls();
+        }
+
+        long totalQueryExecutions = 0;
+        for (QueryStatistics stats : queryStats.values()) {
+            totalQueryExecutions += stats.getTotalExecutions();
+        }
+
+        long totalDatabaseConnections = 0;
+        for (DatabaseStatistics stats : databaseStats.values()) {
+            totalDatabaseConnections += stats.getTotalConnections();
+        }
         
         return Map.of(
             "totalEndpointCalls", totalEndpointCalls,
+            "totalTimeouts", totalTimeouts,
+            "totalCancellations", totalCancellations,
             "totalQueryExecutions", totalQueryExecutions,
             "totalDatabaseConnections", totalDatabaseConnections,
             "activeEndpoints", endpointStats.size(),
             "activeQueries", queryStats.size(),
-            "activeDatabases", databaseStats.size()
+            "activeDatabases", databaseStats.size(),
+            "currentLoad", getCurrentLoad()
         );
     }
+
+    /**
+     * Call rate, error rate and latency across all endpoints over the 1, 5 and 15 minute windows
+     */
+    public Map<String, SlidingWindowCounter.Snapshot> getCurrentLoad() {
+        long now = clock.getAsLong();
+        Map<String, SlidingWindowCounter.Snapshot> load = new LinkedHashMap<>();
+        for (SlidingWindowCounter.Window window : SlidingWindowCounter.Window.values()) {
+            SlidingWindowCounter.Snapshot total = SlidingWindowCounter.Snapshot.EMPTY;
+            for (EndpointStatistics stats : endpointStats.values()) {
+                total = total.plus(stats.window.snapshot(window, now));
+            }
+            load.put(window.getLabel(), total);
+        }
+        return load;
+    }
     
     /**
      * Endpoint statistics holder
      */
     public static class EndpointStatistics {
         private final String endpointName;
-        private final AtomicLong totalCalls = new AtomicLong(0);
-        private final AtomicLong successfulCalls = new AtomicLong(0);
-        private final AtomicLong failedCalls = new AtomicLong(0);
-        private final AtomicLong totalExecutionTime = new AtomicLong(0);
-        private volatile long minExecutionTime = Long.MAX_VALUE;
-        private volatile long maxExecutionTime = 0;
-        private volatile Instant firstCall;
-        private volatile Instant lastCall;
+        private final LongSupplier clock;
+        private final LongAdder totalCalls = new LongAdder();
+        private final LongAdder successfulCalls = new LongAdder();
+        private final LongAdder failedCalls = new LongAdder();
+        private final LongAdder timedOutCalls = new LongAdder();
+        private final LongAdder cancelledCalls = new LongAdder();
+        private final LongAdder totalExecutionTime = new LongAdder();
+        private final LongAccumulator minExecutionTime = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator maxExecutionTime = new LongAccumulator(Math::max, 0);
+        private final CallTimes callTimes = new CallTimes();
+        private final SlidingWindowCounter window;
         
         public EndpointStatistics(String endpointName) {
+            this(endpointName, System::currentTimeMillis);
+        }
+
+        EndpointStatistics(String endpointName, LongSupplier clock) {
             this.endpointName = endpointName;
+            this.clock = clock;
+            this.window = new SlidingWindowCounter(clock.getAsLong());
         }
         
         public void recordUsage(long executionTimeMs, boolean success) {
-            totalCalls.incrementAndGet();
-            totalExecutionTime.addAndGet(executionTimeMs);
+            long now = clock.getAsLong();
+            totalCalls.increment();
+            totalExecutionTime.add(executionTimeMs);
             
             if (success) {
-                successfulCalls.incrementAndGet();
+                successfulCalls.increment();
             } else {
-                failedCalls.incrementAndGet();
+                failedCalls.increment();
             }
             
-            // Update min/max execution times
-            if (executionTimeMs < minExecutionTime) {
-                minExecutionTime = executionTimeMs;
-            }
-            if (executionTimeMs > maxExecutionTime) {
-                maxExecutionTime = executionTimeMs;
-            }
-            
-            // Update timestamps
-            Instant now = Instant.now();
-            if (firstCall == null) {
-                firstCall = now;
-            }
-            lastCall = now;
+            minExecutionTime.accumulate(executionTimeMs);
+            maxExecutionTime.accumulate(executionTimeMs);
+            window.record(now, executionTimeMs, !success);
+            callTimes.touch(now);
+        }
+
+        public void recordTimeout() {
+            timedOutCalls.increment();
+        }
+
+        public void recordCancellation() {
+            cancelledCalls.increment();
         }
         
         // Getters
         public String getEndpointName() { return endpointName; }
-        public long getTotalCalls() { return totalCalls.get(); }
-        public long getSuccessfulCalls() { return successfulCalls.get(); }
-        public long getFailedCalls() { return failedCalls.get(); }
+        public long getTotalCalls() { return totalCalls.sum(); }
+        public long getSuccessfulCalls() { return successfulCalls.sum(); }
+        public long getFailedCalls() { return failedCalls.sum(); }
+        public long getTimedOutCalls() { return timedOutCalls.sum(); }
+        public long getCancelledCalls() { return cancelledCalls.sum(); }
         public double getSuccessRate() { 
-            long total = totalCalls.get();
-            return total > 0 ? (double) successfulCalls.get() / total * 100 : 0.0;
+            long total = totalCalls.sum();
+            return total > 0 ? (double) successfulCalls.sum() / total * 100 : 0.0;
         }
         public double getAverageExecutionTime() {
-            long total = totalCalls.get();
-            return total > 0 ? (double) totalExecutionTime.get() / total : 0.0;
+            long total = totalCalls.sum();
+            return total > 0 ? (double) totalExecutionTime.sum() / total : 0.0;
         }
-        public long getMinExecutionTime() { return minExecutionTime == Long.MAX_VALUE ? 0 : minExecutionTime; }
-        public long getMaxExecutionTime() { return maxExecutionTime; }
-        public Instant getFirstCall() { return firstCall; }
-        public Instant getLastCall() { return lastCall; }
+        public long getTotalExecutionTime() { return totalExecutionTime.sum(); }
+        public long getMinExecutionTime() {
+            long min = minExecutionTime.get();
+            return min == Long.MAX_VALUE ? 0 : min;
+        }
+        public long getMaxExecutionTime() { return maxExecutionTime.get(); }
+        public Map<String, SlidingWindowCounter.Snapshot> getRates() { return window.snapshots(clock.getAsLong()); }
+        public Instant getFirstCall() { return callTimes.getFirst(); }
+        public Instant getLastCall() { return callTimes.getLast(); }
     }
     
     /**
@@ -195,65 +299,99 @@ public class UsageStatisticsService {
      */
     public static class QueryStatistics {
         private final String queryName;
-        private final AtomicLong totalExecutions = new AtomicLong(0);
-        private final AtomicLong successfulExecutions = new AtomicLong(0);
-        private final AtomicLong failedExecutions = new AtomicLong(0);
-        private final AtomicLong totalExecutionTime = new AtomicLong(0);
-        private final AtomicLong totalRowsReturned = new AtomicLong(0);
-        private final Map<String, AtomicLong> databaseUsage = new ConcurrentHashMap<>();
-        private volatile Instant firstExecution;
-        private volatile Instant lastExecution;
+        private final LongSupplier clock;
+        private final LongAdder totalExecutions = new LongAdder();
+        private final LongAdder successfulExecutions = new LongAdder();
+        private final LongAdder failedExecutions = new LongAdder();
+        private final LongAdder totalExecutionTime = new LongAdder();
+        private final LongAdder totalRowsReturned = new LongAdder();
+        private final LongAdder totalResultBytes = new LongAdder();
+        private final LongAdder totalConnectionNanos = new LongAdder();
+        private final LongAdder totalStatementNanos = new LongAdder();
+        private final LongAdder totalFetchNanos = new LongAdder();
+        private final LongAdder phasedExecutions = new LongAdder();
+        private final Map<String, LongAdder> databaseUsage = new ConcurrentHashMap<>();
+        private final CallTimes executionTimes = new CallTimes();
+        private final SlidingWindowCounter window;
         
         public QueryStatistics(String queryName) {
+            this(queryName, System::currentTimeMillis);
+        }
+
+        QueryStatistics(String queryName, LongSupplier clock) {
             this.queryName = queryName;
+            this.clock = clock;
+            this.window = new SlidingWindowCounter(clock.getAsLong());
         }
         
         public void recordUsage(String databaseName, long executionTimeMs, boolean success, int rowsReturned) {
-            totalExecutions.incrementAndGet();
-            totalExecutionTime.addAndGet(executionTimeMs);
-            totalRowsReturned.addAndGet(rowsReturned);
+            long now = clock.getAsLong();
+            totalExecutions.increment();
+            totalExecutionTime.add(executionTimeMs);
+            totalRowsReturned.add(rowsReturned);
             
             if (success) {
-                successfulExecutions.incrementAndGet();
+                successfulExecutions.increment();
             } else {
-                failedExecutions.incrementAndGet();
+                failedExecutions.increment();
             }
             
             // Track database usage
-            databaseUsage.computeIfAbsent(databaseName, k -> new AtomicLong(0)).incrementAndGet();
+            databaseUsage.computeIfAbsent(databaseName, k -> new LongAdder()).increment();
             
-            // Update timestamps
-            Instant now = Instant.now();
-            if (firstExecution == null) {
-                firstExecution = now;
-            }
-            lastExecution = now;
+            window.record(now, executionTimeMs, !success);
+            executionTimes.touch(now);
+        }
+
+        public void recordExecution(String databaseName, long connectionNanos, long statementNanos, long fetchNanos,
+                                    int rowsReturned, long resultBytes, boolean success) {
+            totalConnectionNanos.add(connectionNanos);
+            totalStatementNanos.add(statementNanos);
+            totalFetchNanos.add(fetchNanos);
+            totalResultBytes.add(resultBytes);
+            phasedExecutions.increment();
+            recordUsage(databaseName, (connectionNanos + statementNanos + fetchNanos) / 1_000_000, success, rowsReturned);
         }
         
         // Getters
         public String getQueryName() { return queryName; }
-        public long getTotalExecutions() { return totalExecutions.get(); }
-        public long getSuccessfulExecutions() { return successfulExecutions.get(); }
-        public long getFailedExecutions() { return failedExecutions.get(); }
+        public long getTotalExecutions() { return totalExecutions.sum(); }
+        public long getSuccessfulExecutions() { return successfulExecutions.sum(); }
+        public long getFailedExecutions() { return failedExecutions.sum(); }
         public double getSuccessRate() {
-            long total = totalExecutions.get();
-            return total > 0 ? (double) successfulExecutions.get() / total * 100 : 0.0;
+            long total = totalExecutions.sum();
+            return total > 0 ? (double) successfulExecutions.sum() / total * 100 : 0.0;
         }
         public double getAverageExecutionTime() {
-            long total = totalExecutions.get();
-            return total > 0 ? (double) totalExecutionTime.get() / total : 0.0;
+            long total = totalExecutions.sum();
+            return total > 0 ? (double) totalExecutionTime.sum() / total : 0.0;
         }
+        public long getTotalExecutionTime() { return totalExecutionTime.sum(); }
+        public long getTotalRowsReturned() { return totalRowsReturned.sum(); }
         public double getAverageRowsReturned() {
-            long total = totalExecutions.get();
-            return total > 0 ? (double) totalRowsReturned.get() / total : 0.0;
+            long total = totalExecutions.sum();
+            return total > 0 ? (double) totalRowsReturned.sum() / total : 0.0;
+        }
+        public long getTotalResultBytes() { return totalResultBytes.sum(); }
+        public double getAverageResultBytes() {
+            long total = phasedExecutions.sum();
+            return total > 0 ? (double) totalResultBytes.sum() / total : 0.0;
+        }
+        public double getAverageConnectionTimeMs() { return averagePhaseMillis(totalConnectionNanos); }
+        public double getAverageStatementTimeMs() { return averagePhaseMillis(totalStatementNanos); }
+        public double getAverageFetchTimeMs() { return averagePhaseMillis(totalFetchNanos); }
+        private double averagePhaseMillis(LongAdder phaseNanos) {
+            long total = phasedExecutions.sum();
+            return total > 0 ? phaseNanos.sum() / 1_000_000.0 / total : 0.0;
         }
         public Map<String, Long> getDatabaseUsage() {
             Map<String, Long> usage = new HashMap<>();
-            databaseUsage.forEach((db, count) -> usage.put(db, count.get()));
+            databaseUsage.forEach((db, count) -> usage.put(db, count.sum()));
             return usage;
         }
-        public Instant getFirstExecution() { return firstExecution; }
-        public Instant getLastExecution() { return lastExecution; }
+        public Map<String, SlidingWindowCounter.Snapshot> getRates() { return window.snapshots(clock.getAsLong()); }
+        public Instant getFirstExecution() { return executionTimes.getFirst(); }
+        public Instant getLastExecution() { return executionTimes.getLast(); }
     }
     
     /**
@@ -261,49 +399,76 @@ public class UsageStatisticsService {
      */
     public static class DatabaseStatistics {
         private final String databaseName;
-        private final AtomicLong totalConnections = new AtomicLong(0);
-        private final AtomicLong successfulConnections = new AtomicLong(0);
-        private final AtomicLong failedConnections = new AtomicLong(0);
-        private final AtomicLong totalConnectionTime = new AtomicLong(0);
-        private volatile Instant firstConnection;
-        private volatile Instant lastConnection;
+        private final LongSupplier clock;
+        private final LongAdder totalConnections = new LongAdder();
+        private final LongAdder successfulConnections = new LongAdder();
+        private final LongAdder failedConnections = new LongAdder();
+        private final LongAdder totalConnectionTime = new LongAdder();
+        private final CallTimes connectionTimes = new CallTimes();
+        private final SlidingWindowCounter window;
         
         public DatabaseStatistics(String databaseName) {
+            this(databaseName, System::currentTimeMillis);
+        }
+
+        DatabaseStatistics(String databaseName, LongSupplier clock) {
             this.databaseName = databaseName;
+            this.clock = clock;
+            this.window = new SlidingWindowCounter(clock.getAsLong());
         }
         
         public void recordUsage(long connectionTimeMs, boolean success) {
-            totalConnections.incrementAndGet();
-            totalConnectionTime.addAndGet(connectionTimeMs);
+            long now = clock.getAsLong();
+            totalConnections.increment();
+            totalConnectionTime.add(connectionTimeMs);
             
             if (success) {
-                successfulConnections.incrementAndGet();
+                successfulConnections.increment();
             } else {
-                failedConnections.incrementAndGet();
+                failedConnections.increment();
             }
             
-            // Update timestamps
-            Instant now = Instant.now();
-            if (firstConnection == null) {
-                firstConnection = now;
-            }
-            lastConnection = now;
+            window.record(now, connectionTimeMs, !success);
+            connectionTimes.touch(now);
         }
         
         // Getters
         public String getDatabaseName() { return databaseName; }
-        public long getTotalConnections() { return totalConnections.get(); }
-        public long getSuccessfulConnections() { return successfulConnections.get(); }
-        public long getFailedConnections() { return failedConnections.get(); }
+        public long getTotalConnections() { return totalConnections.sum(); }
+        public long getSuccessfulConnections() { return successfulConnections.sum(); }
+        public long getFailedConnections() { return failedConnections.sum(); }
         public double getSuccessRate() {
-            long total = totalConnections.get();
-            return total > 0 ? (double) successfulConnections.get() / total * 100 : 0.0;
+            long total = totalConnections.sum();
+            return total > 0 ? (double) successfulConnections.sum() / total * 100 : 0.0;
         }
+        public long getTotalConnectionTime() { return totalConnectionTime.sum(); }
         public double getAverageConnectionTime() {
-            long total = totalConnections.get();
-            return total > 0 ? (double) totalConnectionTime.get() / total : 0.0;
+            long total = totalConnections.sum();
+            return total > 0 ? (double) totalConnectionTime.sum() / total : 0.0;
+        }
+        public Map<String, SlidingWindowCounter.Snapshot> getRates() { return window.snapshots(clock.getAsLong()); }
+        public Instant getFirstConnection() { return connectionTimes.getFirst(); }
+        public Instant getLastConnection() { return connectionTimes.getLast(); }
+    }
+
+    /**
+     * First and last time a statistic was recorded. The last time is only written when the
+     * millisecond changes, so a busy endpoint does not bounce the field between cores on every call.
+     */
+    private static final class CallTimes {
+        private volatile long first;
+        private volatile long last;
+
+        void touch(long nowMillis) {
+            if (first == 0) {
+                first = nowMillis;
+            }
+            if (last != nowMillis) {
+                last = nowMillis;
+            }
         }
-        public Instant getFirstConnection() { return firstConnection; }
-        public Instant getLastConnection() { return lastConnection; }
+
+        Instant getFirst() { return first == 0 ? null : Instant.ofEpochMilli(first); }
+        Instant getLast() { return last == 0 ? null : Instant.ofEpochMilli(last); }
     }
 }
@@ -0,0 +1,299 @@
+package dev.cordal.generic.plan;
+
+import dev.cordal.common.exception.ApiException;
+import dev.cordal.generic.config.ApiEndpointConfig;
+import dev.cordal.generic.config.QueryConfig;
+import dev.cordal.generic.model.QueryParameter;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Immutable, precompiled execution plan for one endpoint.
+ *
+ * Everything that only depends on configuration is resolved once when the plan is compiled:
+ * the endpoint, query and count query configurations, the data source, the pagination limits,
+ * the request deadline and the binding plan that maps request values onto query placeholders.
+ * Serving a request then only needs to extract the bound values and run the queries.
+ */
+public final class EndpointExecutionPlan {
+    private static final String LIMIT = "limit";
+    private static final String OFFSET = "offset";
+    private static final String PAGE = "page";
+    private static final String SIZE = "size";
+
+    private final String endpointName;
+    private final ApiEndpointConfig endpointConfig;
+    private final QueryConfig queryConfig;
+    private final QueryConfig countQueryConfig;
+    private final DataSource dataSource;
+    private final DataSource countDataSource;
+    private final List<ParameterBinding> bindings;
+    private final boolean paginated;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final long timeoutMs;
+    private final Supplier<ApiException> unavailable;
+    private final Supplier<ApiException> countQueryMissing;
+
+    private EndpointExecutionPlan(Builder builder) {
+        this.endpointName = builder.endpointName;
+        this.endpointConfig = builder.endpointConfig;
+        this.queryConfig = builder.queryConfig;
+        this.countQueryConfig = builder.countQueryConfig;
+        this.dataSource = builder.dataSource;
+        this.countDataSource = builder.countDataSource;
+        this.bindings = List.copyOf(builder.bindings);
+        this.paginated = endpointConfig.getPagination() != null && endpointConfig.getPagination().isEnabled();
+        this.defaultPageSize = paginated ? endpointConfig.getPagination().getDefaultSize() : 0;
+        this.maxPageSize = paginated ? endpointConfig.getPagination().getMaxSize() : 0;
+        this.timeoutMs = endpointConfig.hasTimeout() ? endpointConfig.getTimeoutMs() : builder.defaultTimeoutMs;
+        this.unavailable = builder.unavailable;
+        this.countQueryMissing = builder.countQueryMissing;
+    }
+
+    /**
+     * Where a request value is read from: PATH for values declared as path parameters,
+     * ANY for everything else (form, path and query values, in that order of precedence)
+     */
+    public enum Location {
+        PATH, ANY
+    }
+
+    /**
+     * Supplies raw request values by name; the location is a hint taken from the endpoint's
+     * parameter declaration and may be ignored by sources that have no notion of it
+     */
+    @FunctionalInterface
+    public interface ParameterSource {
+        Object get(String name, Location location);
+
+        static ParameterSource of(Map<String, Object> parameters) {
+            return (name, location) -> parameters.get(name);
+        }
+    }
+
+    /**
+     * Throw the error recorded at compile time if this endpoint cannot be served
+     */
+    public void checkExecutable() {
+        if (unavailable != null) {
+            throw unavailable.get();
+        }
+    }
+
+    /**
+     * Bind request values to the query placeholders.
+     * Placeholders are numbered in order of the values that are present, so optional
+     * parameters that were not supplied do not consume a position.
+     */
+    public List<QueryParameter> bind(ParameterSource source, int page, int size) {
+        List<QueryParameter> parameters = new ArrayList<>(bindings.size());
+        int position = 1;
+        for (ParameterBinding binding : bindings) {
+            Object value = switch (binding.kind) {
+                case LIMIT -> size;
+                case OFFSET -> page * size;
+                case VALUE -> source.get(binding.name, binding.location);
+            };
+
+            if (value == null && binding.required) {
+                throw ApiException.badRequest("Required parameter missing: " + binding.name);
+            }
+            if (value != null) {
+                parameters.add(QueryParameter.of(binding.name, value, binding.type, position++));
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Read the requested page number, defaulting to the first page
+     */
+    public int resolvePage(ParameterSource source) {
+        return paginated ? intValue(source.get(PAGE, Location.ANY), PAGE, 0) : 0;
+    }
+
+    /**
+     * Read the requested page size, defaulting to the endpoint's default size
+     */
+    public int resolveSize(ParameterSource source) {
+        return paginated ? intValue(source.get(SIZE, Location.ANY), SIZE, defaultPageSize) : 0;
+    }
+
+    /**
+     * Derive the count query parameters from the bound main query parameters by dropping
+     * limit and offset and renumbering the remaining positions
+     */
+    public List<QueryParameter> countParameters(List<QueryParameter> queryParameters) {
+        List<QueryParameter> countParameters = new ArrayList<>(queryParameters.size());
+        for (QueryParameter parameter : queryParameters) {
+            if (!LIMIT.equals(parameter.getName()) && !OFFSET.equals(parameter.getName())) {
+                countParameters.add(QueryParameter.of(parameter.getName(), parameter.getValue(),
+                                                      parameter.getType(), countParameters.size() + 1));
+            }
+        }
+        return countParameters;
+    }
+
+    /**
+     * Get the count query, failing the way a missing count query always has: only once a
+     * paginated request actually needs it
+     */
+    public QueryConfig requireCountQueryConfig() {
+        if (countQueryMissing != null) {
+            throw countQueryMissing.get();
+        }
+        return countQueryConfig;
+    }
+
+    private static int intValue(Object value, String name, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Integer) {
+            return (Integer) value;
+        }
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt((String) value);
+            } catch (NumberFormatException e) {
+                throw ApiException.badRequest("Invalid integer value for parameter: " + name);
+            }
+        }
+        throw ApiException.badRequest("Invalid parameter type for: " + name);
+    }
+
+    public String getEndpointName() {
+        return endpointName;
+    }
+
+    public ApiEndpointConfig getEndpointConfig() {
+        return endpointConfig;
+    }
+
+    public QueryConfig getQueryConfig() {
+        return queryConfig;
+    }
+
+    public boolean hasCountQuery() {
+        return countQueryConfig != null || countQueryMissing != null;
+    }
+
+    /**
+     * Data source resolved at compile time, or null when the database is unavailable
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Data source for the count query, which may live in a different database than the main query
+     */
+    public DataSource getCountDataSource() {
+        return countDataSource;
+    }
+
+    public boolean isPaginated() {
+        return paginated;
+    }
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    /**
+     * Request deadline in milliseconds: the endpoint's own timeoutMs, otherwise the server-wide
+     * default; 0 when neither is set
+     */
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public boolean isAvailable() {
+        return unavailable == null;
+    }
+
+    public List<ParameterBinding> getBindings() {
+        return bindings;
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointExecutionPlan{" +
+                "endpoint='" + endpointName + '\'' +
+                ", query='" + (queryConfig != null ? queryConfig.getName() : null) + '\'' +
+                ", paginated=" + paginated +
+                ", bindings=" + bindings.size() +
+                ", available=" + isAvailable() +
+                '}';
+    }
+
+    /**
+     * How one query placeholder is filled
+     */
+    public static final class ParameterBinding {
+        public enum Kind {
+            VALUE, LIMIT, OFFSET
+        }
+
+        private final String name;
+        private final String type;
+        private final boolean required;
+        private final Kind kind;
+        private final Location location;
+
+        ParameterBinding(String name, String type, boolean required, Kind kind, Location location) {
+            this.name = name;
+            this.type = type;
+            this.required = required;
+            this.kind = kind;
+            this.location = location;
+        }
+
+        public String getName() { return name; }
+        public String getType() { return type; }
+        public boolean isRequired() { return required; }
+        public Kind getKind() { return kind; }
+        public Location getLocation() { return location; }
+
+        @Override
+        public String toString() {
+            return name + ":" + kind + "@" + location;
+        }
+    }
+
+    static final class Builder {
+        private final String endpointName;
+        private final ApiEndpointConfig endpointConfig;
+        private QueryConfig queryConfig;
+        private QueryConfig countQueryConfig;
+        private DataSource dataSource;
+        private DataSource countDataSource;
+        private final List<ParameterBinding> bindings = new ArrayList<>();
+        private Supplier<ApiException> unavailable;
+        private Supplier<ApiException> countQueryMissing;
+        private long defaultTimeoutMs;
+
+        Builder(String endpointName, ApiEndpointConfig endpointConfig) {
+            this.endpointName = endpointName;
+            this.endpointConfig = endpointConfig;
+        }
+
+        Builder queryConfig(QueryConfig queryConfig) { this.queryConfig = queryConfig; return this; }
+        Builder countQueryConfig(QueryConfig countQueryConfig) { this.countQueryConfig = countQueryConfig; return this; }
+        Builder dataSource(DataSource dataSource) { this.dataSource = dataSource; return this; }
+        Builder countDataSource(DataSource countDataSource) { this.countDataSource = countDataSource; return this; }
+        Builder binding(ParameterBinding binding) { this.bindings.add(binding); return this; }
+        Builder unavailable(Supplier<ApiException> unavailable) { this.unavailable = unavailable; return this; }
+        Builder countQueryMissing(Supplier<ApiException> countQueryMissing) { this.countQueryMissing = countQueryMissing; return this; }
+        Builder defaultTimeoutMs(long defaultTimeoutMs) { this.defaultTimeoutMs = defaultTimeoutMs; return this; }
+
+        EndpointExecutionPlan build() {
+            return new EndpointExecutionPlan(this);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package dev.cordal.generic.plan;
+
+import dev.cordal.common.config.ServerConfig;
+import dev.cordal.common.exception.ApiException;
+import dev.cordal.generic.config.ApiEndpointConfig;
+import dev.cordal.generic.config.EndpointConfigurationManager;
+import dev.cordal.generic.config.QueryConfig;
+import dev.cordal.generic.config.VersionedConfiguration;
+import dev.cordal.generic.database.DatabaseConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiles every configured endpoint into an {@link EndpointExecutionPlan} and publishes the
+ * plans as one immutable map behind a single volatile reference.
+ *
+ * A rebuild compiles a complete new map off to the side and then swaps it in, so a request
+ * sees either the old set of plans or the new one, never a mix.
+ */
+@Singleton
+public class ExecutionPlanRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionPlanRegistry.class);
+
+    private final EndpointConfigurationManager configurationManager;
+    private final DatabaseConnectionManager databaseConnectionManager;
+    private final long defaultTimeoutMs;
+    private final AtomicLong version = new AtomicLong(0);
+    private volatile Map<String, EndpointExecutionPlan> plans;
+
+    @Inject
+    public ExecutionPlanRegistry(EndpointConfigurationManager configurationManager,
+                                 DatabaseConnectionManager databaseConnectionManager) {
+        this(configurationManager, databaseConnectionManager, ServerConfig.DEFAULT_REQUEST_TIMEOUT_MS);
+    }
+
+    /**
+     * @param defaultTimeoutMs request deadline compiled into plans whose endpoint sets no
+     *                         timeoutMs of its own; 0 means no deadline
+     */
+    public ExecutionPlanRegistry(EndpointConfigurationManager configurationManager,
+                                 DatabaseConnectionManager databaseConnectionManager,
+                                 long defaultTimeoutMs) {
+        this.configurationManager = configurationManager;
+        this.databaseConnectionManager = databaseConnectionManager;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.plans = compileAll();
+        version.incrementAndGet();
+        logger.info("Execution plan registry initialized with {} endpoint plans", plans.size());
+    }
+
+    /**
+     * Get the current plan for an endpoint
+     */
+    public Optional<EndpointExecutionPlan> getPlan(String endpointName) {
+        return Optional.ofNullable(plans.get(endpointName));
+    }
+
+    /**
+     * Get the current plan for an endpoint
+     *
+     * @throws ApiException 404 if the endpoint does not exist
+     */
+    public EndpointExecutionPlan requirePlan(String endpointName) {
+        EndpointExecutionPlan plan = plans.get(endpointName);
+        if (plan == null) {
+            throw ApiException.notFound("Endpoint not found: " + endpointName);
+        }
+        return plan;
+    }
+
+    /**
+     * Get all current plans
+     */
+    public Map<String, EndpointExecutionPlan> getPlans() {
+        return plans;
+    }
+
+    /**
+     * Recompile all plans from the current configuration and swap them in atomically
+     */
+    public synchronized void rebuild() {
+        long startTime = System.currentTimeMillis();
+        Map<String, EndpointExecutionPlan> compiled = compileAll();
+        plans = compiled;
+        long newVersion = version.incrementAndGet();
+        logger.info("Rebuilt {} endpoint execution plans (version {}) in {}ms",
+                   compiled.size(), newVersion, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Recompile only the plans a configuration change can affect and swap them in atomically.
+     * An endpoint is recompiled if it is named in {@code endpoints}, if its query or count query
+     * is named in {@code queries}, or if one of those queries runs on a database named in
+     * {@code databases}; every other plan is carried over as it is. Plans of endpoints that are
+     * no longer configured are dropped.
+     *
+     * @return the number of plans that were recompiled
+     */
+    public synchronized int rebuildAffected(Set<String> endpoints, Set<String> queries, Set<String> databases) {
+        long startTime = System.currentTimeMillis();
+        VersionedConfiguration configuration = configurationManager.getCurrentConfiguration();
+        Map<String, QueryConfig> currentQueries = configuration.getQueries();
+        Map<String, EndpointExecutionPlan> current = plans;
+        Map<String, EndpointExecutionPlan> compiled = new HashMap<>();
+        int recompiled = 0;
+
+        for (Map.Entry<String, ApiEndpointConfig> entry : configuration.getEndpoints().entrySet()) {
+            String endpointName = entry.getKey();
+            ApiEndpointConfig endpointConfig = entry.getValue();
+            EndpointExecutionPlan existing = current.get(endpointName);
+            if (existing == null || endpoints.contains(endpointName)
+                    || dependsOn(endpointConfig.getQuery(), currentQueries, queries, databases)
+                    || dependsOn(endpointConfig.getCountQuery(), currentQueries, queries, databases)) {
+                compiled.put(endpointName, compile(endpointName, endpointConfig, currentQueries));
+                recompiled++;
+            } else {
+                compiled.put(endpointName, existing);
+            }
+        }
+
+        plans = Map.copyOf(compiled);
+        long newVersion = version.incrementAndGet();
+        logger.info("Recompiled {} of {} endpoint execution plans (version {}) in {}ms",
+                   recompiled, compiled.size(), newVersion, System.currentTimeMillis() - startTime);
+        return recompiled;
+    }
+
+    private static boolean dependsOn(String queryName, Map<String, QueryConfig> currentQueries,
+                                     Set<String> queries, Set<String> databases) {
+        if (queryName == null) {
+            return false;
+        }
+        if (queries.contains(queryName)) {
+            return true;
+        }
+        QueryConfig queryConfig = currentQueries.get(queryName);
+        return queryConfig != null && databases.contains(queryConfig.getDatabase());
+    }
+
+    /**
+     * Number of times the plans have been published
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    private Map<String, EndpointExecutionPlan> compileAll() {
+        // Compile from one configuration generation so a reload published mid-rebuild cannot
+        // pair endpoints with queries from a different version
+        VersionedConfiguration configuration = configurationManager.getCurrentConfiguration();
+        Map<String, EndpointExecutionPlan> compiled = new HashMap<>();
+        for (Map.Entry<String, ApiEndpointConfig> entry : configuration.getEndpoints().entrySet()) {
+            compiled.put(entry.getKey(), compile(entry.getKey(), entry.getValue(), configuration.getQueries()));
+        }
+        return Map.copyOf(compiled);
+    }
+
+    /**
+     * Compile one endpoint. Configuration problems do not fail compilation; they are recorded
+     * in the plan and reported to each request with the same error as before precompilation.
+     */
+    EndpointExecutionPlan compile(String endpointName, ApiEndpointConfig endpointConfig) {
+        return compile(endpointName, endpointConfig, configurationManager.getAllQueryConfigurations());
+    }
+
+    private EndpointExecutionPlan compile(String endpointName, ApiEndpointConfig endpointConfig,
+                                          Map<String, QueryConfig> queries) {
+        EndpointExecutionPlan.Builder builder = new EndpointExecutionPlan.Builder(endpointName, endpointConfig)
+            .defaultTimeoutMs(defaultTimeoutMs);
+
+        QueryConfig queryConfig = queries.get(endpointConfig.getQuery());
+        if (queryConfig == null) {
+            String queryName = endpointConfig.getQuery();
+            logger.warn("Endpoint '{}' references unknown query '{}'", endpointName, queryName);
+            return builder.unavailable(() -> ApiException.internalError("Query not found: " + queryName)).build();
+        }
+        builder.queryConfig(queryConfig);
+
+        String countQueryName = endpointConfig.getCountQuery();
+        if (countQueryName != null) {
+            QueryConfig countQueryConfig = queries.get(countQueryName);
+            if (countQueryConfig != null) {
+                builder.countQueryConfig(countQueryConfig);
+                if (databaseConnectionManager.isDatabaseAvailable(countQueryConfig.getDatabase())) {
+                    builder.countDataSource(resolveDataSource(countQueryConfig.getDatabase()));
+                }
+            } else {
+                builder.countQueryMissing(() -> ApiException.internalError("Count query not found: " + countQueryName));
+            }
+        }
+
+        String databaseName = queryConfig.getDatabase();
+        if (databaseConnectionManager.isDatabaseAvailable(databaseName)) {
+            builder.dataSource(resolveDataSource(databaseName));
+        } else {
+            String failureReason = databaseConnectionManager.getDatabaseFailureReason(databaseName);
+            builder.unavailable(() -> ApiException.serviceUnavailable(
+                "Endpoint '" + endpointName + "' is temporarily unavailable due to database connectivity issues. " +
+                "Database '" + databaseName + "' is not accessible: " + failureReason
+            ));
+        }
+
+        boolean paginated = endpointConfig.getPagination() != null && endpointConfig.getPagination().isEnabled();
+        Map<String, ApiEndpointConfig.EndpointParameter> declared = new HashMap<>();
+        if (endpointConfig.getParameters() != null) {
+            for (ApiEndpointConfig.EndpointParameter parameter : endpointConfig.getParameters()) {
+                declared.put(parameter.getName(), parameter);
+            }
+        }
+
+        if (queryConfig.getParameters() != null) {
+            for (QueryConfig.QueryParameter queryParameter : queryConfig.getParameters()) {
+                String name = queryParameter.getName();
+                EndpointExecutionPlan.ParameterBinding.Kind kind = EndpointExecutionPlan.ParameterBinding.Kind.VALUE;
+                if (paginated && "limit".equals(name)) {
+                    kind = EndpointExecutionPlan.ParameterBinding.Kind.LIMIT;
+                } else if (paginated && "offset".equals(name)) {
+                    kind = EndpointExecutionPlan.ParameterBinding.Kind.OFFSET;
+                }
+
+                ApiEndpointConfig.EndpointParameter declaration = declared.get(name);
+                EndpointExecutionPlan.Location location = declaration != null && "PATH".equalsIgnoreCase(declaration.getSource())
+                    ? EndpointExecutionPlan.Location.PATH
+                    : EndpointExecutionPlan.Location.ANY;
+
+                builder.binding(new EndpointExecutionPlan.ParameterBinding(
+                    name, queryParameter.getType(), queryParameter.isRequired(), kind, location));
+            }
+        }
+
+        return builder.build();
+    }
+
+    private DataSource resolveDataSource(String databaseName) {
+        try {
+            return databaseConnectionManager.getDataSource(databaseName);
+        } catch (IllegalArgumentException e) {
+            // Not configured; the repository falls back to looking the database up by name
+            return null;
+        }
+    }
+}
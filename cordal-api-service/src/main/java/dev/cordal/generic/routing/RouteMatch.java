@@ -0,0 +1,18 @@
+package dev.cordal.generic.routing;
+
+import java.util.Map;
+
+/**
+ * The endpoint a request was routed to and the path parameters captured on the way
+ *
+ * @param endpointName the configured endpoint name
+ * @param pathParameters decoded path parameter values keyed by parameter name
+ */
+public record RouteMatch(String endpointName, Map<String, String> pathParameters) {
+
+    /**
+     * Request attribute under which the dynamic router stores the match, since Javalin's own
+     * path parameters are empty for requests served by the catch-all route
+     */
+    public static final String ATTRIBUTE = "cordal.routeMatch";
+}
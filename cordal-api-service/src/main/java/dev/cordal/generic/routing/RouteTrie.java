@@ -0,0 +1,191 @@
+package dev.cordal.generic.routing;
+
+import dev.cordal.generic.config.ApiEndpointConfig;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable path trie that maps an HTTP method and request path to a configured endpoint.
+ *
+ * Each node has a table of static child segments and at most one parameter child; a
+ * {@code {name}} segment in a configured path becomes a parameter edge that captures one
+ * request segment. Matching walks the request path once, preferring a static segment over a
+ * parameter at each level and falling back to the parameter only if the static branch does not
+ * lead to a route, so the cost depends on the path length and not on the number of endpoints.
+ * A trie is never modified after {@link #compile(Map)}; a new set of endpoints means a new trie.
+ */
+public final class RouteTrie {
+    public static final RouteTrie EMPTY = compile(Map.of());
+
+    private final Node root;
+    private final int routeCount;
+    private final int maxParameters;
+    private final List<String> conflicts;
+
+    private RouteTrie(Node root, int routeCount, int maxParameters, List<String> conflicts) {
+        this.root = root;
+        this.routeCount = routeCount;
+        this.maxParameters = maxParameters;
+        this.conflicts = conflicts;
+    }
+
+    /**
+     * Compile a trie from endpoint configurations keyed by endpoint name. Endpoints are added in
+     * name order; when two endpoints have the same method and path shape the first one keeps the
+     * route and the clash is reported by {@link #getConflicts()}.
+     */
+    public static RouteTrie compile(Map<String, ApiEndpointConfig> endpoints) {
+        Node root = new Node();
+        int routeCount = 0;
+        int maxParameters = 0;
+        List<String> conflicts = new ArrayList<>();
+
+        for (Map.Entry<String, ApiEndpointConfig> entry : new TreeMap<>(endpoints).entrySet()) {
+            ApiEndpointConfig config = entry.getValue();
+            if (config.getPath() == null || config.getMethod() == null) {
+                conflicts.add("Endpoint '" + entry.getKey() + "' has no path or method");
+                continue;
+            }
+
+            Node node = root;
+            List<String> parameterNames = new ArrayList<>();
+            for (String segment : segments(config.getPath())) {
+                String parameterName = parameterName(segment);
+                if (parameterName != null) {
+                    if (node.parameterChild == null) {
+                        node.parameterChild = new Node();
+                    }
+                    node = node.parameterChild;
+                    parameterNames.add(parameterName);
+                } else {
+                    node = node.staticChildren.computeIfAbsent(segment, key -> new Node());
+                }
+            }
+
+            String method = config.getMethod().toUpperCase();
+            Route existing = node.routes.get(method);
+            if (existing != null) {
+                conflicts.add(method + " " + config.getPath() + " of endpoint '" + entry.getKey() +
+                              "' is already routed to endpoint '" + existing.endpointName + "'");
+                continue;
+            }
+            node.routes.put(method, new Route(entry.getKey(), parameterNames.toArray(new String[0])));
+            routeCount++;
+            maxParameters = Math.max(maxParameters, parameterNames.size());
+        }
+
+        return new RouteTrie(root, routeCount, maxParameters, Collections.unmodifiableList(conflicts));
+    }
+
+    /**
+     * Find the endpoint for a request
+     *
+     * @param method the HTTP method
+     * @param path the raw request path; captured parameter values are URL-decoded
+     * @return the match, or null if no endpoint serves this method and path
+     */
+    public RouteMatch match(String method, String path) {
+        String[] captured = maxParameters > 0 ? new String[maxParameters] : null;
+        Route route = find(root, method, path, 0, captured, 0);
+        if (route == null) {
+            return null;
+        }
+
+        if (route.parameterNames.length == 0) {
+            return new RouteMatch(route.endpointName, Map.of());
+        }
+        Map<String, String> pathParameters = new LinkedHashMap<>();
+        for (int i = 0; i < route.parameterNames.length; i++) {
+            pathParameters.put(route.parameterNames[i], decode(captured[i]));
+        }
+        return new RouteMatch(route.endpointName, Collections.unmodifiableMap(pathParameters));
+    }
+
+    private static Route find(Node node, String method, String path, int position, String[] captured, int depth) {
+        int start = position;
+        while (start < path.length() && path.charAt(start) == '/') {
+            start++;
+        }
+        if (start >= path.length()) {
+            return node.routes.get(method);
+        }
+
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        String segment = path.substring(start, end);
+
+        Node staticChild = node.staticChildren.get(segment);
+        if (staticChild != null) {
+            Route route = find(staticChild, method, path, end, captured, depth);
+            if (route != null) {
+                return route;
+            }
+        }
+        if (node.parameterChild != null) {
+            captured[depth] = segment;
+            return find(node.parameterChild, method, path, end, captured, depth + 1);
+        }
+        return null;
+    }
+
+    /**
+     * Number of routes in the trie
+     */
+    public int size() {
+        return routeCount;
+    }
+
+    /**
+     * Endpoints that could not be routed because another endpoint already had their method and path
+     */
+    public List<String> getConflicts() {
+        return conflicts;
+    }
+
+    private static List<String> segments(String path) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    private static String parameterName(String segment) {
+        if (segment.length() > 2 && ((segment.startsWith("{") && segment.endsWith("}"))
+                                     || (segment.startsWith("<") && segment.endsWith(">")))) {
+            return segment.substring(1, segment.length() - 1);
+        }
+        return null;
+    }
+
+    /**
+     * Decode a captured segment the way Javalin decodes path parameters, keeping '+' literal
+     */
+    private static String decode(String value) {
+        if (value.indexOf('%') < 0) {
+            return value;
+        }
+        return URLDecoder.decode(value.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+
+    private static final class Node {
+        private final Map<String, Node> staticChildren = new HashMap<>();
+        private final Map<String, Route> routes = new HashMap<>(4);
+        private Node parameterChild;
+    }
+
+    private record Route(String endpointName, String[] parameterNames) {
+    }
+}
@@ -0,0 +1,165 @@
+package dev.cordal.generic.trace;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends finished traces to a file as OTLP JSON, one ExportTraceServiceRequest per line, the
+ * layout the OpenTelemetry collector's file exporter and otlpjsonfile receiver use.
+ *
+ * Requests hand traces over through a bounded queue and never wait for the disk; when the queue
+ * is full the trace is dropped and counted. Encoding and writing happen on a daemon thread.
+ */
+public final class OtlpTraceExporter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(OtlpTraceExporter.class);
+    private static final String SERVICE_NAME = "cordal-api-service";
+    private static final String SCOPE_NAME = "dev.cordal.generic.trace";
+    private static final int SPAN_KIND_INTERNAL = 1;
+    private static final int SPAN_KIND_SERVER = 2;
+    private static final int STATUS_CODE_OK = 1;
+    private static final int STATUS_CODE_ERROR = 2;
+    private static final int MAX_DRAIN = 256;
+
+    private final Path file;
+    private final BlockingQueue<RequestTrace> queue;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong exported = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writerThread;
+    private volatile boolean closed;
+
+    public OtlpTraceExporter(Path file, int queueCapacity) {
+        this.file = file;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.writerThread = new Thread(this::run, "trace-exporter");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        logger.info("Exporting request traces as OTLP JSON to {}", file.toAbsolutePath());
+    }
+
+    /**
+     * Queue a finished trace for export, dropping it if the queue is full
+     */
+    public void offer(RequestTrace trace) {
+        if (closed || !queue.offer(trace)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void run() {
+        List<RequestTrace> batch = new ArrayList<>(MAX_DRAIN);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                RequestTrace first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_DRAIN - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<RequestTrace> traces) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (RequestTrace trace : traces) {
+                    writer.write(objectMapper.writeValueAsString(toOtlp(trace)));
+                    writer.newLine();
+                }
+            }
+            exported.addAndGet(traces.size());
+        } catch (IOException e) {
+            dropped.addAndGet(traces.size());
+            logger.warn("Failed to export {} traces to {}: {}", traces.size(), file, e.getMessage());
+        }
+    }
+
+    /**
+     * Encode a trace as an OTLP ExportTraceServiceRequest
+     */
+    ObjectNode toOtlp(RequestTrace trace) {
+        ObjectNode request = objectMapper.createObjectNode();
+        ObjectNode resourceSpans = request.putArray("resourceSpans").addObject();
+        ArrayNode resourceAttributes = resourceSpans.putObject("resource").putArray("attributes");
+        addAttribute(resourceAttributes, "service.name", SERVICE_NAME);
+
+        ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", SCOPE_NAME);
+        ArrayNode spans = scopeSpans.putArray("spans");
+
+        long startEpochNanos = trace.getStartEpochNanos();
+        String rootSpanId = RequestTrace.randomHex(8);
+        ObjectNode root = spans.addObject();
+        root.put("traceId", trace.getTraceId());
+        root.put("spanId", rootSpanId);
+        root.put("name", trace.getEndpointName());
+        root.put("kind", SPAN_KIND_SERVER);
+        root.put("startTimeUnixNano", Long.toString(startEpochNanos));
+        root.put("endTimeUnixNano", Long.toString(startEpochNanos + trace.getDurationNanos()));
+        addAttribute(root.putArray("attributes"), "cordal.endpoint", trace.getEndpointName());
+        root.putObject("status").put("code", trace.isSuccess() ? STATUS_CODE_OK : STATUS_CODE_ERROR);
+
+        for (RequestTrace.Span span : trace.getSpans()) {
+            ObjectNode child = spans.addObject();
+            child.put("traceId", trace.getTraceId());
+            child.put("spanId", RequestTrace.randomHex(8));
+            child.put("parentSpanId", rootSpanId);
+            child.put("name", span.name());
+            child.put("kind", SPAN_KIND_INTERNAL);
+            child.put("startTimeUnixNano", Long.toString(startEpochNanos + span.offsetNanos()));
+            child.put("endTimeUnixNano", Long.toString(startEpochNanos + span.offsetNanos() + span.durationNanos()));
+        }
+        return request;
+    }
+
+    private static void addAttribute(ArrayNode attributes, String key, String value) {
+        ObjectNode attribute = attributes.addObject();
+        attribute.put("key", key);
+        attribute.putObject("value").put("stringValue", value);
+    }
+
+    public long getExportedCount() { return exported.get(); }
+    public long getDroppedCount() { return dropped.get(); }
+    public int getQueueDepth() { return queue.size(); }
+
+    /**
+     * Stop accepting traces and wait briefly for the queue to be written out
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writerThread.join(2_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
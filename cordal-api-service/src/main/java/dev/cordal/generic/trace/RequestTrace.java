@@ -0,0 +1,144 @@
+package dev.cordal.generic.trace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Timeline of one endpoint request: a root span for the whole request and child spans for the
+ * stages it went through, all measured with {@link System#nanoTime()}.
+ *
+ * The trace is bound to the request thread while the request runs, so code deep in the call
+ * stack records a stage with {@link #record(String, long)} without the trace being passed
+ * around. When no trace is bound recording is a thread-local read and nothing else. Spans are
+ * kept in parallel arrays and only turned into objects when the trace is read.
+ */
+public final class RequestTrace {
+    public static final String PARAMETER_EXTRACTION = "parameter.extraction";
+    public static final String CACHE_LOOKUP = "cache.lookup";
+    public static final String POOL_ACQUIRE = "pool.acquire";
+    public static final String STATEMENT_EXECUTE = "statement.execute";
+    public static final String ROW_MATERIALIZATION = "row.materialization";
+    public static final String JSON_SERIALIZATION = "json.serialization";
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static final int INITIAL_SPANS = 8;
+
+    private final String traceId;
+    private final String endpointName;
+    private final long startEpochNanos;
+    private final long startNanos;
+    private long endNanos;
+    private boolean success;
+
+    private String[] names = new String[INITIAL_SPANS];
+    private long[] starts = new long[INITIAL_SPANS];
+    private long[] ends = new long[INITIAL_SPANS];
+    private int spanCount;
+
+    RequestTrace(String endpointName) {
+        this.traceId = randomHex(16);
+        this.endpointName = endpointName;
+        this.startEpochNanos = System.currentTimeMillis() * 1_000_000L;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Get the trace bound to the current thread, or null when the request is not traced
+     */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind a trace to the current thread
+     *
+     * @return the previously bound trace, to be handed back to {@link #restore(RequestTrace)}
+     */
+    public static RequestTrace bind(RequestTrace trace) {
+        RequestTrace previous = CURRENT.get();
+        if (trace != null) {
+            CURRENT.set(trace);
+        }
+        return previous;
+    }
+
+    /**
+     * Restore the binding that was in place before {@link #bind(RequestTrace)}
+     */
+    public static void restore(RequestTrace previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Record a stage of the current thread's trace that started at the given nanoTime and ends now
+     */
+    public static void record(String name, long startNanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.span(name, startNanos, System.nanoTime());
+        }
+    }
+
+    /**
+     * Record a stage between two nanoTime readings
+     */
+    public void span(String name, long spanStartNanos, long spanEndNanos) {
+        if (spanCount == names.length) {
+            int capacity = spanCount * 2;
+            names = Arrays.copyOf(names, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+        }
+        names[spanCount] = name;
+        starts[spanCount] = spanStartNanos;
+        ends[spanCount] = spanEndNanos;
+        spanCount++;
+    }
+
+    void finish(boolean success) {
+        this.endNanos = System.nanoTime();
+        this.success = success;
+    }
+
+    public String getTraceId() { return traceId; }
+    public String getEndpointName() { return endpointName; }
+    public boolean isSuccess() { return success; }
+    public long getStartEpochNanos() { return startEpochNanos; }
+    public long getDurationNanos() { return endNanos - startNanos; }
+    public double getDurationMs() { return getDurationNanos() / 1_000_000.0; }
+
+    /**
+     * The recorded stages in the order they were recorded
+     */
+    public List<Span> getSpans() {
+        List<Span> spans = new ArrayList<>(spanCount);
+        for (int i = 0; i < spanCount; i++) {
+            spans.add(new Span(names[i], starts[i] - startNanos, ends[i] - starts[i]));
+        }
+        return spans;
+    }
+
+    /**
+     * One stage, with its offset from the start of the request
+     */
+    public record Span(String name, long offsetNanos, long durationNanos) {
+        public double getOffsetMs() { return offsetNanos / 1_000_000.0; }
+        public double getDurationMs() { return durationNanos / 1_000_000.0; }
+    }
+
+    static String randomHex(int bytes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder hex = new StringBuilder(bytes * 2);
+        for (int i = 0; i < bytes; i++) {
+            int value = random.nextInt(256);
+            hex.append(Character.forDigit(value >> 4, 16)).append(Character.forDigit(value & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,88 @@
+package dev.cordal.generic.trace;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded store of the N slowest finished traces of every endpoint.
+ *
+ * A trace faster than the fastest one an endpoint already keeps is turned away after a single
+ * volatile read, so steady traffic costs no locking; only traces that make the list take the
+ * endpoint's lock.
+ */
+public final class SlowTraceBuffer {
+    private static final Comparator<RequestTrace> BY_DURATION = Comparator.comparingLong(RequestTrace::getDurationNanos);
+
+    private final int tracesPerEndpoint;
+    private final Map<String, EndpointTraces> endpoints = new ConcurrentHashMap<>();
+
+    public SlowTraceBuffer(int tracesPerEndpoint) {
+        this.tracesPerEndpoint = Math.max(1, tracesPerEndpoint);
+    }
+
+    /**
+     * Offer a finished trace; it is kept if it is among its endpoint's slowest
+     */
+    public void offer(RequestTrace trace) {
+        endpoints.computeIfAbsent(trace.getEndpointName(), k -> new EndpointTraces()).offer(trace);
+    }
+
+    /**
+     * The slowest traces of one endpoint, slowest first
+     */
+    public List<RequestTrace> getSlowest(String endpointName, int limit) {
+        EndpointTraces traces = endpoints.get(endpointName);
+        return traces != null ? traces.slowest(limit) : List.of();
+    }
+
+    /**
+     * The slowest traces of every endpoint, keyed by endpoint name
+     */
+    public Map<String, List<RequestTrace>> getSlowest(int limit) {
+        Map<String, List<RequestTrace>> slowest = new TreeMap<>();
+        endpoints.forEach((endpointName, traces) -> slowest.put(endpointName, traces.slowest(limit)));
+        return slowest;
+    }
+
+    public void clear() {
+        endpoints.clear();
+    }
+
+    private final class EndpointTraces {
+        private final PriorityQueue<RequestTrace> traces = new PriorityQueue<>(tracesPerEndpoint, BY_DURATION);
+        private volatile long admissionNanos = Long.MIN_VALUE;
+
+        void offer(RequestTrace trace) {
+            long durationNanos = trace.getDurationNanos();
+            if (durationNanos <= admissionNanos) {
+                return;
+            }
+            synchronized (this) {
+                if (traces.size() >= tracesPerEndpoint) {
+                    if (durationNanos <= traces.peek().getDurationNanos()) {
+                        return;
+                    }
+                    traces.poll();
+                }
+                traces.add(trace);
+                if (traces.size() >= tracesPerEndpoint) {
+                    admissionNanos = traces.peek().getDurationNanos();
+                }
+            }
+        }
+
+        List<RequestTrace> slowest(int limit) {
+            List<RequestTrace> copy;
+            synchronized (this) {
+                copy = new ArrayList<>(traces);
+            }
+            copy.sort(BY_DURATION.reversed());
+            return copy.size() > limit ? copy.subList(0, Math.max(0, limit)) : copy;
+        }
+    }
+}
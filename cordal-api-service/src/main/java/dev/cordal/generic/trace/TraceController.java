@@ -0,0 +1,63 @@
+package dev.cordal.generic.trace;
+
+import dev.cordal.common.exception.ApiException;
+import io.javalin.http.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controller for the slowest request traces kept in memory
+ */
+public class TraceController {
+    private static final Logger logger = LoggerFactory.getLogger(TraceController.class);
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final Tracer tracer;
+
+    public TraceController(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Get the slowest traces of every endpoint, optionally limited with ?limit=N
+     */
+    public void getSlowestTraces(Context ctx) {
+        logger.debug("Getting slowest traces");
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("tracing", tracer.getStatus());
+        response.put("endpoints", tracer.getSlowestTraces(parseLimit(ctx)));
+        ctx.json(response);
+    }
+
+    /**
+     * Get the slowest traces of one endpoint
+     */
+    public void getEndpointTraces(Context ctx) {
+        String endpointName = ctx.pathParam("endpointName");
+        logger.debug("Getting slowest traces for endpoint: {}", endpointName);
+        ctx.json(tracer.getSlowestTraces(endpointName, parseLimit(ctx)));
+    }
+
+    /**
+     * Discard the kept traces
+     */
+    public void clearTraces(Context ctx) {
+        tracer.clear();
+        ctx.json(Map.of("message", "Traces cleared"));
+    }
+
+    private static int parseLimit(Context ctx) {
+        String limit = ctx.queryParam("limit");
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        try {
+            return Integer.parseInt(limit);
+        } catch (NumberFormatException e) {
+            throw ApiException.badRequest("Invalid limit: " + limit);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package dev.cordal.generic.trace;
+
+import dev.cordal.config.GenericApiConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts request traces and routes finished ones to the slow trace buffer and, when enabled,
+ * the OTLP file exporter
+ */
+public class Tracer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(Tracer.class);
+
+    private final GenericApiConfig.TracingSettings settings;
+    private final SlowTraceBuffer slowTraces;
+    private final OtlpTraceExporter exporter;
+    private final long exportThresholdNanos;
+
+    public Tracer(GenericApiConfig.TracingSettings settings) {
+        this.settings = settings;
+        this.slowTraces = new SlowTraceBuffer(settings.getSlowestPerEndpoint());
+        this.exporter = settings.isEnabled() && settings.isExportEnabled()
+            ? new OtlpTraceExporter(Path.of(settings.getExportFile()), settings.getExportQueueSize())
+            : null;
+        this.exportThresholdNanos = settings.getExportThresholdMs() * 1_000_000L;
+        logger.info("Request tracing {}: keeping {} slowest traces per endpoint, OTLP export {}",
+                   settings.isEnabled() ? "enabled" : "disabled", settings.getSlowestPerEndpoint(),
+                   exporter != null ? "to " + settings.getExportFile() : "disabled");
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * Start a trace for a request, or return null when tracing is disabled
+     */
+    public RequestTrace start(String endpointName) {
+        return settings.isEnabled() ? new RequestTrace(endpointName) : null;
+    }
+
+    /**
+     * Close a trace and hand it to the buffer and exporter
+     */
+    public void finish(RequestTrace trace, boolean success) {
+        if (trace == null) {
+            return;
+        }
+        trace.finish(success);
+        slowTraces.offer(trace);
+        if (exporter != null && trace.getDurationNanos() >= exportThresholdNanos) {
+            exporter.offer(trace);
+        }
+    }
+
+    public List<RequestTrace> getSlowestTraces(String endpointName, int limit) {
+        return slowTraces.getSlowest(endpointName, limit);
+    }
+
+    public Map<String, List<RequestTrace>> getSlowestTraces(int limit) {
+        return slowTraces.getSlowest(limit);
+    }
+
+    public void clear() {
+        slowTraces.clear();
+    }
+
+    /**
+     * Tracing configuration and exporter counters
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", settings.isEnabled());
+        status.put("slowestPerEndpoint", settings.getSlowestPerEndpoint());
+        status.put("exportEnabled", exporter != null);
+        if (exporter != null) {
+            status.put("exportFile", settings.getExportFile());
+            status.put("exportThresholdMs", settings.getExportThresholdMs());
+            status.put("exported", exporter.getExportedCount());
+            status.put("dropped", exporter.getDroppedCount());
+            status.put("queueDepth", exporter.getQueueDepth());
+        }
+        return status;
+    }
+
+    @Override
+    public void close() {
+        if (exporter != null) {
+            exporter.close();
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package dev.cordal.hotreload;
 
 import dev.cordal.database.DatabaseManager;
+import dev.cordal.generic.GenericRepository;
+import dev.cordal.generic.config.DatabaseConfig;
+import dev.cordal.generic.config.QueryConfig;
+import dev.cordal.generic.database.DatabaseConnectionManager;
+import dev.cordal.generic.plan.ExecutionPlanRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -21,13 +30,33 @@ public class AtomicUpdateManager {
     
     private final DatabaseManager databaseManager;
     private final DynamicEndpointRegistry endpointRegistry;
+    private final ExecutionPlanRegistry executionPlanRegistry;
+    private final DatabaseConnectionManager databaseConnectionManager;
+    private final GenericRepository genericRepository;
     private final AtomicBoolean updateInProgress = new AtomicBoolean(false);
     private final AtomicReference<String> currentUpdateId = new AtomicReference<>();
+    // Databases whose pools the running update has already changed, so a rollback only undoes those
+    private final Set<String> appliedDatabaseChanges = ConcurrentHashMap.newKeySet();
     
-    @Inject
     public AtomicUpdateManager(DatabaseManager databaseManager, DynamicEndpointRegistry endpointRegistry) {
+        this(databaseManager, endpointRegistry, null);
+    }
+
+    public AtomicUpdateManager(DatabaseManager databaseManager, DynamicEndpointRegistry endpointRegistry,
+                               ExecutionPlanRegistry executionPlanRegistry) {
+        this(databaseManager, endpointRegistry, executionPlanRegistry, null, null);
+    }
+
+    @Inject
+    public AtomicUpdateManager(DatabaseManager databaseManager, DynamicEndpointRegistry endpointRegistry,
+                               ExecutionPlanRegistry executionPlanRegistry,
+                               DatabaseConnectionManager databaseConnectionManager,
+                               GenericRepository genericRepository) {
         this.databaseManager = databaseManager;
         this.endpointRegistry = endpointRegistry;
+        this.executionPlanRegistry = executionPlanRegistry;
+        this.databaseConnectionManager = databaseConnectionManager;
+        this.genericRepository = genericRepository;
         logger.info("AtomicUpdateManager initialized");
     }
     
@@ -43,6 +72,7 @@ public class AtomicUpdateManager {
         }
         
         currentUpdateId.set(updateId);
+        appliedDatabaseChanges.clear();
         AtomicUpdateResult.Builder resultBuilder = new AtomicUpdateResult.Builder(updateId);
         
         try {
@@ -87,6 +117,18 @@ public class AtomicUpdateManager {
                 rollbackEndpointChanges(delta);
                 return resultBuilder.failure("Final validation failed").build();
             }
+
+            // Phase 5: Recompile the execution plans the delta touches and publish them in one swap
+            if (executionPlanRegistry != null) {
+                Set<String> endpoints = new HashSet<>(delta.addedEndpoints.keySet());
+                endpoints.addAll(delta.modifiedEndpoints.keySet());
+                executionPlanRegistry.rebuildAffected(endpoints, delta.getAffectedQueries(), delta.getAffectedDatabases());
+            }
+
+            // Phase 6: Drop cached results of changed queries only
+            if (genericRepository != null) {
+                invalidateCachedResults(delta, newConfiguration);
+            }
             
             logger.info("Atomic update completed successfully: {}", updateId);
             return resultBuilder.success("Atomic update completed").build();
@@ -149,6 +191,7 @@ public class AtomicUpdateManager {
                 // Check if we can register/unregister endpoints
                 for (String endpointName : delta.addedEndpoints.keySet()) {
                     if (endpointRegistry.getActiveEndpoints().containsKey(endpointName)) {
+                        endpointRegistry.rollbackAtomicUpdate();
                         return PrepareResult.failure("Endpoint already exists: " + endpointName);
                     }
                 }
@@ -176,9 +219,11 @@ public class AtomicUpdateManager {
                 var dbConfig = entry.getValue();
                 
                 try {
-                    // This would integrate with the actual DatabaseManager
-                    // For now, we simulate the operation
                     logger.debug("Adding database: {}", dbName);
+                    if (databaseConnectionManager != null) {
+                        databaseConnectionManager.replaceDataSource(dbName, dbConfig);
+                    }
+                    appliedDatabaseChanges.add(dbName);
                     builder.addedDatabase(dbName);
                 } catch (Exception e) {
                     logger.error("Failed to add database: {}", dbName, e);
@@ -192,7 +237,12 @@ public class AtomicUpdateManager {
                 var dbConfig = entry.getValue();
                 
                 try {
+                    // Only the pool of a changed database is rebuilt; the old pool serves until the swap
                     logger.debug("Updating database: {}", dbName);
+                    if (databaseConnectionManager != null) {
+                        databaseConnectionManager.replaceDataSource(dbName, dbConfig);
+                    }
+                    appliedDatabaseChanges.add(dbName);
                     builder.updatedDatabase(dbName);
                 } catch (Exception e) {
                     logger.error("Failed to update database: {}", dbName, e);
@@ -204,6 +254,10 @@ public class AtomicUpdateManager {
             for (String dbName : delta.removedDatabases) {
                 try {
                     logger.debug("Removing database: {}", dbName);
+                    if (databaseConnectionManager != null) {
+                        databaseConnectionManager.removeDataSource(dbName);
+                    }
+                    appliedDatabaseChanges.add(dbName);
                     builder.removedDatabase(dbName);
                 } catch (Exception e) {
                     logger.error("Failed to remove database: {}", dbName, e);
@@ -306,19 +360,68 @@ public class AtomicUpdateManager {
     private void rollbackDatabaseChanges(ConfigurationDelta delta) {
         logger.info("Rolling back database changes");
         
-        // This would implement actual rollback logic
-        // For now, we just log the rollback operations
-        
         for (String dbName : delta.addedDatabases.keySet()) {
             logger.debug("Rollback: removing added database: {}", dbName);
+            if (databaseConnectionManager != null && appliedDatabaseChanges.contains(dbName)) {
+                databaseConnectionManager.removeDataSource(dbName);
+            }
         }
         
         for (String dbName : delta.modifiedDatabases.keySet()) {
             logger.debug("Rollback: reverting modified database: {}", dbName);
+            restoreDataSource(dbName, delta.previousDatabases.get(dbName));
         }
         
         for (String dbName : delta.removedDatabases) {
             logger.debug("Rollback: restoring removed database: {}", dbName);
+            restoreDataSource(dbName, delta.previousDatabases.get(dbName));
+        }
+    }
+
+    private void restoreDataSource(String dbName, DatabaseConfig previousConfig) {
+        if (databaseConnectionManager == null || previousConfig == null || !appliedDatabaseChanges.contains(dbName)) {
+            return;
+        }
+        try {
+            databaseConnectionManager.replaceDataSource(dbName, previousConfig);
+        } catch (Exception e) {
+            logger.error("Rollback: failed to restore data source for database: {}", dbName, e);
+        }
+    }
+
+    /**
+     * Invalidate the cache regions of queries whose results may have changed: modified and
+     * removed queries under both their old and new key patterns, and queries on databases whose
+     * connection settings changed. Entries of every other query stay cached.
+     */
+    private void invalidateCachedResults(ConfigurationDelta delta, ConfigurationSet newConfiguration) {
+        Map<String, QueryConfig> affected = new java.util.LinkedHashMap<>(delta.modifiedQueries);
+        for (String queryName : delta.removedQueries) {
+            QueryConfig previous = delta.previousQueries.get(queryName);
+            if (previous != null) {
+                affected.put(queryName, previous);
+            }
+        }
+        Set<String> changedDatabases = new HashSet<>(delta.modifiedDatabases.keySet());
+        changedDatabases.addAll(delta.removedDatabases);
+        if (!changedDatabases.isEmpty() && newConfiguration != null) {
+            for (Map.Entry<String, QueryConfig> entry : newConfiguration.getQueries().entrySet()) {
+                if (changedDatabases.contains(entry.getValue().getDatabase())) {
+                    affected.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        int removed = 0;
+        for (Map.Entry<String, QueryConfig> entry : affected.entrySet()) {
+            removed += genericRepository.invalidateCachedResults(entry.getValue());
+            QueryConfig previous = delta.previousQueries.get(entry.getKey());
+            if (previous != null && previous != entry.getValue()) {
+                removed += genericRepository.invalidateCachedResults(previous);
+            }
+        }
+        if (!affected.isEmpty()) {
+            logger.info("Invalidated {} cached entries for {} changed queries", removed, affected.size());
         }
     }
     
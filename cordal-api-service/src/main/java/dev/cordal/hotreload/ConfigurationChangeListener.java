@@ -1,5 +1,7 @@
 package dev.cordal.hotreload;
 
+import java.util.List;
+
 /**
  * Interface for listening to configuration file changes
  */
@@ -11,4 +13,16 @@ public interface ConfigurationChangeListener {
      * @param event The file change event containing details about the change
      */
     void onConfigurationFileChanged(FileChangeEvent event);
+    
+    /**
+     * Called once per quiet period with every configuration file changed during it.
+     * The default delivers the events one at a time to {@link #onConfigurationFileChanged}.
+     * 
+     * @param events The changed files, each with its most recent event
+     */
+    default void onConfigurationFilesChanged(List<FileChangeEvent> events) {
+        for (FileChangeEvent event : events) {
+            onConfigurationFileChanged(event);
+        }
+    }
 }
@@ -25,6 +25,11 @@ public class ConfigurationDelta {
     public final Map<String, ApiEndpointConfig> addedEndpoints = new HashMap<>();
     public final Map<String, ApiEndpointConfig> modifiedEndpoints = new HashMap<>();
     public final Set<String> removedEndpoints = new HashSet<>();
+
+    // Configuration that modified and removed databases and queries had before the change,
+    // needed to undo a pool swap and to find cache entries written under the old settings
+    public final Map<String, DatabaseConfig> previousDatabases = new HashMap<>();
+    public final Map<String, QueryConfig> previousQueries = new HashMap<>();
     
     /**
      * Check if this delta contains any changes
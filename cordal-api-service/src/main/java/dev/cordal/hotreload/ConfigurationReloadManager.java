@@ -1,21 +1,32 @@
 package dev.cordal.hotreload;
 
 import dev.cordal.config.GenericApiConfig;
-import dev.cordal.generic.config.ApiEndpointConfig;
-import dev.cordal.generic.config.QueryConfig;
-import dev.cordal.generic.config.DatabaseConfig;
+import dev.cordal.database.loader.DatabaseConfigurationLoader;
+import dev.cordal.database.repository.TableWatermark;
+import dev.cordal.generic.config.EndpointConfigurationManager;
+import dev.cordal.generic.config.VersionedConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 /**
  * Orchestrates the entire configuration reload process
@@ -31,13 +42,25 @@ public class ConfigurationReloadManager implements ConfigurationChangeListener {
     private final DynamicEndpointRegistry endpointRegistry;
     private final AtomicUpdateManager atomicUpdateManager;
     private final GenericApiConfig config;
+    private final EndpointConfigurationManager configurationManager;
+    private final DatabaseConfigurationLoader databaseLoader;
     
     private final AtomicBoolean isEnabled = new AtomicBoolean(false);
     private final AtomicInteger reloadAttempts = new AtomicInteger(0);
     private final AtomicReference<ReloadStatus> currentStatus = new AtomicReference<>(ReloadStatus.IDLE);
     private final AtomicReference<String> lastError = new AtomicReference<>();
+    private volatile ScheduledExecutorService databasePoller;
+    private volatile Map<String, TableWatermark> appliedWatermarks;
+    
+    // Every reload, whatever triggered it, runs under this lock so that reloads never overlap and a
+    // failed reload cannot restore over the configuration another one just published
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    
+    // At most one file-triggered reload runs; changes arriving meanwhile accumulate here and are
+    // reloaded together once it finishes
+    private final Set<Path> queuedFileChanges = new LinkedHashSet<>();
+    private boolean fileReloadRunning;
     
-    @Inject
     public ConfigurationReloadManager(
             FileWatcherService fileWatcher,
             ConfigurationStateManager stateManager,
@@ -45,6 +68,31 @@ public class ConfigurationReloadManager implements ConfigurationChangeListener {
             DynamicEndpointRegistry endpointRegistry,
             AtomicUpdateManager atomicUpdateManager,
             GenericApiConfig config) {
+        this(fileWatcher, stateManager, validationPipeline, endpointRegistry, atomicUpdateManager, config, null);
+    }
+
+    public ConfigurationReloadManager(
+            FileWatcherService fileWatcher,
+            ConfigurationStateManager stateManager,
+            ValidationPipeline validationPipeline,
+            DynamicEndpointRegistry endpointRegistry,
+            AtomicUpdateManager atomicUpdateManager,
+            GenericApiConfig config,
+            EndpointConfigurationManager configurationManager) {
+        this(fileWatcher, stateManager, validationPipeline, endpointRegistry, atomicUpdateManager, config,
+             configurationManager, null);
+    }
+
+    @Inject
+    public ConfigurationReloadManager(
+            FileWatcherService fileWatcher,
+            ConfigurationStateManager stateManager,
+            ValidationPipeline validationPipeline,
+            DynamicEndpointRegistry endpointRegistry,
+            AtomicUpdateManager atomicUpdateManager,
+            GenericApiConfig config,
+            EndpointConfigurationManager configurationManager,
+            DatabaseConfigurationLoader databaseLoader) {
         
         this.fileWatcher = fileWatcher;
         this.stateManager = stateManager;
@@ -52,6 +100,8 @@ public class ConfigurationReloadManager implements ConfigurationChangeListener {
         this.endpointRegistry = endpointRegistry;
         this.atomicUpdateManager = atomicUpdateManager;
         this.config = config;
+        this.configurationManager = configurationManager;
+        this.databaseLoader = databaseLoader;
         
         logger.info("ConfigurationReloadManager initialized");
     }
@@ -77,6 +127,9 @@ public class ConfigurationReloadManager implements ConfigurationChangeListener {
                 startFileWatching();
             }
             
+            // Poll the configuration tables when they are the source
+            startDatabasePolling();
+            
             isEnabled.set(true);
             currentStatus.set(ReloadStatus.WATCHING);
             
@@ -100,6 +153,7 @@ public class ConfigurationReloadManager implements ConfigurationChangeListener {
         currentStatus.set(ReloadStatus.SHUTTING_DOWN);
         
         try {
+            stopDatabasePolling();
             fileWatcher.unregisterChangeListener(this);
             fileWatcher.stopWatching();
             
@@ -118,18 +172,42 @@ public class ConfigurationReloadManager implements ConfigurationChangeListener {
      */
     @Override
     public void onConfigurationFileChanged(FileChangeEvent event) {
+        onConfigurationFilesChanged(List.of(event));
+    }
+    
+    /**
+     * Handle a batch of file changes from the file watcher. If a reload is already running the
+     * changed paths are queued and picked up, together with anything else that arrives, by one
+     * follow-up reload; no change is dropped.
+     */
+    @Override
+    public void onConfigurationFilesChanged(List<FileChangeEvent> events) {
         if (!isEnabled.get()) {
-            logger.debug("Hot reload disabled, ignoring file change: {}", event.getFileName());
+            logger.debug("Hot reload disabled, ignoring {} file changes", events.size());
             return;
         }
         
-        logger.info("Configuration file changed: {} ({})", event.getFileName(), event.getEventKind().name());
+        for (FileChangeEvent event : events) {
+            logger.info("Configuration file changed: {} ({})", event.getFileName(), event.getEventKind().name());
+        }
+        
+        synchronized (queuedFileChanges) {
+            events.forEach(event -> queuedFileChanges.add(event.getFilePath()));
+            if (fileReloadRunning) {
+                logger.info("Reload in progress, queued {} changed files for the next reload", queuedFileChanges.size());
+                return;
+            }
+            fileReloadRunning = true;
+        }
         
         // Process reload asynchronously to avoid blocking file watcher
-        CompletableFuture.runAsync(() -> processConfigurationReload(event))
+        CompletableFuture.runAsync(this::processQueuedFileChanges)
             .exceptionally(throwable -> {
                 logger.error("Async configuration reload failed", throwable);
                 handleReloadFailure("Async processing failed: " + throwable.getMessage());
+                synchronized (queuedFileChanges) {
+                    fileReloadRunning = false;
+                }
                 return null;
             });
     }
@@ -142,7 +220,7 @@ public class ConfigurationReloadManager implements ConfigurationChangeListener {
             return ReloadResult.failure("Hot reload is not enabled");
         }
         
-        if (currentStatus.get() == ReloadStatus.RELOADING) {
+        if (!reloadLock.tryLock()) {
             return ReloadResult.failure("Reload already in progress");
         }
         
@@ -153,6 +231,8 @@ public class ConfigurationReloadManager implements ConfigurationChangeListener {
         } catch (Exception e) {
             logger.error("Manual reload failed", e);
             return ReloadResult.failure("Manual reload failed: " + e.getMessage());
+        } finally {
+            reloadLock.unlock();
         }
     }
     
@@ -171,26 +251,43 @@ public class ConfigurationReloadManager implements ConfigurationChangeListener {
     }
     
     /**
-     * Process configuration reload from file change
+     * Reload for the queued file changes until no more arrive while reloading
      */
-    private void processConfigurationReload(FileChangeEvent event) {
-        if (currentStatus.get() == ReloadStatus.RELOADING) {
-            logger.warn("Reload already in progress, skipping file change: {}", event.getFileName());
-            return;
+    private void processQueuedFileChanges() {
+        while (true) {
+            Set<Path> changedFiles;
+            synchronized (queuedFileChanges) {
+                if (queuedFileChanges.isEmpty() || !isEnabled.get()) {
+                    queuedFileChanges.clear();
+                    fileReloadRunning = false;
+                    return;
+                }
+                changedFiles = Set.copyOf(queuedFileChanges);
+                queuedFileChanges.clear();
+            }
+            
+            // Waits for a manual or database-triggered reload that is still running
+            reloadLock.lock();
+            try {
+                performReload(ReloadRequest.fromFileChanges(changedFiles));
+            } finally {
+                reloadLock.unlock();
+            }
         }
-        
-        ReloadRequest request = ReloadRequest.fromFileChange(event);
-        performReload(request);
     }
     
     /**
-     * Perform the actual configuration reload
+     * Perform the actual configuration reload; callers hold {@link #reloadLock}
      */
     private ReloadResult performReload(ReloadRequest request) {
+        ReloadStatus status = currentStatus.get();
+        if (status == ReloadStatus.RELOADING || !currentStatus.compareAndSet(status, ReloadStatus.RELOADING)) {
+            return ReloadResult.failure("Reload already in progress");
+        }
+        
         String reloadId = generateReloadId();
         logger.info("Starting configuration reload: {} (request: {})", reloadId, request);
         
-        currentStatus.set(ReloadStatus.RELOADING);
         int attempt = reloadAttempts.incrementAndGet();
         
         try {
@@ -200,14 +297,17 @@ public class ConfigurationReloadManager implements ConfigurationChangeListener {
             
             // Phase 2: Create snapshot of current state
             logger.debug("Phase 2: Creating current state snapshot");
-            String snapshotId = createCurrentSnapshot();
+            VersionedConfiguration previous = configurationManager != null
+                ? configurationManager.getCurrentConfiguration() : null;
+            String snapshotId = createCurrentSnapshot(previous);
             
             // Phase 3: Calculate configuration delta
             logger.debug("Phase 3: Calculating configuration delta");
-            ConfigurationDelta delta = calculateDelta(newConfig);
+            ConfigurationDelta delta = calculateDelta(snapshotId, newConfig);
             
             if (!delta.hasChanges()) {
                 logger.info("No configuration changes detected, reload complete");
+                reloadAttempts.set(0);
                 currentStatus.set(ReloadStatus.WATCHING);
                 return ReloadResult.success("No changes detected", delta);
             }
@@ -224,12 +324,23 @@ public class ConfigurationReloadManager implements ConfigurationChangeListener {
                 }
             }
             
-            // Phase 5: Apply configuration changes atomically
-            logger.debug("Phase 5: Applying configuration changes");
+            // Phase 5: Publish the new configuration generation with a single swap; requests
+            // already running keep the generation they started with
+            if (configurationManager != null) {
+                logger.debug("Phase 5: Publishing new configuration version");
+                configurationManager.publish(VersionedConfiguration.unpublished(
+                    previous.getSource(), newConfig.getDatabases(), newConfig.getQueries(), newConfig.getEndpoints()));
+            }
+            
+            // Phase 6: Apply configuration changes atomically
+            logger.debug("Phase 6: Applying configuration changes");
             AtomicUpdateResult updateResult = atomicUpdateManager.applyChanges(delta, newConfig);
             
             if (!updateResult.isSuccess()) {
                 logger.error("Atomic update failed: {}", updateResult.getError());
+                if (configurationManager != null) {
+                    configurationManager.restore(previous);
+                }
                 
                 if (config.isHotReloadRollbackOnFailure()) {
                     logger.info("Rolling back to snapshot: {}", snapshotId);
@@ -240,14 +351,16 @@ public class ConfigurationReloadManager implements ConfigurationChangeListener {
                 return ReloadResult.failure("Update failed", updateResult.getError());
             }
             
-            // Phase 6: Create new snapshot with updated configuration
-            logger.debug("Phase 6: Creating new configuration snapshot");
+            // Phase 7: Create new snapshot with updated configuration
+            logger.debug("Phase 7: Creating new configuration snapshot");
             String newSnapshotId = stateManager.createSnapshot(
                 newConfig.getDatabases(),
                 newConfig.getQueries(),
                 newConfig.getEndpoints()
             );
             
+            // Only consecutive failures count towards disabling hot reload
+            reloadAttempts.set(0);
             currentStatus.set(ReloadStatus.WATCHING);
             lastError.set(null);
             
@@ -271,41 +384,132 @@ public class ConfigurationReloadManager implements ConfigurationChangeListener {
      * Start file watching for configuration directories
      */
     private void startFileWatching() {
-        // Implementation would start watching the configured directories
-        // This is a placeholder for the actual implementation
-        logger.info("Starting file watching for configuration directories");
+        if (configurationManager != null && configurationManager.isUsingDatabaseSource()) {
+            logger.info("Configuration is loaded from the database, not watching configuration directories");
+            return;
+        }
+        if (config.hasSpecificConfigPaths()) {
+            logger.info("Specific configuration files are configured, not watching configuration directories");
+            return;
+        }
+        
+        List<Path> directories = config.getConfigDirectories().stream()
+            .map(directory -> Paths.get(directory).toAbsolutePath().normalize())
+            .filter(Files::isDirectory)
+            .distinct()
+            .toList();
+        if (directories.isEmpty()) {
+            logger.warn("None of the configuration directories {} exist, not watching for changes",
+                       config.getConfigDirectories());
+            return;
+        }
+        
+        List<String> patterns = Stream.of(config.getDatabasePatterns(), config.getQueryPatterns(),
+                                          config.getEndpointPatterns())
+            .flatMap(List::stream)
+            .distinct()
+            .toList();
+        
+        logger.info("Starting file watching for configuration directories {} with patterns {}", directories, patterns);
+        fileWatcher.startWatching(directories, patterns);
     }
     
     /**
-     * Load new configuration from files
+     * Start polling the configuration table watermarks if configuration comes from the database.
+     * Each poll is one cheap aggregate query per table; a reload runs only when a watermark moved,
+     * and the database loader then fetches just the rows that changed.
+     */
+    private void startDatabasePolling() {
+        long pollMs = config.getHotReloadDatabasePollMs();
+        if (databaseLoader == null || configurationManager == null || !configurationManager.isUsingDatabaseSource()
+                || pollMs <= 0) {
+            return;
+        }
+        
+        appliedWatermarks = databaseLoader.getSnapshotWatermarks();
+        databasePoller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "config-db-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        databasePoller.scheduleWithFixedDelay(this::pollDatabaseChanges, pollMs, pollMs, TimeUnit.MILLISECONDS);
+        logger.info("Polling configuration tables for changes every {}ms", pollMs);
+    }
+    
+    private void stopDatabasePolling() {
+        ScheduledExecutorService poller = databasePoller;
+        if (poller != null) {
+            poller.shutdownNow();
+            databasePoller = null;
+        }
+    }
+    
+    /**
+     * Check the configuration table watermarks and reload if they moved since the last successful
+     * reload
+     */
+    void pollDatabaseChanges() {
+        // A reload that is running will be followed by the next poll
+        if (!isEnabled.get() || !reloadLock.tryLock()) {
+            return;
+        }
+        
+        try {
+            // Read before reloading so a write that lands during the reload is seen by the next poll
+            Map<String, TableWatermark> watermarks = databaseLoader.readWatermarks();
+            if (watermarks.equals(appliedWatermarks)) {
+                return;
+            }
+            
+            logger.info("Configuration tables changed: {} -> {}", appliedWatermarks, watermarks);
+            ReloadResult result = performReload(ReloadRequest.fromDatabaseChange());
+            if (result.isSuccess()) {
+                appliedWatermarks = watermarks;
+            } else {
+                // Keep the old watermarks so the next poll tries the change again
+                logger.warn("Reload for configuration table changes did not succeed, retrying on the next poll: {}",
+                           result.getMessage());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to poll configuration tables for changes", e);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+    
+    /**
+     * Load new configuration; a request for changed files reloads only what those files define
      */
     private ConfigurationSet loadNewConfiguration(ReloadRequest request) {
-        // Implementation would load and parse YAML configuration files
-        // This is a placeholder for the actual implementation
         logger.debug("Loading new configuration for request: {}", request);
-        return new ConfigurationSet(); // Placeholder
+        if (configurationManager == null) {
+            return new ConfigurationSet();
+        }
+        VersionedConfiguration loaded = request.getSpecificFiles().isEmpty()
+            ? configurationManager.loadFromSource()
+            : configurationManager.loadFromSource(request.getSpecificFiles().stream().map(Path::of).toList());
+        return new ConfigurationSet(loaded.getDatabases(), loaded.getQueries(), loaded.getEndpoints());
     }
     
     /**
      * Create snapshot of current configuration state
      */
-    private String createCurrentSnapshot() {
-        // Implementation would get current configuration and create snapshot
-        // This is a placeholder for the actual implementation
-        return stateManager.createSnapshot(
-            Map.of(), // Current databases
-            Map.of(), // Current queries  
-            Map.of()  // Current endpoints
-        );
+    private String createCurrentSnapshot(VersionedConfiguration current) {
+        if (current == null) {
+            return stateManager.createSnapshot(Map.of(), Map.of(), Map.of());
+        }
+        return stateManager.createSnapshot(current.getDatabases(), current.getQueries(), current.getEndpoints());
     }
     
     /**
      * Calculate delta between current and new configuration
      */
-    private ConfigurationDelta calculateDelta(ConfigurationSet newConfig) {
-        // Implementation would calculate actual delta
-        // This is a placeholder for the actual implementation
-        return new ConfigurationDelta();
+    private ConfigurationDelta calculateDelta(String snapshotId, ConfigurationSet newConfig) {
+        if (configurationManager == null) {
+            return new ConfigurationDelta();
+        }
+        return stateManager.calculateDelta(stateManager.getSnapshot(snapshotId).orElse(null),
+                                           newConfig.getDatabases(), newConfig.getQueries(), newConfig.getEndpoints());
     }
     
     /**
@@ -9,13 +9,16 @@ import java.util.Map;
 
 /**
  * Immutable snapshot of configuration state at a point in time
+ *
+ * The maps are persistent: a snapshot derived from an earlier one shares every entry that did not
+ * change, so keeping a history of snapshots costs memory in proportion to the changes between them.
  */
 public class ConfigurationSnapshot {
     private final String version;
     private final Instant timestamp;
-    private final Map<String, DatabaseConfig> databases;
-    private final Map<String, QueryConfig> queries;
-    private final Map<String, ApiEndpointConfig> endpoints;
+    private final PersistentMap<String, DatabaseConfig> databases;
+    private final PersistentMap<String, QueryConfig> queries;
+    private final PersistentMap<String, ApiEndpointConfig> endpoints;
     
     public ConfigurationSnapshot(String version, Instant timestamp,
                                Map<String, DatabaseConfig> databases,
@@ -23,9 +26,9 @@ public class ConfigurationSnapshot {
                                Map<String, ApiEndpointConfig> endpoints) {
         this.version = version;
         this.timestamp = timestamp;
-        this.databases = Map.copyOf(databases);
-        this.queries = Map.copyOf(queries);
-        this.endpoints = Map.copyOf(endpoints);
+        this.databases = PersistentMap.copyOf(databases);
+        this.queries = PersistentMap.copyOf(queries);
+        this.endpoints = PersistentMap.copyOf(endpoints);
     }
     
     public String getVersion() {
@@ -48,6 +51,18 @@ public class ConfigurationSnapshot {
         return endpoints;
     }
     
+    PersistentMap<String, DatabaseConfig> databaseMap() {
+        return databases;
+    }
+
+    PersistentMap<String, QueryConfig> queryMap() {
+        return queries;
+    }
+
+    PersistentMap<String, ApiEndpointConfig> endpointMap() {
+        return endpoints;
+    }
+    
     public int getTotalConfigurations() {
         return databases.size() + queries.size() + endpoints.size();
     }
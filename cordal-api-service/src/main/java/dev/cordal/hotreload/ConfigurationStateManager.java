@@ -39,13 +39,14 @@ public class ConfigurationStateManager {
                                Map<String, ApiEndpointConfig> endpoints) {
         String version = generateVersion();
         
-        ConfigurationSnapshot snapshot = new ConfigurationSnapshot(
-            version,
-            Instant.now(),
-            new HashMap<>(databases),
-            new HashMap<>(queries),
-            new HashMap<>(endpoints)
-        );
+        // Derive the new maps from the current snapshot so unchanged entries are shared, not copied
+        ConfigurationSnapshot base = currentSnapshot;
+        ConfigurationSnapshot snapshot = base == null
+            ? new ConfigurationSnapshot(version, Instant.now(), databases, queries, endpoints)
+            : new ConfigurationSnapshot(version, Instant.now(),
+                                        base.databaseMap().updatedTo(databases),
+                                        base.queryMap().updatedTo(queries),
+                                        base.endpointMap().updatedTo(endpoints));
         
         snapshots.put(version, snapshot);
         currentSnapshot = snapshot;
@@ -112,9 +113,12 @@ public class ConfigurationStateManager {
             delta.addedEndpoints.putAll(newEndpoints);
         } else {
             // Calculate differences
-            calculateDatabaseDelta(delta, oldSnapshot.getDatabases(), newDatabases);
-            calculateQueryDelta(delta, oldSnapshot.getQueries(), newQueries);
-            calculateEndpointDelta(delta, oldSnapshot.getEndpoints(), newEndpoints);
+            diff(oldSnapshot.databaseMap(), newDatabases, delta.addedDatabases, delta.modifiedDatabases,
+                 delta.removedDatabases, delta.previousDatabases);
+            diff(oldSnapshot.queryMap(), newQueries, delta.addedQueries, delta.modifiedQueries,
+                 delta.removedQueries, delta.previousQueries);
+            diff(oldSnapshot.endpointMap(), newEndpoints, delta.addedEndpoints, delta.modifiedEndpoints,
+                 delta.removedEndpoints, null);
         }
         
         logger.debug("Calculated configuration delta: added={}/{}/{}, modified={}/{}/{}, removed={}/{}/{}",
@@ -125,6 +129,14 @@ public class ConfigurationStateManager {
         return delta;
     }
     
+    /**
+     * Calculate the difference between two snapshots. Snapshots created by this manager share
+     * structure, so this runs in time proportional to the number of changes between them.
+     */
+    public ConfigurationDelta calculateDelta(ConfigurationSnapshot oldSnapshot, ConfigurationSnapshot newSnapshot) {
+        return calculateDelta(oldSnapshot, newSnapshot.databaseMap(), newSnapshot.queryMap(), newSnapshot.endpointMap());
+    }
+    
     /**
      * Validate configuration dependencies
      */
@@ -219,84 +231,32 @@ public class ConfigurationStateManager {
         }
     }
     
-    private void calculateDatabaseDelta(ConfigurationDelta delta, 
-                                      Map<String, DatabaseConfig> oldDatabases,
-                                      Map<String, DatabaseConfig> newDatabases) {
-        
-        // Find added and modified databases
-        for (Map.Entry<String, DatabaseConfig> entry : newDatabases.entrySet()) {
-            String name = entry.getKey();
-            DatabaseConfig newConfig = entry.getValue();
-            DatabaseConfig oldConfig = oldDatabases.get(name);
-            
-            if (oldConfig == null) {
-                delta.addedDatabases.put(name, newConfig);
-            } else if (!configsEqual(oldConfig, newConfig)) {
-                delta.modifiedDatabases.put(name, newConfig);
-            }
-        }
-        
-        // Find removed databases
-        for (String name : oldDatabases.keySet()) {
-            if (!newDatabases.containsKey(name)) {
-                delta.removedDatabases.add(name);
-            }
-        }
-    }
-    
-    private void calculateQueryDelta(ConfigurationDelta delta,
-                                   Map<String, QueryConfig> oldQueries,
-                                   Map<String, QueryConfig> newQueries) {
-        
-        // Find added and modified queries
-        for (Map.Entry<String, QueryConfig> entry : newQueries.entrySet()) {
-            String name = entry.getKey();
-            QueryConfig newConfig = entry.getValue();
-            QueryConfig oldConfig = oldQueries.get(name);
-            
-            if (oldConfig == null) {
-                delta.addedQueries.put(name, newConfig);
-            } else if (!configsEqual(oldConfig, newConfig)) {
-                delta.modifiedQueries.put(name, newConfig);
-            }
-        }
-        
-        // Find removed queries
-        for (String name : oldQueries.keySet()) {
-            if (!newQueries.containsKey(name)) {
-                delta.removedQueries.add(name);
-            }
-        }
-    }
-    
-    private void calculateEndpointDelta(ConfigurationDelta delta,
-                                      Map<String, ApiEndpointConfig> oldEndpoints,
-                                      Map<String, ApiEndpointConfig> newEndpoints) {
-        
-        // Find added and modified endpoints
-        for (Map.Entry<String, ApiEndpointConfig> entry : newEndpoints.entrySet()) {
-            String name = entry.getKey();
-            ApiEndpointConfig newConfig = entry.getValue();
-            ApiEndpointConfig oldConfig = oldEndpoints.get(name);
-            
-            if (oldConfig == null) {
-                delta.addedEndpoints.put(name, newConfig);
-            } else if (!configsEqual(oldConfig, newConfig)) {
-                delta.modifiedEndpoints.put(name, newConfig);
-            }
-        }
-        
-        // Find removed endpoints
-        for (String name : oldEndpoints.keySet()) {
-            if (!newEndpoints.containsKey(name)) {
-                delta.removedEndpoints.add(name);
+    /**
+     * Record the differences between a snapshot map and new configurations. Unchanged entries
+     * stay shared with the snapshot, so only the parts that changed are compared.
+     *
+     * @param previous receives the old value of modified and removed entries, may be null
+     */
+    private static <T> void diff(PersistentMap<String, T> oldConfigs,
+                                 Map<String, T> newConfigs,
+                                 Map<String, T> added,
+                                 Map<String, T> modified,
+                                 Set<String> removed,
+                                 Map<String, T> previous) {
+        oldConfigs.diff(oldConfigs.updatedTo(newConfigs), (name, before, after) -> {
+            if (before == null) {
+                added.put(name, after);
+            } else if (after == null) {
+                removed.add(name);
+                if (previous != null) {
+                    previous.put(name, before);
+                }
+            } else {
+                modified.put(name, after);
+                if (previous != null) {
+                    previous.put(name, before);
+                }
             }
-        }
-    }
-    
-    private boolean configsEqual(Object config1, Object config2) {
-        // Simple equality check - in a real implementation, you might want
-        // more sophisticated comparison logic
-        return Objects.equals(config1, config2);
+        });
     }
 }
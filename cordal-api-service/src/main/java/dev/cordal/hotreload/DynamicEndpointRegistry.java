@@ -1,53 +1,129 @@
 package dev.cordal.hotreload;
 
 import dev.cordal.generic.config.ApiEndpointConfig;
+import dev.cordal.generic.routing.RouteMatch;
+import dev.cordal.generic.routing.RouteTrie;
 import io.javalin.Javalin;
+import io.javalin.http.Context;
 import io.javalin.http.Handler;
+import io.javalin.router.EndpointNotFound;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Manages runtime endpoint registration and deregistration with Javalin
+ * Manages runtime endpoint registration and deregistration
  * Provides zero-downtime endpoint updates
+ *
+ * Dynamic endpoints are not registered with Javalin one by one. A single catch-all route per
+ * HTTP method hands every request that no static route claimed to {@link #handle(Context)},
+ * which looks the request up in a compiled {@link RouteTrie}. Every change compiles a new trie
+ * and handler table off to the side and publishes both with one volatile store, so requests see
+ * either the old set of endpoints or the new one. Changes made between
+ * {@link #beginAtomicUpdate()} and {@link #commitAtomicUpdate()} are published together at the
+ * commit, and {@link #rollbackAtomicUpdate()} restores the endpoints as they were at the begin.
  */
 @Singleton
 public class DynamicEndpointRegistry {
     private static final Logger logger = LoggerFactory.getLogger(DynamicEndpointRegistry.class);
+    private static final String[] ROUTED_METHODS = {"GET", "POST", "PUT", "DELETE", "PATCH"};
     
     private final Map<String, RegisteredEndpoint> activeEndpoints = new ConcurrentHashMap<>();
     private final AtomicBoolean updateInProgress = new AtomicBoolean(false);
     private final AtomicInteger registrationCounter = new AtomicInteger(0);
+    private final AtomicLong routingVersion = new AtomicLong(0);
     
+    private volatile RoutingTable routingTable = new RoutingTable(RouteTrie.EMPTY, Map.of());
+    private Map<String, RegisteredEndpoint> endpointsBeforeUpdate;
+    private EndpointHandlerFactory handlerFactory = this::createEndpointHandler;
     private Javalin javalinApp;
     
+    /**
+     * Creates the handler that serves an endpoint once a request has been routed to it
+     */
+    @FunctionalInterface
+    public interface EndpointHandlerFactory {
+        Handler create(String name, ApiEndpointConfig config);
+    }
+
+    /**
+     * The published routes: the trie and the handlers of the endpoints it routes to
+     */
+    private record RoutingTable(RouteTrie trie, Map<String, RegisteredEndpoint> endpoints) {
+    }
+    
     @Inject
     public DynamicEndpointRegistry() {
         logger.info("DynamicEndpointRegistry initialized");
     }
     
     /**
-     * Set the Javalin application instance
+     * Set the Javalin application instance and install the catch-all routes that feed requests
+     * to this registry. Javalin matches routes in the order they were added, so this must be
+     * called after every static route has been registered.
      */
-    public void setJavalinApp(Javalin javalinApp) {
+    public synchronized void setJavalinApp(Javalin javalinApp) {
+        if (this.javalinApp == javalinApp) {
+            return;
+        }
         this.javalinApp = javalinApp;
-        logger.info("Javalin application set for dynamic endpoint registry");
+        Handler catchAll = this::handle;
+        for (String method : ROUTED_METHODS) {
+            registerWithJavalin(method, "*", catchAll);
+        }
+        logger.info("Javalin application set for dynamic endpoint registry ({} routes)", routingTable.trie().size());
+    }
+
+    /**
+     * Set the factory used to create handlers for endpoints registered from now on
+     */
+    public synchronized void setHandlerFactory(EndpointHandlerFactory handlerFactory) {
+        this.handlerFactory = handlerFactory;
     }
     
     /**
-     * Register a new endpoint dynamically
+     * Route a request to its dynamic endpoint
+     *
+     * @throws EndpointNotFound if no registered endpoint serves the request method and path
      */
-    public EndpointRegistrationResult registerEndpoint(String name, ApiEndpointConfig config) {
-        if (javalinApp == null) {
-            return EndpointRegistrationResult.failure("Javalin application not initialized");
+    public void handle(Context ctx) throws Exception {
+        RoutingTable table = routingTable;
+        RouteMatch match = table.trie().match(ctx.method().name(), ctx.path());
+        RegisteredEndpoint endpoint = match != null ? table.endpoints().get(match.endpointName()) : null;
+        if (endpoint == null) {
+            throw new EndpointNotFound(ctx.method(), ctx.path());
         }
-        
+        ctx.attribute(RouteMatch.ATTRIBUTE, match);
+        endpoint.getHandler().handle(ctx);
+    }
+
+    /**
+     * Find the endpoint that currently serves a method and path
+     */
+    public RouteMatch match(String method, String path) {
+        return routingTable.trie().match(method.toUpperCase(), path);
+    }
+
+    /**
+     * Number of times a new set of routes has been published
+     */
+    public long getRoutingVersion() {
+        return routingVersion.get();
+    }
+    
+    /**
+     * Register a new endpoint dynamically
+     */
+    public synchronized EndpointRegistrationResult registerEndpoint(String name, ApiEndpointConfig config) {
         logger.info("Registering endpoint: {} -> {} {}", name, config.getMethod(), config.getPath());
         
         try {
@@ -57,16 +133,14 @@ public class DynamicEndpointRegistry {
             }
             
             // Create handler for the endpoint
-            Handler handler = createEndpointHandler(name, config);
-            
-            // Register with Javalin based on HTTP method
-            registerWithJavalin(config.getMethod(), config.getPath(), handler);
+            Handler handler = handlerFactory.create(name, config);
             
             // Track the registered endpoint
             RegisteredEndpoint registeredEndpoint = new RegisteredEndpoint(
                 name, config, handler, System.currentTimeMillis()
             );
             activeEndpoints.put(name, registeredEndpoint);
+            publishUnlessUpdating();
             
             int totalEndpoints = registrationCounter.incrementAndGet();
             logger.info("Endpoint registered successfully: {} (total active: {})", name, totalEndpoints);
@@ -80,9 +154,9 @@ public class DynamicEndpointRegistry {
     }
     
     /**
-     * Unregister an endpoint dynamically
+     * Unregister an endpoint dynamically; its route is removed from the next published trie
      */
-    public EndpointRegistrationResult unregisterEndpoint(String name) {
+    public synchronized EndpointRegistrationResult unregisterEndpoint(String name) {
         logger.info("Unregistering endpoint: {}", name);
         
         try {
@@ -91,9 +165,8 @@ public class DynamicEndpointRegistry {
                 return EndpointRegistrationResult.failure("Endpoint not found: " + name);
             }
             
-            // Note: Javalin doesn't support dynamic route removal in current version
-            // We mark the endpoint as inactive instead
             endpoint.setActive(false);
+            publishUnlessUpdating();
             
             int totalEndpoints = registrationCounter.decrementAndGet();
             logger.info("Endpoint unregistered successfully: {} (total active: {})", name, totalEndpoints);
@@ -107,24 +180,22 @@ public class DynamicEndpointRegistry {
     }
     
     /**
-     * Update an existing endpoint (unregister old, register new)
+     * Update an existing endpoint configuration
      */
-    public EndpointRegistrationResult updateEndpoint(String name, ApiEndpointConfig newConfig) {
+    public synchronized EndpointRegistrationResult updateEndpoint(String name, ApiEndpointConfig newConfig) {
         logger.info("Updating endpoint: {} -> {} {}", name, newConfig.getMethod(), newConfig.getPath());
         
         try {
-            // For now, we'll unregister and re-register
-            // In a more sophisticated implementation, we might support in-place updates
-            EndpointRegistrationResult unregisterResult = unregisterEndpoint(name);
-            if (!unregisterResult.isSuccess()) {
-                return unregisterResult;
-            }
-            
-            EndpointRegistrationResult registerResult = registerEndpoint(name, newConfig);
-            if (!registerResult.isSuccess()) {
-                logger.error("Failed to re-register endpoint after update: {}", name);
-                return registerResult;
+            RegisteredEndpoint previous = activeEndpoints.get(name);
+            if (previous == null) {
+                return EndpointRegistrationResult.failure("Endpoint not found: " + name);
             }
+
+            // Replace in place so the endpoint is never missing from a published trie
+            Handler handler = handlerFactory.create(name, newConfig);
+            activeEndpoints.put(name, new RegisteredEndpoint(name, newConfig, handler, System.currentTimeMillis()));
+            previous.setActive(false);
+            publishUnlessUpdating();
             
             logger.info("Endpoint updated successfully: {}", name);
             return EndpointRegistrationResult.success("Endpoint updated: " + name);
@@ -136,11 +207,12 @@ public class DynamicEndpointRegistry {
     }
     
     /**
-     * Begin atomic update operation
+     * Begin atomic update operation; changes are held back until it is committed
      */
-    public boolean beginAtomicUpdate() {
+    public synchronized boolean beginAtomicUpdate() {
         boolean acquired = updateInProgress.compareAndSet(false, true);
         if (acquired) {
+            endpointsBeforeUpdate = new HashMap<>(activeEndpoints);
             logger.info("Atomic update operation started");
         } else {
             logger.warn("Atomic update already in progress");
@@ -149,20 +221,52 @@ public class DynamicEndpointRegistry {
     }
     
     /**
-     * Commit atomic update operation
+     * Commit atomic update operation, publishing all changes made since it began in one swap
      */
-    public void commitAtomicUpdate() {
+    public synchronized void commitAtomicUpdate() {
+        endpointsBeforeUpdate = null;
         updateInProgress.set(false);
+        publish();
         logger.info("Atomic update operation committed");
     }
     
     /**
-     * Rollback atomic update operation
+     * Rollback atomic update operation, restoring the endpoints as they were when it began
      */
-    public void rollbackAtomicUpdate() {
+    public synchronized void rollbackAtomicUpdate() {
+        if (endpointsBeforeUpdate != null) {
+            activeEndpoints.clear();
+            activeEndpoints.putAll(endpointsBeforeUpdate);
+            registrationCounter.set(activeEndpoints.size());
+            endpointsBeforeUpdate = null;
+        }
         updateInProgress.set(false);
+        publish();
         logger.info("Atomic update operation rolled back");
     }
+
+    private void publishUnlessUpdating() {
+        if (!updateInProgress.get()) {
+            publish();
+        }
+    }
+
+    /**
+     * Compile the current endpoints into a new trie and swap it in
+     */
+    private void publish() {
+        Map<String, RegisteredEndpoint> endpoints = new LinkedHashMap<>(activeEndpoints);
+        Map<String, ApiEndpointConfig> configs = new LinkedHashMap<>();
+        endpoints.forEach((name, endpoint) -> configs.put(name, endpoint.getConfig()));
+
+        RouteTrie trie = RouteTrie.compile(configs);
+        for (String conflict : trie.getConflicts()) {
+            logger.warn("Route conflict: {}", conflict);
+        }
+        routingTable = new RoutingTable(trie, Map.copyOf(endpoints));
+        long version = routingVersion.incrementAndGet();
+        logger.debug("Published {} dynamic routes (routing version {})", trie.size(), version);
+    }
     
     /**
      * Validate all active endpoints
@@ -218,17 +322,10 @@ public class DynamicEndpointRegistry {
     }
     
     /**
-     * Create a handler for the endpoint
+     * Create a placeholder handler for the endpoint, used until a handler factory is set
      */
     private Handler createEndpointHandler(String name, ApiEndpointConfig config) {
         return ctx -> {
-            // Check if endpoint is still active
-            RegisteredEndpoint endpoint = activeEndpoints.get(name);
-            if (endpoint == null || !endpoint.isActive()) {
-                ctx.status(404).result("Endpoint not available: " + name);
-                return;
-            }
-            
             // This is a placeholder implementation
             // In a real implementation, this would:
             // 1. Execute the configured query
@@ -15,6 +15,10 @@ import java.util.stream.Collectors;
 /**
  * Service for monitoring YAML configuration files for changes
  * Provides debounced file change notifications to prevent reload storms
+ *
+ * Changes are coalesced: every event restarts one shared quiet-period timer, and when it expires
+ * listeners receive all files changed since the previous batch, each with its latest event kind.
+ * A checkout that touches many files therefore produces one batch rather than one per file.
  */
 @Singleton
 public class FileWatcherService {
@@ -23,7 +27,8 @@ public class FileWatcherService {
     private final AtomicBoolean isWatching = new AtomicBoolean(false);
     private final Set<ConfigurationChangeListener> listeners = ConcurrentHashMap.newKeySet();
     private final Map<WatchKey, Path> watchKeys = new ConcurrentHashMap<>();
-    private final Map<Path, Long> lastModifiedTimes = new ConcurrentHashMap<>();
+    private final Map<Path, WatchEvent.Kind<?>> pendingChanges = new LinkedHashMap<>();
+    private ScheduledFuture<?> pendingFlush;
     
     private WatchService watchService;
     private ExecutorService watcherExecutor;
@@ -66,9 +71,9 @@ public class FileWatcherService {
                 registerDirectory(directory);
             }
             
-            // Start the watcher thread
-            watcherExecutor.submit(this::watchLoop);
+            // Start the watcher thread; the flag goes first or the loop can see it unset and exit at once
             isWatching.set(true);
+            watcherExecutor.submit(this::watchLoop);
             
             logger.info("File watcher started monitoring {} directories with patterns: {}", 
                        directories.size(), patterns);
@@ -127,7 +132,10 @@ public class FileWatcherService {
         
         // Clear state
         watchKeys.clear();
-        lastModifiedTimes.clear();
+        synchronized (pendingChanges) {
+            pendingChanges.clear();
+            pendingFlush = null;
+        }
         
         logger.info("File watcher stopped");
     }
@@ -297,43 +305,55 @@ public class FileWatcherService {
     }
     
     /**
-     * Schedule a debounced notification for file changes
+     * Add a change to the pending batch and restart the quiet-period timer
      */
     private void scheduleDebounceNotification(Path filePath, WatchEvent.Kind<?> eventKind) {
-        // Cancel any existing scheduled notification for this file
-        long currentTime = System.currentTimeMillis();
-        lastModifiedTimes.put(filePath, currentTime);
-        
-        // Schedule new notification after debounce delay
-        debounceExecutor.schedule(() -> {
-            Long lastModified = lastModifiedTimes.get(filePath);
-            if (lastModified != null && lastModified.equals(currentTime)) {
-                // No newer modification, send notification
-                notifyListeners(filePath, eventKind);
-                lastModifiedTimes.remove(filePath);
+        synchronized (pendingChanges) {
+            // Re-insert so the batch is ordered by each file's latest change
+            pendingChanges.remove(filePath);
+            pendingChanges.put(filePath, eventKind);
+            
+            if (pendingFlush != null) {
+                pendingFlush.cancel(false);
             }
-        }, debounceDelayMs, TimeUnit.MILLISECONDS);
+            pendingFlush = debounceExecutor.schedule(this::flushPendingChanges, debounceDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Hand every change collected during the quiet period to the listeners as one batch
+     */
+    private void flushPendingChanges() {
+        List<FileChangeEvent> batch = new ArrayList<>();
+        long timestamp = System.currentTimeMillis();
+        synchronized (pendingChanges) {
+            pendingChanges.forEach((path, kind) -> batch.add(new FileChangeEvent(path, kind, timestamp)));
+            pendingChanges.clear();
+            pendingFlush = null;
+        }
+        
+        if (!batch.isEmpty()) {
+            notifyListeners(batch);
+        }
     }
     
     /**
-     * Notify all registered listeners about a file change
+     * Notify all registered listeners about a batch of file changes
      */
-    private void notifyListeners(Path filePath, WatchEvent.Kind<?> eventKind) {
+    private void notifyListeners(List<FileChangeEvent> batch) {
         if (listeners.isEmpty()) {
-            logger.debug("No listeners registered for file change: {}", filePath);
+            logger.debug("No listeners registered for {} file changes", batch.size());
             return;
         }
         
-        FileChangeEvent changeEvent = new FileChangeEvent(filePath, eventKind, System.currentTimeMillis());
-        
-        logger.info("Notifying {} listeners about file change: {} {}", 
-                   listeners.size(), eventKind.name(), filePath);
+        logger.info("Notifying {} listeners about {} changed files: {}", listeners.size(), batch.size(),
+                   batch.stream().map(FileChangeEvent::getFileName).collect(Collectors.toList()));
         
         for (ConfigurationChangeListener listener : listeners) {
             try {
-                listener.onConfigurationFileChanged(changeEvent);
+                listener.onConfigurationFilesChanged(batch);
             } catch (Exception e) {
-                logger.error("Error notifying listener {} about file change", 
+                logger.error("Error notifying listener {} about file changes", 
                            listener.getClass().getSimpleName(), e);
             }
         }
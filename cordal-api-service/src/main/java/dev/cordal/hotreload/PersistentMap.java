@@ -0,0 +1,425 @@
+package dev.cordal.hotreload;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable hash array mapped trie. Adding or removing an entry copies only the path from the
+ * root to that entry, so successive versions share every subtree that did not change.
+ *
+ * Branch nodes hold up to 32 children selected by five bits of the key hash; entries whose full
+ * hashes collide share a collision node. Two versions derived from each other are compared with
+ * {@link #diff}, which skips shared subtrees by reference and so runs in time proportional to the
+ * number of changed entries rather than the size of the map.
+ *
+ * The {@link Map} view is read-only; null keys and values are not allowed.
+ */
+final class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentMap<Object, Object> EMPTY = new PersistentMap<>(null, 0);
+
+    private final Object root;
+    private final int size;
+
+    private PersistentMap(Object root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Receives the entries that differ between two maps; a missing side is passed as null
+     */
+    @FunctionalInterface
+    interface ChangeVisitor<K, V> {
+        void visit(K key, V before, V after);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * A persistent copy of the given map, or the map itself if it already is one
+     */
+    static <K, V> PersistentMap<K, V> copyOf(Map<K, V> source) {
+        return PersistentMap.<K, V>empty().updatedTo(source);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key == null ? null : lookup(root, 0, key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V lookup(Object node, int shift, Object key) {
+        int hash = hash(key);
+        for (; node instanceof Branch branch; shift += BITS) {
+            int bit = bit(hash, shift);
+            if ((branch.bitmap & bit) == 0) {
+                return null;
+            }
+            node = branch.children[branch.index(bit)];
+        }
+        if (node instanceof Leaf<?, ?> leaf) {
+            return leaf.getKey().equals(key) ? (V) leaf.getValue() : null;
+        }
+        if (node instanceof Collision collision && collision.hash == hash) {
+            int index = collision.indexOf(key);
+            return index >= 0 ? (V) collision.leaves[index].getValue() : null;
+        }
+        return null;
+    }
+
+    /**
+     * This map with the given entry added or replaced. Returns this map if the key already maps to
+     * the same value instance.
+     */
+    PersistentMap<K, V> with(K key, V value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+        Leaf<K, V> leaf = new Leaf<>(hash(key), key, value);
+        Object newRoot = put(root, 0, leaf);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentMap<>(newRoot, containsKey(key) ? size : size + 1);
+    }
+
+    /**
+     * This map without the given key. Returns this map if the key is not present.
+     */
+    PersistentMap<K, V> without(K key) {
+        if (key == null || !containsKey(key)) {
+            return this;
+        }
+        Object newRoot = remove(root, 0, key, hash(key));
+        return newRoot == null ? empty() : new PersistentMap<>(newRoot, size - 1);
+    }
+
+    /**
+     * A version of this map with exactly the entries of the target. Values equal to the ones
+     * already held are kept, so unchanged entries stay shared with this map and only changed
+     * entries allocate new nodes.
+     */
+    @SuppressWarnings("unchecked")
+    PersistentMap<K, V> updatedTo(Map<K, V> target) {
+        if (target instanceof PersistentMap<?, ?> persistent) {
+            return (PersistentMap<K, V>) persistent;
+        }
+
+        PersistentMap<K, V> result = this;
+        for (Map.Entry<K, V> entry : target.entrySet()) {
+            V current = result.get(entry.getKey());
+            if (current == null || (current != entry.getValue() && !current.equals(entry.getValue()))) {
+                result = result.with(entry.getKey(), entry.getValue());
+            }
+        }
+        if (result.size != target.size()) {
+            for (K key : keySet()) {
+                if (!target.containsKey(key)) {
+                    result = result.without(key);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Report every key whose value differs between this map and the newer one. Subtrees the two
+     * maps share are skipped without being visited.
+     */
+    void diff(PersistentMap<K, V> newer, ChangeVisitor<K, V> visitor) {
+        diff(root, newer.root, 0, visitor);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new EntryIterator<>(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private static Object put(Object node, int shift, Leaf<?, ?> leaf) {
+        if (node == null) {
+            return leaf;
+        }
+        if (node instanceof Branch branch) {
+            int bit = bit(leaf.hash, shift);
+            int index = branch.index(bit);
+            if ((branch.bitmap & bit) == 0) {
+                return branch.inserting(bit, index, leaf);
+            }
+            Object child = branch.children[index];
+            Object newChild = put(child, shift + BITS, leaf);
+            return newChild == child ? branch : branch.replacing(index, newChild);
+        }
+        if (node instanceof Leaf<?, ?> existing) {
+            if (existing.getKey().equals(leaf.getKey())) {
+                return existing.getValue() == leaf.getValue() ? existing : leaf;
+            }
+            if (existing.hash == leaf.hash) {
+                return new Collision(leaf.hash, new Leaf<?, ?>[] {existing, leaf});
+            }
+            return merge(existing, existing.hash, leaf, leaf.hash, shift);
+        }
+        Collision collision = (Collision) node;
+        if (collision.hash != leaf.hash) {
+            return merge(collision, collision.hash, leaf, leaf.hash, shift);
+        }
+        int index = collision.indexOf(leaf.getKey());
+        if (index >= 0 && collision.leaves[index].getValue() == leaf.getValue()) {
+            return collision;
+        }
+        Leaf<?, ?>[] leaves;
+        if (index >= 0) {
+            leaves = collision.leaves.clone();
+            leaves[index] = leaf;
+        } else {
+            leaves = Arrays.copyOf(collision.leaves, collision.leaves.length + 1);
+            leaves[collision.leaves.length] = leaf;
+        }
+        return new Collision(collision.hash, leaves);
+    }
+
+    /**
+     * Branch holding two nodes whose hashes differ; descends while they share the same slot
+     */
+    private static Object merge(Object first, int firstHash, Object second, int secondHash, int shift) {
+        int firstBit = bit(firstHash, shift);
+        int secondBit = bit(secondHash, shift);
+        if (firstBit == secondBit) {
+            return new Branch(firstBit, new Object[] {merge(first, firstHash, second, secondHash, shift + BITS)});
+        }
+        Object[] children = Integer.compareUnsigned(firstBit, secondBit) < 0
+            ? new Object[] {first, second} : new Object[] {second, first};
+        return new Branch(firstBit | secondBit, children);
+    }
+
+    private static Object remove(Object node, int shift, Object key, int hash) {
+        if (node instanceof Leaf<?, ?> leaf) {
+            return leaf.getKey().equals(key) ? null : leaf;
+        }
+        if (node instanceof Collision collision) {
+            int index = collision.indexOf(key);
+            if (index < 0) {
+                return collision;
+            }
+            if (collision.leaves.length == 2) {
+                return collision.leaves[1 - index];
+            }
+            Leaf<?, ?>[] leaves = new Leaf<?, ?>[collision.leaves.length - 1];
+            System.arraycopy(collision.leaves, 0, leaves, 0, index);
+            System.arraycopy(collision.leaves, index + 1, leaves, index, leaves.length - index);
+            return new Collision(collision.hash, leaves);
+        }
+
+        Branch branch = (Branch) node;
+        int bit = bit(hash, shift);
+        if ((branch.bitmap & bit) == 0) {
+            return branch;
+        }
+        int index = branch.index(bit);
+        Object child = branch.children[index];
+        Object newChild = remove(child, shift + BITS, key, hash);
+        if (newChild == child) {
+            return branch;
+        }
+        if (newChild == null) {
+            if (branch.bitmap == bit) {
+                return null;
+            }
+            Branch smaller = branch.removing(bit, index);
+            // A branch with a single entry collapses into that entry
+            return smaller.children.length == 1 && !(smaller.children[0] instanceof Branch)
+                ? smaller.children[0] : smaller;
+        }
+        if (branch.children.length == 1 && !(newChild instanceof Branch)) {
+            return newChild;
+        }
+        return branch.replacing(index, newChild);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> void diff(Object before, Object after, int shift, ChangeVisitor<K, V> visitor) {
+        if (before == after) {
+            return;
+        }
+        if (before instanceof Branch oldBranch && after instanceof Branch newBranch) {
+            int bits = oldBranch.bitmap | newBranch.bitmap;
+            while (bits != 0) {
+                int bit = Integer.lowestOneBit(bits);
+                bits &= ~bit;
+                Object oldChild = (oldBranch.bitmap & bit) != 0 ? oldBranch.children[oldBranch.index(bit)] : null;
+                Object newChild = (newBranch.bitmap & bit) != 0 ? newBranch.children[newBranch.index(bit)] : null;
+                diff(oldChild, newChild, shift + BITS, visitor);
+            }
+            return;
+        }
+
+        // At least one side is a single entry or collision, so both sides are small here
+        for (Iterator<Map.Entry<K, V>> entries = new EntryIterator<>(before); entries.hasNext(); ) {
+            Map.Entry<K, V> entry = entries.next();
+            V newValue = lookup(after, shift, entry.getKey());
+            if (newValue == null || (newValue != entry.getValue() && !newValue.equals(entry.getValue()))) {
+                visitor.visit(entry.getKey(), entry.getValue(), newValue);
+            }
+        }
+        for (Iterator<Map.Entry<K, V>> entries = new EntryIterator<>(after); entries.hasNext(); ) {
+            Map.Entry<K, V> entry = entries.next();
+            if (lookup(before, shift, entry.getKey()) == null) {
+                visitor.visit(entry.getKey(), null, entry.getValue());
+            }
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static final class Leaf<K, V> extends AbstractMap.SimpleImmutableEntry<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        final int hash;
+
+        Leaf(int hash, K key, V value) {
+            super(key, value);
+            this.hash = hash;
+        }
+    }
+
+    private static final class Collision {
+        final int hash;
+        final Leaf<?, ?>[] leaves;
+
+        Collision(int hash, Leaf<?, ?>[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        int indexOf(Object key) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].getKey().equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final class Branch {
+        final int bitmap;
+        final Object[] children;
+
+        Branch(int bitmap, Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        Branch inserting(int bit, int index, Object child) {
+            Object[] copy = new Object[children.length + 1];
+            System.arraycopy(children, 0, copy, 0, index);
+            copy[index] = child;
+            System.arraycopy(children, index, copy, index + 1, children.length - index);
+            return new Branch(bitmap | bit, copy);
+        }
+
+        Branch replacing(int index, Object child) {
+            Object[] copy = children.clone();
+            copy[index] = child;
+            return new Branch(bitmap, copy);
+        }
+
+        Branch removing(int bit, int index) {
+            Object[] copy = new Object[children.length - 1];
+            System.arraycopy(children, 0, copy, 0, index);
+            System.arraycopy(children, index + 1, copy, index, copy.length - index);
+            return new Branch(bitmap & ~bit, copy);
+        }
+    }
+
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final Deque<Object> pending = new ArrayDeque<>();
+        private Leaf<K, V> next;
+
+        EntryIterator(Object root) {
+            if (root != null) {
+                pending.push(root);
+            }
+            advance();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (next == null && !pending.isEmpty()) {
+                Object node = pending.pop();
+                if (node instanceof Leaf<?, ?> leaf) {
+                    next = (Leaf<K, V>) leaf;
+                } else if (node instanceof Collision collision) {
+                    for (int i = collision.leaves.length - 1; i >= 0; i--) {
+                        pending.push(collision.leaves[i]);
+                    }
+                } else {
+                    Object[] children = ((Branch) node).children;
+                    for (int i = children.length - 1; i >= 0; i--) {
+                        pending.push(children[i]);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Leaf<K, V> current = next;
+            advance();
+            return current;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package dev.cordal.hotreload;
 
+import java.nio.file.Path;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 
@@ -34,6 +36,25 @@ public class ReloadRequest {
             .build();
     }
     
+    /**
+     * Create a reload request for a batch of changed files
+     */
+    public static ReloadRequest fromFileChanges(Collection<Path> changedFiles) {
+        return new Builder()
+            .trigger(ReloadTrigger.FILE_CHANGE)
+            .specificFiles(changedFiles.stream().map(Path::toString).sorted().toList())
+            .build();
+    }
+    
+    /**
+     * Create a reload request for a change detected in the configuration tables
+     */
+    public static ReloadRequest fromDatabaseChange() {
+        return new Builder()
+            .trigger(ReloadTrigger.DATABASE_CHANGE)
+            .build();
+    }
+    
     /**
      * Create a manual reload request
      */
@@ -145,6 +166,7 @@ public class ReloadRequest {
      */
     public enum ReloadTrigger {
         FILE_CHANGE,    // Triggered by file system change
+        DATABASE_CHANGE, // Triggered by a configuration table watermark change
         MANUAL,         // Triggered manually via API
         VALIDATION,     // Validation-only request
         FORCED,         // Forced reload (bypasses safety checks)
@@ -1,33 +1,76 @@
 package dev.cordal.hotreload;
 
 import dev.cordal.database.DatabaseManager;
+import dev.cordal.generic.config.DatabaseConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Multi-stage validation pipeline for configuration changes
  * Validates syntax, schema, dependencies, and connectivity
+ *
+ * Syntax and dependency validation run first and stop the pipeline on errors. The connectivity
+ * and endpoint stages are independent of each other and run concurrently; connectivity probes
+ * run in parallel on a small bounded pool and every probe must finish within the stage deadline.
+ * Probes that miss the deadline, or are still running when another probe fails, are cancelled
+ * with an interrupt so they give their pool thread back.
+ * Successful probes are remembered per database for a short time, so a burst of reloads does not
+ * probe the same unchanged database again and again; a failed database is always probed again.
  */
 @Singleton
 public class ValidationPipeline {
     private static final Logger logger = LoggerFactory.getLogger(ValidationPipeline.class);
     
+    private static final int MAX_PARALLEL_CHECKS = 4;
+    private static final long DEFAULT_STAGE_DEADLINE_MS = 30_000;
+    private static final long DEFAULT_PROBE_TTL_MS = 30_000;
+    
     private final DatabaseManager databaseManager;
     private final ConfigurationStateManager stateManager;
     private final List<ConfigurationValidator> validators;
+    private final DatabaseProbe databaseProbe;
+    private final long stageDeadlineMs;
+    private final long probeTtlMs;
+    private final ExecutorService checkExecutor;
+    private final Map<String, ProbeSuccess> probeSuccesses = new ConcurrentHashMap<>();
     
     @Inject
     public ValidationPipeline(DatabaseManager databaseManager, ConfigurationStateManager stateManager) {
+        this(databaseManager, stateManager, null, DEFAULT_STAGE_DEADLINE_MS, DEFAULT_PROBE_TTL_MS);
+    }
+    
+    ValidationPipeline(DatabaseManager databaseManager, ConfigurationStateManager stateManager,
+                       DatabaseProbe databaseProbe, long stageDeadlineMs, long probeTtlMs) {
         this.databaseManager = databaseManager;
         this.stateManager = stateManager;
         this.validators = initializeValidators();
+        this.databaseProbe = databaseProbe != null ? databaseProbe : this::testDatabaseConnection;
+        this.stageDeadlineMs = stageDeadlineMs;
+        this.probeTtlMs = probeTtlMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.checkExecutor = Executors.newFixedThreadPool(MAX_PARALLEL_CHECKS, runnable -> {
+            Thread thread = new Thread(runnable, "config-validation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
         
         logger.info("ValidationPipeline initialized with {} validators", validators.size());
     }
@@ -62,20 +105,32 @@ public class ValidationPipeline {
                 return resultBuilder.build();
             }
             
+            // Stages 3 and 4 do not depend on each other; the endpoint stage runs alongside
+            logger.debug("Stage 4: Endpoint health simulation");
+            Future<ValidationStageResult> endpointStage = checkExecutor.submit(
+                () -> validateEndpointHealth(delta, newConfiguration));
+            
             // Stage 3: Database Connectivity Testing
             logger.debug("Stage 3: Database connectivity testing");
             ValidationStageResult connectivityResult = validateDatabaseConnectivity(delta, newConfiguration);
             resultBuilder.addStageResult("connectivity", connectivityResult);
             
-            // Stage 4: Endpoint Health Simulation
-            logger.debug("Stage 4: Endpoint health simulation");
-            ValidationStageResult endpointResult = validateEndpointHealth(delta, newConfiguration);
+            ValidationStageResult endpointResult;
+            try {
+                endpointResult = endpointStage.get(stageDeadlineMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                endpointStage.cancel(true);
+                endpointResult = new ValidationStageResult.Builder("endpoints")
+                    .addError("Endpoint health validation did not finish within " + stageDeadlineMs + "ms")
+                    .build();
+            }
             resultBuilder.addStageResult("endpoints", endpointResult);
             
-            long duration = System.currentTimeMillis() - startTime;
-            logger.info("Validation pipeline completed in {}ms", duration);
+            ValidationResult result = resultBuilder.duration(System.currentTimeMillis() - startTime).build();
+            logger.info("Validation pipeline completed in {}ms (stage timings: {})",
+                       result.getDurationMs(), result.getStageDurations());
             
-            return resultBuilder.duration(duration).build();
+            return result;
             
         } catch (Exception e) {
             logger.error("Validation pipeline failed with exception", e);
@@ -193,64 +248,105 @@ public class ValidationPipeline {
     private ValidationStageResult validateDatabaseConnectivity(ConfigurationDelta delta, ConfigurationSet newConfiguration) {
         ValidationStageResult.Builder builder = new ValidationStageResult.Builder("connectivity");
         
+        // Test connectivity for new and modified databases, all probes in parallel
+        ExecutorCompletionService<String> completion = new ExecutorCompletionService<>(checkExecutor);
+        Map<Future<String>, String> running = new LinkedHashMap<>();
         try {
-            List<CompletableFuture<Void>> connectivityTests = new ArrayList<>();
+            submitProbes(delta.addedDatabases, "Database connectivity failed for '", completion, running);
+            submitProbes(delta.modifiedDatabases, "Modified database connectivity failed for '", completion, running);
             
-            // Test connectivity for new and modified databases
-            for (var entry : delta.addedDatabases.entrySet()) {
-                String dbName = entry.getKey();
-                var dbConfig = entry.getValue();
-                
-                CompletableFuture<Void> test = CompletableFuture.runAsync(() -> {
-                    try {
-                        testDatabaseConnection(dbName, dbConfig);
-                        logger.debug("Database connectivity test passed for: {}", dbName);
-                    } catch (Exception e) {
-                        builder.addError("Database connectivity failed for '" + dbName + "': " + e.getMessage());
-                        logger.warn("Database connectivity test failed for: {}", dbName, e);
+            // Take results as they finish, up to one shared deadline; the first failure stops the rest
+            long deadline = System.currentTimeMillis() + stageDeadlineMs;
+            while (!running.isEmpty()) {
+                long remaining = deadline - System.currentTimeMillis();
+                Future<String> done = remaining > 0 ? completion.poll(remaining, TimeUnit.MILLISECONDS) : null;
+                if (done == null) {
+                    for (String failurePrefix : running.values()) {
+                        builder.addError(failurePrefix + "no response within " + stageDeadlineMs + "ms");
                     }
-                });
-                
-                connectivityTests.add(test);
-            }
-            
-            for (var entry : delta.modifiedDatabases.entrySet()) {
-                String dbName = entry.getKey();
-                var dbConfig = entry.getValue();
-                
-                CompletableFuture<Void> test = CompletableFuture.runAsync(() -> {
-                    try {
-                        testDatabaseConnection(dbName, dbConfig);
-                        logger.debug("Modified database connectivity test passed for: {}", dbName);
-                    } catch (Exception e) {
-                        builder.addError("Modified database connectivity failed for '" + dbName + "': " + e.getMessage());
-                        logger.warn("Modified database connectivity test failed for: {}", dbName, e);
+                    break;
+                }
+                String failurePrefix = running.remove(done);
+                String error = probeError(done);
+                if (error != null) {
+                    builder.addError(failurePrefix + error);
+                    if (!running.isEmpty()) {
+                        logger.debug("Cancelling {} remaining connectivity probes after a failure", running.size());
                     }
-                });
-                
-                connectivityTests.add(test);
-            }
-            
-            // Wait for all connectivity tests to complete (with timeout)
-            CompletableFuture<Void> allTests = CompletableFuture.allOf(
-                connectivityTests.toArray(new CompletableFuture[0])
-            );
-            
-            try {
-                allTests.get(30, TimeUnit.SECONDS); // 30 second timeout
-            } catch (Exception e) {
-                builder.addError("Database connectivity tests timed out or failed: " + e.getMessage());
+                    break;
+                }
             }
             
             logger.debug("Database connectivity validation completed");
             return builder.build();
             
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return builder.addError("Connectivity validation was interrupted").build();
         } catch (Exception e) {
             logger.error("Database connectivity validation failed", e);
             return builder.addError("Connectivity validation exception: " + e.getMessage()).build();
+        } finally {
+            running.keySet().forEach(probe -> probe.cancel(true));
+        }
+    }
+    
+    /**
+     * Submit a probe for each database that has no recent successful probe with the same connection
+     * settings. Each running probe is recorded with the prefix of the error it reports.
+     */
+    private void submitProbes(Map<String, DatabaseConfig> databases, String errorPrefix,
+                              ExecutorCompletionService<String> completion, Map<Future<String>, String> running) {
+        long now = System.currentTimeMillis();
+        for (var entry : databases.entrySet()) {
+            String dbName = entry.getKey();
+            DatabaseConfig dbConfig = entry.getValue();
+            ProbeSuccess cached = probeSuccesses.get(dbName);
+            if (cached != null && cached.isReusableFor(dbConfig, now, probeTtlMs)) {
+                logger.debug("Reusing connectivity result for: {}", dbName);
+                continue;
+            }
+            running.put(completion.submit(() -> probe(dbName, dbConfig)), errorPrefix + dbName + "': ");
         }
     }
     
+    /**
+     * Probe one database; returns null on success or the failure message
+     */
+    private String probe(String dbName, DatabaseConfig dbConfig) {
+        try {
+            databaseProbe.probe(dbName, dbConfig);
+            probeSuccesses.put(dbName, new ProbeSuccess(ProbeSuccess.keyOf(dbConfig), System.currentTimeMillis()));
+            logger.debug("Database connectivity test passed for: {}", dbName);
+            return null;
+        } catch (Exception e) {
+            probeSuccesses.remove(dbName);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            logger.warn("Database connectivity test failed for: {}", dbName, e);
+            return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+    }
+    
+    private static String probeError(Future<String> probe) throws InterruptedException {
+        try {
+            return probe.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        } catch (CancellationException e) {
+            return "probe was cancelled";
+        }
+    }
+    
+    /**
+     * Forget remembered connectivity results, e.g. after a database was known to change state
+     */
+    public void clearProbeCache() {
+        probeSuccesses.clear();
+    }
+    
     /**
      * Validate endpoint health (simulate endpoint creation)
      */
@@ -285,7 +381,7 @@ public class ValidationPipeline {
     /**
      * Test database connection
      */
-    private void testDatabaseConnection(String dbName, dev.cordal.generic.config.DatabaseConfig dbConfig) {
+    private void testDatabaseConnection(String dbName, DatabaseConfig dbConfig) {
         // Implementation would test actual database connection
         // This is a placeholder for the actual implementation
         logger.debug("Testing database connection for: {}", dbName);
@@ -326,6 +422,36 @@ public class ValidationPipeline {
         return validators;
     }
     
+    /**
+     * Connectivity check for one database; throws if the database cannot be used
+     */
+    @FunctionalInterface
+    interface DatabaseProbe {
+        void probe(String dbName, DatabaseConfig dbConfig) throws Exception;
+    }
+    
+    /**
+     * A successful connectivity probe, valid for the connection settings it was taken with
+     */
+    private static final class ProbeSuccess {
+        private final String configKey;
+        private final long probedAt;
+        
+        private ProbeSuccess(String configKey, long probedAt) {
+            this.configKey = configKey;
+            this.probedAt = probedAt;
+        }
+        
+        private boolean isReusableFor(DatabaseConfig dbConfig, long now, long ttlMs) {
+            return now - probedAt < ttlMs && configKey.equals(keyOf(dbConfig));
+        }
+        
+        private static String keyOf(DatabaseConfig dbConfig) {
+            return dbConfig.getUrl() + "|" + dbConfig.getUsername() + "|" + dbConfig.getDriver()
+                + "|" + Objects.hashCode(dbConfig.getPassword());
+        }
+    }
+    
     /**
      * Interface for configuration validators
      */
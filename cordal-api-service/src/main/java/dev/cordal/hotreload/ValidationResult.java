@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Result of the complete validation pipeline
@@ -38,6 +39,15 @@ public class ValidationResult {
         return stageResults.get(stageName);
     }
     
+    /**
+     * Time spent in each stage, in milliseconds
+     */
+    public Map<String, Long> getStageDurations() {
+        Map<String, Long> durations = new TreeMap<>();
+        stageResults.forEach((name, result) -> durations.put(name, result.getDurationMs()));
+        return durations;
+    }
+    
     public boolean isStageValid(String stageName) {
         ValidationStageResult result = stageResults.get(stageName);
         return result != null && result.isValid();
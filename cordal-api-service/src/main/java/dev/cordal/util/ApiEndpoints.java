@@ -19,6 +19,9 @@ public final class ApiEndpoints {
     public static final String HEALTH = HEALTH_BASE;
     public static final String GENERIC_HEALTH = GENERIC_BASE + "/health";
 
+    // ========== METRICS ENDPOINTS ==========
+    public static final String METRICS = "/metrics";
+
     // ========== H2 SERVER MANAGEMENT ENDPOINTS ==========
     public static final String H2_SERVER_BASE = API_BASE + "/h2-server";
     public static final String H2_SERVER_STATUS = H2_SERVER_BASE + "/status";
@@ -33,6 +36,7 @@ public final class ApiEndpoints {
     public static final String GENERIC_ENDPOINTS = GENERIC_BASE + "/endpoints";
     public static final String GENERIC_ENDPOINT_BY_NAME = GENERIC_BASE + "/endpoints/{endpointName}";
     public static final String GENERIC_CONFIG = GENERIC_BASE + "/config";
+    public static final String GENERIC_BATCH = GENERIC_BASE + "/batch";
 
     // ========== CONFIGURATION MANAGEMENT ENDPOINTS ==========
     public static final class Management {
@@ -50,7 +54,12 @@ public final class ApiEndpoints {
         public static final String STATISTICS = MANAGEMENT_BASE + "/statistics";
         public static final String STATISTICS_ENDPOINTS = MANAGEMENT_BASE + "/statistics/endpoints";
         public static final String STATISTICS_QUERIES = MANAGEMENT_BASE + "/statistics/queries";
+        public static final String STATISTICS_SLOWEST_QUERIES = MANAGEMENT_BASE + "/statistics/queries/slowest";
         public static final String STATISTICS_DATABASES = MANAGEMENT_BASE + "/statistics/databases";
+
+        // Request Traces
+        public static final String TRACES = MANAGEMENT_BASE + "/traces";
+        public static final String TRACES_ENDPOINT = MANAGEMENT_BASE + "/traces/{endpointName}";
         
         // Health Monitoring
         public static final String HEALTH = MANAGEMENT_BASE + "/health";
@@ -141,6 +150,13 @@ public final class ApiEndpoints {
         public static final String RELATIONSHIPS = GENERIC_BASE + "/config/relationships";
     }
 
+    // ========== ASYNC JOB ENDPOINTS ==========
+    public static final class Jobs {
+        public static final String BASE = GENERIC_BASE + "/jobs";
+        public static final String BY_ID = BASE + "/{jobId}";
+        public static final String STATISTICS = BASE + "/statistics";
+    }
+
     // ========== ENDPOINT GROUPS FOR TESTING ==========
     public static final class Groups {
         /**
@@ -159,7 +175,11 @@ public final class ApiEndpoints {
             Management.STATISTICS,
             Management.STATISTICS_ENDPOINTS,
             Management.STATISTICS_QUERIES,
+            Management.STATISTICS_SLOWEST_QUERIES,
             Management.STATISTICS_DATABASES,
+
+            // Request Traces
+            Management.TRACES,
             
             // Health Monitoring
             Management.HEALTH,
@@ -13,10 +13,14 @@ module dev.cordal.generic.api {
     opens dev.cordal.database.loader to com.google.guice;
     opens dev.cordal.database.repository to com.google.guice;
     opens dev.cordal.generic to com.google.guice;
-    opens dev.cordal.generic.config to com.google.guice;
+    opens dev.cordal.generic.async to com.google.guice;
+    opens dev.cordal.generic.batch to com.google.guice, com.fasterxml.jackson.databind;
+    opens dev.cordal.generic.config to com.google.guice, com.fasterxml.jackson.databind;
     opens dev.cordal.generic.database to com.google.guice;
-    opens dev.cordal.generic.management to com.google.guice;
+    opens dev.cordal.generic.management to com.google.guice, com.fasterxml.jackson.databind;
     opens dev.cordal.generic.migration to com.google.guice;
+    opens dev.cordal.generic.plan to com.google.guice;
+    opens dev.cordal.generic.trace to com.google.guice, com.fasterxml.jackson.databind;
     
     // Required modules
     requires dev.cordal.common;  // Provides core framework dependencies
@@ -0,0 +1,98 @@
+package dev.cordal.database.loader;
+
+import dev.cordal.config.GenericApiConfig;
+import dev.cordal.database.DatabaseManager;
+import dev.cordal.database.repository.DatabaseConfigurationRepository;
+import dev.cordal.database.repository.EndpointConfigurationRepository;
+import dev.cordal.database.repository.QueryConfigurationRepository;
+import dev.cordal.generic.config.QueryConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the watermark-driven snapshot in DatabaseConfigurationLoader
+ */
+class DatabaseConfigurationLoaderTest {
+
+    private DatabaseManager databaseManager;
+    private QueryConfigurationRepository queryRepository;
+    private DatabaseConfigurationLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty("generic.config.file", "application-database-test.yml");
+
+        GenericApiConfig genericApiConfig = new GenericApiConfig();
+        databaseManager = new DatabaseManager(genericApiConfig);
+        databaseManager.initializeSchema();
+        databaseManager.cleanDatabase();
+
+        queryRepository = new QueryConfigurationRepository(databaseManager);
+        loader = new DatabaseConfigurationLoader(new DatabaseConfigurationRepository(databaseManager),
+                                                 queryRepository,
+                                                 new EndpointConfigurationRepository(databaseManager));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("generic.config.file");
+        if (databaseManager != null) {
+            databaseManager.close();
+        }
+    }
+
+    @Test
+    void shouldServeUnchangedTablesFromTheSnapshot() throws Exception {
+        saveQuery("first-query", "SELECT 1");
+        saveQuery("second-query", "SELECT 2");
+
+        Map<String, QueryConfig> initial = loader.loadQueryConfigurations();
+        Map<String, QueryConfig> again = loader.loadQueryConfigurations();
+
+        assertThat(again).containsOnlyKeys("first-query", "second-query");
+        assertThat(again.get("first-query")).isSameAs(initial.get("first-query"));
+        assertThat(again.get("second-query")).isSameAs(initial.get("second-query"));
+        assertThat(loader.getSnapshotWatermarks()).containsKey("queries");
+        assertThat(loader.readWatermarks().get("queries")).isEqualTo(loader.getSnapshotWatermarks().get("queries"));
+    }
+
+    @Test
+    void shouldFetchOnlyChangedRowsAndDropDeletedOnes() throws Exception {
+        saveQuery("first-query", "SELECT 1");
+        saveQuery("second-query", "SELECT 2");
+        saveQuery("third-query", "SELECT 3");
+        Map<String, QueryConfig> initial = loader.loadQueryConfigurations();
+
+        saveQuery("third-query", "SELECT 33");
+        saveQuery("fourth-query", "SELECT 4");
+        queryRepository.delete("second-query");
+
+        assertThat(loader.readWatermarks().get("queries")).isNotEqualTo(loader.getSnapshotWatermarks().get("queries"));
+
+        Map<String, QueryConfig> refreshed = loader.loadQueryConfigurations();
+
+        assertThat(refreshed).containsOnlyKeys("first-query", "third-query", "fourth-query");
+        assertThat(refreshed.get("third-query").getSql()).isEqualTo("SELECT 33");
+        // Rows written before the previous watermark are carried over, not read again
+        assertThat(refreshed.get("first-query")).isSameAs(initial.get("first-query"));
+        assertThat(loader.getQueryConfigurationsByDatabase("stock-trades-db"))
+            .extracting(QueryConfig::getName)
+            .containsExactly("first-query", "fourth-query", "third-query");
+        assertThat(loader.getConfigurationStats().getQueryCount()).isEqualTo(3);
+    }
+
+    private void saveQuery(String name, String sql) throws InterruptedException {
+        QueryConfig config = new QueryConfig();
+        config.setName(name);
+        config.setDatabase("stock-trades-db");
+        config.setSql(sql);
+        queryRepository.save(name, config);
+        // Keep each write on its own updated_at so the carried-over rows are deterministic
+        Thread.sleep(5);
+    }
+}
@@ -0,0 +1,87 @@
+package dev.cordal.generic;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for CancellationToken statement cancellation against a real H2 database
+ */
+class CancellationTokenTest {
+
+    // Cross join large enough to run for many seconds unless cancelled
+    private static final String SLOW_QUERY =
+        "SELECT SUM(a.X * b.X) FROM SYSTEM_RANGE(1, 200000) a, SYSTEM_RANGE(1, 200000) b";
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:cancellation_test;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void testCancelStopsRunningStatement() throws Exception {
+        CancellationToken token = new CancellationToken();
+
+        try (PreparedStatement statement = connection.prepareStatement(SLOW_QUERY)) {
+            CompletableFuture<Throwable> execution = CompletableFuture.supplyAsync(() -> {
+                token.register(statement);
+                try {
+                    statement.executeQuery();
+                    return null;
+                } catch (SQLException e) {
+                    return e;
+                } finally {
+                    token.unregister(statement);
+                }
+            });
+
+            // Give the query time to start before cancelling it
+            Thread.sleep(200);
+            assertThat(token.cancel("test cancellation")).isTrue();
+
+            Throwable failure = execution.get(10, TimeUnit.SECONDS);
+            assertThat(failure).isInstanceOf(SQLException.class);
+            assertThat(token.isCancelled()).isTrue();
+            assertThat(token.getCancelReason()).isEqualTo("test cancellation");
+        }
+    }
+
+    @Test
+    void testCancelledTokenRejectsNewWork() {
+        CancellationToken token = new CancellationToken();
+        token.cancel("cancelled early");
+
+        assertThat(token.cancel("second cancel")).isFalse();
+        assertThatThrownBy(() -> token.throwIfCancelled("Query test"))
+            .hasMessageContaining("cancelled early");
+    }
+
+    @Test
+    void testRunWithBindsTokenToCurrentThread() {
+        CancellationToken token = new CancellationToken();
+
+        assertThat(CancellationToken.current()).isNull();
+        CancellationToken bound = CancellationToken.runWith(token, CancellationToken::current);
+
+        assertThat(bound).isSameAs(token);
+        assertThat(CancellationToken.current()).isNull();
+    }
+}
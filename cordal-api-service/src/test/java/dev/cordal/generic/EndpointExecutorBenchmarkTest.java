@@ -0,0 +1,129 @@
+package dev.cordal.generic;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import dev.cordal.common.config.ServerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput benchmark comparing PLATFORM and VIRTUAL thread modes of the
+ * EndpointExecutor on a blocking JDBC workload behind a bounded HikariCP pool.
+ * Correctness of both modes is covered by EndpointExecutorTest; this class only measures.
+ */
+class EndpointExecutorBenchmarkTest {
+
+    private static final int POOL_SIZE = 10;
+    private static final int TASK_COUNT = 400;
+    private static final long SIMULATED_LATENCY_MS = 5;
+
+    private HikariDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:executor_benchmark;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setMinimumIdle(POOL_SIZE);
+        config.setPoolName("benchmarkPool");
+        dataSource = new HikariDataSource(config);
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS bench_data (id INT PRIMARY KEY, symbol VARCHAR(10))");
+            statement.execute("MERGE INTO bench_data KEY(id) VALUES (1, 'AAPL'), (2, 'MSFT'), (3, 'GOOG')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    @Disabled("Disabled by default to avoid timing-dependent test runs - enable to benchmark the thread modes")
+    void shouldCompareThroughputOfPlatformAndVirtualThreadModes() throws Exception {
+        System.out.println("\n🚀 Benchmark: EndpointExecutor thread modes (" + TASK_COUNT + " blocking JDBC tasks, pool size " + POOL_SIZE + ")");
+
+        // Warm up both modes so JIT and pool warm-up don't skew the first measurement
+        runWorkload(ServerConfig.ThreadMode.PLATFORM, TASK_COUNT / 4);
+        runWorkload(ServerConfig.ThreadMode.VIRTUAL, TASK_COUNT / 4);
+
+        BenchmarkResult platform = runWorkload(ServerConfig.ThreadMode.PLATFORM, TASK_COUNT);
+        BenchmarkResult virtual = runWorkload(ServerConfig.ThreadMode.VIRTUAL, TASK_COUNT);
+
+        System.out.printf("  📊 PLATFORM: %d tasks in %d ms (%.1f tasks/s, peak concurrency %d)%n",
+                         platform.completed, platform.elapsedMs, platform.throughput(), platform.peakConcurrency);
+        System.out.printf("  📊 VIRTUAL:  %d tasks in %d ms (%.1f tasks/s, peak concurrency %d)%n",
+                         virtual.completed, virtual.elapsedMs, virtual.throughput(), virtual.peakConcurrency);
+        System.out.printf("  📈 Virtual/platform throughput ratio: %.2f%n", virtual.throughput() / platform.throughput());
+
+        assertThat(platform.completed).isEqualTo(TASK_COUNT);
+        assertThat(virtual.completed).isEqualTo(TASK_COUNT);
+
+        // The permit limit must hold in both modes so the database is never oversubscribed
+        assertThat(platform.peakConcurrency).isLessThanOrEqualTo(POOL_SIZE);
+        assertThat(virtual.peakConcurrency).isLessThanOrEqualTo(POOL_SIZE);
+    }
+
+    private BenchmarkResult runWorkload(ServerConfig.ThreadMode mode, int taskCount) throws InterruptedException {
+        AtomicInteger completed = new AtomicInteger(0);
+        AtomicInteger running = new AtomicInteger(0);
+        AtomicInteger peak = new AtomicInteger(0);
+        CountDownLatch latch = new CountDownLatch(taskCount);
+
+        long startTime = System.nanoTime();
+        try (EndpointExecutor executor = new EndpointExecutor(mode, POOL_SIZE)) {
+            for (int i = 0; i < taskCount; i++) {
+                final int id = (i % 3) + 1;
+                executor.execute(() -> {
+                    int current = running.incrementAndGet();
+                    peak.accumulateAndGet(current, Math::max);
+                    try (Connection connection = dataSource.getConnection();
+                         PreparedStatement statement = connection.prepareStatement("SELECT symbol FROM bench_data WHERE id = ?")) {
+                        statement.setInt(1, id);
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            if (resultSet.next()) {
+                                // Simulate network round-trip to a remote database while holding the connection
+                                Thread.sleep(SIMULATED_LATENCY_MS);
+                                completed.incrementAndGet();
+                            }
+                        }
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    } finally {
+                        running.decrementAndGet();
+                        latch.countDown();
+                    }
+                });
+            }
+
+            assertThat(latch.await(60, TimeUnit.SECONDS)).isTrue();
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        return new BenchmarkResult(completed.get(), Math.max(elapsedMs, 1), peak.get());
+    }
+
+    private record BenchmarkResult(int completed, long elapsedMs, int peakConcurrency) {
+        double throughput() {
+            return completed * 1000.0 / elapsedMs;
+        }
+    }
+}
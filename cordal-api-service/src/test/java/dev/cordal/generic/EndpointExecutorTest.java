@@ -0,0 +1,195 @@
+package dev.cordal.generic;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import dev.cordal.common.config.ServerConfig;
+import dev.cordal.common.exception.ConfigurationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the EndpointExecutor thread modes on a blocking JDBC workload behind a bounded HikariCP pool
+ */
+class EndpointExecutorTest {
+
+    private static final int POOL_SIZE = 10;
+    private static final int TASK_COUNT = 200;
+    private static final long SIMULATED_LATENCY_MS = 5;
+
+    private HikariDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:endpoint_executor;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setMinimumIdle(POOL_SIZE);
+        config.setPoolName("endpointExecutorPool");
+        dataSource = new HikariDataSource(config);
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS bench_data (id INT PRIMARY KEY, symbol VARCHAR(10))");
+            statement.execute("MERGE INTO bench_data KEY(id) VALUES (1, 'AAPL'), (2, 'MSFT'), (3, 'GOOG')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void shouldCompleteEveryTaskWithinThePermitLimitInBothModes() throws Exception {
+        WorkloadResult platform = runWorkload(ServerConfig.ThreadMode.PLATFORM, TASK_COUNT);
+        WorkloadResult virtual = runWorkload(ServerConfig.ThreadMode.VIRTUAL, TASK_COUNT);
+
+        assertThat(platform.completed).isEqualTo(TASK_COUNT);
+        assertThat(virtual.completed).isEqualTo(TASK_COUNT);
+
+        // The permit limit must hold in both modes so the database is never oversubscribed
+        assertThat(platform.peakConcurrency).isLessThanOrEqualTo(POOL_SIZE);
+        assertThat(virtual.peakConcurrency).isLessThanOrEqualTo(POOL_SIZE);
+    }
+
+    @Test
+    void shouldRunVirtualModeTasksOnVirtualThreads() throws Exception {
+        try (EndpointExecutor executor = new EndpointExecutor(ServerConfig.ThreadMode.VIRTUAL, 2)) {
+            CountDownLatch latch = new CountDownLatch(1);
+            AtomicInteger virtualCount = new AtomicInteger(0);
+
+            executor.execute(() -> {
+                if (Thread.currentThread().isVirtual()) {
+                    virtualCount.incrementAndGet();
+                }
+                latch.countDown();
+            });
+
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(virtualCount.get()).isEqualTo(1);
+            assertThat(executor.getThreadMode()).isEqualTo(ServerConfig.ThreadMode.VIRTUAL);
+        }
+    }
+
+    @Test
+    void shouldRejectTasksBeyondTheQueueCapacityInBothModes() throws Exception {
+        for (ServerConfig.ThreadMode mode : ServerConfig.ThreadMode.values()) {
+            CountDownLatch release = new CountDownLatch(1);
+            try (EndpointExecutor executor = new EndpointExecutor(mode, 1, 2)) {
+                Runnable blocked = () -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                };
+                // One running task and two waiting ones fill the executor
+                executor.execute(blocked);
+                executor.execute(blocked);
+                executor.execute(blocked);
+
+                assertThatThrownBy(() -> executor.execute(blocked))
+                    .as("mode %s", mode)
+                    .isInstanceOf(RejectedExecutionException.class);
+                release.countDown();
+            }
+        }
+    }
+
+    @Test
+    void shouldFailTasksThatNeverStartWhenShutDownInBothModes() throws Exception {
+        for (ServerConfig.ThreadMode mode : ServerConfig.ThreadMode.values()) {
+            CountDownLatch release = new CountDownLatch(1);
+            EndpointExecutor executor = new EndpointExecutor(mode, 1, 2);
+            // Holds the only permit through the forced shutdown
+            executor.execute(() -> {
+                while (true) {
+                    try {
+                        release.await();
+                        return;
+                    } catch (InterruptedException ignored) {
+                        // keep the permit until the test releases it
+                    }
+                }
+            });
+            CompletableFuture<String> waiting = EndpointExecutor.supplyAsync(() -> "ran", executor);
+
+            executor.close();
+
+            assertThatThrownBy(() -> waiting.get(5, TimeUnit.SECONDS))
+                .as("mode %s", mode)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+            assertThat(executor.getQueuedTasks()).as("mode %s", mode).isZero();
+            release.countDown();
+        }
+    }
+
+    @Test
+    void shouldFailOnUnknownThreadMode() {
+        assertThat(ServerConfig.ThreadMode.fromString(" virtual ")).isEqualTo(ServerConfig.ThreadMode.VIRTUAL);
+        assertThat(ServerConfig.ThreadMode.fromString(null)).isEqualTo(ServerConfig.ThreadMode.PLATFORM);
+        assertThatThrownBy(() -> ServerConfig.ThreadMode.fromString("virtaul"))
+            .isInstanceOf(ConfigurationException.class)
+            .hasMessageContaining("virtaul");
+    }
+
+    private WorkloadResult runWorkload(ServerConfig.ThreadMode mode, int taskCount) throws InterruptedException {
+        AtomicInteger completed = new AtomicInteger(0);
+        AtomicInteger running = new AtomicInteger(0);
+        AtomicInteger peak = new AtomicInteger(0);
+        CountDownLatch latch = new CountDownLatch(taskCount);
+
+        try (EndpointExecutor executor = new EndpointExecutor(mode, POOL_SIZE)) {
+            for (int i = 0; i < taskCount; i++) {
+                final int id = (i % 3) + 1;
+                executor.execute(() -> {
+                    int current = running.incrementAndGet();
+                    peak.accumulateAndGet(current, Math::max);
+                    try (Connection connection = dataSource.getConnection();
+                         PreparedStatement statement = connection.prepareStatement("SELECT symbol FROM bench_data WHERE id = ?")) {
+                        statement.setInt(1, id);
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            if (resultSet.next()) {
+                                // Simulate network round-trip to a remote database while holding the connection
+                                Thread.sleep(SIMULATED_LATENCY_MS);
+                                completed.incrementAndGet();
+                            }
+                        }
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    } finally {
+                        running.decrementAndGet();
+                        latch.countDown();
+                    }
+                });
+            }
+
+            assertThat(latch.await(60, TimeUnit.SECONDS)).isTrue();
+        }
+
+        return new WorkloadResult(completed.get(), peak.get());
+    }
+
+    private record WorkloadResult(int completed, int peakConcurrency) {
+    }
+}
@@ -3,6 +3,8 @@ package dev.cordal.generic;
 import dev.cordal.test.TestDatabaseManager;
 import dev.cordal.common.cache.CacheManager;
 import dev.cordal.common.metrics.CacheMetricsCollector;
+import dev.cordal.config.GenericApiConfig;
+import dev.cordal.generic.async.AsyncJobManager;
 import dev.cordal.generic.config.ConfigurationLoader;
 import dev.cordal.generic.config.EndpointConfigurationManager;
 import dev.cordal.generic.database.DatabaseConnectionManager;
@@ -24,6 +26,8 @@ class GenericApiControllerTest {
     private GenericRepository genericRepository;
     private EndpointConfigurationManager configurationManager;
     private TestDatabaseManager databaseManager;
+    private AsyncJobManager asyncJobManager;
+    private RequestWatchdog requestWatchdog;
 
     @BeforeEach
     void setUp() throws SQLException {
@@ -60,11 +64,15 @@ class GenericApiControllerTest {
 
         // Create controller
         dev.cordal.generic.management.UsageStatisticsService statisticsService = new dev.cordal.generic.management.UsageStatisticsService();
-        controller = new GenericApiController(genericApiService, statisticsService);
+        asyncJobManager = new AsyncJobManager(genericApiService, new GenericApiConfig.AsyncSettings());
+        requestWatchdog = new RequestWatchdog();
+        controller = new GenericApiController(genericApiService, statisticsService, asyncJobManager, requestWatchdog);
     }
 
     @AfterEach
     void tearDown() {
+        asyncJobManager.close();
+        requestWatchdog.close();
         System.clearProperty("generic.config.file");
     }
 
@@ -2,11 +2,14 @@ package dev.cordal.generic;
 
 import dev.cordal.test.TestDatabaseManager;
 import dev.cordal.common.cache.CacheManager;
+import dev.cordal.common.exception.ApiException;
 import dev.cordal.common.metrics.CacheMetricsCollector;
 import dev.cordal.generic.config.ConfigurationLoader;
 import dev.cordal.generic.config.EndpointConfigurationManager;
 import dev.cordal.generic.config.QueryConfig;
 import dev.cordal.generic.database.DatabaseConnectionManager;
+import dev.cordal.generic.management.SlowQueryLog;
+import dev.cordal.generic.management.UsageStatisticsService;
 import dev.cordal.generic.model.QueryParameter;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,6 +29,8 @@ class GenericRepositoryTest {
     private GenericRepository repository;
     private DatabaseConnectionManager databaseConnectionManager;
     private TestDatabaseManager databaseManager;
+    private UsageStatisticsService statisticsService;
+    private CacheManager cacheManager;
 
     @BeforeEach
     void setUp() throws SQLException {
@@ -55,10 +60,12 @@ class GenericRepositoryTest {
         // Create database connection manager
         databaseConnectionManager = new DatabaseConnectionManager(configurationManager);
 
-        CacheManager cacheManager = new CacheManager(new CacheManager.CacheConfiguration(100, 300, 60));
+        cacheManager = new CacheManager(new CacheManager.CacheConfiguration(100, 300, 60));
         CacheMetricsCollector metricsCollector = new CacheMetricsCollector(cacheManager);
         dev.cordal.generic.cache.QueryResultCache queryResultCache = new dev.cordal.generic.cache.QueryResultCache(cacheManager);
-        repository = new GenericRepository(databaseConnectionManager, cacheManager, metricsCollector, queryResultCache);
+        statisticsService = new UsageStatisticsService();
+        repository = new GenericRepository(databaseConnectionManager, cacheManager, metricsCollector, queryResultCache,
+                                           statisticsService);
     }
 
     @AfterEach
@@ -87,6 +94,44 @@ class GenericRepositoryTest {
         }).doesNotThrowAnyException();
     }
 
+    @Test
+    void testExecuteQuery_RecordsQueryAndDatabaseUsage() {
+        QueryConfig queryConfig = new QueryConfig("range-query", "Range query",
+            "SELECT X AS id, 'row-' || X AS label FROM SYSTEM_RANGE(1, 25)", "stock-trades-db", Collections.emptyList());
+
+        var results = repository.executeQuery(queryConfig, new java.util.ArrayList<>());
+        assertThat(results).hasSize(25);
+
+        UsageStatisticsService.QueryStatistics queryStats = statisticsService.getQueryStatistics().get("range-query");
+        assertThat(queryStats.getTotalExecutions()).isEqualTo(1);
+        assertThat(queryStats.getSuccessfulExecutions()).isEqualTo(1);
+        assertThat(queryStats.getTotalRowsReturned()).isEqualTo(25);
+        assertThat(queryStats.getTotalResultBytes()).isGreaterThan(25 * Long.BYTES);
+        assertThat(queryStats.getDatabaseUsage()).containsEntry("stock-trades-db", 1L);
+
+        UsageStatisticsService.DatabaseStatistics databaseStats = statisticsService.getDatabaseStatistics().get("stock-trades-db");
+        assertThat(databaseStats.getSuccessfulConnections()).isEqualTo(1);
+
+        List<SlowQueryLog.Entry> slowest = statisticsService.getSlowestQueries(10);
+        assertThat(slowest).hasSize(1);
+        assertThat(slowest.get(0).queryName()).isEqualTo("range-query");
+        assertThat(slowest.get(0).rowsReturned()).isEqualTo(25);
+        assertThat(slowest.get(0).getTotalTimeMs()).isPositive();
+    }
+
+    @Test
+    void testExecuteQuery_RecordsFailedExecution() {
+        QueryConfig queryConfig = new QueryConfig("broken-query", "Broken query",
+            "SELECT * FROM no_such_table", "stock-trades-db", Collections.emptyList());
+
+        assertThatThrownBy(() -> repository.executeQuery(queryConfig, new java.util.ArrayList<>()))
+            .isInstanceOf(ApiException.class);
+
+        UsageStatisticsService.QueryStatistics queryStats = statisticsService.getQueryStatistics().get("broken-query");
+        assertThat(queryStats.getFailedExecutions()).isEqualTo(1);
+        assertThat(queryStats.getTotalRowsReturned()).isZero();
+    }
+
     @Test
     void testExecuteCountQuery_WithValidQuery() {
         // Test executing a count query
@@ -101,4 +146,98 @@ class GenericRepositoryTest {
         }).doesNotThrowAnyException();
     }
 
+    @Test
+    void testExecuteQuery_TimesOutWithConfiguredTimeout() {
+        // Cross join that runs far longer than the configured timeout
+        QueryConfig queryConfig = new QueryConfig("slow-query", "Slow query",
+            "SELECT SUM(a.X * b.X) AS total FROM SYSTEM_RANGE(1, 200000) a, SYSTEM_RANGE(1, 200000) b",
+            "stock-trades-db", Collections.emptyList());
+        queryConfig.setTimeoutMs(1000L);
+
+        long startTime = System.currentTimeMillis();
+        assertThatThrownBy(() -> repository.executeQuery(queryConfig, new java.util.ArrayList<>()))
+            .isInstanceOf(ApiException.class)
+            .satisfies(e -> {
+                assertThat(((ApiException) e).getErrorCode()).isEqualTo("QUERY_TIMEOUT");
+                assertThat(((ApiException) e).getStatusCode()).isEqualTo(504);
+            });
+        assertThat(System.currentTimeMillis() - startTime).isLessThan(10_000);
+    }
+
+    @Test
+    void testExecuteQuery_CancelledByRequestDeadline() {
+        QueryConfig queryConfig = new QueryConfig("slow-query", "Slow query",
+            "SELECT SUM(a.X * b.X) AS total FROM SYSTEM_RANGE(1, 200000) a, SYSTEM_RANGE(1, 200000) b",
+            "stock-trades-db", Collections.emptyList());
+
+        CancellationToken token = new CancellationToken();
+        try (RequestWatchdog watchdog = new RequestWatchdog();
+             RequestWatchdog.Watch ignored = watchdog.watch(token, 300)) {
+            assertThatThrownBy(() -> CancellationToken.runWith(token,
+                    () -> repository.executeQuery(queryConfig, new java.util.ArrayList<>())))
+                .isInstanceOf(ApiException.class)
+                .satisfies(e -> assertThat(((ApiException) e).getErrorCode()).isEqualTo("QUERY_TIMEOUT"));
+        }
+        assertThat(token.getReason()).isEqualTo(CancellationToken.Reason.TIMEOUT);
+    }
+
+    @Test
+    void testExecuteQuery_RejectedWhenTokenAlreadyCancelled() {
+        QueryConfig queryConfig = new QueryConfig("count-query", "Count query",
+            "SELECT COUNT(*) FROM stock_trades", "stock-trades-db", Collections.emptyList());
+
+        CancellationToken token = new CancellationToken();
+        token.cancel("job cancelled");
+
+        assertThatThrownBy(() -> CancellationToken.runWith(token,
+                () -> repository.executeQuery(queryConfig, new java.util.ArrayList<>())))
+            .isInstanceOf(ApiException.class)
+            .satisfies(e -> {
+                assertThat(((ApiException) e).getErrorCode()).isEqualTo("QUERY_CANCELLED");
+                assertThat(((ApiException) e).getStatusCode()).isEqualTo(409);
+            });
+    }
+
+    @Test
+    void testInvalidateCachedResults_OnlyRemovesTheQueryRegion() {
+        QueryConfig trades = new QueryConfig("trades-by-symbol", "Trades", "SELECT 1", "stock-trades-db", Collections.emptyList());
+        QueryConfig.CacheConfiguration cache = new QueryConfig.CacheConfiguration(true, "LRU", 300, 100);
+        cache.setKeyPattern("stock_trades:{symbol}:{limit}");
+        trades.setCache(cache);
+        QueryConfig summary = new QueryConfig("market-summary", "Summary", "SELECT 1", "stock-trades-db", Collections.emptyList());
+
+        cacheManager.put("query_results", "stock_trades:AAPL:10", List.of());
+        cacheManager.put("query_results", "stock_trades:AAPL:10_json", "[]");
+        cacheManager.put("query_results", "trades-by-symbol:" + "a".repeat(64), List.of());
+        cacheManager.put("count_results", "stock_trades:MSFT:5", 3L);
+        cacheManager.put("query_results", "market-summary:limit=5", List.of());
+
+        assertThat(GenericRepository.cacheRegionPatterns(trades)).contains("stock_trades:*:*", "trades-by-symbol:*");
+        assertThat(repository.invalidateCachedResults(trades)).isEqualTo(4);
+        assertThat(cacheManager.get("query_results", "market-summary:limit=5", List.class)).isPresent();
+
+        assertThat(repository.invalidateCachedResults(summary)).isEqualTo(1);
+    }
+
+    @Test
+    void testInvalidateCachedResults_TreatsKeyPatternTextLiterally() {
+        QueryConfig plus = new QueryConfig("plus-query", "Plus", "SELECT 1", "stock-trades-db", Collections.emptyList());
+        QueryConfig.CacheConfiguration plusCache = new QueryConfig.CacheConfiguration(true, "LRU", 300, 100);
+        plusCache.setKeyPattern("a+{x}(");
+        plus.setCache(plusCache);
+        QueryConfig bySymbol = new QueryConfig("by-symbol", "By symbol", "SELECT 1", "stock-trades-db", Collections.emptyList());
+        QueryConfig.CacheConfiguration symbolCache = new QueryConfig.CacheConfiguration(true, "LRU", 300, 100);
+        symbolCache.setKeyPattern("{symbol}");
+        bySymbol.setCache(symbolCache);
+
+        cacheManager.put("query_results", "a+foo(", List.of());
+        cacheManager.put("query_results", "AAPL", List.of());
+        cacheManager.put("query_results", "market-summary:limit=5", List.of());
+
+        assertThat(repository.invalidateCachedResults(plus)).isEqualTo(1);
+        assertThat(GenericRepository.cacheRegionPatterns(bySymbol))
+            .containsExactlyInAnyOrder("by-symbol", "by-symbol:*", "by-symbol_json", "by-symbol:*_json");
+        assertThat(repository.invalidateCachedResults(bySymbol)).isZero();
+        assertThat(cacheManager.get("query_results", "market-summary:limit=5", List.class)).isPresent();
+    }
 }
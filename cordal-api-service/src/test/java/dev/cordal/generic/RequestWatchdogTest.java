@@ -0,0 +1,72 @@
+package dev.cordal.generic;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for RequestWatchdog deadline handling
+ */
+class RequestWatchdogTest {
+
+    private RequestWatchdog watchdog;
+
+    @BeforeEach
+    void setUp() {
+        watchdog = new RequestWatchdog();
+    }
+
+    @AfterEach
+    void tearDown() {
+        watchdog.close();
+    }
+
+    @Test
+    void testDeadlineCancelsToken() throws InterruptedException {
+        CancellationToken token = new CancellationToken();
+
+        try (RequestWatchdog.Watch ignored = watchdog.watch(token, 50)) {
+            assertThat(token.hasDeadline()).isTrue();
+            waitForCancellation(token);
+        }
+
+        assertThat(token.getReason()).isEqualTo(CancellationToken.Reason.TIMEOUT);
+        assertThat(token.cancellationException("Query test").getStatusCode()).isEqualTo(504);
+    }
+
+    @Test
+    void testWatchWithoutDeadlineSchedulesNothing() {
+        CancellationToken token = new CancellationToken();
+
+        try (RequestWatchdog.Watch ignored = watchdog.watch(token, 0)) {
+            assertThat(watchdog.getActiveWatches()).isEqualTo(1);
+            assertThat(watchdog.getPendingDeadlines()).isZero();
+            assertThat(token.hasDeadline()).isFalse();
+        }
+        assertThat(watchdog.getActiveWatches()).isZero();
+    }
+
+    @Test
+    void testClosedWatchStopsChecks() throws InterruptedException {
+        CancellationToken token = new CancellationToken();
+
+        RequestWatchdog.Watch watch = watchdog.watch(token, 100);
+        assertThat(watchdog.getPendingDeadlines()).isEqualTo(1);
+        assertThat(watchdog.getActiveWatches()).isEqualTo(1);
+        watch.close();
+        assertThat(watchdog.getActiveWatches()).isZero();
+
+        Thread.sleep(200);
+        assertThat(token.isCancelled()).isFalse();
+    }
+
+    private void waitForCancellation(CancellationToken token) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!token.isCancelled() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(token.isCancelled()).isTrue();
+    }
+}
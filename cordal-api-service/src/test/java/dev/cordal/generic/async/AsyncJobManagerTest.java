@@ -0,0 +1,237 @@
+package dev.cordal.generic.async;
+
+import dev.cordal.common.cache.CacheManager;
+import dev.cordal.common.exception.ApiException;
+import dev.cordal.common.metrics.CacheMetricsCollector;
+import dev.cordal.config.GenericApiConfig;
+import dev.cordal.generic.EndpointExecutor;
+import dev.cordal.generic.GenericApiService;
+import dev.cordal.generic.GenericRepository;
+import dev.cordal.generic.TestConfigurationLoader;
+import dev.cordal.generic.config.ConfigurationLoader;
+import dev.cordal.generic.config.EndpointConfigurationManager;
+import dev.cordal.generic.database.DatabaseConnectionManager;
+import dev.cordal.test.TestDatabaseManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for AsyncJobManager job lifecycle, queue bounds and result store limits
+ */
+class AsyncJobManagerTest {
+
+    private GenericApiService genericApiService;
+    private AsyncJobManager jobManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // Use test configuration
+        System.setProperty("generic.config.file", "application-test.yml");
+
+        // Create components manually to avoid Guice module complexity in tests
+        GenericApiConfig genericApiConfig = new GenericApiConfig();
+        TestDatabaseManager databaseManager = new TestDatabaseManager(genericApiConfig);
+        databaseManager.initializeSchema();
+        databaseManager.cleanDatabase();
+
+        ConfigurationLoader configurationLoader = new TestConfigurationLoader(genericApiConfig);
+
+        dev.cordal.database.DatabaseManager realDatabaseManager = new dev.cordal.database.DatabaseManager(genericApiConfig);
+        realDatabaseManager.initializeSchema();
+        dev.cordal.database.repository.DatabaseConfigurationRepository databaseRepository = new dev.cordal.database.repository.DatabaseConfigurationRepository(realDatabaseManager);
+        dev.cordal.database.repository.QueryConfigurationRepository queryRepository = new dev.cordal.database.repository.QueryConfigurationRepository(realDatabaseManager);
+        dev.cordal.database.repository.EndpointConfigurationRepository endpointRepository = new dev.cordal.database.repository.EndpointConfigurationRepository(realDatabaseManager);
+        dev.cordal.database.loader.DatabaseConfigurationLoader databaseLoader = new dev.cordal.database.loader.DatabaseConfigurationLoader(databaseRepository, queryRepository, endpointRepository);
+
+        dev.cordal.generic.config.ConfigurationLoaderFactory factory = new dev.cordal.generic.config.ConfigurationLoaderFactory(genericApiConfig, configurationLoader, databaseLoader);
+        EndpointConfigurationManager configurationManager = new EndpointConfigurationManager(factory);
+
+        DatabaseConnectionManager databaseConnectionManager = new DatabaseConnectionManager(configurationManager);
+        CacheManager cacheManager = new CacheManager(new CacheManager.CacheConfiguration(100, 300, 60));
+        CacheMetricsCollector metricsCollector = new CacheMetricsCollector(cacheManager);
+        dev.cordal.generic.cache.QueryResultCache queryResultCache = new dev.cordal.generic.cache.QueryResultCache(cacheManager);
+        GenericRepository genericRepository = new GenericRepository(databaseConnectionManager, cacheManager, metricsCollector, queryResultCache);
+        genericApiService = new GenericApiService(genericRepository, configurationManager, databaseConnectionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (jobManager != null) {
+            jobManager.close();
+        }
+        genericApiService.shutdown();
+        System.clearProperty("generic.config.file");
+    }
+
+    @Test
+    void testSubmittedJobCompletesWithRetrievableResult() {
+        // Run jobs on the calling thread so the outcome is deterministic
+        jobManager = new AsyncJobManager(genericApiService, Runnable::run, new GenericApiConfig.AsyncSettings());
+
+        AsyncJob job = jobManager.submit("test-endpoint", Map.of("page", "0", "size", "5"));
+
+        assertThat(job.getStatus()).isEqualTo(AsyncJob.Status.COMPLETED);
+        assertThat(job.getResult()).isNotNull();
+        assertThat(jobManager.getJob(job.getId())).containsSame(job);
+
+        Map<String, Object> status = job.toStatusMap();
+        assertThat(status).containsEntry("status", "COMPLETED");
+        assertThat(status).containsKeys("completedAt", "expiresAt", "resultSize");
+    }
+
+    @Test
+    void testSubmitUnknownEndpointIsRejected() {
+        jobManager = new AsyncJobManager(genericApiService, Runnable::run, new GenericApiConfig.AsyncSettings());
+
+        assertThatThrownBy(() -> jobManager.submit("nonexistent-endpoint", Map.of()))
+            .isInstanceOf(ApiException.class)
+            .satisfies(e -> assertThat(((ApiException) e).getStatusCode()).isEqualTo(404));
+    }
+
+    @Test
+    void testJobQueueIsBounded() {
+        GenericApiConfig.AsyncSettings settings = new GenericApiConfig.AsyncSettings();
+        settings.setMaxQueuedJobs(2);
+
+        // An executor that never runs anything keeps every job queued
+        Executor stalledExecutor = task -> { };
+        jobManager = new AsyncJobManager(genericApiService, stalledExecutor, settings);
+
+        jobManager.submit("test-endpoint", Map.of());
+        jobManager.submit("test-endpoint", Map.of());
+
+        assertThatThrownBy(() -> jobManager.submit("test-endpoint", Map.of()))
+            .isInstanceOf(ApiException.class)
+            .satisfies(e -> assertThat(((ApiException) e).getStatusCode()).isEqualTo(429));
+        assertThat(jobManager.getStatistics()).containsEntry("queuedJobs", 2)
+                                              .containsEntry("totalRejected", 1L);
+    }
+
+    @Test
+    void testCancelQueuedJob() {
+        Executor stalledExecutor = task -> { };
+        jobManager = new AsyncJobManager(genericApiService, stalledExecutor, new GenericApiConfig.AsyncSettings());
+
+        AsyncJob job = jobManager.submit("test-endpoint", Map.of());
+
+        assertThat(jobManager.cancel(job.getId())).isTrue();
+        assertThat(job.getStatus()).isEqualTo(AsyncJob.Status.CANCELLED);
+        assertThat(job.getCancellationToken().isCancelled()).isTrue();
+
+        // A finished job cannot be cancelled again
+        assertThat(jobManager.cancel(job.getId())).isFalse();
+        assertThatThrownBy(() -> jobManager.cancel("unknown-job"))
+            .isInstanceOf(ApiException.class);
+    }
+
+    @Test
+    void testJobDroppedByTheExecutorFails() {
+        Executor droppingExecutor = task ->
+            ((EndpointExecutor.RejectableTask) task).onRejected(new RejectedExecutionException("shut down"));
+        jobManager = new AsyncJobManager(genericApiService, droppingExecutor, new GenericApiConfig.AsyncSettings());
+
+        AsyncJob job = jobManager.submit("test-endpoint", Map.of());
+
+        assertThat(job.getStatus()).isEqualTo(AsyncJob.Status.FAILED);
+        assertThat(job.getErrorStatusCode()).isEqualTo(503);
+        assertThat(jobManager.getStatistics()).containsEntry("queuedJobs", 0);
+    }
+
+    @Test
+    void testFailAfterCancelKeepsTheCancellationError() {
+        AsyncJob job = new AsyncJob("job-1", "test-endpoint", Map.of());
+        assertThat(job.markRunning()).isTrue();
+
+        assertThat(job.cancel("cancelled by client")).isTrue();
+        assertThat(job.fail("QUERY_CANCELLED", "Query was cancelled", 409)).isFalse();
+
+        assertThat(job.getStatus()).isEqualTo(AsyncJob.Status.CANCELLED);
+        assertThat(job.getErrorStatusCode()).isZero();
+        assertThat(job.toStatusMap()).extractingByKey("error")
+            .isEqualTo(Map.of("code", "CANCELLED", "message", "cancelled by client"));
+    }
+
+    @Test
+    void testResultStoreEvictsOldestWhenFull() {
+        GenericApiConfig.AsyncSettings settings = new GenericApiConfig.AsyncSettings();
+        settings.setMaxStoredResults(2);
+        jobManager = new AsyncJobManager(genericApiService, Runnable::run, settings);
+
+        AsyncJob first = jobManager.submit("test-endpoint", Map.of());
+        AsyncJob second = jobManager.submit("test-endpoint", Map.of());
+        AsyncJob third = jobManager.submit("test-endpoint", Map.of());
+
+        assertThat(jobManager.getJob(first.getId())).isEmpty();
+        assertThat(jobManager.getJob(second.getId())).isPresent();
+        assertThat(jobManager.getJob(third.getId())).isPresent();
+        assertThat(jobManager.getStatistics()).containsEntry("storedResults", 2)
+                                              .containsEntry("totalEvicted", 1L);
+    }
+
+    private void insertTrades(int count) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1", "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (int i = 0; i < count; i++) {
+                statement.executeUpdate("INSERT INTO stock_trades (symbol, trade_type, quantity, price, total_value, " +
+                    "trade_date_time, trader_id, exchange) VALUES ('AAPL', 'BUY', " + (i + 1) +
+                    ", 10.00, " + (i + 1) * 10 + ".00, CURRENT_TIMESTAMP, 'TRADER" + i + "', 'NASDAQ')");
+            }
+        }
+    }
+
+    @Test
+    void testResultStoreEvictsOldestWhenRowLimitIsReached() throws SQLException {
+        insertTrades(2);
+        GenericApiConfig.AsyncSettings settings = new GenericApiConfig.AsyncSettings();
+        settings.setMaxStoredRows(3);
+        jobManager = new AsyncJobManager(genericApiService, Runnable::run, settings);
+
+        AsyncJob first = jobManager.submit("test-endpoint", Map.of("page", "0", "size", "2"));
+        AsyncJob second = jobManager.submit("test-endpoint", Map.of("page", "0", "size", "2"));
+
+        assertThat(second.getResultSize()).isEqualTo(2);
+        assertThat(jobManager.getJob(first.getId())).isEmpty();
+        assertThat(jobManager.getJob(second.getId())).isPresent();
+        assertThat(jobManager.getStatistics()).containsEntry("storedRows", 2L)
+                                              .containsEntry("totalEvicted", 1L);
+    }
+
+    @Test
+    void testResultLargerThanTheStoreFails() throws SQLException {
+        insertTrades(2);
+        GenericApiConfig.AsyncSettings settings = new GenericApiConfig.AsyncSettings();
+        settings.setMaxStoredRows(1);
+        jobManager = new AsyncJobManager(genericApiService, Runnable::run, settings);
+
+        AsyncJob job = jobManager.submit("test-endpoint", Map.of("page", "0", "size", "2"));
+
+        assertThat(job.getStatus()).isEqualTo(AsyncJob.Status.FAILED);
+        assertThat(job.getResult()).isNull();
+        assertThat(job.getErrorStatusCode()).isEqualTo(413);
+        assertThat(jobManager.getStatistics()).containsEntry("storedRows", 0L);
+    }
+
+    @Test
+    void testExpiredResultsAreRemoved() {
+        jobManager = new AsyncJobManager(genericApiService, Runnable::run, new GenericApiConfig.AsyncSettings());
+
+        AsyncJob job = jobManager.submit("test-endpoint", Map.of());
+        job.setExpiresAt(System.currentTimeMillis() - 1);
+
+        jobManager.removeExpiredJobs();
+
+        assertThat(jobManager.getJob(job.getId())).isEmpty();
+        assertThat(jobManager.getStatistics()).containsEntry("storedResults", 0);
+    }
+}
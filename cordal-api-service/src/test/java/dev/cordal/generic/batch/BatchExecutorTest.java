@@ -0,0 +1,204 @@
+package dev.cordal.generic.batch;
+
+import dev.cordal.common.cache.CacheManager;
+import dev.cordal.common.exception.ApiException;
+import dev.cordal.common.metrics.CacheMetricsCollector;
+import dev.cordal.config.GenericApiConfig;
+import dev.cordal.generic.GenericApiService;
+import dev.cordal.generic.GenericRepository;
+import dev.cordal.generic.TestConfigurationLoader;
+import dev.cordal.generic.config.ConfigurationLoader;
+import dev.cordal.generic.config.EndpointConfigurationManager;
+import dev.cordal.generic.config.QueryConfig;
+import dev.cordal.generic.database.DatabaseConnectionManager;
+import dev.cordal.test.TestDatabaseManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for BatchExecutor de-duplication, IN (...) merging, cache use and per-item errors
+ */
+class BatchExecutorTest {
+
+    private GenericApiService genericApiService;
+    private GenericRepository genericRepository;
+    private BatchExecutor batchExecutor;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // Use test configuration
+        System.setProperty("generic.config.file", "application-test.yml");
+
+        // Create components manually to avoid Guice module complexity in tests
+        GenericApiConfig genericApiConfig = new GenericApiConfig();
+        TestDatabaseManager databaseManager = new TestDatabaseManager(genericApiConfig);
+        databaseManager.initializeSchema();
+        databaseManager.cleanDatabase();
+        insertTrades();
+
+        ConfigurationLoader configurationLoader = new TestConfigurationLoader(genericApiConfig);
+
+        dev.cordal.database.DatabaseManager realDatabaseManager = new dev.cordal.database.DatabaseManager(genericApiConfig);
+        realDatabaseManager.initializeSchema();
+        dev.cordal.database.repository.DatabaseConfigurationRepository databaseRepository = new dev.cordal.database.repository.DatabaseConfigurationRepository(realDatabaseManager);
+        dev.cordal.database.repository.QueryConfigurationRepository queryRepository = new dev.cordal.database.repository.QueryConfigurationRepository(realDatabaseManager);
+        dev.cordal.database.repository.EndpointConfigurationRepository endpointRepository = new dev.cordal.database.repository.EndpointConfigurationRepository(realDatabaseManager);
+        dev.cordal.database.loader.DatabaseConfigurationLoader databaseLoader = new dev.cordal.database.loader.DatabaseConfigurationLoader(databaseRepository, queryRepository, endpointRepository);
+
+        dev.cordal.generic.config.ConfigurationLoaderFactory factory = new dev.cordal.generic.config.ConfigurationLoaderFactory(genericApiConfig, configurationLoader, databaseLoader);
+        EndpointConfigurationManager configurationManager = new EndpointConfigurationManager(factory);
+
+        DatabaseConnectionManager databaseConnectionManager = new DatabaseConnectionManager(configurationManager);
+        CacheManager cacheManager = new CacheManager(new CacheManager.CacheConfiguration(100, 300, 60));
+        CacheMetricsCollector metricsCollector = new CacheMetricsCollector(cacheManager);
+        dev.cordal.generic.cache.QueryResultCache queryResultCache = new dev.cordal.generic.cache.QueryResultCache(cacheManager);
+        genericRepository = new GenericRepository(databaseConnectionManager, cacheManager, metricsCollector, queryResultCache);
+        genericApiService = new GenericApiService(genericRepository, configurationManager, databaseConnectionManager);
+        batchExecutor = new BatchExecutor(genericApiService, genericRepository, new GenericApiConfig.BatchSettings());
+    }
+
+    @AfterEach
+    void tearDown() {
+        genericApiService.shutdown();
+        System.clearProperty("generic.config.file");
+    }
+
+    private void insertTrades() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1", "sa", "");
+             Statement statement = connection.createStatement()) {
+            String[] symbols = {"AAPL", "MSFT", "AAPL", "GOOGL", "MSFT"};
+            for (int i = 0; i < symbols.length; i++) {
+                statement.executeUpdate("INSERT INTO stock_trades (symbol, trade_type, quantity, price, total_value, " +
+                    "trade_date_time, trader_id, exchange) VALUES ('" + symbols[i] + "', 'BUY', " + (i + 1) +
+                    ", 10.00, " + (i + 1) * 10 + ".00, CURRENT_TIMESTAMP, 'TRADER" + i + "', 'NASDAQ')");
+            }
+        }
+    }
+
+    private static BatchRequest.Item item(String id, String endpoint, Map<String, Object> parameters) {
+        return new BatchRequest.Item(id, endpoint, parameters);
+    }
+
+    @Test
+    void testCallsDifferingInOneKeyAreMergedIntoOneQuery() {
+        BatchResult result = batchExecutor.execute(List.of(
+            item("a", "stock-trades-by-id", Map.of("id", "1")),
+            item("b", "stock-trades-by-id", Map.of("id", "2")),
+            item("c", "stock-trades-by-id", Map.of("id", "3")),
+            item("d", "stock-trades-by-id", Map.of("id", "99"))
+        ));
+
+        assertThat(result.getMergedQueries()).isEqualTo(1);
+        assertThat(result.getQueryExecutions()).isEqualTo(1);
+        assertThat(result.getResults()).extracting(BatchItemResult::getId).containsExactly("a", "b", "c", "d");
+        assertThat(result.getResults()).extracting(BatchItemResult::getSource)
+            .containsOnly(BatchItemResult.Source.MERGED);
+
+        for (int i = 0; i < 3; i++) {
+            BatchItemResult itemResult = result.getResults().get(i);
+            assertThat(itemResult.getStatus()).isEqualTo(200);
+            assertThat(itemResult.getResponse().getType()).isEqualTo("SINGLE");
+            @SuppressWarnings("unchecked")
+            Map<String, Object> row = (Map<String, Object>) itemResult.getResponse().getData();
+            assertThat(((Number) row.get("ID")).longValue()).isEqualTo(i + 1L);
+        }
+
+        // A key with no rows behaves like the individual call would
+        assertThat(result.getResults().get(3).getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    void testPaginatedCallsRunIndividuallyAndKeepTheirPages() {
+        BatchResult result = batchExecutor.execute(List.of(
+            item("aapl", "stock-trades-by-symbol", Map.of("symbol", "AAPL")),
+            item("msft", "stock-trades-by-symbol", Map.of("symbol", "MSFT", "size", "1")),
+            item("goog", "stock-trades-by-symbol", Map.of("symbol", "GOOGL"))
+        ));
+
+        assertThat(result.getMergedQueries()).isZero();
+        assertThat(result.getQueryExecutions()).isEqualTo(3);
+        assertThat(result.getResults()).allSatisfy(itemResult -> {
+            assertThat(itemResult.getStatus()).isEqualTo(200);
+            assertThat(itemResult.getSource()).isEqualTo(BatchItemResult.Source.QUERY);
+        });
+        assertThat(result.getResults().get(0).getResponse().getPagination().getTotalElements()).isEqualTo(2);
+        assertThat((List<?>) result.getResults().get(1).getResponse().getData()).hasSize(1);
+        assertThat(result.getResults().get(1).getResponse().getPagination().getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void testIdenticalCallsAreExecutedOnce() {
+        BatchResult result = batchExecutor.execute(List.of(
+            item("first", "stock-trades-by-id", Map.of("id", "1")),
+            item("second", "stock-trades-by-id", Map.of("id", 1))
+        ));
+
+        assertThat(result.getDistinctCalls()).isEqualTo(1);
+        assertThat(result.getQueryExecutions()).isEqualTo(1);
+        assertThat(result.getResults()).extracting(BatchItemResult::getStatus).containsExactly(200, 200);
+    }
+
+    @Test
+    void testInvalidItemsFailWithoutAffectingOthers() {
+        List<BatchRequest.Item> items = new ArrayList<>();
+        items.add(item("unknown", "nonexistent-endpoint", Map.of()));
+        items.add(item("missing", "stock-trades-by-id", Map.of()));
+        items.add(item("valid", "stock-trades-by-id", Map.of("id", "2")));
+        items.add(item("nameless", null, Map.of()));
+
+        BatchResult result = batchExecutor.execute(items);
+
+        assertThat(result.getResults()).extracting(BatchItemResult::getStatus).containsExactly(404, 400, 200, 400);
+        assertThat(result.getSucceeded()).isEqualTo(1);
+
+        Map<String, Object> body = result.toMap();
+        assertThat(body).containsKeys("results", "summary", "timestamp");
+        assertThat((Map<String, Object>) body.get("summary")).containsEntry("failed", 3).containsEntry("succeeded", 1);
+    }
+
+    @Test
+    void testMergedResultsAreCachedPerCall() {
+        QueryConfig queryConfig = genericApiService.getQueryConfiguration("stock-trades-by-id").orElseThrow();
+        queryConfig.setCache(new QueryConfig.CacheConfiguration(true, "LRU", 300, 100));
+
+        List<BatchRequest.Item> items = List.of(
+            item("a", "stock-trades-by-id", Map.of("id", "1")),
+            item("b", "stock-trades-by-id", Map.of("id", "2"))
+        );
+        BatchResult first = batchExecutor.execute(items);
+        BatchResult second = batchExecutor.execute(items);
+
+        assertThat(first.getMergedQueries()).isEqualTo(1);
+        assertThat(second.getCacheHits()).isEqualTo(2);
+        assertThat(second.getQueryExecutions()).isZero();
+        assertThat(second.getResults()).extracting(BatchItemResult::getSource)
+            .containsOnly(BatchItemResult.Source.CACHE);
+        assertThat(second.getResults()).extracting(BatchItemResult::getStatus).containsOnly(200);
+    }
+
+    @Test
+    void testBatchSizeIsBounded() {
+        GenericApiConfig.BatchSettings settings = new GenericApiConfig.BatchSettings();
+        settings.setMaxItems(1);
+        BatchExecutor boundedExecutor = new BatchExecutor(genericApiService, genericRepository, settings);
+
+        assertThatThrownBy(() -> boundedExecutor.execute(List.of(
+                item(null, "stock-trades-by-id", Map.of("id", "1")),
+                item(null, "stock-trades-by-id", Map.of("id", "2")))))
+            .isInstanceOf(ApiException.class)
+            .satisfies(e -> assertThat(((ApiException) e).getStatusCode()).isEqualTo(400));
+        assertThatThrownBy(() -> batchExecutor.execute(List.of()))
+            .isInstanceOf(ApiException.class);
+    }
+}
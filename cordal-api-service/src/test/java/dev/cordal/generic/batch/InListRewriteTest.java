@@ -0,0 +1,106 @@
+package dev.cordal.generic.batch;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for InListRewrite SQL analysis
+ */
+class InListRewriteTest {
+
+    @Test
+    void testEqualityPredicateIsRewritten() {
+        InListRewrite rewrite = InListRewrite.analyze("SELECT * FROM stock_trades WHERE t.id = ? ORDER BY id", 1).orElseThrow();
+
+        assertThat(rewrite.getColumn()).isEqualTo("id");
+        assertThat(rewrite.toSql(3)).isEqualTo("SELECT * FROM stock_trades WHERE t.id IN (?, ?, ?) ORDER BY id");
+    }
+
+    @Test
+    void testPlaceholderPositionSkipsQuotedQuestionMarks() {
+        String sql = "SELECT * FROM t WHERE note <> '?' AND a = ? AND b = ?";
+
+        assertThat(InListRewrite.analyze(sql, 2).orElseThrow().toSql(2))
+            .isEqualTo("SELECT * FROM t WHERE note <> '?' AND a = ? AND b IN (?, ?)");
+    }
+
+    @Test
+    void testRowSetDependentQueriesAreRejected() {
+        assertThat(InListRewrite.analyze("SELECT * FROM t WHERE symbol = ? LIMIT ? OFFSET ?", 1)).isEmpty();
+        assertThat(InListRewrite.analyze("SELECT COUNT(*) FROM t WHERE symbol = ?", 1)).isEmpty();
+        assertThat(InListRewrite.analyze("SELECT DISTINCT symbol FROM t WHERE trader = ?", 1)).isEmpty();
+    }
+
+    @Test
+    void testNonEqualityOrCompositeOperandsAreRejected() {
+        assertThat(InListRewrite.analyze("SELECT * FROM t WHERE price >= ?", 1)).isEmpty();
+        assertThat(InListRewrite.analyze("SELECT * FROM t WHERE price != ?", 1)).isEmpty();
+        assertThat(InListRewrite.analyze("SELECT * FROM t WHERE id = ? + 1", 1)).isEmpty();
+        assertThat(InListRewrite.analyze("SELECT * FROM t WHERE id = ?", 2)).isEmpty();
+    }
+
+    @Test
+    void testNormalizeMatchesNumericTypes() {
+        assertThat(InListRewrite.normalize(1)).isEqualTo(InListRewrite.normalize(1L));
+        assertThat(InListRewrite.normalize(new java.math.BigDecimal("10.00"))).isEqualTo(InListRewrite.normalize(10));
+        assertThat(InListRewrite.normalize("AAPL")).isEqualTo("AAPL");
+    }
+
+    @Test
+    void testPredicatesCombinedWithOrOrNotAreRejected() {
+        assertThat(InListRewrite.analyze("SELECT * FROM t WHERE a = ? OR b = ?", 1)).isEmpty();
+        assertThat(InListRewrite.analyze("SELECT * FROM t WHERE a = ? OR b = ?", 2)).isEmpty();
+        assertThat(InListRewrite.analyze("SELECT * FROM t WHERE b = 1 AND NOT a = ?", 1)).isEmpty();
+        assertThat(InListRewrite.analyze("SELECT * FROM t WHERE NOT (a = ?)", 1)).isEmpty();
+        assertThat(InListRewrite.analyze("SELECT * FROM t WHERE (a = ? AND b = 1) OR c = 2", 1)).isEmpty();
+        // Only top-level predicates of the outer query qualify
+        assertThat(InListRewrite.analyze("SELECT * FROM t WHERE id IN (SELECT id FROM u WHERE a = ?)", 1)).isEmpty();
+        assertThat(InListRewrite.analyze("SELECT * FROM t JOIN u ON u.id = ? WHERE t.a = 1", 1)).isEmpty();
+        // Keywords inside literals do not count
+        assertThat(InListRewrite.analyze("SELECT * FROM t WHERE note = 'A OR B' AND a = ?", 1)).isPresent();
+    }
+
+    @Test
+    void testTimestampKeysMatchRowsOfEitherTemporalType() {
+        LocalDateTime time = LocalDateTime.of(2024, 3, 1, 9, 30);
+        List<Map<String, Object>> rows = List.of(
+            Map.of("trade_time", Timestamp.valueOf(time), "id", 1),
+            Map.of("trade_time", time.plusHours(1), "id", 2));
+
+        List<List<Map<String, Object>>> split = InListRewrite.split(rows, "trade_time", Types.TIMESTAMP,
+            List.of(Timestamp.valueOf(time), Timestamp.valueOf(time.plusHours(1)))).orElseThrow();
+
+        assertThat(split.get(0)).extracting(row -> row.get("id")).containsExactly(1);
+        assertThat(split.get(1)).extracting(row -> row.get("id")).containsExactly(2);
+    }
+
+    @Test
+    void testPaddedCharKeysMatchTheirRows() {
+        List<Map<String, Object>> rows = List.of(Map.of("symbol", "AAPL      "), Map.of("symbol", "MSFT      "));
+
+        List<List<Map<String, Object>>> split = InListRewrite.split(rows, "symbol", Types.CHAR,
+            List.of("AAPL", "MSFT", "GOOG")).orElseThrow();
+
+        assertThat(split.get(0)).hasSize(1);
+        assertThat(split.get(1)).hasSize(1);
+        assertThat(split.get(2)).isEmpty();
+    }
+
+    @Test
+    void testRowsThatMatchNoKeyPreventTheSplit() {
+        // A case-insensitive collation returns rows the keys do not match exactly
+        assertThat(InListRewrite.split(List.of(Map.of("symbol", "AAPL")), "symbol", Types.VARCHAR,
+            List.of("aapl", "msft"))).isEmpty();
+        // Keys that differ only in case may be the same value to the database
+        assertThat(InListRewrite.split(List.of(), "symbol", Types.VARCHAR, List.of("AAPL", "aapl"))).isEmpty();
+        // Column types without a reliable comparison are not split
+        assertThat(InListRewrite.split(List.of(), "data", Types.BLOB, List.of("a", "b"))).isEmpty();
+    }
+}
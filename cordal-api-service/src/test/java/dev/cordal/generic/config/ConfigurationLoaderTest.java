@@ -2,9 +2,12 @@ package dev.cordal.generic.config;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import dev.cordal.config.GenericApiConfig;
 import dev.cordal.generic.TestConfigurationLoader;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.*;
@@ -302,4 +305,32 @@ class ConfigurationLoaderTest {
             }
         }
     }
+
+    @Test
+    void testResolvedDatabaseUrlsDoNotChangeCachedConfigurations(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve("resolve-databases.yml"), """
+            databases:
+              resolve-db:
+                name: "resolve-db"
+                url: "jdbc:h2:mem:${cordal.test.dbName:first}"
+                username: "sa"
+                password: ""
+                driver: "org.h2.Driver"
+            """);
+        System.setProperty("config.directories", tempDir.toString());
+        try {
+            ConfigurationLoader directoryLoader = new ConfigurationLoader(new GenericApiConfig());
+
+            DatabaseConfig first = directoryLoader.loadDatabaseConfigurations().get("resolve-db");
+            System.setProperty("cordal.test.dbName", "second");
+            DatabaseConfig second = directoryLoader.loadDatabaseConfigurations().get("resolve-db");
+
+            // The unchanged file is served from the parse cache, but each load resolves its own copy
+            assertThat(first.getUrl()).isEqualTo("jdbc:h2:mem:first");
+            assertThat(second.getUrl()).isEqualTo("jdbc:h2:mem:second");
+        } finally {
+            System.clearProperty("config.directories");
+            System.clearProperty("cordal.test.dbName");
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package dev.cordal.generic.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for ConfigurationSnapshotFile
+ */
+class ConfigurationSnapshotFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldRoundTripConfigurationsAndKeepUnresolvedUrls() throws Exception {
+        Path source = tempDir.resolve("test-databases.yml");
+        Files.writeString(source, "databases: {}");
+        Path snapshot = tempDir.resolve("snapshot.bin");
+
+        DatabaseConfig database = new DatabaseConfig();
+        database.setName("test_db");
+        database.setUrl("jdbc:h2:/srv/data/test");
+        database.setUsername("sa");
+        database.setDriver("org.h2.Driver");
+        QueryConfig query = new QueryConfig();
+        query.setName("test-query");
+        query.setDatabase("test_db");
+        query.setSql("SELECT 1");
+
+        ConfigurationSnapshotFile.write(snapshot, List.of(source), Map.of("test_db", database),
+            Map.of("test-query", query), Map.of(), Map.of("test_db", "jdbc:h2:${data.dir}/test"));
+
+        Optional<ConfigurationSnapshotFile.Contents> contents = ConfigurationSnapshotFile.readIfCurrent(snapshot, List.of(source));
+
+        assertThat(contents).isPresent();
+        assertThat(contents.get().queries()).containsOnlyKeys("test-query");
+        assertThat(contents.get().queries().get("test-query").getSql()).isEqualTo("SELECT 1");
+        assertThat(contents.get().endpoints()).isEmpty();
+        DatabaseConfig loaded = contents.get().databases().get("test_db");
+        assertThat(loaded.getDriver()).isEqualTo("org.h2.Driver");
+        assertThat(loaded.getUrl()).isEqualTo("jdbc:h2:${data.dir}/test");
+    }
+
+    @Test
+    void shouldRejectSnapshotWhenSourcesChange() throws Exception {
+        Path first = tempDir.resolve("first-queries.yml");
+        Path second = tempDir.resolve("second-queries.yml");
+        Files.writeString(first, "queries: {}");
+        Files.writeString(second, "queries: {}");
+        Path snapshot = tempDir.resolve("snapshot.bin");
+
+        ConfigurationSnapshotFile.write(snapshot, List.of(first), Map.of(), Map.of(), Map.of(), Map.of());
+        assertThat(ConfigurationSnapshotFile.readIfCurrent(snapshot, List.of(first))).isPresent();
+
+        // A new source file or different content makes the snapshot stale
+        assertThat(ConfigurationSnapshotFile.readIfCurrent(snapshot, List.of(first, second))).isEmpty();
+        assertThat(ConfigurationSnapshotFile.readIfCurrent(snapshot, List.of(second))).isEmpty();
+        Files.writeString(first, "queries: { }");
+        assertThat(ConfigurationSnapshotFile.readIfCurrent(snapshot, List.of(first))).isEmpty();
+
+        // A truncated snapshot is ignored rather than failing the load
+        Files.write(snapshot, new byte[] {0x43, 0x44});
+        assertThat(ConfigurationSnapshotFile.readIfCurrent(snapshot, List.of(first))).isEmpty();
+        assertThat(ConfigurationSnapshotFile.readIfCurrent(tempDir.resolve("missing.bin"), List.of(first))).isEmpty();
+    }
+
+    @Test
+    void shouldRejectSnapshotWithCorruptLengths() throws Exception {
+        Path source = tempDir.resolve("test-queries.yml");
+        Files.writeString(source, "queries: {}");
+        Path snapshot = tempDir.resolve("snapshot.bin");
+        ConfigurationSnapshotFile.write(snapshot, List.of(source), Map.of(), Map.of(), Map.of(), Map.of());
+        byte[] valid = Files.readAllBytes(snapshot);
+        int pathLengthOffset = 12;
+        int payloadLengthOffset = pathLengthOffset + 4 + ByteBuffer.wrap(valid, pathLengthOffset, 4).getInt() + 32;
+
+        for (int offset : new int[] {pathLengthOffset, payloadLengthOffset}) {
+            for (int length : new int[] {-1, Integer.MAX_VALUE}) {
+                byte[] corrupt = valid.clone();
+                ByteBuffer.wrap(corrupt).putInt(offset, length);
+                Files.write(snapshot, corrupt);
+                assertThat(ConfigurationSnapshotFile.readIfCurrent(snapshot, List.of(source)))
+                    .as("length %d at offset %d", length, offset)
+                    .isEmpty();
+            }
+        }
+    }
+}
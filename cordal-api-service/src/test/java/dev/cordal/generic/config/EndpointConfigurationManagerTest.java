@@ -131,4 +131,38 @@ class EndpointConfigurationManagerTest {
             .doesNotThrowAnyException();
     }
 
+    @Test
+    void testReloadPublishesNewVersionWhileHeldVersionStaysIntact() {
+        VersionedConfiguration held = manager.getCurrentConfiguration();
+        assertThat(held.getVersion()).isEqualTo(1);
+
+        VersionedConfiguration reloaded = manager.reload();
+
+        assertThat(reloaded.getVersion()).isEqualTo(2);
+        assertThat(manager.getCurrentConfiguration()).isSameAs(reloaded);
+        assertThat(held.getVersion()).isEqualTo(1);
+        assertThat(held.getEndpoints()).containsKey("stock-trades-list");
+        assertThatThrownBy(() -> held.getEndpoints().remove("stock-trades-list"))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testInvalidConfigurationIsNotPublished() {
+        VersionedConfiguration before = manager.getCurrentConfiguration();
+        QueryConfig orphan = new QueryConfig();
+        orphan.setName("orphan-query");
+        orphan.setDatabase("missing-db");
+        java.util.Map<String, QueryConfig> queries = new java.util.HashMap<>(before.getQueries());
+        queries.put("orphan-query", orphan);
+
+        VersionedConfiguration candidate = VersionedConfiguration.unpublished(
+            before.getSource(), before.getDatabases(), queries, before.getEndpoints());
+
+        assertThat(candidate.isPublished()).isFalse();
+        assertThatThrownBy(() -> manager.publish(candidate))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("keeping version 1");
+        assertThat(manager.getCurrentConfiguration()).isSameAs(before);
+        assertThat(manager.hasQuery("orphan-query")).isFalse();
+    }
 }
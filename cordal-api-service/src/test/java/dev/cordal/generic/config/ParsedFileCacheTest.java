@@ -0,0 +1,63 @@
+package dev.cordal.generic.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for ParsedFileCache
+ */
+class ParsedFileCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReparseOnlyWhenContentChanges() throws Exception {
+        Path file = tempDir.resolve("test-queries.yml");
+        Files.writeString(file, "first");
+        ParsedFileCache<String> cache = new ParsedFileCache<>();
+        ParsedFileCache.Parser<String> parser = content -> new String(content, StandardCharsets.UTF_8).toUpperCase();
+
+        assertThat(cache.get(file, parser)).isEqualTo("FIRST");
+        assertThat(cache.get(file, parser)).isEqualTo("FIRST");
+        assertThat(cache.getParseCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+
+        // Rewriting the same content keeps the parsed object
+        Files.writeString(file, "first");
+        cache.get(file, parser);
+        assertThat(cache.getParseCount()).isEqualTo(1);
+
+        Files.writeString(file, "second");
+        assertThat(cache.get(file, parser)).isEqualTo("SECOND");
+        assertThat(cache.getParseCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotCacheFailedParsesAndShouldForgetRemovedFiles() throws Exception {
+        Path broken = tempDir.resolve("broken.yml");
+        Path other = tempDir.resolve("other.yml");
+        Files.writeString(broken, "broken");
+        Files.writeString(other, "other");
+        ParsedFileCache<String> cache = new ParsedFileCache<>();
+
+        assertThatThrownBy(() -> cache.get(broken, content -> {
+            throw new java.io.IOException("cannot parse");
+        })).hasMessage("cannot parse");
+        assertThat(cache.size()).isZero();
+
+        cache.get(broken, content -> "fixed");
+        cache.get(other, content -> "other");
+        assertThat(cache.size()).isEqualTo(2);
+
+        cache.retainOnly(List.of(other));
+        assertThat(cache.size()).isEqualTo(1);
+    }
+}
@@ -157,4 +157,45 @@ class ManagementApiTest {
             assertThat(response.code()).isIn(200, 503); // Could be UP or DOWN
         });
     }
+
+    @Test
+    void shouldExposeOpenMetrics() {
+        GenericApiApplication testApp = new GenericApiApplication();
+        testApp.initializeForTesting();
+
+        Javalin app = testApp.getApp();
+
+        JavalinTest.test(app, (server, client) -> {
+            var response = client.get("/metrics");
+            assertThat(response.code()).isEqualTo(200);
+            assertThat(response.header("Content-Type")).startsWith("text/plain");
+
+            String responseBody = response.body().string();
+            // The classic text format names counters after their samples and has no EOF line
+            assertThat(responseBody).contains("# TYPE cordal_endpoint_calls_total counter");
+            assertThat(responseBody).contains("# TYPE cordal_db_pool_connections gauge");
+            assertThat(responseBody).contains("cordal_db_pool_connections{pool=");
+            assertThat(responseBody).doesNotContain("# EOF");
+        });
+    }
+
+    @Test
+    void shouldExposeSlowestTraces() {
+        GenericApiApplication testApp = new GenericApiApplication();
+        testApp.initializeForTesting();
+
+        Javalin app = testApp.getApp();
+
+        JavalinTest.test(app, (server, client) -> {
+            var response = client.get("/api/management/traces?limit=5");
+            assertThat(response.code()).isEqualTo(200);
+
+            String responseBody = response.body().string();
+            assertThat(responseBody).contains("\"tracing\"");
+            assertThat(responseBody).contains("\"endpoints\"");
+
+            assertThat(client.get("/api/management/traces?limit=abc").code()).isEqualTo(400);
+            assertThat(client.delete("/api/management/traces").code()).isEqualTo(200);
+        });
+    }
 }
@@ -0,0 +1,39 @@
+package dev.cordal.generic.management;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for SlowQueryLog
+ */
+class SlowQueryLogTest {
+
+    @Test
+    void shouldKeepOnlyTheSlowestExecutionsInOrder() {
+        SlowQueryLog log = new SlowQueryLog(3);
+        for (int i = 1; i <= 10; i++) {
+            log.offer("query-" + i, "db", 1_000_000L, i * 1_000_000L, 0, i, i * 10L, true, 0);
+        }
+
+        List<SlowQueryLog.Entry> slowest = log.getSlowest(10);
+        assertThat(slowest).extracting(SlowQueryLog.Entry::queryName)
+                           .containsExactly("query-10", "query-9", "query-8");
+        assertThat(slowest.get(0).getTotalTimeMs()).isEqualTo(11.0);
+        assertThat(slowest.get(0).getConnectionTimeMs()).isEqualTo(1.0);
+        assertThat(log.getSlowest(1)).hasSize(1);
+    }
+
+    @Test
+    void shouldRejectExecutionsFasterThanTheRetainedOnes() {
+        SlowQueryLog log = new SlowQueryLog(2);
+        log.offer("slow", "db", 0, 50_000_000L, 0, 0, 0, true, 0);
+        log.offer("slower", "db", 0, 80_000_000L, 0, 0, 0, true, 0);
+        log.offer("fast", "db", 0, 1_000_000L, 0, 0, 0, true, 0);
+
+        assertThat(log.getSlowest(5)).extracting(SlowQueryLog.Entry::queryName)
+                                     .containsExactly("slower", "slow");
+    }
+}
@@ -0,0 +1,133 @@
+package dev.cordal.generic.management;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for UsageStatisticsService counters and sliding window rates
+ */
+class UsageStatisticsServiceTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    private AtomicLong clock;
+    private UsageStatisticsService service;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(START);
+        service = new UsageStatisticsService(clock::get);
+    }
+
+    @Test
+    void shouldKeepLifetimeTotalsAndExtremes() {
+        service.recordEndpointUsage("stocks", 10, true);
+        service.recordEndpointUsage("stocks", 30, false);
+        service.recordEndpointTimeout("stocks");
+
+        UsageStatisticsService.EndpointStatistics stats = service.getEndpointStatistics().get("stocks");
+        assertThat(stats.getTotalCalls()).isEqualTo(2);
+        assertThat(stats.getSuccessfulCalls()).isEqualTo(1);
+        assertThat(stats.getFailedCalls()).isEqualTo(1);
+        assertThat(stats.getTimedOutCalls()).isEqualTo(1);
+        assertThat(stats.getMinExecutionTime()).isEqualTo(10);
+        assertThat(stats.getMaxExecutionTime()).isEqualTo(30);
+        assertThat(stats.getAverageExecutionTime()).isEqualTo(20.0);
+        assertThat(stats.getFirstCall().toEpochMilli()).isEqualTo(START);
+    }
+
+    @Test
+    void shouldReportRatesOverEachWindow() {
+        // 60 calls spread over the first minute, one in ten failing
+        for (int i = 0; i < 60; i++) {
+            service.recordEndpointUsage("stocks", 20, i % 10 != 0);
+            clock.addAndGet(1_000);
+        }
+
+        Map<String, SlidingWindowCounter.Snapshot> rates = service.getEndpointStatistics().get("stocks").getRates();
+        SlidingWindowCounter.Snapshot oneMinute = rates.get("1m");
+        assertThat(oneMinute.getCalls()).isEqualTo(60);
+        assertThat(oneMinute.getErrors()).isEqualTo(6);
+        assertThat(oneMinute.getErrorRate()).isEqualTo(10.0);
+        assertThat(oneMinute.getAverageLatencyMs()).isEqualTo(20.0);
+        assertThat(oneMinute.getRequestsPerSecond()).isCloseTo(1.0, within(0.01));
+
+        // Ten minutes later the calls have left the 1m and 5m windows but not the 15m one
+        clock.addAndGet(600_000);
+        rates = service.getEndpointStatistics().get("stocks").getRates();
+        assertThat(rates.get("1m").getCalls()).isZero();
+        assertThat(rates.get("5m").getCalls()).isZero();
+        assertThat(rates.get("15m").getCalls()).isEqualTo(60);
+        assertThat(rates.get("15m").getRequestsPerSecond()).isCloseTo(60 / 660.0, within(0.001));
+
+        // 910 seconds in, the ring wraps onto the bucket of the first ten calls
+        clock.set(START + 910_000);
+        service.recordEndpointUsage("stocks", 5, true);
+        rates = service.getEndpointStatistics().get("stocks").getRates();
+        assertThat(rates.get("1m").getCalls()).isEqualTo(1);
+        assertThat(rates.get("1m").getAverageLatencyMs()).isEqualTo(5.0);
+        assertThat(rates.get("15m").getCalls()).isEqualTo(51);
+    }
+
+    @Test
+    void shouldCombineEndpointsIntoCurrentLoad() {
+        clock.addAndGet(60_000);
+        for (int i = 0; i < 30; i++) {
+            service.recordEndpointUsage("stocks", 10, true);
+            service.recordEndpointUsage("trades", 30, false);
+        }
+
+        SlidingWindowCounter.Snapshot load = service.getCurrentLoad().get("1m");
+        assertThat(load.getCalls()).isEqualTo(60);
+        assertThat(load.getErrorRate()).isEqualTo(50.0);
+        assertThat(load.getAverageLatencyMs()).isEqualTo(20.0);
+        assertThat(service.getSummaryStatistics()).containsKey("currentLoad");
+    }
+
+    @Test
+    void shouldReturnLiveReadOnlyViews() {
+        Map<String, UsageStatisticsService.QueryStatistics> queries = service.getQueryStatistics();
+        service.recordQueryUsage("get_stocks", "stocks-db", 5, true, 12);
+
+        assertThat(queries).containsKey("get_stocks");
+        assertThat(queries.get("get_stocks").getTotalRowsReturned()).isEqualTo(12);
+        assertThatThrownBy(() -> queries.remove("get_stocks")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void shouldNotLoseCountsUnderConcurrentRecording() throws Exception {
+        int threads = 8;
+        int callsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < callsPerThread; i++) {
+                        service.recordEndpointUsage("stocks", 1, true);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        UsageStatisticsService.EndpointStatistics stats = service.getEndpointStatistics().get("stocks");
+        assertThat(stats.getTotalCalls()).isEqualTo((long) threads * callsPerThread);
+        assertThat(stats.getRates().get("1m").getCalls()).isEqualTo((long) threads * callsPerThread);
+    }
+}
@@ -0,0 +1,185 @@
+package dev.cordal.generic.plan;
+
+import dev.cordal.common.config.ServerConfig;
+import dev.cordal.common.exception.ApiException;
+import dev.cordal.config.GenericApiConfig;
+import dev.cordal.generic.TestConfigurationLoader;
+import dev.cordal.generic.config.ApiEndpointConfig;
+import dev.cordal.generic.config.ConfigurationLoader;
+import dev.cordal.generic.config.EndpointConfigurationManager;
+import dev.cordal.generic.database.DatabaseConnectionManager;
+import dev.cordal.generic.model.QueryParameter;
+import dev.cordal.test.TestDatabaseManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for ExecutionPlanRegistry plan compilation, parameter binding and atomic rebuilds
+ */
+class ExecutionPlanRegistryTest {
+
+    private ExecutionPlanRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        // Use test configuration
+        System.setProperty("generic.config.file", "application-test.yml");
+
+        // Create components manually to avoid Guice module complexity in tests
+        GenericApiConfig genericApiConfig = new GenericApiConfig();
+        TestDatabaseManager databaseManager = new TestDatabaseManager(genericApiConfig);
+        databaseManager.initializeSchema();
+
+        ConfigurationLoader configurationLoader = new TestConfigurationLoader(genericApiConfig);
+
+        dev.cordal.database.DatabaseManager realDatabaseManager = new dev.cordal.database.DatabaseManager(genericApiConfig);
+        realDatabaseManager.initializeSchema();
+        dev.cordal.database.repository.DatabaseConfigurationRepository databaseRepository = new dev.cordal.database.repository.DatabaseConfigurationRepository(realDatabaseManager);
+        dev.cordal.database.repository.QueryConfigurationRepository queryRepository = new dev.cordal.database.repository.QueryConfigurationRepository(realDatabaseManager);
+        dev.cordal.database.repository.EndpointConfigurationRepository endpointRepository = new dev.cordal.database.repository.EndpointConfigurationRepository(realDatabaseManager);
+        dev.cordal.database.loader.DatabaseConfigurationLoader databaseLoader = new dev.cordal.database.loader.DatabaseConfigurationLoader(databaseRepository, queryRepository, endpointRepository);
+
+        dev.cordal.generic.config.ConfigurationLoaderFactory factory = new dev.cordal.generic.config.ConfigurationLoaderFactory(genericApiConfig, configurationLoader, databaseLoader);
+        EndpointConfigurationManager configurationManager = new EndpointConfigurationManager(factory);
+
+        DatabaseConnectionManager databaseConnectionManager = new DatabaseConnectionManager(configurationManager);
+        registry = new ExecutionPlanRegistry(configurationManager, databaseConnectionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("generic.config.file");
+    }
+
+    @Test
+    void testEveryEndpointIsCompiled() {
+        EndpointExecutionPlan plan = registry.requirePlan("stock-trades-by-id");
+
+        assertThat(registry.getPlans()).containsKeys("stock-trades-by-id", "stock-trades-by-symbol");
+        assertThat(plan.isAvailable()).isTrue();
+        assertThat(plan.getDataSource()).isNotNull();
+        assertThat(plan.getQueryConfig().getName()).isEqualTo("stock-trades-by-id");
+        assertThat(plan.getBindings()).singleElement().satisfies(binding -> {
+            assertThat(binding.getName()).isEqualTo("id");
+            assertThat(binding.getLocation()).isEqualTo(EndpointExecutionPlan.Location.PATH);
+        });
+        assertThatThrownBy(() -> registry.requirePlan("nonexistent-endpoint"))
+            .isInstanceOf(ApiException.class)
+            .satisfies(e -> assertThat(((ApiException) e).getStatusCode()).isEqualTo(404));
+    }
+
+    @Test
+    void testBindingResolvesValuesAndRejectsMissingRequiredParameters() {
+        EndpointExecutionPlan plan = registry.requirePlan("stock-trades-by-id");
+
+        List<QueryParameter> parameters = plan.bind(EndpointExecutionPlan.ParameterSource.of(Map.of("id", "7")), 0, 0);
+
+        assertThat(parameters).singleElement().satisfies(parameter -> {
+            assertThat(parameter.getPosition()).isEqualTo(1);
+            assertThat(parameter.getTypedValue()).isEqualTo(7L);
+        });
+        assertThatThrownBy(() -> plan.bind(EndpointExecutionPlan.ParameterSource.of(Map.of()), 0, 0))
+            .isInstanceOf(ApiException.class)
+            .hasMessageContaining("Required parameter missing: id");
+    }
+
+    @Test
+    void testPaginatedPlanBindsLimitAndOffsetAndDerivesCountParameters() {
+        EndpointExecutionPlan plan = registry.requirePlan("stock-trades-by-symbol");
+        EndpointExecutionPlan.ParameterSource source =
+            EndpointExecutionPlan.ParameterSource.of(Map.of("symbol", "AAPL", "page", "2", "size", "5"));
+
+        int page = plan.resolvePage(source);
+        int size = plan.resolveSize(source);
+        List<QueryParameter> parameters = plan.bind(source, page, size);
+
+        assertThat(plan.isPaginated()).isTrue();
+        assertThat(plan.hasCountQuery()).isTrue();
+        assertThat(parameters).extracting(QueryParameter::getName).containsExactly("symbol", "limit", "offset");
+        assertThat(parameters).extracting(QueryParameter::getValue).containsExactly("AAPL", 5, 10);
+        assertThat(plan.countParameters(parameters)).singleElement().satisfies(parameter -> {
+            assertThat(parameter.getName()).isEqualTo("symbol");
+            assertThat(parameter.getPosition()).isEqualTo(1);
+        });
+        assertThat(plan.resolveSize(EndpointExecutionPlan.ParameterSource.of(Map.of()))).isEqualTo(20);
+        assertThatThrownBy(() -> plan.resolvePage(EndpointExecutionPlan.ParameterSource.of(Map.of("page", "x"))))
+            .isInstanceOf(ApiException.class)
+            .hasMessageContaining("Invalid integer value for parameter: page");
+    }
+
+    @Test
+    void testConfigurationProblemsAreReportedPerRequest() {
+        ApiEndpointConfig endpointConfig = new ApiEndpointConfig();
+        endpointConfig.setPath("/api/generic/broken");
+        endpointConfig.setMethod("GET");
+        endpointConfig.setQuery("no-such-query");
+
+        EndpointExecutionPlan plan = registry.compile("broken", endpointConfig);
+
+        assertThat(plan.isAvailable()).isFalse();
+        assertThatThrownBy(plan::checkExecutable)
+            .isInstanceOf(ApiException.class)
+            .hasMessageContaining("Query not found: no-such-query")
+            .satisfies(e -> assertThat(((ApiException) e).getStatusCode()).isEqualTo(500));
+    }
+
+    @Test
+    void testEndpointWithoutTimeoutGetsTheServerDefaultDeadline() {
+        ApiEndpointConfig endpointConfig = registry.requirePlan("stock-trades-by-id").getEndpointConfig();
+        ApiEndpointConfig ownTimeout = new ApiEndpointConfig();
+        ownTimeout.setPath(endpointConfig.getPath());
+        ownTimeout.setMethod(endpointConfig.getMethod());
+        ownTimeout.setQuery(endpointConfig.getQuery());
+        ownTimeout.setTimeoutMs(500L);
+
+        assertThat(endpointConfig.hasTimeout()).isFalse();
+        assertThat(registry.requirePlan("stock-trades-by-id").getTimeoutMs())
+            .isEqualTo(ServerConfig.DEFAULT_REQUEST_TIMEOUT_MS);
+        assertThat(registry.compile("own-timeout", ownTimeout).getTimeoutMs()).isEqualTo(500L);
+    }
+
+    @Test
+    void testRebuildSwapsInANewSetOfPlans() {
+        Map<String, EndpointExecutionPlan> before = registry.getPlans();
+        long version = registry.getVersion();
+
+        registry.rebuild();
+
+        assertThat(registry.getVersion()).isEqualTo(version + 1);
+        assertThat(registry.getPlans()).isNotSameAs(before).containsOnlyKeys(before.keySet());
+        assertThat(registry.requirePlan("stock-trades-by-id")).isNotSameAs(before.get("stock-trades-by-id"));
+        assertThatThrownBy(() -> registry.getPlans().put("x", before.get("stock-trades-by-id")))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testRebuildAffectedRecompilesOnlyDependentPlans() {
+        Map<String, EndpointExecutionPlan> before = registry.getPlans();
+        String queryName = before.get("stock-trades-by-id").getQueryConfig().getName();
+
+        int recompiled = registry.rebuildAffected(Set.of(), Set.of(queryName), Set.of());
+
+        Map<String, EndpointExecutionPlan> after = registry.getPlans();
+        assertThat(recompiled).isPositive().isLessThan(before.size());
+        assertThat(after).containsOnlyKeys(before.keySet());
+        assertThat(after.get("stock-trades-by-id")).isNotSameAs(before.get("stock-trades-by-id"));
+        after.forEach((name, plan) -> {
+            if (!queryName.equals(plan.getQueryConfig() != null ? plan.getQueryConfig().getName() : null)
+                    && !queryName.equals(plan.getEndpointConfig().getCountQuery())) {
+                assertThat(plan).as(name).isSameAs(before.get(name));
+            }
+        });
+
+        // A database change recompiles every endpoint whose query runs on it
+        String databaseName = before.get("stock-trades-by-id").getQueryConfig().getDatabase();
+        assertThat(registry.rebuildAffected(Set.of(), Set.of(), Set.of(databaseName))).isPositive();
+        assertThat(registry.rebuildAffected(Set.of(), Set.of(), Set.of())).isZero();
+    }
+}
@@ -0,0 +1,72 @@
+package dev.cordal.generic.routing;
+
+import dev.cordal.generic.config.ApiEndpointConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for RouteTrie path matching
+ */
+class RouteTrieTest {
+
+    private static ApiEndpointConfig endpoint(String method, String path) {
+        ApiEndpointConfig config = new ApiEndpointConfig();
+        config.setMethod(method);
+        config.setPath(path);
+        return config;
+    }
+
+    @Test
+    void shouldPreferStaticSegmentsAndFallBackToParameters() {
+        Map<String, ApiEndpointConfig> endpoints = new LinkedHashMap<>();
+        endpoints.put("by-id", endpoint("GET", "/api/trades/{id}"));
+        endpoints.put("by-symbol", endpoint("GET", "/api/trades/symbol/{symbol}"));
+        endpoints.put("list", endpoint("GET", "/api/trades"));
+        endpoints.put("create", endpoint("POST", "/api/trades"));
+        RouteTrie trie = RouteTrie.compile(endpoints);
+
+        assertThat(trie.size()).isEqualTo(4);
+        assertThat(trie.match("GET", "/api/trades").endpointName()).isEqualTo("list");
+        assertThat(trie.match("GET", "/api/trades/").endpointName()).isEqualTo("list");
+        assertThat(trie.match("POST", "/api/trades").endpointName()).isEqualTo("create");
+
+        RouteMatch bySymbol = trie.match("GET", "/api/trades/symbol/AAPL");
+        assertThat(bySymbol.endpointName()).isEqualTo("by-symbol");
+        assertThat(bySymbol.pathParameters()).containsExactly(entry("symbol", "AAPL"));
+
+        // "symbol" alone does not complete the static branch, so it is captured as an id
+        RouteMatch byId = trie.match("GET", "/api/trades/symbol");
+        assertThat(byId.endpointName()).isEqualTo("by-id");
+        assertThat(byId.pathParameters()).containsExactly(entry("id", "symbol"));
+    }
+
+    @Test
+    void shouldDecodeParametersAndRejectUnknownRoutes() {
+        RouteTrie trie = RouteTrie.compile(Map.of(
+            "holding", endpoint("GET", "/api/accounts/{account}/holdings/{symbol}")));
+
+        RouteMatch match = trie.match("GET", "/api/accounts/a%20b/holdings/BRK+B");
+        assertThat(match.pathParameters()).containsExactly(entry("account", "a b"), entry("symbol", "BRK+B"));
+
+        assertThat(trie.match("DELETE", "/api/accounts/1/holdings/X")).isNull();
+        assertThat(trie.match("GET", "/api/accounts/1/holdings")).isNull();
+        assertThat(trie.match("GET", "/api/accounts/1/holdings/X/extra")).isNull();
+        assertThat(RouteTrie.EMPTY.match("GET", "/")).isNull();
+    }
+
+    @Test
+    void shouldReportEndpointsWithTheSameRoute() {
+        Map<String, ApiEndpointConfig> endpoints = new LinkedHashMap<>();
+        endpoints.put("b-by-code", endpoint("GET", "/api/items/{code}"));
+        endpoints.put("a-by-id", endpoint("get", "/api/items/{id}"));
+        RouteTrie trie = RouteTrie.compile(endpoints);
+
+        assertThat(trie.size()).isEqualTo(1);
+        assertThat(trie.match("GET", "/api/items/7").endpointName()).isEqualTo("a-by-id");
+        assertThat(trie.getConflicts()).singleElement().asString().contains("b-by-code", "a-by-id");
+    }
+}
@@ -0,0 +1,111 @@
+package dev.cordal.generic.trace;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.cordal.config.GenericApiConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for request tracing: span recording, the slow trace buffer and OTLP export
+ */
+class TracerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldRecordSpansOnlyWhileTraceIsBound() {
+        Tracer tracer = new Tracer(new GenericApiConfig.TracingSettings());
+        RequestTrace trace = tracer.start("stocks");
+
+        RequestTrace.record(RequestTrace.CACHE_LOOKUP, System.nanoTime());
+        assertThat(trace.getSpans()).isEmpty();
+
+        RequestTrace previous = RequestTrace.bind(trace);
+        try {
+            long start = System.nanoTime();
+            RequestTrace.record(RequestTrace.PARAMETER_EXTRACTION, start);
+            for (int i = 0; i < 20; i++) {
+                RequestTrace.record(RequestTrace.CACHE_LOOKUP, System.nanoTime());
+            }
+        } finally {
+            RequestTrace.restore(previous);
+        }
+        tracer.finish(trace, true);
+
+        assertThat(RequestTrace.current()).isNull();
+        assertThat(trace.getSpans()).hasSize(21);
+        assertThat(trace.getSpans().get(0).name()).isEqualTo(RequestTrace.PARAMETER_EXTRACTION);
+        assertThat(trace.getSpans().get(0).offsetNanos()).isGreaterThanOrEqualTo(0);
+        assertThat(trace.getTraceId()).hasSize(32);
+        assertThat(tracer.getSlowestTraces("stocks", 10)).containsExactly(trace);
+    }
+
+    @Test
+    void shouldKeepTheSlowestTracesPerEndpoint() throws Exception {
+        GenericApiConfig.TracingSettings settings = new GenericApiConfig.TracingSettings();
+        settings.setSlowestPerEndpoint(2);
+        Tracer tracer = new Tracer(settings);
+
+        for (int i = 0; i < 5; i++) {
+            RequestTrace trace = tracer.start("stocks");
+            Thread.sleep(i * 5L);
+            tracer.finish(trace, true);
+        }
+        tracer.finish(tracer.start("trades"), false);
+
+        List<RequestTrace> slowest = tracer.getSlowestTraces("stocks", 10);
+        assertThat(slowest).hasSize(2);
+        assertThat(slowest.get(0).getDurationNanos()).isGreaterThanOrEqualTo(slowest.get(1).getDurationNanos());
+        assertThat(slowest.get(1).getDurationMs()).isGreaterThanOrEqualTo(15.0);
+        assertThat(tracer.getSlowestTraces(10)).containsOnlyKeys("stocks", "trades");
+    }
+
+    @Test
+    void shouldNotStartTracesWhenDisabled() {
+        GenericApiConfig.TracingSettings settings = new GenericApiConfig.TracingSettings();
+        settings.setEnabled(false);
+        Tracer tracer = new Tracer(settings);
+
+        assertThat(tracer.start("stocks")).isNull();
+        tracer.finish(null, true);
+        assertThat(tracer.getSlowestTraces(10)).isEmpty();
+    }
+
+    @Test
+    void shouldExportTracesAsOtlpJsonLines() throws Exception {
+        Path exportFile = tempDir.resolve("traces/otlp.jsonl");
+        GenericApiConfig.TracingSettings settings = new GenericApiConfig.TracingSettings();
+        settings.setExportEnabled(true);
+        settings.setExportFile(exportFile.toString());
+
+        Tracer tracer = new Tracer(settings);
+        RequestTrace trace = tracer.start("stocks");
+        trace.span(RequestTrace.POOL_ACQUIRE, System.nanoTime(), System.nanoTime());
+        tracer.finish(trace, true);
+        tracer.close();
+
+        List<String> lines = Files.readAllLines(exportFile);
+        assertThat(lines).hasSize(1);
+
+        JsonNode spans = new ObjectMapper().readTree(lines.get(0))
+            .path("resourceSpans").get(0).path("scopeSpans").get(0).path("spans");
+        assertThat(spans).hasSize(2);
+        JsonNode root = spans.get(0);
+        JsonNode child = spans.get(1);
+        assertThat(root.path("traceId").asText()).isEqualTo(trace.getTraceId());
+        assertThat(root.path("name").asText()).isEqualTo("stocks");
+        assertThat(root.path("status").path("code").asInt()).isEqualTo(1);
+        assertThat(child.path("parentSpanId").asText()).isEqualTo(root.path("spanId").asText());
+        assertThat(child.path("name").asText()).isEqualTo(RequestTrace.POOL_ACQUIRE);
+        assertThat(Long.parseLong(child.path("startTimeUnixNano").asText()))
+            .isGreaterThanOrEqualTo(Long.parseLong(root.path("startTimeUnixNano").asText()));
+    }
+}
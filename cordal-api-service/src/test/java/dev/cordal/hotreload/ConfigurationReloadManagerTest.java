@@ -0,0 +1,272 @@
+package dev.cordal.hotreload;
+
+import dev.cordal.config.GenericApiConfig;
+import dev.cordal.database.DatabaseManager;
+import dev.cordal.database.loader.DatabaseConfigurationLoader;
+import dev.cordal.database.repository.DatabaseConfigurationRepository;
+import dev.cordal.database.repository.EndpointConfigurationRepository;
+import dev.cordal.database.repository.QueryConfigurationRepository;
+import dev.cordal.generic.config.ApiEndpointConfig;
+import dev.cordal.generic.config.ConfigurationLoader;
+import dev.cordal.generic.config.ConfigurationLoaderFactory;
+import dev.cordal.generic.config.DatabaseConfig;
+import dev.cordal.generic.config.EndpointConfigurationManager;
+import dev.cordal.generic.config.QueryConfig;
+import dev.cordal.generic.config.VersionedConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ConfigurationReloadManager driven by its own triggers rather than direct reload calls
+ */
+class ConfigurationReloadManagerTest {
+
+    private static final int MAX_RELOAD_ATTEMPTS = 3;
+
+    private DatabaseManager databaseManager;
+    private QueryConfigurationRepository queryRepository;
+    private EndpointConfigurationManager configurationManager;
+    private ConfigurationReloadManager reloadManager;
+
+    @AfterEach
+    void tearDown() {
+        if (reloadManager != null) {
+            reloadManager.shutdown();
+        }
+        System.clearProperty("generic.config.file");
+        if (databaseManager != null) {
+            databaseManager.close();
+        }
+    }
+
+    /**
+     * Reload manager for configuration in the database tables, picking up changes by polling them
+     */
+    private void createPollingReloadManager() {
+        System.setProperty("generic.config.file", "application-database-test.yml");
+
+        GenericApiConfig config = new PollingConfig();
+        databaseManager = new DatabaseManager(config);
+        databaseManager.initializeSchema();
+        databaseManager.cleanDatabase();
+
+        DatabaseConfigurationRepository databaseRepository = new DatabaseConfigurationRepository(databaseManager);
+        queryRepository = new QueryConfigurationRepository(databaseManager);
+        databaseRepository.save("reload-db", database("reload-db"));
+        saveQuery("reload-query", "reload-db", "SELECT 0");
+        EndpointConfigurationRepository endpointRepository = new EndpointConfigurationRepository(databaseManager);
+        endpointRepository.save("reload-endpoint", endpoint("/api/reload", "reload-query"));
+
+        DatabaseConfigurationLoader databaseLoader = new DatabaseConfigurationLoader(databaseRepository,
+            queryRepository, endpointRepository);
+        configurationManager = new EndpointConfigurationManager(
+            new ConfigurationLoaderFactory(config, new ConfigurationLoader(config), databaseLoader));
+
+        ConfigurationStateManager stateManager = new ConfigurationStateManager();
+        reloadManager = new ConfigurationReloadManager(new FileWatcherService(), stateManager,
+            new ValidationPipeline(databaseManager, stateManager), new DynamicEndpointRegistry(),
+            new AtomicUpdateManager(databaseManager, new DynamicEndpointRegistry()), config,
+            configurationManager, databaseLoader);
+    }
+
+    @Test
+    void shouldKeepHotReloadEnabledAfterMoreSuccessfulPollsThanTheAttemptLimit() throws Exception {
+        createPollingReloadManager();
+        reloadManager.initialize();
+
+        for (int change = 1; change <= MAX_RELOAD_ATTEMPTS + 1; change++) {
+            long version = configurationManager.getConfigurationVersion();
+            saveQuery("reload-query", "reload-db", "SELECT " + change);
+            awaitCondition(() -> configurationManager.getConfigurationVersion() > version);
+        }
+
+        assertThat(configurationManager.getCurrentConfiguration().getQueries().get("reload-query").getSql())
+            .isEqualTo("SELECT " + (MAX_RELOAD_ATTEMPTS + 1));
+
+        // A broken change fails once and leaves hot reload running for the fix that follows
+        saveQuery("reload-query", "missing-db", "SELECT 99");
+        awaitCondition(() -> reloadManager.getStatus().hasError());
+        assertThat(reloadManager.getStatus().isEnabled()).isTrue();
+
+        long version = configurationManager.getConfigurationVersion();
+        saveQuery("reload-query", "reload-db", "SELECT 100");
+        // The new version is published before the reload finishes, so wait for the status too
+        awaitCondition(() -> configurationManager.getConfigurationVersion() > version
+            && reloadManager.getStatus().getStatus() == ConfigurationReloadManager.ReloadStatus.WATCHING);
+
+        ReloadStatusInfo status = reloadManager.getStatus();
+        assertThat(status.isEnabled()).isTrue();
+        assertThat(status.getStatus()).isEqualTo(ConfigurationReloadManager.ReloadStatus.WATCHING);
+        assertThat(status.getTotalReloadAttempts()).isZero();
+    }
+
+    @Test
+    void shouldReloadOnlyTheChangedTypesForABatchOfWatchedFiles(@TempDir Path configDir) throws Exception {
+        Files.writeString(configDir.resolve("reload-databases.yml"), """
+            databases:
+              reload-db:
+                name: "reload-db"
+                url: "jdbc:h2:mem:reload-db"
+                username: "sa"
+                password: ""
+                driver: "org.h2.Driver"
+            """);
+        Files.writeString(configDir.resolve("reload-queries.yml"), queriesYaml("reload-query", "SELECT 0"));
+        Files.writeString(configDir.resolve("reload-endpoints.yml"), """
+            endpoints:
+              reload-endpoint:
+                path: "/api/reload"
+                method: "GET"
+                query: "reload-query"
+            """);
+
+        GenericApiConfig config = new WatchingConfig(configDir);
+        AtomicInteger databaseLoads = new AtomicInteger();
+        AtomicInteger queryLoads = new AtomicInteger();
+        AtomicInteger endpointLoads = new AtomicInteger();
+        ConfigurationLoader loader = new ConfigurationLoader(config) {
+            @Override
+            public Map<String, DatabaseConfig> loadDatabaseConfigurations() {
+                databaseLoads.incrementAndGet();
+                return super.loadDatabaseConfigurations();
+            }
+
+            @Override
+            public Map<String, QueryConfig> loadQueryConfigurations() {
+                queryLoads.incrementAndGet();
+                return super.loadQueryConfigurations();
+            }
+
+            @Override
+            public Map<String, ApiEndpointConfig> loadEndpointConfigurations() {
+                endpointLoads.incrementAndGet();
+                return super.loadEndpointConfigurations();
+            }
+        };
+        configurationManager = new EndpointConfigurationManager(new ConfigurationLoaderFactory(config, loader, null));
+
+        ConfigurationStateManager stateManager = new ConfigurationStateManager();
+        reloadManager = new ConfigurationReloadManager(new FileWatcherService(), stateManager,
+            new ValidationPipeline(null, stateManager), new DynamicEndpointRegistry(),
+            new AtomicUpdateManager(null, new DynamicEndpointRegistry()), config, configurationManager);
+        reloadManager.initialize();
+
+        // Two query files changed together arrive as one batch
+        Files.writeString(configDir.resolve("reload-queries.yml"), queriesYaml("reload-query", "SELECT 1"));
+        Files.writeString(configDir.resolve("extra-queries.yml"), queriesYaml("extra-query", "SELECT 2"));
+        awaitCondition(() -> configurationManager.getCurrentConfiguration().getQueries().containsKey("extra-query"));
+
+        VersionedConfiguration reloaded = configurationManager.getCurrentConfiguration();
+        assertThat(reloaded.getQueries().get("reload-query").getSql()).isEqualTo("SELECT 1");
+        assertThat(reloaded.getEndpoints()).containsOnlyKeys("reload-endpoint");
+        assertThat(queryLoads.get()).isGreaterThan(1);
+        assertThat(databaseLoads.get()).isEqualTo(1);
+        assertThat(endpointLoads.get()).isEqualTo(1);
+    }
+
+    private static String queriesYaml(String name, String sql) {
+        return """
+            queries:
+              %s:
+                name: "%s"
+                database: "reload-db"
+                sql: "%s"
+            """.formatted(name, name, sql);
+    }
+
+    private void saveQuery(String name, String database, String sql) {
+        QueryConfig query = new QueryConfig();
+        query.setName(name);
+        query.setDatabase(database);
+        query.setSql(sql);
+        queryRepository.save(name, query);
+        try {
+            // Keep each write on its own updated_at so every change moves the watermark
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static DatabaseConfig database(String name) {
+        DatabaseConfig database = new DatabaseConfig();
+        database.setName(name);
+        database.setUrl("jdbc:h2:mem:" + name);
+        database.setUsername("sa");
+        database.setPassword("");
+        database.setDriver("org.h2.Driver");
+        return database;
+    }
+
+    private static ApiEndpointConfig endpoint(String path, String query) {
+        ApiEndpointConfig endpoint = new ApiEndpointConfig();
+        endpoint.setPath(path);
+        endpoint.setMethod("GET");
+        endpoint.setQuery(query);
+        return endpoint;
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static class PollingConfig extends GenericApiConfig {
+        @Override
+        public boolean isHotReloadEnabled() { return true; }
+
+        @Override
+        public boolean isHotReloadWatchDirectories() { return false; }
+
+        @Override
+        public long getHotReloadDatabasePollMs() { return 50L; }
+
+        @Override
+        public int getHotReloadMaxAttempts() { return MAX_RELOAD_ATTEMPTS; }
+
+        @Override
+        public boolean isHotReloadValidateBeforeApply() { return false; }
+    }
+
+    private static class WatchingConfig extends GenericApiConfig {
+        private final Path configDir;
+
+        WatchingConfig(Path configDir) {
+            this.configDir = configDir;
+        }
+
+        @Override
+        public boolean isHotReloadEnabled() { return true; }
+
+        @Override
+        public boolean isHotReloadWatchDirectories() { return true; }
+
+        @Override
+        public long getHotReloadDebounceMs() { return 100L; }
+
+        @Override
+        public boolean isHotReloadValidateBeforeApply() { return false; }
+
+        @Override
+        public String getConfigSource() { return "yaml"; }
+
+        @Override
+        public String getConfigSnapshot() { return null; }
+
+        @Override
+        public List<String> getConfigDirectories() { return List.of(configDir.toString()); }
+    }
+}
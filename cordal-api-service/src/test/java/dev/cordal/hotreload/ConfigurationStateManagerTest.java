@@ -158,6 +158,33 @@ class ConfigurationStateManagerTest {
         assertThat(delta.modifiedDatabases).isEmpty();
     }
 
+    @Test
+    void shouldShareUnchangedConfigurationsBetweenSnapshots() {
+        Map<String, DatabaseConfig> databases = createTestDatabases();
+        Map<String, QueryConfig> queries = createTestQueries();
+        queries.put("query2", createQueryConfig("query2", "testdb", "SELECT * FROM table2"));
+        String version1 = stateManager.createSnapshot(databases, queries, createTestEndpoints());
+
+        Map<String, QueryConfig> changedQueries = new HashMap<>(queries);
+        changedQueries.put("query2", createQueryConfig("query2", "testdb", "SELECT id FROM table2"));
+        String version2 = stateManager.createSnapshot(databases, changedQueries, createTestEndpoints());
+
+        ConfigurationSnapshot snapshot1 = stateManager.getSnapshot(version1).get();
+        ConfigurationSnapshot snapshot2 = stateManager.getSnapshot(version2).get();
+
+        // Unchanged maps and entries are the same objects, not copies
+        assertThat(snapshot2.getDatabases()).isSameAs(snapshot1.getDatabases());
+        assertThat(snapshot2.getEndpoints()).isSameAs(snapshot1.getEndpoints());
+        assertThat(snapshot2.getQueries().get("testquery")).isSameAs(snapshot1.getQueries().get("testquery"));
+        assertThat(snapshot1.getQueries().get("query2").getSql()).isEqualTo("SELECT * FROM table2");
+
+        ConfigurationDelta delta = stateManager.calculateDelta(snapshot1, snapshot2);
+        assertThat(delta.modifiedQueries).containsOnlyKeys("query2");
+        assertThat(delta.previousQueries.get("query2").getSql()).isEqualTo("SELECT * FROM table2");
+        assertThat(delta.hasDatabaseChanges()).isFalse();
+        assertThat(delta.hasEndpointChanges()).isFalse();
+    }
+
     @Test
     void shouldValidateDependencies() {
         // Create configurations with valid dependencies
@@ -0,0 +1,87 @@
+package dev.cordal.hotreload;
+
+import dev.cordal.generic.config.ApiEndpointConfig;
+import dev.cordal.generic.routing.RouteMatch;
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for DynamicEndpointRegistry routing through its catch-all handler
+ */
+class DynamicEndpointRegistryTest {
+
+    private static ApiEndpointConfig endpoint(String method, String path) {
+        ApiEndpointConfig config = new ApiEndpointConfig();
+        config.setMethod(method);
+        config.setPath(path);
+        config.setQuery("test-query");
+        return config;
+    }
+
+    private static DynamicEndpointRegistry newRegistry() {
+        DynamicEndpointRegistry registry = new DynamicEndpointRegistry();
+        registry.setHandlerFactory((name, config) -> ctx -> {
+            RouteMatch match = ctx.attribute(RouteMatch.ATTRIBUTE);
+            ctx.json(Map.of("endpoint", name, "params", match.pathParameters()));
+        });
+        return registry;
+    }
+
+    @Test
+    void shouldServeAddedEndpointsAndReallyRemoveThem() {
+        DynamicEndpointRegistry registry = newRegistry();
+        Javalin app = Javalin.create();
+        app.get("/static", ctx -> ctx.result("static"));
+        registry.setJavalinApp(app);
+
+        JavalinTest.test(app, (server, client) -> {
+            assertThat(client.get("/api/items/1").code()).isEqualTo(404);
+
+            assertThat(registry.registerEndpoint("item", endpoint("GET", "/api/items/{id}")).isSuccess()).isTrue();
+            var response = client.get("/api/items/42");
+            assertThat(response.code()).isEqualTo(200);
+            assertThat(response.body().string()).contains("\"endpoint\":\"item\"", "\"id\":\"42\"");
+            assertThat(client.get("/static").body().string()).isEqualTo("static");
+
+            assertThat(registry.unregisterEndpoint("item").isSuccess()).isTrue();
+            assertThat(client.get("/api/items/42").code()).isEqualTo(404);
+            assertThat(registry.getActiveEndpoints()).isEmpty();
+
+            // The same path can be registered again once it has been removed
+            assertThat(registry.registerEndpoint("item-v2", endpoint("GET", "/api/items/{id}")).isSuccess()).isTrue();
+            assertThat(client.get("/api/items/7").body().string()).contains("\"endpoint\":\"item-v2\"");
+        });
+    }
+
+    @Test
+    void shouldPublishAtomicUpdatesOnlyOnCommitAndRestoreOnRollback() {
+        DynamicEndpointRegistry registry = newRegistry();
+        registry.registerEndpoint("list", endpoint("GET", "/api/items"));
+        long version = registry.getRoutingVersion();
+
+        assertThat(registry.beginAtomicUpdate()).isTrue();
+        registry.registerEndpoint("item", endpoint("GET", "/api/items/{id}"));
+        registry.unregisterEndpoint("list");
+        assertThat(registry.match("GET", "/api/items").endpointName()).isEqualTo("list");
+        assertThat(registry.match("GET", "/api/items/1")).isNull();
+
+        registry.rollbackAtomicUpdate();
+        assertThat(registry.match("GET", "/api/items").endpointName()).isEqualTo("list");
+        assertThat(registry.getActiveEndpoints()).containsOnlyKeys("list");
+
+        assertThat(registry.beginAtomicUpdate()).isTrue();
+        registry.registerEndpoint("item", endpoint("GET", "/api/items/{id}"));
+        registry.updateEndpoint("list", endpoint("GET", "/api/all-items"));
+        registry.commitAtomicUpdate();
+
+        assertThat(registry.match("GET", "/api/items")).isNull();
+        assertThat(registry.match("GET", "/api/all-items").endpointName()).isEqualTo("list");
+        assertThat(registry.match("GET", "/api/items/1").pathParameters()).containsEntry("id", "1");
+        assertThat(registry.getRoutingVersion()).isGreaterThan(version);
+    }
+}
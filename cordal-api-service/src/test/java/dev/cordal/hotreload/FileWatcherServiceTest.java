@@ -10,6 +10,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardWatchEventKinds;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -204,6 +206,45 @@ class FileWatcherServiceTest {
         assertThat(capturedEvent.get()).isNull();
     }
 
+    @Test
+    void shouldCoalesceChangesToManyFilesIntoOneBatch() throws IOException, InterruptedException {
+        List<List<FileChangeEvent>> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        
+        fileWatcherService.registerChangeListener(new ConfigurationChangeListener() {
+            @Override
+            public void onConfigurationFileChanged(FileChangeEvent event) {
+                throw new AssertionError("Batched listener should not receive single events");
+            }
+            
+            @Override
+            public void onConfigurationFilesChanged(List<FileChangeEvent> events) {
+                batches.add(events);
+                latch.countDown();
+            }
+        });
+        fileWatcherService.setDebounceDelay(300);
+        
+        fileWatcherService.startWatching(
+            Arrays.asList(tempDir),
+            Arrays.asList("*.yml")
+        );
+        
+        // Several files, one of them written twice, all within one quiet period
+        for (int i = 0; i < 5; i++) {
+            Files.write(tempDir.resolve("config-" + i + ".yml"), ("version: " + i).getBytes());
+        }
+        Files.write(tempDir.resolve("config-0.yml"), "version: again".getBytes());
+        
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(500);
+        
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0))
+            .extracting(event -> event.getFilePath().getFileName().toString())
+            .containsExactlyInAnyOrder("config-0.yml", "config-1.yml", "config-2.yml", "config-3.yml", "config-4.yml");
+    }
+
     /**
      * Test implementation of ConfigurationChangeListener
      */
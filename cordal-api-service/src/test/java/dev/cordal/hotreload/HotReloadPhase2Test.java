@@ -7,9 +7,17 @@ import dev.cordal.generic.config.QueryConfig;
 import dev.cordal.generic.config.DatabaseConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -253,6 +261,79 @@ class HotReloadPhase2Test {
         }
     }
 
+    @Test
+    void shouldRunOnlyOneReloadAtATime() throws Exception {
+        CountDownLatch firstReloadEntered = new CountDownLatch(1);
+        CountDownLatch releaseReloads = new CountDownLatch(1);
+        AtomicInteger reloadsStarted = new AtomicInteger();
+        ConfigurationStateManager blockingStateManager = new ConfigurationStateManager() {
+            @Override
+            public String createSnapshot(Map<String, DatabaseConfig> databases, Map<String, QueryConfig> queries,
+                                         Map<String, ApiEndpointConfig> endpoints) {
+                reloadsStarted.incrementAndGet();
+                firstReloadEntered.countDown();
+                try {
+                    releaseReloads.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.createSnapshot(databases, queries, endpoints);
+            }
+        };
+        ConfigurationReloadManager manager = new ConfigurationReloadManager(
+            fileWatcher, blockingStateManager, validationPipeline, endpointRegistry, atomicUpdateManager, config);
+        manager.initialize();
+
+        try {
+            CompletableFuture<ReloadResult> first =
+                CompletableFuture.supplyAsync(() -> manager.triggerReload(ReloadRequest.manual()));
+            assertThat(firstReloadEntered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // A second manual reload is refused and a file change waits instead of overlapping
+            ReloadResult overlapping = manager.triggerReload(ReloadRequest.manual());
+            assertThat(overlapping.isSuccess()).isFalse();
+            assertThat(overlapping.getMessage()).isEqualTo("Reload already in progress");
+            manager.onConfigurationFilesChanged(List.of(
+                new FileChangeEvent(Path.of("test-queries.yml"), StandardWatchEventKinds.ENTRY_MODIFY, System.currentTimeMillis())));
+            Thread.sleep(200);
+            assertThat(reloadsStarted.get()).isEqualTo(1);
+
+            releaseReloads.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (reloadsStarted.get() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(reloadsStarted.get()).isEqualTo(2);
+        } finally {
+            releaseReloads.countDown();
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    void shouldWatchConfigurationDirectoriesUntilShutdown(@TempDir Path configDir) {
+        GenericApiConfig watchingConfig = new TestGenericApiConfig() {
+            @Override
+            public boolean isHotReloadWatchDirectories() { return true; }
+
+            @Override
+            public List<String> getConfigDirectories() { return List.of(configDir.toString()); }
+        };
+        ConfigurationReloadManager manager = new ConfigurationReloadManager(
+            fileWatcher, stateManager, validationPipeline, endpointRegistry, atomicUpdateManager, watchingConfig);
+
+        manager.initialize();
+        try {
+            assertThat(fileWatcher.isWatching()).isTrue();
+            assertThat(manager.getStatus().getStatus()).isEqualTo(ConfigurationReloadManager.ReloadStatus.WATCHING);
+        } finally {
+            manager.shutdown();
+        }
+
+        assertThat(fileWatcher.isWatching()).isFalse();
+    }
+
     // Helper methods
     private ConfigurationDelta createTestDelta() {
         ConfigurationDelta delta = new ConfigurationDelta();
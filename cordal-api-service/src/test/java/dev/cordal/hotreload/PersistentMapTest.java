@@ -0,0 +1,85 @@
+package dev.cordal.hotreload;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for PersistentMap
+ */
+class PersistentMapTest {
+
+    @Test
+    void shouldBehaveLikeAnImmutableMapAcrossManyVersions() {
+        Map<String, Integer> expected = new HashMap<>();
+        PersistentMap<String, Integer> map = PersistentMap.empty();
+        List<PersistentMap<String, Integer>> versions = new ArrayList<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            map = map.with("key-" + i, i);
+            expected.put("key-" + i, i);
+        }
+        versions.add(map);
+        for (int i = 0; i < 5_000; i += 3) {
+            map = map.without("key-" + i);
+            expected.remove("key-" + i);
+        }
+
+        assertThat(map).isEqualTo(expected);
+        assertThat(map.size()).isEqualTo(expected.size());
+        assertThat(map.get("key-3")).isNull();
+        assertThat(map.get("key-4")).isEqualTo(4);
+        // Earlier versions are unaffected
+        assertThat(versions.get(0)).hasSize(5_000).containsEntry("key-3", 3);
+        assertThat(map.without("missing")).isSameAs(map);
+        assertThat(map.with("key-4", map.get("key-4"))).isSameAs(map);
+        Map<String, Integer> readOnly = map;
+        assertThatThrownBy(() -> readOnly.put("key-1", 1)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void shouldKeepKeysWithCollidingHashesApart() {
+        // "Aa" and "BB" have the same hash code
+        PersistentMap<String, String> map = PersistentMap.<String, String>empty()
+            .with("Aa", "first").with("BB", "second").with("AaAa", "third").with("BBBB", "fourth");
+
+        assertThat(map).containsOnly(entry("Aa", "first"), entry("BB", "second"),
+                                     entry("AaAa", "third"), entry("BBBB", "fourth"));
+        PersistentMap<String, String> smaller = map.without("Aa");
+        assertThat(smaller).containsOnly(entry("BB", "second"), entry("AaAa", "third"), entry("BBBB", "fourth"));
+        assertThat(smaller.without("BB").get("BB")).isNull();
+    }
+
+    @Test
+    void shouldShareUnchangedEntriesAndDiffOnlyTheChangedOnes() {
+        Map<String, String> source = new HashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            source.put("query-" + i, "SELECT " + i);
+        }
+        PersistentMap<String, String> before = PersistentMap.copyOf(source);
+
+        Map<String, String> changed = new HashMap<>(source);
+        changed.put("query-7", "SELECT 77");
+        changed.remove("query-8");
+        changed.put("query-new", "SELECT new");
+        // An equal but distinct value is not a change
+        changed.put("query-9", new String("SELECT 9"));
+        PersistentMap<String, String> after = before.updatedTo(changed);
+
+        assertThat(after).isEqualTo(changed);
+        assertThat(before.updatedTo(new HashMap<>(source))).isSameAs(before);
+
+        List<String> visited = new ArrayList<>();
+        before.diff(after, (key, oldValue, newValue) -> visited.add(key + ":" + oldValue + "->" + newValue));
+
+        assertThat(visited).containsExactlyInAnyOrder(
+            "query-7:SELECT 7->SELECT 77",
+            "query-8:SELECT 8->null",
+            "query-new:null->SELECT new");
+    }
+}
@@ -0,0 +1,114 @@
+package dev.cordal.hotreload;
+
+import dev.cordal.generic.config.DatabaseConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for connectivity probing in ValidationPipeline
+ */
+class ValidationPipelineTest {
+
+    @Test
+    void shouldReuseConnectivityResultsWithinTheTtl() {
+        AtomicInteger probes = new AtomicInteger();
+        ValidationPipeline pipeline = new ValidationPipeline(null, new ConfigurationStateManager(),
+            (name, config) -> probes.incrementAndGet(), 5_000, 60_000);
+
+        ValidationResult first = pipeline.validate(deltaAdding(database("jdbc:h2:mem:first")), new ConfigurationSet());
+        ValidationResult second = pipeline.validate(deltaAdding(database("jdbc:h2:mem:first")), new ConfigurationSet());
+
+        assertThat(first.isValid()).isTrue();
+        assertThat(second.isValid()).isTrue();
+        assertThat(probes.get()).isEqualTo(1);
+        assertThat(second.getStageDurations()).containsOnlyKeys("syntax", "dependencies", "connectivity", "endpoints");
+
+        // Different connection settings are probed again
+        pipeline.validate(deltaAdding(database("jdbc:h2:mem:second")), new ConfigurationSet());
+        assertThat(probes.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldFailProbesThatMissTheStageDeadline() {
+        ValidationPipeline pipeline = new ValidationPipeline(null, new ConfigurationStateManager(),
+            (name, config) -> Thread.sleep(2_000), 100, 60_000);
+
+        long startTime = System.currentTimeMillis();
+        ValidationResult result = pipeline.validate(deltaAdding(database("jdbc:h2:mem:slow")), new ConfigurationSet());
+
+        assertThat(System.currentTimeMillis() - startTime).isLessThan(1_500);
+        assertThat(result.isValid()).isFalse();
+        assertThat(result.getStageResult("connectivity").getErrors())
+            .singleElement().asString().contains("slow_db", "no response within 100ms");
+    }
+
+    @Test
+    void shouldProbeFailedDatabasesAgain() {
+        AtomicInteger probes = new AtomicInteger();
+        ValidationPipeline pipeline = new ValidationPipeline(null, new ConfigurationStateManager(),
+            (name, config) -> {
+                if (probes.incrementAndGet() == 1) {
+                    throw new IllegalStateException("database is starting");
+                }
+            }, 5_000, 60_000);
+
+        assertThat(pipeline.validate(deltaAdding(database("jdbc:h2:mem:first")), new ConfigurationSet()).isValid()).isFalse();
+        assertThat(pipeline.validate(deltaAdding(database("jdbc:h2:mem:first")), new ConfigurationSet()).isValid()).isTrue();
+        assertThat(probes.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldInterruptRemainingProbesAfterTheFirstFailure() throws InterruptedException {
+        CountDownLatch slowProbeStarted = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        ValidationPipeline pipeline = new ValidationPipeline(null, new ConfigurationStateManager(),
+            (name, config) -> {
+                if (name.equals("broken_db")) {
+                    // Fail only once the slow probe is running, so it is interrupted rather than never started
+                    slowProbeStarted.await(5, TimeUnit.SECONDS);
+                    throw new IllegalStateException("connection refused");
+                }
+                slowProbeStarted.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+            }, 20_000, 60_000);
+
+        ConfigurationDelta delta = deltaAdding(database("jdbc:h2:mem:slow"));
+        DatabaseConfig broken = database("jdbc:h2:mem:broken");
+        broken.setName("broken_db");
+        delta.addedDatabases.put(broken.getName(), broken);
+
+        long startTime = System.currentTimeMillis();
+        ValidationResult result = pipeline.validate(delta, new ConfigurationSet());
+
+        assertThat(System.currentTimeMillis() - startTime).isLessThan(5_000);
+        assertThat(result.getStageResult("connectivity").getErrors())
+            .singleElement().asString().contains("broken_db", "connection refused");
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static ConfigurationDelta deltaAdding(DatabaseConfig database) {
+        ConfigurationDelta delta = new ConfigurationDelta();
+        delta.addedDatabases.put(database.getName(), database);
+        return delta;
+    }
+
+    private static DatabaseConfig database(String url) {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setName(url.endsWith("slow") ? "slow_db" : "test_db");
+        config.setUrl(url);
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setDriver("org.h2.Driver");
+        return config;
+    }
+}
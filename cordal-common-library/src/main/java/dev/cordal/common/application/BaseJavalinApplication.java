@@ -67,6 +67,9 @@ public abstract class BaseJavalinApplication {
             // Configure Swagger/OpenAPI if needed
             configureSwagger();
 
+            // Configure routes that must come after every specific route
+            configureFallbackRoutes();
+
             // Configure exception handling
             configureExceptionHandling();
             
@@ -145,12 +148,15 @@ public abstract class BaseJavalinApplication {
                 config.bundledPlugins.enableDevLogging();
             }
 
+            // Run request handlers on virtual threads if configured
+            config.useVirtualThreads = serverConfig.isVirtualThreadsEnabled();
+
             // Set server configuration
             config.jetty.defaultHost = serverConfig.getHost();
             config.jetty.defaultPort = serverConfig.getPort();
         });
         
-        logger.info("Javalin application created");
+        logger.info("Javalin application created (thread mode: {})", serverConfig.getThreadMode());
     }
 
     /**
@@ -172,6 +178,15 @@ public abstract class BaseJavalinApplication {
         });
     }
 
+    /**
+     * Configure catch-all routes. Javalin serves a request with the first matching route in
+     * registration order, so these are added after all other routes.
+     * Override in subclasses if needed
+     */
+    protected void configureFallbackRoutes() {
+        // Default implementation - can be overridden
+    }
+
     /**
      * Configure exception handling
      */
@@ -9,6 +9,7 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
 
 /**
  * In-memory cache provider with LRU eviction and TTL support
@@ -141,9 +142,9 @@ public class InMemoryCacheProvider implements CacheProvider {
     public int removePattern(String pattern) {
         lock.writeLock().lock();
         try {
-            String regex = pattern.replace("*", ".*").replace("?", ".");
+            Pattern regex = wildcardRegex(pattern);
             List<String> keysToRemove = cache.keySet().stream()
-                .filter(key -> key.matches(regex))
+                .filter(key -> regex.matcher(key).matches())
                 .toList();
             
             for (String key : keysToRemove) {
@@ -158,6 +159,29 @@ public class InMemoryCacheProvider implements CacheProvider {
         }
     }
     
+    /**
+     * Translate a wildcard pattern into a regex: '*' matches any run of characters, '?' any single
+     * character, and everything else only itself
+     */
+    static Pattern wildcardRegex(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        int literalStart = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || c == '?') {
+                if (i > literalStart) {
+                    regex.append(Pattern.quote(pattern.substring(literalStart, i)));
+                }
+                regex.append(c == '*' ? ".*" : ".");
+                literalStart = i + 1;
+            }
+        }
+        if (literalStart < pattern.length()) {
+            regex.append(Pattern.quote(pattern.substring(literalStart)));
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
     @Override
     public void clear() {
         lock.writeLock().lock();
@@ -1,15 +1,54 @@
 package dev.cordal.common.config;
 
+import dev.cordal.common.exception.ConfigurationException;
+
+import java.util.Arrays;
+
 /**
  * Common server configuration class
  * Used across all modules for consistent server settings
  */
 public class ServerConfig {
+
+    /**
+     * Threading model used by Jetty to run request handlers.
+     * PLATFORM uses Jetty's bounded platform worker pool; VIRTUAL runs each
+     * request on its own virtual thread, which suits blocking JDBC handlers.
+     */
+    public enum ThreadMode {
+        PLATFORM,
+        VIRTUAL;
+
+        /**
+         * Parse a thread mode from configuration; an unset value means PLATFORM
+         *
+         * @throws ConfigurationException if the value is not a known thread mode
+         */
+        public static ThreadMode fromString(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return PLATFORM;
+            }
+            try {
+                return ThreadMode.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ConfigurationException("Unknown server.threadMode '" + value + "', expected one of "
+                                                 + Arrays.toString(values()));
+            }
+        }
+    }
+
+    /**
+     * Request deadline applied to endpoints that do not set their own timeoutMs
+     */
+    public static final long DEFAULT_REQUEST_TIMEOUT_MS = 30000;
+
     private String host = "localhost";
     private int port = 8080;
     private boolean enableCors = true;
     private boolean enableDevLogging = true;
     private boolean enableRequestLogging = true;
+    private ThreadMode threadMode = ThreadMode.PLATFORM;
+    private long requestTimeoutMs = DEFAULT_REQUEST_TIMEOUT_MS;
 
     // Default constructor
     public ServerConfig() {}
@@ -70,6 +109,29 @@ public class ServerConfig {
         this.enableRequestLogging = enableRequestLogging;
     }
 
+    public ThreadMode getThreadMode() {
+        return threadMode;
+    }
+
+    public void setThreadMode(ThreadMode threadMode) {
+        this.threadMode = threadMode != null ? threadMode : ThreadMode.PLATFORM;
+    }
+
+    /**
+     * Request deadline in milliseconds for endpoints without their own timeoutMs; 0 means none
+     */
+    public long getRequestTimeoutMs() {
+        return requestTimeoutMs;
+    }
+
+    public void setRequestTimeoutMs(long requestTimeoutMs) {
+        this.requestTimeoutMs = Math.max(0, requestTimeoutMs);
+    }
+
+    public boolean isVirtualThreadsEnabled() {
+        return threadMode == ThreadMode.VIRTUAL;
+    }
+
     @Override
     public String toString() {
         return "ServerConfig{" +
@@ -78,6 +140,8 @@ public class ServerConfig {
                ", enableCors=" + enableCors +
                ", enableDevLogging=" + enableDevLogging +
                ", enableRequestLogging=" + enableRequestLogging +
+               ", threadMode=" + threadMode +
+               ", requestTimeoutMs=" + requestTimeoutMs +
                '}';
     }
 }
@@ -61,6 +61,10 @@ public class ApiException extends RuntimeException {
         return new ApiException("SERVICE_UNAVAILABLE", message, 503);
     }
 
+    public static ApiException tooManyRequests(String message) {
+        return new ApiException("TOO_MANY_REQUESTS", message, 429);
+    }
+
     @Override
     public String toString() {
         return "ApiException{" +
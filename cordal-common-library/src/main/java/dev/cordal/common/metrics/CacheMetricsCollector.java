@@ -160,6 +160,13 @@ public class CacheMetricsCollector {
         return Map.copyOf(queryMetrics);
     }
 
+    /**
+     * Get the statistics of every cache of the cache manager
+     */
+    public Map<String, CacheStatistics> getCacheStatistics() {
+        return cacheManager.getAllStatistics();
+    }
+
     /**
      * Reset all metrics
      */
@@ -0,0 +1,127 @@
+package dev.cordal.common.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import dev.cordal.common.cache.CacheStatistics;
+import io.javalin.http.Context;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Base class of the /metrics endpoints. Subclasses write their in-memory counters, gauges and
+ * histograms into a single {@link OpenMetricsWriter} whose buffer is reused across scrapes;
+ * nothing is read from a database and no JSON mapper is involved.
+ *
+ * Scrapes are serialised on the exporter, which keeps one buffer regardless of how many
+ * scrapers there are.
+ */
+public abstract class OpenMetricsExporter {
+    private final OpenMetricsWriter writer = new OpenMetricsWriter(16 * 1024);
+
+    /**
+     * Write the current metric values
+     */
+    protected abstract void collect(OpenMetricsWriter writer);
+
+    /**
+     * Javalin handler; answers in OpenMetrics when the scraper asks for it and in the
+     * Prometheus text format 0.0.4 otherwise
+     */
+    public void handle(Context ctx) throws IOException {
+        String accept = ctx.header("Accept");
+        boolean openMetrics = accept != null && accept.contains("application/openmetrics-text");
+        ctx.contentType(openMetrics ? OpenMetricsWriter.CONTENT_TYPE : OpenMetricsWriter.TEXT_CONTENT_TYPE);
+        scrape(ctx.outputStream(), openMetrics);
+    }
+
+    /**
+     * Write one complete OpenMetrics exposition to the stream
+     */
+    public void scrape(OutputStream out) throws IOException {
+        scrape(out, true);
+    }
+
+    /**
+     * Write one complete exposition to the stream
+     *
+     * @param openMetrics true for OpenMetrics, false for the Prometheus text format 0.0.4
+     */
+    public synchronized void scrape(OutputStream out, boolean openMetrics) throws IOException {
+        writer.reset(openMetrics);
+        collect(writer);
+        writer.finish();
+        writer.writeTo(out);
+    }
+
+    /**
+     * One complete OpenMetrics exposition as a string, mainly for tests
+     */
+    public synchronized String scrapeToString() {
+        writer.reset();
+        collect(writer);
+        writer.finish();
+        return writer.toString();
+    }
+
+    /**
+     * Write the state of HikariCP connection pools, keyed by pool name
+     */
+    protected static void writeConnectionPools(OpenMetricsWriter writer, Map<String, HikariDataSource> pools) {
+        if (pools.isEmpty()) {
+            return;
+        }
+        writer.family("cordal_db_pool_connections", OpenMetricsWriter.GAUGE, "Connections in the pool by state");
+        for (Map.Entry<String, HikariDataSource> pool : pools.entrySet()) {
+            HikariPoolMXBean bean = poolBean(pool.getValue());
+            if (bean != null) {
+                writer.sample("cordal_db_pool_connections", "pool", pool.getKey(), "state", "active", bean.getActiveConnections());
+                writer.sample("cordal_db_pool_connections", "pool", pool.getKey(), "state", "idle", bean.getIdleConnections());
+            }
+        }
+        writer.family("cordal_db_pool_pending_threads", OpenMetricsWriter.GAUGE, "Threads waiting for a connection");
+        for (Map.Entry<String, HikariDataSource> pool : pools.entrySet()) {
+            HikariPoolMXBean bean = poolBean(pool.getValue());
+            if (bean != null) {
+                writer.sample("cordal_db_pool_pending_threads", "pool", pool.getKey(), bean.getThreadsAwaitingConnection());
+            }
+        }
+        writer.family("cordal_db_pool_max_connections", OpenMetricsWriter.GAUGE, "Configured maximum pool size");
+        for (Map.Entry<String, HikariDataSource> pool : pools.entrySet()) {
+            if (!pool.getValue().isClosed()) {
+                writer.sample("cordal_db_pool_max_connections", "pool", pool.getKey(), pool.getValue().getMaximumPoolSize());
+            }
+        }
+    }
+
+    private static HikariPoolMXBean poolBean(HikariDataSource dataSource) {
+        return dataSource.isClosed() ? null : dataSource.getHikariPoolMXBean();
+    }
+
+    /**
+     * Write the query cache counters and the per-cache statistics of the cache manager
+     */
+    protected static void writeCacheMetrics(OpenMetricsWriter writer, CacheMetricsCollector collector) {
+        writer.family("cordal_query_cache_requests", OpenMetricsWriter.COUNTER, "Query result cache lookups by query and result");
+        for (Map.Entry<String, CacheMetricsCollector.QueryCacheMetrics> query : collector.getAllQueryStatistics().entrySet()) {
+            writer.sample("cordal_query_cache_requests_total", "query", query.getKey(), "result", "hit", query.getValue().getHits());
+            writer.sample("cordal_query_cache_requests_total", "query", query.getKey(), "result", "miss", query.getValue().getMisses());
+        }
+
+        Map<String, CacheStatistics> caches = collector.getCacheStatistics();
+        writer.family("cordal_cache_lookups", OpenMetricsWriter.COUNTER, "Cache lookups by cache and result");
+        for (Map.Entry<String, CacheStatistics> cache : caches.entrySet()) {
+            writer.sample("cordal_cache_lookups_total", "cache", cache.getKey(), "result", "hit", cache.getValue().getHitCount());
+            writer.sample("cordal_cache_lookups_total", "cache", cache.getKey(), "result", "miss", cache.getValue().getMissCount());
+        }
+        writer.family("cordal_cache_evictions", OpenMetricsWriter.COUNTER, "Entries evicted from the cache");
+        for (Map.Entry<String, CacheStatistics> cache : caches.entrySet()) {
+            writer.sample("cordal_cache_evictions_total", "cache", cache.getKey(), cache.getValue().getEvictionCount());
+        }
+        writer.family("cordal_cache_entries", OpenMetricsWriter.GAUGE, "Entries currently in the cache");
+        for (Map.Entry<String, CacheStatistics> cache : caches.entrySet()) {
+            writer.sample("cordal_cache_entries", "cache", cache.getKey(), cache.getValue().getSize());
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package dev.cordal.common.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes metrics in the OpenMetrics text exposition format into a growable byte buffer that
+ * is reset and reused between scrapes. After {@code reset(false)} the same calls produce the
+ * classic Prometheus text format (version 0.0.4) instead: counter families are named after
+ * their {@code _total} samples, HELP text keeps double quotes unescaped, and there is no EOF line.
+ *
+ * Names, label names and numbers are written byte by byte without intermediate strings;
+ * label values are escaped as the format requires. The writer is not thread-safe.
+ */
+public final class OpenMetricsWriter {
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+    public static final String TEXT_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    public static final String COUNTER = "counter";
+    public static final String GAUGE = "gauge";
+    public static final String SUMMARY = "summary";
+
+    private static final byte[] EOF = "# EOF\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LONG_MIN = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] buffer;
+    private int size;
+    private boolean openMetrics = true;
+
+    public OpenMetricsWriter() {
+        this(8 * 1024);
+    }
+
+    public OpenMetricsWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(64, initialCapacity)];
+    }
+
+    /**
+     * Discard the written content, keeping the buffer for the next scrape in OpenMetrics format
+     */
+    public OpenMetricsWriter reset() {
+        return reset(true);
+    }
+
+    /**
+     * Discard the written content, keeping the buffer for the next scrape
+     *
+     * @param openMetrics true for OpenMetrics, false for the Prometheus text format 0.0.4
+     */
+    public OpenMetricsWriter reset(boolean openMetrics) {
+        this.openMetrics = openMetrics;
+        size = 0;
+        return this;
+    }
+
+    /**
+     * Start a metric family with its TYPE and HELP lines. Counter families are named without
+     * the {@code _total} suffix their samples carry.
+     */
+    public OpenMetricsWriter family(String name, String type, String help) {
+        appendAscii("# TYPE ").appendAscii(name);
+        if (!openMetrics && COUNTER.equals(type)) {
+            appendAscii("_total");
+        }
+        append((byte) ' ').appendAscii(type).append((byte) '\n');
+        appendAscii("# HELP ").appendAscii(name);
+        if (!openMetrics && COUNTER.equals(type)) {
+            appendAscii("_total");
+        }
+        append((byte) ' ').appendEscaped(help, openMetrics).append((byte) '\n');
+        return this;
+    }
+
+    public OpenMetricsWriter sample(String name, double value) {
+        appendAscii(name);
+        return endSample(value);
+    }
+
+    public OpenMetricsWriter sample(String name, String label, String labelValue, double value) {
+        appendAscii(name).append((byte) '{');
+        appendLabel(label, labelValue);
+        append((byte) '}');
+        return endSample(value);
+    }
+
+    public OpenMetricsWriter sample(String name, String label1, String labelValue1,
+                                    String label2, String labelValue2, double value) {
+        appendAscii(name).append((byte) '{');
+        appendLabel(label1, labelValue1).append((byte) ',');
+        appendLabel(label2, labelValue2);
+        append((byte) '}');
+        return endSample(value);
+    }
+
+    public OpenMetricsWriter sample(String name, long value) {
+        appendAscii(name);
+        return endSample(value);
+    }
+
+    public OpenMetricsWriter sample(String name, String label, String labelValue, long value) {
+        appendAscii(name).append((byte) '{');
+        appendLabel(label, labelValue);
+        append((byte) '}');
+        return endSample(value);
+    }
+
+    public OpenMetricsWriter sample(String name, String label1, String labelValue1,
+                                    String label2, String labelValue2, long value) {
+        appendAscii(name).append((byte) '{');
+        appendLabel(label1, labelValue1).append((byte) ',');
+        appendLabel(label2, labelValue2);
+        append((byte) '}');
+        return endSample(value);
+    }
+
+    /**
+     * Terminate the exposition; only OpenMetrics has a terminating line
+     */
+    public OpenMetricsWriter finish() {
+        if (!openMetrics) {
+            return this;
+        }
+        ensureCapacity(EOF.length);
+        System.arraycopy(EOF, 0, buffer, size, EOF.length);
+        size += EOF.length;
+        return this;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, size, StandardCharsets.UTF_8);
+    }
+
+    private OpenMetricsWriter endSample(double value) {
+        append((byte) ' ');
+        if (Double.isNaN(value)) {
+            appendAscii("NaN");
+        } else if (Double.isInfinite(value)) {
+            appendAscii(value > 0 ? "+Inf" : "-Inf");
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            appendLong((long) value);
+        } else {
+            appendAscii(Double.toString(value));
+        }
+        return append((byte) '\n');
+    }
+
+    private OpenMetricsWriter endSample(long value) {
+        append((byte) ' ');
+        appendLong(value);
+        return append((byte) '\n');
+    }
+
+    private OpenMetricsWriter appendLabel(String name, String value) {
+        appendAscii(name).append((byte) '=').append((byte) '"');
+        appendEscaped(value != null ? value : "", true);
+        return append((byte) '"');
+    }
+
+    private void appendLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            ensureCapacity(LONG_MIN.length);
+            System.arraycopy(LONG_MIN, 0, buffer, size, LONG_MIN.length);
+            size += LONG_MIN.length;
+            return;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[size++] = '-';
+            value = -value;
+        }
+        int start = size;
+        do {
+            buffer[size++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        // Digits were written least significant first
+        for (int i = start, j = size - 1; i < j; i++, j--) {
+            byte digit = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = digit;
+        }
+    }
+
+    /**
+     * Append a metric or label name; names are restricted to ASCII by the format
+     */
+    private OpenMetricsWriter appendAscii(String text) {
+        int length = text.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buffer[size++] = (byte) text.charAt(i);
+        }
+        return this;
+    }
+
+    /**
+     * Append UTF-8 text, escaping backslash and newline, and double quotes when quoted is set
+     * (label values, and HELP text in OpenMetrics)
+     */
+    private OpenMetricsWriter appendEscaped(String text, boolean quoted) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                append((byte) '\\').append((byte) '\\');
+            } else if (c == '\n') {
+                append((byte) '\\').append((byte) 'n');
+            } else if (c == '"' && quoted) {
+                append((byte) '\\').append((byte) '"');
+            } else if (c < 0x80) {
+                append((byte) c);
+            } else {
+                // Rare in names and labels; fall back to the charset encoder for the remainder
+                byte[] encoded = text.substring(i).replace("\\", "\\\\").replace("\n", "\\n")
+                    .replace("\"", quoted ? "\\\"" : "\"").getBytes(StandardCharsets.UTF_8);
+                ensureCapacity(encoded.length);
+                System.arraycopy(encoded, 0, buffer, size, encoded.length);
+                size += encoded.length;
+                break;
+            }
+        }
+        return this;
+    }
+
+    private OpenMetricsWriter append(byte b) {
+        ensureCapacity(1);
+        buffer[size++] = b;
+        return this;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+        }
+    }
+}
@@ -101,6 +101,23 @@ class InMemoryCacheProviderTest {
         assertTrue(largeCache.containsKey("other:data"));
     }
 
+    @Test
+    void testRemovePatternMatchesRegexCharactersLiterally() {
+        InMemoryCacheProvider largeCache = new InMemoryCacheProvider(10, Duration.ofSeconds(1));
+
+        largeCache.put("a+foo", "plus");
+        largeCache.put("aafoo", "no plus");
+        largeCache.put("f(x)[1]", "brackets");
+
+        assertEquals(1, largeCache.removePattern("a+*"));
+        assertEquals(1, largeCache.removePattern("f(x)[?]"));
+        assertEquals(0, largeCache.removePattern("f(x"));
+
+        assertFalse(largeCache.containsKey("a+foo"));
+        assertTrue(largeCache.containsKey("aafoo"));
+        assertFalse(largeCache.containsKey("f(x)[1]"));
+    }
+
     @Test
     void testClear() {
         cache.put("key1", "value1");
@@ -0,0 +1,86 @@
+package dev.cordal.common.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OpenMetricsWriter
+ */
+class OpenMetricsWriterTest {
+
+    @Test
+    void testWritesFamiliesSamplesAndEof() {
+        OpenMetricsWriter writer = new OpenMetricsWriter(16);
+        writer.family("cordal_requests", OpenMetricsWriter.COUNTER, "Requests served")
+              .sample("cordal_requests_total", "endpoint", "/api/a", 42L)
+              .sample("cordal_requests_total", "endpoint", "/api/b", "outcome", "error", -7L)
+              .family("cordal_latency_seconds", OpenMetricsWriter.GAUGE, "Latency")
+              .sample("cordal_latency_seconds", 0.25)
+              .sample("cordal_latency_seconds", "kind", "whole", 3.0)
+              .finish();
+
+        assertEquals("""
+            # TYPE cordal_requests counter
+            # HELP cordal_requests Requests served
+            cordal_requests_total{endpoint="/api/a"} 42
+            cordal_requests_total{endpoint="/api/b",outcome="error"} -7
+            # TYPE cordal_latency_seconds gauge
+            # HELP cordal_latency_seconds Latency
+            cordal_latency_seconds 0.25
+            cordal_latency_seconds{kind="whole"} 3
+            # EOF
+            """, writer.toString());
+    }
+
+    @Test
+    void testWritesClassicTextFormat() {
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+        writer.reset(false)
+              .family("cordal_requests", OpenMetricsWriter.COUNTER, "Requests \"served\"")
+              .sample("cordal_requests_total", 42L)
+              .family("cordal_latency_seconds", OpenMetricsWriter.GAUGE, "Latency")
+              .sample("cordal_latency_seconds", 0.25)
+              .finish();
+
+        assertEquals("""
+            # TYPE cordal_requests_total counter
+            # HELP cordal_requests_total Requests "served"
+            cordal_requests_total 42
+            # TYPE cordal_latency_seconds gauge
+            # HELP cordal_latency_seconds Latency
+            cordal_latency_seconds 0.25
+            """, writer.toString());
+
+        // OpenMetrics escapes double quotes in HELP text
+        writer.reset().family("m", OpenMetricsWriter.GAUGE, "a \"b\"\\c");
+        assertEquals("# TYPE m gauge\n# HELP m a \\\"b\\\"\\\\c\n", writer.toString());
+    }
+
+    @Test
+    void testEscapesLabelValuesAndSpecialDoubles() {
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+        writer.sample("m", "path", "a\"b\\c\nd", Double.NaN)
+              .sample("m", "path", "é", Double.POSITIVE_INFINITY)
+              .sample("m", Double.NEGATIVE_INFINITY);
+
+        assertEquals("m{path=\"a\\\"b\\\\c\\nd\"} NaN\n" +
+                     "m{path=\"é\"} +Inf\n" +
+                     "m -Inf\n", writer.toString());
+    }
+
+    @Test
+    void testResetReusesBuffer() throws Exception {
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+        writer.sample("first", Long.MIN_VALUE);
+        writer.reset().sample("second", 1L);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        assertEquals("second 1\n", out.toString(StandardCharsets.UTF_8));
+        assertEquals(out.size(), writer.size());
+    }
+}
@@ -20,6 +20,9 @@ public class MetricsConfig extends BaseConfig implements MetricsCollectionConfig
     private MetricsDatabaseSettings metricsDatabase;
     private MetricsCollectionSettings metricsCollection;
     private MetricsDashboardSettings metricsDashboard;
+    private RollupSettings metricsRollup;
+    private RetentionSettings metricsRetention;
+    private SystemSamplerSettings metricsSystemSampler;
 
     public MetricsConfig() {
         super();
@@ -31,17 +34,24 @@ public class MetricsConfig extends BaseConfig implements MetricsCollectionConfig
         String host = getString("server.host", "localhost");
         Integer port = getInteger("server.port", 8081);
         server = new ServerConfig(host, port);
+        server.setThreadMode(ServerConfig.ThreadMode.fromString(getString("server.threadMode", "platform")));
 
         // Initialize other configurations
         metricsDatabase = new MetricsDatabaseSettings();
         metricsCollection = new MetricsCollectionSettings();
         metricsDashboard = new MetricsDashboardSettings();
+        metricsRollup = new RollupSettings();
+        metricsRetention = new RetentionSettings();
+        metricsSystemSampler = new SystemSamplerSettings();
 
         // Load configuration values into the settings objects
         loadServerConfig();
         loadMetricsDatabaseConfig();
         loadMetricsCollectionConfig();
         loadMetricsDashboardConfig();
+        loadMetricsRollupConfig();
+        loadMetricsRetentionConfig();
+        loadMetricsSystemSamplerConfig();
     }
 
     @Override
@@ -82,6 +92,18 @@ public class MetricsConfig extends BaseConfig implements MetricsCollectionConfig
         metricsCollection.setEnabled(enabled);
         metricsCollection.setAsyncSave(asyncSave);
         metricsCollection.setSamplingRate(samplingRate);
+        metricsCollection.setAllocationTracking(getBoolean("metricsCollection.allocationTracking",
+                                                           metricsCollection.isAllocationTracking()));
+        metricsCollection.setApplicationMetricsEnabled(getBoolean("metricsCollection.applicationMetricsEnabled",
+                                                                  metricsCollection.isApplicationMetricsEnabled()));
+
+        IngestionSettings ingestion = metricsCollection.getIngestion();
+        ingestion.setQueueCapacity(getInteger("metricsCollection.ingestion.queueCapacity", ingestion.getQueueCapacity()));
+        ingestion.setBatchSize(getInteger("metricsCollection.ingestion.batchSize", ingestion.getBatchSize()));
+        ingestion.setFlushIntervalMs(getLong("metricsCollection.ingestion.flushIntervalMs", ingestion.getFlushIntervalMs()));
+        ingestion.setOverflowPolicy(getString("metricsCollection.ingestion.overflowPolicy", ingestion.getOverflowPolicy()));
+        ingestion.setBlockTimeoutMs(getLong("metricsCollection.ingestion.blockTimeoutMs", ingestion.getBlockTimeoutMs()));
+        ingestion.setShutdownTimeoutMs(getLong("metricsCollection.ingestion.shutdownTimeoutMs", ingestion.getShutdownTimeoutMs()));
     }
 
     private void loadMetricsDashboardConfig() {
@@ -95,6 +117,30 @@ public class MetricsConfig extends BaseConfig implements MetricsCollectionConfig
         metricsDashboard.getGrafana().setEnabled(grafanaEnabled);
     }
 
+    private void loadMetricsRollupConfig() {
+        metricsRollup.setCompactionIntervalMs(getLong("metricsRollup.compactionIntervalMs", metricsRollup.getCompactionIntervalMs()));
+        metricsRollup.setFlushIntervalMs(getLong("metricsRollup.flushIntervalMs", metricsRollup.getFlushIntervalMs()));
+        metricsRollup.setBackfillOnStartup(getBoolean("metricsRollup.backfillOnStartup", metricsRollup.isBackfillOnStartup()));
+        metricsRollup.setBackfillChunkSize(getInteger("metricsRollup.backfillChunkSize", metricsRollup.getBackfillChunkSize()));
+    }
+
+    private void loadMetricsRetentionConfig() {
+        RetentionSettings retention = metricsRetention;
+        retention.setEnabled(getBoolean("metricsRetention.enabled", retention.isEnabled()));
+        retention.setRawRetentionDays(getInteger("metricsRetention.rawRetentionDays", retention.getRawRetentionDays()));
+        retention.setMinuteRollupRetentionDays(getInteger("metricsRetention.minuteRollupRetentionDays", retention.getMinuteRollupRetentionDays()));
+        retention.setHourRollupRetentionDays(getInteger("metricsRetention.hourRollupRetentionDays", retention.getHourRollupRetentionDays()));
+        retention.setDayRollupRetentionDays(getInteger("metricsRetention.dayRollupRetentionDays", retention.getDayRollupRetentionDays()));
+        retention.setIntervalMs(getLong("metricsRetention.intervalMs", retention.getIntervalMs()));
+        retention.setChunkSize(getInteger("metricsRetention.chunkSize", retention.getChunkSize()));
+        retention.setChunkPauseMs(getLong("metricsRetention.chunkPauseMs", retention.getChunkPauseMs()));
+    }
+
+    private void loadMetricsSystemSamplerConfig() {
+        metricsSystemSampler.setEnabled(getBoolean("metricsSystemSampler.enabled", metricsSystemSampler.isEnabled()));
+        metricsSystemSampler.setSampleIntervalMs(getLong("metricsSystemSampler.sampleIntervalMs", metricsSystemSampler.getSampleIntervalMs()));
+    }
+
     // Getters
     public ServerConfig getServerConfig() {
         return server;
@@ -116,6 +162,18 @@ public class MetricsConfig extends BaseConfig implements MetricsCollectionConfig
         return metricsCollection;
     }
 
+    public RollupSettings getMetricsRollup() {
+        return metricsRollup;
+    }
+
+    public RetentionSettings getMetricsRetention() {
+        return metricsRetention;
+    }
+
+    public SystemSamplerSettings getMetricsSystemSampler() {
+        return metricsSystemSampler;
+    }
+
     public MetricsDashboardSettings getMetricsDashboard() {
         return metricsDashboard;
     }
@@ -163,6 +221,9 @@ public class MetricsConfig extends BaseConfig implements MetricsCollectionConfig
         private boolean asyncSave = true;
         private double samplingRate = 1.0;
         private List<String> excludePaths = Arrays.asList("/dashboard", "/metrics", "/api/performance-metrics");
+        private boolean allocationTracking = true;
+        private boolean applicationMetricsEnabled = true;
+        private IngestionSettings ingestion = new IngestionSettings();
 
         // Getters and setters
         public boolean isEnabled() { return enabled; }
@@ -173,8 +234,103 @@ public class MetricsConfig extends BaseConfig implements MetricsCollectionConfig
         public void setSamplingRate(double samplingRate) { this.samplingRate = samplingRate; }
         public List<String> getExcludePaths() { return excludePaths; }
         public void setExcludePaths(List<String> excludePaths) { this.excludePaths = excludePaths; }
+        public boolean isAllocationTracking() { return allocationTracking; }
+        public void setAllocationTracking(boolean allocationTracking) { this.allocationTracking = allocationTracking; }
+        public boolean isApplicationMetricsEnabled() { return applicationMetricsEnabled; }
+        public void setApplicationMetricsEnabled(boolean applicationMetricsEnabled) { this.applicationMetricsEnabled = applicationMetricsEnabled; }
+        public IngestionSettings getIngestion() { return ingestion; }
+        public void setIngestion(IngestionSettings ingestion) { this.ingestion = ingestion; }
+    }
+
+    /**
+     * Settings for the asynchronous ingestion pipeline used when asyncSave is enabled
+     */
+    public static class IngestionSettings {
+        private int queueCapacity = 8192;
+        private int batchSize = 500;
+        private long flushIntervalMs = 1000;
+        private String overflowPolicy = "drop";
+        private long blockTimeoutMs = 50;
+        private long shutdownTimeoutMs = 5000;
+
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+        public long getFlushIntervalMs() { return flushIntervalMs; }
+        public void setFlushIntervalMs(long flushIntervalMs) { this.flushIntervalMs = flushIntervalMs; }
+        public String getOverflowPolicy() { return overflowPolicy; }
+        public void setOverflowPolicy(String overflowPolicy) { this.overflowPolicy = overflowPolicy; }
+        public long getBlockTimeoutMs() { return blockTimeoutMs; }
+        public void setBlockTimeoutMs(long blockTimeoutMs) { this.blockTimeoutMs = blockTimeoutMs; }
+        public long getShutdownTimeoutMs() { return shutdownTimeoutMs; }
+        public void setShutdownTimeoutMs(long shutdownTimeoutMs) { this.shutdownTimeoutMs = shutdownTimeoutMs; }
     }
     
+    /**
+     * Settings for the 1m/1h/1d performance metrics rollups
+     */
+    public static class RollupSettings {
+        private long compactionIntervalMs = 60000;
+        private long flushIntervalMs = 1000;
+        private boolean backfillOnStartup = true;
+        private int backfillChunkSize = 1000;
+
+        public long getCompactionIntervalMs() { return compactionIntervalMs; }
+        public void setCompactionIntervalMs(long compactionIntervalMs) { this.compactionIntervalMs = compactionIntervalMs; }
+        public long getFlushIntervalMs() { return flushIntervalMs; }
+        public void setFlushIntervalMs(long flushIntervalMs) { this.flushIntervalMs = flushIntervalMs; }
+        public boolean isBackfillOnStartup() { return backfillOnStartup; }
+        public void setBackfillOnStartup(boolean backfillOnStartup) { this.backfillOnStartup = backfillOnStartup; }
+        public int getBackfillChunkSize() { return backfillChunkSize; }
+        public void setBackfillChunkSize(int backfillChunkSize) { this.backfillChunkSize = backfillChunkSize; }
+    }
+    
+    /**
+     * Retention tiers for raw rows and rollups, in days (0 keeps data forever), and the
+     * schedule of the chunked delete job
+     */
+    public static class RetentionSettings {
+        private boolean enabled = true;
+        private int rawRetentionDays = 7;
+        private int minuteRollupRetentionDays = 30;
+        private int hourRollupRetentionDays = 365;
+        private int dayRollupRetentionDays = 0;
+        private long intervalMs = 3600000;
+        private int chunkSize = 5000;
+        private long chunkPauseMs = 20;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public int getRawRetentionDays() { return rawRetentionDays; }
+        public void setRawRetentionDays(int rawRetentionDays) { this.rawRetentionDays = rawRetentionDays; }
+        public int getMinuteRollupRetentionDays() { return minuteRollupRetentionDays; }
+        public void setMinuteRollupRetentionDays(int minuteRollupRetentionDays) { this.minuteRollupRetentionDays = minuteRollupRetentionDays; }
+        public int getHourRollupRetentionDays() { return hourRollupRetentionDays; }
+        public void setHourRollupRetentionDays(int hourRollupRetentionDays) { this.hourRollupRetentionDays = hourRollupRetentionDays; }
+        public int getDayRollupRetentionDays() { return dayRollupRetentionDays; }
+        public void setDayRollupRetentionDays(int dayRollupRetentionDays) { this.dayRollupRetentionDays = dayRollupRetentionDays; }
+        public long getIntervalMs() { return intervalMs; }
+        public void setIntervalMs(long intervalMs) { this.intervalMs = intervalMs; }
+        public int getChunkSize() { return chunkSize; }
+        public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+        public long getChunkPauseMs() { return chunkPauseMs; }
+        public void setChunkPauseMs(long chunkPauseMs) { this.chunkPauseMs = chunkPauseMs; }
+    }
+    
+    /**
+     * Settings for the periodic JVM and system sampler feeding the system_metrics table
+     */
+    public static class SystemSamplerSettings {
+        private boolean enabled = true;
+        private long sampleIntervalMs = 15000;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public long getSampleIntervalMs() { return sampleIntervalMs; }
+        public void setSampleIntervalMs(long sampleIntervalMs) { this.sampleIntervalMs = sampleIntervalMs; }
+    }
+
     public static class MetricsDashboardSettings {
         private CustomDashboard custom = new CustomDashboard();
         private GrafanaSettings grafana = new GrafanaSettings();
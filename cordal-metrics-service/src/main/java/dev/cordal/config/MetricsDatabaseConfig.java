@@ -2,6 +2,7 @@ package dev.cordal.config;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,6 +59,17 @@ public class MetricsDatabaseConfig {
         return dataSource;
     }
     
+    /**
+     * Live state of the connection pool, for the system metrics sampler
+     */
+    public HikariPoolMXBean getPoolMXBean() {
+        return dataSource.isClosed() ? null : dataSource.getHikariPoolMXBean();
+    }
+
+    public String getPoolName() {
+        return dataSource.getPoolName();
+    }
+
     /**
      * Close the connection pool
      */
@@ -6,8 +6,17 @@ import com.google.inject.Singleton;
 import dev.cordal.common.config.DatabaseConfig;
 import dev.cordal.database.MetricsDatabaseManager;
 import dev.cordal.controller.PerformanceMetricsController;
+import dev.cordal.metrics.ApplicationMetricsWriter;
 import dev.cordal.metrics.MetricsCollectionHandler;
+import dev.cordal.metrics.MetricsIngestionPipeline;
+import dev.cordal.metrics.MetricsServiceExporter;
+import dev.cordal.metrics.SystemMetricsSampler;
+import dev.cordal.repository.ApplicationMetricsRepository;
+import dev.cordal.repository.MetricsRollupRepository;
 import dev.cordal.repository.PerformanceMetricsRepository;
+import dev.cordal.repository.SystemMetricsRepository;
+import dev.cordal.service.MetricsRetentionService;
+import dev.cordal.service.MetricsRollupService;
 import dev.cordal.service.PerformanceMetricsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,9 +63,35 @@ public class MetricsGuiceModule extends AbstractModule {
 
     @Provides
     @Singleton
-    public PerformanceMetricsService providePerformanceMetricsService(PerformanceMetricsRepository repository) {
+    public MetricsRollupRepository provideMetricsRollupRepository(MetricsDatabaseManager metricsDatabaseManager) {
+        logger.info("Creating MetricsRollupRepository instance");
+        return new MetricsRollupRepository(metricsDatabaseManager);
+    }
+
+    @Provides
+    @Singleton
+    public MetricsRollupService provideMetricsRollupService(MetricsRollupRepository rollupRepository,
+                                                            PerformanceMetricsRepository repository,
+                                                            MetricsConfig metricsConfig) {
+        logger.info("Creating MetricsRollupService instance");
+        return new MetricsRollupService(rollupRepository, repository, metricsConfig.getMetricsRollup());
+    }
+
+    @Provides
+    @Singleton
+    public MetricsRetentionService provideMetricsRetentionService(MetricsDatabaseManager metricsDatabaseManager,
+                                                                  MetricsRollupService rollupService,
+                                                                  MetricsConfig metricsConfig) {
+        logger.info("Creating MetricsRetentionService instance");
+        return new MetricsRetentionService(metricsDatabaseManager, rollupService, metricsConfig.getMetricsRetention());
+    }
+
+    @Provides
+    @Singleton
+    public PerformanceMetricsService providePerformanceMetricsService(PerformanceMetricsRepository repository,
+                                                                      MetricsRollupService rollupService) {
         logger.info("Creating PerformanceMetricsService instance");
-        return new PerformanceMetricsService(repository);
+        return new PerformanceMetricsService(repository, rollupService);
     }
 
     @Provides
@@ -68,8 +103,56 @@ public class MetricsGuiceModule extends AbstractModule {
 
     @Provides
     @Singleton
-    public MetricsCollectionHandler provideMetricsCollectionHandler(PerformanceMetricsService service, MetricsConfig metricsConfig) {
+    public MetricsIngestionPipeline provideMetricsIngestionPipeline(PerformanceMetricsService service, MetricsConfig metricsConfig) {
+        logger.info("Creating MetricsIngestionPipeline instance");
+        return new MetricsIngestionPipeline(service, metricsConfig.getMetricsCollection().getIngestion());
+    }
+
+    @Provides
+    @Singleton
+    public ApplicationMetricsRepository provideApplicationMetricsRepository(MetricsDatabaseManager metricsDatabaseManager) {
+        logger.info("Creating ApplicationMetricsRepository instance");
+        return new ApplicationMetricsRepository(metricsDatabaseManager);
+    }
+
+    @Provides
+    @Singleton
+    public SystemMetricsRepository provideSystemMetricsRepository(MetricsDatabaseManager metricsDatabaseManager) {
+        logger.info("Creating SystemMetricsRepository instance");
+        return new SystemMetricsRepository(metricsDatabaseManager);
+    }
+
+    @Provides
+    @Singleton
+    public ApplicationMetricsWriter provideApplicationMetricsWriter(ApplicationMetricsRepository repository, MetricsConfig metricsConfig) {
+        logger.info("Creating ApplicationMetricsWriter instance");
+        return new ApplicationMetricsWriter(repository, metricsConfig.getMetricsCollection());
+    }
+
+    @Provides
+    @Singleton
+    public SystemMetricsSampler provideSystemMetricsSampler(SystemMetricsRepository repository, MetricsDatabaseConfig databaseConfig,
+                                                            MetricsConfig metricsConfig) {
+        logger.info("Creating SystemMetricsSampler instance");
+        return new SystemMetricsSampler(repository, databaseConfig, metricsConfig.getMetricsSystemSampler());
+    }
+
+    @Provides
+    @Singleton
+    public MetricsCollectionHandler provideMetricsCollectionHandler(PerformanceMetricsService service, MetricsConfig metricsConfig,
+                                                                   MetricsIngestionPipeline ingestionPipeline,
+                                                                   ApplicationMetricsWriter applicationMetricsWriter) {
         logger.info("Creating MetricsCollectionHandler instance");
-        return new MetricsCollectionHandler(service, metricsConfig);
+        return new MetricsCollectionHandler(service, metricsConfig, ingestionPipeline, applicationMetricsWriter);
+    }
+
+    @Provides
+    @Singleton
+    public MetricsServiceExporter provideMetricsServiceExporter(MetricsCollectionHandler collectionHandler,
+                                                                MetricsIngestionPipeline ingestionPipeline,
+                                                                ApplicationMetricsWriter applicationMetricsWriter,
+                                                                MetricsDatabaseConfig databaseConfig) {
+        logger.info("Creating MetricsServiceExporter instance");
+        return new MetricsServiceExporter(collectionHandler, ingestionPipeline, applicationMetricsWriter, databaseConfig);
     }
 }
@@ -1,6 +1,7 @@
 package dev.cordal.database;
 
 import dev.cordal.config.MetricsDatabaseConfig;
+import dev.cordal.model.RollupTier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,8 +9,12 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 
 /**
  * Database manager for metrics database
@@ -87,6 +92,31 @@ public class MetricsDatabaseManager {
             )
             """;
         
+        // One table per rollup resolution, keyed by bucket start and test type
+        String createRollupTableSql = """
+            CREATE TABLE IF NOT EXISTS %s (
+                bucket_start TIMESTAMP NOT NULL,
+                test_type VARCHAR(100) NOT NULL,
+                sample_count BIGINT NOT NULL,
+                passed_count BIGINT NOT NULL,
+                response_time_count BIGINT NOT NULL,
+                response_time_sum_ms DOUBLE NOT NULL,
+                min_response_time_ms DOUBLE,
+                max_response_time_ms DOUBLE,
+                last_sample_time TIMESTAMP,
+                histogram VARBINARY,
+                PRIMARY KEY (bucket_start, test_type)
+            )
+            """;
+
+        String createRollupStateTableSql = """
+            CREATE TABLE IF NOT EXISTS performance_metrics_rollup_state (
+                name VARCHAR(100) PRIMARY KEY,
+                compacted_until TIMESTAMP,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+            """;
+        
         // Performance metrics indexes
         String createIndexSql1 = "CREATE INDEX IF NOT EXISTS idx_performance_metrics_test_type ON performance_metrics(test_type)";
         String createIndexSql2 = "CREATE INDEX IF NOT EXISTS idx_performance_metrics_timestamp ON performance_metrics(timestamp)";
@@ -113,6 +143,12 @@ public class MetricsDatabaseManager {
             
             statement.execute(createApplicationMetricsTableSql);
             logger.info("Application metrics table created/verified");
+
+            for (RollupTier tier : RollupTier.values()) {
+                statement.execute(String.format(createRollupTableSql, tier.getTableName()));
+            }
+            statement.execute(createRollupStateTableSql);
+            logger.info("Performance metrics rollup tables created/verified");
             
             // Create indexes
             statement.execute(createIndexSql1);
@@ -160,6 +196,10 @@ public class MetricsDatabaseManager {
             
             statement.execute(deleteApplicationMetricsSql);
             statement.execute(resetApplicationMetricsSequenceSql);
+
+            for (RollupTier tier : RollupTier.values()) {
+                statement.execute("DELETE FROM " + tier.getTableName());
+            }
             
             logger.info("Metrics database cleaned successfully");
 
@@ -169,6 +209,68 @@ public class MetricsDatabaseManager {
         }
     }
     
+    /**
+     * Delete the oldest rows whose time column is before the cutoff, at most maxRows at a time, in
+     * a transaction of its own.
+     *
+     * The chunk ends at its maxRows-th oldest row, found with an ordered select that is limited
+     * through JDBC rather than vendor-specific SQL. Rows sharing the time of that row are split by
+     * the key column, so a burst of rows with one timestamp still goes in bounded chunks; without
+     * a key column they are all deleted with the chunk.
+     *
+     * @param keyColumn column that orders rows sharing a time, or null if the table has none
+     * @return the number of rows deleted
+     */
+    public int deleteOlderThan(String table, String timeColumn, String keyColumn, LocalDateTime cutoff,
+                               int maxRows) throws SQLException {
+        String orderBy = keyColumn != null ? timeColumn + ", " + keyColumn : timeColumn;
+        String boundarySql = "SELECT " + orderBy + " FROM " + table + " WHERE " + timeColumn + " < ? ORDER BY " + orderBy;
+
+        try (Connection connection = dataSource.getConnection()) {
+            Timestamp chunkEnd = null;
+            Object lastKey = null;
+            int found = 0;
+            try (PreparedStatement statement = connection.prepareStatement(boundarySql)) {
+                statement.setMaxRows(maxRows);
+                statement.setTimestamp(1, Timestamp.valueOf(cutoff));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        chunkEnd = resultSet.getTimestamp(1);
+                        lastKey = keyColumn != null ? resultSet.getObject(2) : null;
+                        found++;
+                    }
+                }
+            }
+            if (found == 0) {
+                return 0;
+            }
+
+            if (found < maxRows) {
+                // Fewer rows than a chunk left: everything before the cutoff goes
+                String deleteSql = "DELETE FROM " + table + " WHERE " + timeColumn + " < ?";
+                try (PreparedStatement statement = connection.prepareStatement(deleteSql)) {
+                    statement.setTimestamp(1, Timestamp.valueOf(cutoff));
+                    return statement.executeUpdate();
+                }
+            }
+            if (keyColumn == null) {
+                String deleteSql = "DELETE FROM " + table + " WHERE " + timeColumn + " <= ?";
+                try (PreparedStatement statement = connection.prepareStatement(deleteSql)) {
+                    statement.setTimestamp(1, chunkEnd);
+                    return statement.executeUpdate();
+                }
+            }
+            String deleteSql = "DELETE FROM " + table + " WHERE " + timeColumn + " < ? OR ("
+                + timeColumn + " = ? AND " + keyColumn + " <= ?)";
+            try (PreparedStatement statement = connection.prepareStatement(deleteSql)) {
+                statement.setTimestamp(1, chunkEnd);
+                statement.setTimestamp(2, chunkEnd);
+                statement.setObject(3, lastKey);
+                return statement.executeUpdate();
+            }
+        }
+    }
+
     /**
      * Get database connection for manual operations
      */
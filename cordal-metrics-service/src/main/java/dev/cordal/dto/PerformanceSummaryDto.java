@@ -30,6 +30,9 @@ public class PerformanceSummaryDto {
     @JsonProperty("lastTestTime")
     private final LocalDateTime lastTestTime;
     
+    @JsonProperty("responseTimePercentiles")
+    private final Map<String, Double> responseTimePercentiles;
+    
     /**
      * Constructor for performance summary
      */
@@ -40,12 +43,27 @@ public class PerformanceSummaryDto {
             List<String> testTypes,
             Map<String, Long> testTypeDistribution,
             LocalDateTime lastTestTime) {
+        this(totalTests, averageResponseTime, successRate, testTypes, testTypeDistribution, lastTestTime, Map.of());
+    }
+    
+    /**
+     * Constructor for performance summary with response time percentiles, keyed e.g. "p99"
+     */
+    public PerformanceSummaryDto(
+            int totalTests,
+            double averageResponseTime,
+            double successRate,
+            List<String> testTypes,
+            Map<String, Long> testTypeDistribution,
+            LocalDateTime lastTestTime,
+            Map<String, Double> responseTimePercentiles) {
         this.totalTests = totalTests;
         this.averageResponseTime = Math.round(averageResponseTime * 100.0) / 100.0;
         this.successRate = Math.round(successRate * 100.0) / 100.0;
         this.testTypes = new java.util.ArrayList<>(testTypes); // Defensive copy
         this.testTypeDistribution = new java.util.HashMap<>(testTypeDistribution); // Defensive copy
         this.lastTestTime = lastTestTime;
+        this.responseTimePercentiles = new java.util.LinkedHashMap<>(responseTimePercentiles); // Defensive copy
     }
     
     /**
@@ -58,6 +76,7 @@ public class PerformanceSummaryDto {
         this.testTypes = List.of();
         this.testTypeDistribution = Map.of();
         this.lastTestTime = null;
+        this.responseTimePercentiles = Map.of();
     }
     
     // Getters
@@ -85,6 +104,10 @@ public class PerformanceSummaryDto {
         return lastTestTime;
     }
     
+    public Map<String, Double> getResponseTimePercentiles() {
+        return responseTimePercentiles;
+    }
+    
     @Override
     public String toString() {
         return "PerformanceSummaryDto{" +
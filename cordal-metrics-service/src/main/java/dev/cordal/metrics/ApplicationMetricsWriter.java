@@ -0,0 +1,78 @@
+package dev.cordal.metrics;
+
+import dev.cordal.config.MetricsConfig;
+import dev.cordal.model.ApplicationMetrics;
+import dev.cordal.repository.ApplicationMetricsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the typed per-request rows of the application_metrics table.
+ *
+ * With asyncSave enabled rows go through their own {@link BatchingWriter}, configured like the
+ * performance metrics pipeline, so request threads never wait on the database. Otherwise each
+ * row is written straight away.
+ */
+public class ApplicationMetricsWriter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationMetricsWriter.class);
+
+    private final ApplicationMetricsRepository repository;
+    private final BatchingWriter<ApplicationMetrics> writer;
+
+    public ApplicationMetricsWriter(ApplicationMetricsRepository repository, MetricsConfig.MetricsCollectionSettings settings) {
+        this.repository = repository;
+        this.writer = settings.isAsyncSave()
+            ? new BatchingWriter<>("application-metrics-writer", repository::saveBatch, settings.getIngestion())
+            : null;
+    }
+
+    /**
+     * Hand a row to the writer
+     *
+     * @return false if the row was dropped
+     */
+    public boolean submit(ApplicationMetrics metrics) {
+        if (writer != null) {
+            return writer.submit(metrics);
+        }
+        try {
+            repository.saveBatch(List.of(metrics));
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to save application metrics for {}: {}", metrics.getEndpoint(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Stop accepting rows and wait for buffered rows to be written
+     */
+    @Override
+    public void close() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    public int getQueueDepth() {
+        return writer != null ? writer.getQueueDepth() : 0;
+    }
+
+    public long getDroppedCount() {
+        return writer != null ? writer.getDroppedCount() : 0;
+    }
+
+    public long getFlushedCount() {
+        return writer != null ? writer.getFlushedCount() : 0;
+    }
+
+    /**
+     * Self-metrics of the writer; only the mode when rows are written synchronously
+     */
+    public Map<String, Object> getStats() {
+        return writer != null ? writer.getStats() : Map.of("running", true, "asyncSave", false);
+    }
+}
@@ -0,0 +1,236 @@
+package dev.cordal.metrics;
+
+import dev.cordal.config.MetricsConfig;
+import dev.cordal.metrics.MetricsIngestionPipeline.OverflowPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous batching writer shared by the metrics ingestion paths.
+ *
+ * Request threads hand elements to a bounded lock-free ring buffer. A single writer thread
+ * drains the buffer and passes the elements to the sink in batches, flushing when a batch is
+ * full or when the oldest buffered element has waited for the flush interval. When the buffer
+ * is full the overflow policy decides whether an element is dropped straight away or the
+ * caller waits briefly for space first.
+ */
+final class BatchingWriter<E> implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BatchingWriter.class);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * Destination of flushed batches
+     */
+    @FunctionalInterface
+    interface Sink<E> {
+        void write(List<E> batch) throws Exception;
+    }
+
+    private final String name;
+    private final Sink<E> sink;
+    private final MpscRingBuffer<E> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final long shutdownTimeoutMs;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Self-metrics; the flush figures are only written by the writer thread
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder blockedOffers = new LongAdder();
+    private volatile long flushedSamples;
+    private volatile long flushes;
+    private volatile long failedFlushes;
+    private volatile long failedSamples;
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+    private volatile long totalFlushNanos;
+
+    BatchingWriter(String name, Sink<E> sink, MetricsConfig.IngestionSettings settings) {
+        this.name = name;
+        this.sink = sink;
+        this.buffer = new MpscRingBuffer<>(Math.max(2, settings.getQueueCapacity()));
+        this.batchSize = Math.max(1, settings.getBatchSize());
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, settings.getFlushIntervalMs()));
+        this.overflowPolicy = OverflowPolicy.fromString(settings.getOverflowPolicy());
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, settings.getBlockTimeoutMs()));
+        this.shutdownTimeoutMs = settings.getShutdownTimeoutMs();
+
+        this.writer = new Thread(this::runWriter, name);
+        this.writer.setDaemon(true);
+        this.writer.start();
+
+        logger.info("Batching writer {} started: capacity={}, batchSize={}, flushIntervalMs={}, overflowPolicy={}",
+                   name, buffer.capacity(), batchSize, settings.getFlushIntervalMs(), overflowPolicy);
+    }
+
+    /**
+     * Hand a sample to the writer without blocking on the database
+     *
+     * @return false if the sample was dropped
+     */
+    boolean submit(E element) {
+        if (!running) {
+            dropped.increment();
+            return false;
+        }
+
+        if (buffer.offer(element)) {
+            accepted();
+            return true;
+        }
+
+        if (overflowPolicy == OverflowPolicy.BLOCK && blockTimeoutNanos > 0) {
+            blockedOffers.increment();
+            LockSupport.unpark(writer);
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            while (running && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                if (buffer.offer(element)) {
+                    accepted();
+                    return true;
+                }
+            }
+        }
+
+        dropped.increment();
+        return false;
+    }
+
+    private void accepted() {
+        enqueued.increment();
+        // Wake the writer early only once a full batch is waiting; otherwise it flushes on time
+        if (buffer.size() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void runWriter() {
+        List<E> batch = new ArrayList<>(batchSize);
+        long batchStartedAt = 0;
+
+        while (running || !buffer.isEmpty()) {
+            boolean wasEmpty = batch.isEmpty();
+            buffer.drainTo(batch, batchSize - batch.size());
+            long now = System.nanoTime();
+            if (wasEmpty && !batch.isEmpty()) {
+                batchStartedAt = now;
+            }
+
+            if (batch.size() >= batchSize || (!batch.isEmpty() && now - batchStartedAt >= flushIntervalNanos)) {
+                flush(batch);
+                continue;
+            }
+
+            if (running) {
+                long waitNanos = batch.isEmpty() ? flushIntervalNanos : flushIntervalNanos - (now - batchStartedAt);
+                LockSupport.parkNanos(this, Math.max(1, waitNanos));
+            }
+        }
+
+        // Shutting down: write whatever is left
+        flush(batch);
+        logger.info("Batching writer {} stopped after flushing {} samples ({} dropped)", name, flushedSamples, dropped.sum());
+    }
+
+    private void flush(List<E> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            sink.write(batch);
+            flushedSamples += batch.size();
+        } catch (Exception e) {
+            failedFlushes++;
+            failedSamples += batch.size();
+            logger.warn("{} failed to write batch of {} samples: {}", name, batch.size(), e.getMessage());
+        } finally {
+            long elapsed = System.nanoTime() - startTime;
+            flushes++;
+            lastFlushNanos = elapsed;
+            totalFlushNanos += elapsed;
+            if (elapsed > maxFlushNanos) {
+                maxFlushNanos = elapsed;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Stop accepting samples and wait for the writer to drain the buffer
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(Math.max(1, shutdownTimeoutMs));
+            if (writer.isAlive()) {
+                logger.warn("Batching writer {} did not drain within {}ms, {} samples left in buffer",
+                           name, shutdownTimeoutMs, buffer.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Current queue depth
+     */
+    int getQueueDepth() {
+        return buffer.size();
+    }
+
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    long getFlushedCount() {
+        return flushedSamples;
+    }
+
+    /**
+     * Self-metrics of the writer: queue depth, throughput, drops and flush latency
+     */
+    Map<String, Object> getStats() {
+        long flushCount = flushes;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running);
+        stats.put("queueDepth", buffer.size());
+        stats.put("queueCapacity", buffer.capacity());
+        stats.put("enqueued", enqueued.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("blockedOffers", blockedOffers.sum());
+        stats.put("flushedSamples", flushedSamples);
+        stats.put("flushes", flushCount);
+        stats.put("failedFlushes", failedFlushes);
+        stats.put("failedSamples", failedSamples);
+        stats.put("lastFlushLatencyMs", nanosToMillis(lastFlushNanos));
+        stats.put("maxFlushLatencyMs", nanosToMillis(maxFlushNanos));
+        stats.put("averageFlushLatencyMs", flushCount > 0 ? nanosToMillis(totalFlushNanos / flushCount) : 0.0);
+        stats.put("batchSize", batchSize);
+        stats.put("flushIntervalMs", TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos));
+        stats.put("overflowPolicy", overflowPolicy.name());
+        return stats;
+    }
+
+    private static double nanosToMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
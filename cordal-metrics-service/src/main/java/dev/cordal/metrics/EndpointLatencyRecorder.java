@@ -0,0 +1,113 @@
+package dev.cordal.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency recorder for a single endpoint.
+ *
+ * Request threads update striped counters and record into the active interval histogram. A
+ * snapshot swaps in a spare histogram and uses a writer/reader phaser (as in HdrHistogram's
+ * Recorder) to wait until every writer that could still see the old histogram has finished,
+ * then folds the interval into the cumulative histogram. Writers never wait for readers.
+ */
+final class EndpointLatencyRecorder {
+    private final LongAdder totalRequests = new LongAdder();
+    private final LongAdder successfulRequests = new LongAdder();
+    private final LongAdder totalResponseTimeMicros = new LongAdder();
+    private volatile long lastRequestTimeMillis;
+
+    // Writer/reader phaser: writers bump startEpoch on entry and the end epoch of the phase they entered in on exit
+    private final AtomicLong startEpoch = new AtomicLong();
+    private final AtomicLong evenEndEpoch = new AtomicLong();
+    private final AtomicLong oddEndEpoch = new AtomicLong(Long.MIN_VALUE);
+
+    private volatile LatencyHistogram activeHistogram = new LatencyHistogram();
+    private LatencyHistogram inactiveHistogram = new LatencyHistogram();
+    private final LatencyHistogram cumulativeHistogram = new LatencyHistogram();
+
+    /**
+     * Record one completed request; never blocks
+     */
+    void record(long responseTimeMicros, boolean successful, long timestampMillis) {
+        totalRequests.increment();
+        if (successful) {
+            successfulRequests.increment();
+        }
+        totalResponseTimeMicros.add(Math.max(0, responseTimeMicros));
+        lastRequestTimeMillis = timestampMillis;
+
+        long criticalValue = startEpoch.getAndIncrement();
+        try {
+            activeHistogram.record(responseTimeMicros);
+        } finally {
+            if (criticalValue < 0) {
+                oddEndEpoch.getAndIncrement();
+            } else {
+                evenEndEpoch.getAndIncrement();
+            }
+        }
+    }
+
+    /**
+     * Fold everything recorded since the last snapshot into the cumulative histogram and return
+     * an immutable view of it
+     */
+    synchronized LatencySnapshot snapshot() {
+        LatencyHistogram interval = activeHistogram;
+        activeHistogram = inactiveHistogram;
+        flipPhase();
+
+        cumulativeHistogram.add(interval);
+        interval.reset();
+        inactiveHistogram = interval;
+
+        return new LatencySnapshot(
+            totalRequests.sum(),
+            successfulRequests.sum(),
+            totalResponseTimeMicros.sum(),
+            lastRequestTimeMillis,
+            cumulativeHistogram.getValueAtPercentile(50.0),
+            cumulativeHistogram.getValueAtPercentile(90.0),
+            cumulativeHistogram.getValueAtPercentile(99.0),
+            cumulativeHistogram.getValueAtPercentile(99.9),
+            cumulativeHistogram.getMaxValue());
+    }
+
+    /**
+     * Switch writers to the other phase and wait for writers still in the previous one
+     */
+    private void flipPhase() {
+        boolean nextPhaseIsEven = startEpoch.get() < 0;
+        long initialStartValue;
+        if (nextPhaseIsEven) {
+            initialStartValue = 0;
+            evenEndEpoch.set(initialStartValue);
+        } else {
+            initialStartValue = Long.MIN_VALUE;
+            oddEndEpoch.set(initialStartValue);
+        }
+
+        long startValueAtFlip = startEpoch.getAndSet(initialStartValue);
+        AtomicLong previousEndEpoch = nextPhaseIsEven ? oddEndEpoch : evenEndEpoch;
+        while (previousEndEpoch.get() != startValueAtFlip) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Point-in-time view of an endpoint's counters and latency distribution, in microseconds
+     */
+    record LatencySnapshot(long totalRequests, long successfulRequests, long totalResponseTimeMicros,
+                           long lastRequestTimeMillis, long p50Micros, long p90Micros, long p99Micros,
+                           long p999Micros, long maxMicros) {
+
+        double averageResponseTimeMicros() {
+            return totalRequests > 0 ? (double) totalResponseTimeMicros / totalRequests : 0.0;
+        }
+
+        double successRate() {
+            return totalRequests > 0 ? (double) successfulRequests / totalRequests * 100.0 : 0.0;
+        }
+    }
+}
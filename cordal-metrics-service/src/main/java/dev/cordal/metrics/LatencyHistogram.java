@@ -0,0 +1,194 @@
+package dev.cordal.metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram.
+ *
+ * Values are recorded in microseconds. Values below 32 get an exact bucket each; above that,
+ * every power of two is split into 32 linear sub-buckets, so any recorded value is reported
+ * within about 3% of its true value. Values beyond roughly 12 days are clamped into the last
+ * bucket. Recording is a single atomic increment and never allocates or locks.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+    private static final long MAX_TRACKABLE_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Record one value in microseconds; negative values are recorded as zero
+     */
+    public void record(long valueMicros) {
+        long value = Math.min(Math.max(0, valueMicros), MAX_TRACKABLE_VALUE);
+        counts.incrementAndGet(bucketIndex(value));
+
+        long currentMax = maxValue.get();
+        while (value > currentMax && !maxValue.compareAndSet(currentMax, value)) {
+            currentMax = maxValue.get();
+        }
+    }
+
+    /**
+     * Add all counts of another histogram to this one
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        long otherMax = other.maxValue.get();
+        long currentMax = maxValue.get();
+        while (otherMax > currentMax && !maxValue.compareAndSet(currentMax, otherMax)) {
+            currentMax = maxValue.get();
+        }
+    }
+
+    /**
+     * Clear all counts; callers must make sure no thread is recording at the same time
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        maxValue.set(0);
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Highest recorded value in microseconds
+     */
+    public long getMaxValue() {
+        return maxValue.get();
+    }
+
+    /**
+     * Value in microseconds at or below which the given percentage of recorded values fall,
+     * reported as the upper bound of the matching bucket (never above the recorded maximum)
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = getTotalCount();
+        if (total == 0) {
+            return 0;
+        }
+        double clamped = Math.min(100.0, Math.max(0.0, percentile));
+        long target = Math.max(1, (long) Math.ceil(clamped / 100.0 * total));
+
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    /**
+     * Compact encoding for storage: the maximum, then (bucket gap, count) pairs for non-empty
+     * buckets, all as unsigned varints
+     */
+    public byte[] toByteArray() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeVarLong(out, maxValue.get());
+        int previousIndex = -1;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = counts.get(i);
+            if (count != 0) {
+                writeVarLong(out, i - previousIndex);
+                writeVarLong(out, count);
+                previousIndex = i;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode a histogram written by {@link #toByteArray()}; null or empty input gives an empty histogram
+     */
+    public static LatencyHistogram fromByteArray(byte[] bytes) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        if (bytes == null || bytes.length == 0) {
+            return histogram;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        histogram.maxValue.set(readVarLong(buffer));
+        int index = -1;
+        while (buffer.hasRemaining()) {
+            index += (int) readVarLong(buffer);
+            long count = readVarLong(buffer);
+            if (index < 0 || index >= BUCKET_COUNT) {
+                throw new IllegalArgumentException("Invalid histogram bucket index: " + index);
+            }
+            histogram.counts.set(index, count);
+        }
+        return histogram;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            if (!buffer.hasRemaining() || shift > 63) {
+                throw new IllegalArgumentException("Truncated histogram encoding");
+            }
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) ((value >>> shift) & (SUB_BUCKET_COUNT - 1));
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long lowestEquivalentValue(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+        int shift = (bucketIndex - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        int subBucket = (bucketIndex - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return (long) (SUB_BUCKET_COUNT + subBucket) << shift;
+    }
+
+    static long highestEquivalentValue(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+        int shift = (bucketIndex - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        return lowestEquivalentValue(bucketIndex) + (1L << shift) - 1;
+    }
+}
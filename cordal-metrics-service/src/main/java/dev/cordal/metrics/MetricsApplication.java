@@ -7,9 +7,12 @@ import dev.cordal.database.MetricsDatabaseManager;
 import dev.cordal.config.MetricsConfig;
 import dev.cordal.config.MetricsGuiceModule;
 import dev.cordal.controller.PerformanceMetricsController;
+import dev.cordal.service.MetricsRetentionService;
+import dev.cordal.service.MetricsRollupService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -54,13 +57,40 @@ public class MetricsApplication extends BaseJavalinApplication {
         // Initialize metrics database
         MetricsDatabaseManager dbManager = injector.getInstance(MetricsDatabaseManager.class);
         dbManager.initializeSchema();
+
+        // Backfill the rollups if needed and start compacting them
+        injector.getInstance(MetricsRollupService.class).start();
+
+        // Expire old rows on a schedule
+        injector.getInstance(MetricsRetentionService.class).start();
+
+        // Sample JVM and system state into system_metrics
+        injector.getInstance(SystemMetricsSampler.class).start();
     }
+
+    @Override
+    protected void performCleanup() {
+        // Drain buffered metrics samples before the database goes away
+        if (injector != null) {
+            injector.getInstance(MetricsRetentionService.class).close();
+            injector.getInstance(SystemMetricsSampler.class).close();
+            injector.getInstance(MetricsIngestionPipeline.class).close();
+            injector.getInstance(ApplicationMetricsWriter.class).close();
+            injector.getInstance(MetricsRollupService.class).close();
+        }
+    }
+
     @Override
     protected void configureRoutes() {
         logger.info("Configuring routes");
         
         PerformanceMetricsController performanceMetricsController = injector.getInstance(PerformanceMetricsController.class);
         MetricsCollectionHandler metricsCollectionHandler = injector.getInstance(MetricsCollectionHandler.class);
+        MetricsIngestionPipeline ingestionPipeline = injector.getInstance(MetricsIngestionPipeline.class);
+        ApplicationMetricsWriter applicationMetricsWriter = injector.getInstance(ApplicationMetricsWriter.class);
+        SystemMetricsSampler systemMetricsSampler = injector.getInstance(SystemMetricsSampler.class);
+        MetricsServiceExporter metricsExporter = injector.getInstance(MetricsServiceExporter.class);
+        MetricsRetentionService retentionService = injector.getInstance(MetricsRetentionService.class);
         MetricsConfig config = injector.getInstance(MetricsConfig.class);
         
         // Health check endpoint
@@ -87,6 +117,20 @@ public class MetricsApplication extends BaseJavalinApplication {
             ctx.json(metricsCollectionHandler.getEndpointMetricsSummary());
         });
 
+        app.get("/api/metrics/ingestion", ctx -> {
+            Map<String, Object> stats = new LinkedHashMap<>(ingestionPipeline.getStats());
+            stats.put("applicationMetrics", applicationMetricsWriter.getStats());
+            stats.put("systemSampler", systemMetricsSampler.getStats());
+            ctx.json(stats);
+        });
+
+        app.get("/api/metrics/retention", ctx -> {
+            ctx.json(retentionService.getStats());
+        });
+
+        // OpenMetrics scrape endpoint, served from in-memory state only
+        app.get("/metrics", metricsExporter::handle);
+
         app.post("/api/metrics/reset", ctx -> {
             metricsCollectionHandler.resetMetrics();
             ctx.json(Map.of("message", "Metrics reset successfully"));
@@ -169,6 +213,9 @@ public class MetricsApplication extends BaseJavalinApplication {
         // Real-time Metrics Collection
         logger.info("⚡ REAL-TIME METRICS:");
         logger.info("   ├─ Endpoint Summary: GET  {}/api/metrics/endpoints", baseUrl);
+        logger.info("   ├─ Ingestion Stats:  GET  {}/api/metrics/ingestion", baseUrl);
+        logger.info("   ├─ Retention Stats:  GET  {}/api/metrics/retention", baseUrl);
+        logger.info("   ├─ OpenMetrics:      GET  {}/metrics", baseUrl);
         logger.info("   └─ Reset Metrics:    POST {}/api/metrics/reset", baseUrl);
         logger.info("");
 
@@ -1,8 +1,8 @@
 package dev.cordal.metrics;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.cordal.config.MetricsConfig;
 import dev.cordal.common.model.PerformanceMetrics;
+import dev.cordal.model.ApplicationMetrics;
 import dev.cordal.service.PerformanceMetricsService;
 import io.javalin.http.Context;
 import org.slf4j.Logger;
@@ -10,12 +10,19 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
 
 /**
  * Generic metrics collection handler that can be attached to any API endpoint
@@ -24,119 +31,125 @@ import java.util.concurrent.ConcurrentHashMap;
 @Singleton
 public class MetricsCollectionHandler {
     private static final Logger logger = LoggerFactory.getLogger(MetricsCollectionHandler.class);
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+");
+    private static final Pattern SYMBOL_SEGMENT = Pattern.compile("/[A-Z]{2,}");
     
     private final PerformanceMetricsService metricsService;
     private final MetricsConfig metricsConfig;
-    private final ObjectMapper objectMapper;
+    private final MetricsIngestionPipeline ingestionPipeline;
+    private final ApplicationMetricsWriter applicationMetricsWriter;
+    private final com.sun.management.ThreadMXBean allocationTracker;
     
     // Thread-local storage for request timing data
-    private final ThreadLocal<RequestMetrics> requestMetrics = new ThreadLocal<>();
+    private final ThreadLocal<RequestMetrics> requestMetrics = ThreadLocal.withInitial(RequestMetrics::new);
     
-    // In-memory counters for aggregated metrics
-    private final Map<String, EndpointMetrics> endpointMetrics = new ConcurrentHashMap<>();
+    // In-memory counters and latency histograms for aggregated metrics
+    private final Map<String, EndpointLatencyRecorder> endpointMetrics = new ConcurrentHashMap<>();
     
-    @Inject
     public MetricsCollectionHandler(PerformanceMetricsService metricsService,
                                   MetricsConfig metricsConfig) {
+        this(metricsService, metricsConfig, null, null);
+    }
+
+    @Inject
+    public MetricsCollectionHandler(PerformanceMetricsService metricsService,
+                                  MetricsConfig metricsConfig,
+                                  MetricsIngestionPipeline ingestionPipeline,
+                                  ApplicationMetricsWriter applicationMetricsWriter) {
         this.metricsService = metricsService;
         this.metricsConfig = metricsConfig;
-        this.objectMapper = new ObjectMapper();
+        this.ingestionPipeline = ingestionPipeline;
+        this.applicationMetricsWriter = applicationMetricsWriter;
+        this.allocationTracker = metricsConfig.getMetricsCollection().isAllocationTracking()
+            ? resolveAllocationTracker() : null;
         logger.info("MetricsCollectionHandler initialized");
     }
     
     /**
-     * Before handler - captures request start time and initial metrics
+     * Before handler - captures the request start time and decides whether the request is
+     * sampled for persistence; only sampled requests pay for allocation tracking
      */
     public void beforeRequest(Context ctx) {
         if (!shouldCollectMetrics(ctx)) {
             return;
         }
         
-        try {
-            RequestMetrics metrics = new RequestMetrics();
-            metrics.startTime = System.nanoTime(); // Use nanoTime for higher precision
-            metrics.path = ctx.path();
-            metrics.method = ctx.method().toString();
-            metrics.endpoint = generateEndpointKey(ctx);
-            
-            // Capture initial memory if enabled (simplified for now)
-            Runtime runtime = Runtime.getRuntime();
-            metrics.initialMemory = runtime.totalMemory() - runtime.freeMemory();
-            
-            requestMetrics.set(metrics);
-            
-            logger.debug("Started metrics collection for: {} {}", metrics.method, metrics.path);
-            
-        } catch (Exception e) {
-            logger.warn("Failed to start metrics collection for request", e);
-        }
+        RequestMetrics metrics = requestMetrics.get();
+        metrics.active = true;
+        metrics.sampled = shouldSampleRequest();
+        metrics.allocatedBytesAtStart = metrics.sampled ? currentThreadAllocatedBytes() : -1;
+        metrics.startTime = System.nanoTime(); // Use nanoTime for higher precision
     }
     
     /**
-     * After handler - captures response metrics and saves to database
+     * After handler - records the endpoint latency and hands sampled requests to the writers
      */
     public void afterRequest(Context ctx) {
         RequestMetrics metrics = requestMetrics.get();
-        if (metrics == null) {
+        if (!metrics.active) {
             return;
         }
         
         try {
             // Calculate response time with nanosecond precision
-            long endTime = System.nanoTime();
-            long responseTimeNanos = endTime - metrics.startTime;
-            double responseTimeMs = responseTimeNanos / 1_000_000.0; // Convert to milliseconds with decimal precision
-            
-            // Capture final memory
-            long memoryIncrease = 0;
-            if (metrics.initialMemory > 0) {
-                Runtime runtime = Runtime.getRuntime();
-                long finalMemory = runtime.totalMemory() - runtime.freeMemory();
-                memoryIncrease = finalMemory - metrics.initialMemory;
-            }
+            long responseTimeNanos = System.nanoTime() - metrics.startTime;
+            int statusCode = ctx.status().getCode();
+            String endpoint = generateEndpointKey(ctx);
             
             // Update endpoint metrics
-            updateEndpointMetrics(metrics.endpoint, responseTimeMs, ctx.status().getCode());
+            updateEndpointMetrics(endpoint, responseTimeNanos, statusCode);
+
+            if (metrics.sampled) {
+                double responseTimeMs = responseTimeNanos / 1_000_000.0; // Convert to milliseconds with decimal precision
+                Long allocatedBytes = allocatedBytesSince(metrics.allocatedBytesAtStart);
+                String method = ctx.method().toString();
 
-            // Check sampling rate
-            if (shouldSampleRequest()) {
-                // Create and save performance metrics
                 PerformanceMetrics performanceMetrics = createPerformanceMetrics(
-                    metrics, responseTimeMs, memoryIncrease, ctx.status().getCode());
+                    endpoint, method, ctx.path(), responseTimeMs, allocatedBytes, statusCode);
                 
                 if (metricsConfig.getMetricsCollection().isAsyncSave()) {
                     saveMetricsAsync(performanceMetrics);
                 } else {
                     metricsService.saveMetrics(performanceMetrics);
                 }
+
+                if (applicationMetricsWriter != null && metricsConfig.getMetricsCollection().isApplicationMetricsEnabled()) {
+                    applicationMetricsWriter.submit(createApplicationMetrics(ctx, method, responseTimeMs, statusCode));
+                }
             }
             
-            logger.debug("Completed metrics collection for: {} {} - {:.3f}ms",
-                        metrics.method, metrics.path, responseTimeMs);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Completed metrics collection for: {} - {}ms", endpoint, responseTimeNanos / 1_000_000.0);
+            }
             
         } catch (Exception e) {
             logger.warn("Failed to complete metrics collection for request", e);
         } finally {
-            requestMetrics.remove();
+            metrics.active = false;
         }
     }
     
     /**
-     * Get current endpoint metrics summary
+     * Get current endpoint metrics summary, including latency percentiles in milliseconds
      */
     public Map<String, Object> getEndpointMetricsSummary() {
         Map<String, Object> summary = new HashMap<>();
         
-        for (Map.Entry<String, EndpointMetrics> entry : endpointMetrics.entrySet()) {
-            EndpointMetrics metrics = entry.getValue();
+        for (Map.Entry<String, EndpointLatencyRecorder> entry : endpointMetrics.entrySet()) {
+            EndpointLatencyRecorder.LatencySnapshot metrics = entry.getValue().snapshot();
             Map<String, Object> endpointSummary = new HashMap<>();
             
-            endpointSummary.put("totalRequests", metrics.totalRequests);
-            endpointSummary.put("averageResponseTime",
-                metrics.totalRequests > 0 ? metrics.totalResponseTime / metrics.totalRequests : 0.0);
-            endpointSummary.put("successRate",
-                metrics.totalRequests > 0 ? (double) metrics.successfulRequests / metrics.totalRequests * 100 : 0.0);
-            endpointSummary.put("lastRequestTime", metrics.lastRequestTime);
+            endpointSummary.put("totalRequests", metrics.totalRequests());
+            endpointSummary.put("averageResponseTime", microsToMillis(metrics.averageResponseTimeMicros()));
+            endpointSummary.put("successRate", metrics.successRate());
+            endpointSummary.put("lastRequestTime", metrics.lastRequestTimeMillis() > 0
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(metrics.lastRequestTimeMillis()), ZoneId.systemDefault())
+                : null);
+            endpointSummary.put("p50ResponseTime", microsToMillis(metrics.p50Micros()));
+            endpointSummary.put("p90ResponseTime", microsToMillis(metrics.p90Micros()));
+            endpointSummary.put("p99ResponseTime", microsToMillis(metrics.p99Micros()));
+            endpointSummary.put("p999ResponseTime", microsToMillis(metrics.p999Micros()));
+            endpointSummary.put("maxResponseTime", microsToMillis(metrics.maxMicros()));
             
             summary.put(entry.getKey(), endpointSummary);
         }
@@ -144,6 +157,13 @@ public class MetricsCollectionHandler {
         return summary;
     }
     
+    /**
+     * Visit the latency snapshot of every endpoint, for the OpenMetrics exporter
+     */
+    void forEachEndpointSnapshot(BiConsumer<String, EndpointLatencyRecorder.LatencySnapshot> consumer) {
+        endpointMetrics.forEach((endpoint, recorder) -> consumer.accept(endpoint, recorder.snapshot()));
+    }
+    
     /**
      * Reset endpoint metrics (useful for testing)
      */
@@ -177,7 +197,19 @@ public class MetricsCollectionHandler {
     
     private boolean shouldSampleRequest() {
         double samplingRate = metricsConfig.getMetricsCollection().getSamplingRate();
-        return Math.random() < samplingRate;
+        return samplingRate >= 1.0 || (samplingRate > 0 && ThreadLocalRandom.current().nextDouble() < samplingRate);
+    }
+
+    private long currentThreadAllocatedBytes() {
+        return allocationTracker != null ? allocationTracker.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private Long allocatedBytesSince(long allocatedBytesAtStart) {
+        if (allocatedBytesAtStart < 0) {
+            return null;
+        }
+        long allocatedBytes = currentThreadAllocatedBytes();
+        return allocatedBytes >= allocatedBytesAtStart ? allocatedBytes - allocatedBytesAtStart : null;
     }
     
     private String generateEndpointKey(Context ctx) {
@@ -186,86 +218,89 @@ public class MetricsCollectionHandler {
     
     private String normalizePathForMetrics(String path) {
         // Replace path parameters with placeholders for better aggregation
-        return path.replaceAll("/\\d+", "/{id}")
-                  .replaceAll("/[A-Z]{2,}", "/{symbol}"); // For stock symbols
+        String normalized = NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+        return SYMBOL_SEGMENT.matcher(normalized).replaceAll("/{symbol}"); // For stock symbols
     }
     
-    private void updateEndpointMetrics(String endpoint, double responseTime, int statusCode) {
-        endpointMetrics.compute(endpoint, (key, existing) -> {
-            if (existing == null) {
-                existing = new EndpointMetrics();
-            }
-
-            existing.totalRequests++;
-            existing.totalResponseTime += responseTime;
-            existing.lastRequestTime = LocalDateTime.now();
+    private void updateEndpointMetrics(String endpoint, long responseTimeNanos, int statusCode) {
+        EndpointLatencyRecorder recorder = endpointMetrics.get(endpoint);
+        if (recorder == null) {
+            recorder = endpointMetrics.computeIfAbsent(endpoint, key -> new EndpointLatencyRecorder());
+        }
+        recorder.record(responseTimeNanos / 1_000, statusCode >= 200 && statusCode < 400, System.currentTimeMillis());
+    }
 
-            if (statusCode >= 200 && statusCode < 400) {
-                existing.successfulRequests++;
-            }
+    /**
+     * The thread MXBean if the JVM can report per-thread allocated bytes, null otherwise
+     */
+    private static com.sun.management.ThreadMXBean resolveAllocationTracker() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+                && threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled()) {
+            return threadBean;
+        }
+        logger.info("Per-thread allocation tracking is not available, request memory figures will be empty");
+        return null;
+    }
 
-            return existing;
-        });
+    private static double microsToMillis(double micros) {
+        return micros / 1_000.0;
     }
     
-    private PerformanceMetrics createPerformanceMetrics(RequestMetrics requestMetrics,
+    private PerformanceMetrics createPerformanceMetrics(String endpoint,
+                                                       String method,
+                                                       String path,
                                                        double responseTime,
-                                                       long memoryIncrease,
+                                                       Long allocatedBytes,
                                                        int statusCode) {
-        String testName = "API Request - " + requestMetrics.endpoint;
-        String testType = "API_REQUEST";
-
-        PerformanceMetrics metrics = new PerformanceMetrics(testName, testType);
+        // The additional metrics JSON and heap usage are derived when the row is written
+        PerformanceMetrics metrics = new RequestPerformanceMetrics(endpoint, method, path, statusCode);
         metrics.setTotalRequests(1);
         metrics.setTotalTimeMs(Math.round(responseTime)); // Round to nearest millisecond for storage
         metrics.setAverageResponseTimeMs(responseTime); // Keep full precision for average
         metrics.setTestPassed(statusCode >= 200 && statusCode < 400);
-        
-        // Always include memory metrics for now
-        Runtime runtime = Runtime.getRuntime();
-        metrics.setMemoryUsageBytes(runtime.totalMemory() - runtime.freeMemory());
-        metrics.setMemoryIncreaseBytes(memoryIncrease);
-        
-        // Add additional metrics as JSON
-        try {
-            Map<String, Object> additionalMetrics = new HashMap<>();
-            additionalMetrics.put("endpoint", requestMetrics.endpoint);
-            additionalMetrics.put("method", requestMetrics.method);
-            additionalMetrics.put("path", requestMetrics.path);
-            additionalMetrics.put("statusCode", statusCode);
-            
-            metrics.setAdditionalMetrics(objectMapper.writeValueAsString(additionalMetrics));
-        } catch (Exception e) {
-            logger.warn("Failed to serialize additional metrics", e);
-        }
-        
+        metrics.setMemoryIncreaseBytes(allocatedBytes);
         return metrics;
     }
     
+    private ApplicationMetrics createApplicationMetrics(Context ctx, String method, double responseTime, int statusCode) {
+        ApplicationMetrics metrics = new ApplicationMetrics(
+            normalizePathForMetrics(ctx.path()), method, statusCode, Math.round(responseTime));
+
+        long requestSize = ctx.contentLength();
+        metrics.setRequestSizeBytes(requestSize >= 0 ? requestSize : null);
+        metrics.setResponseSizeBytes(responseSize(ctx));
+        metrics.setUserAgent(ctx.userAgent());
+        metrics.setIpAddress(ctx.ip());
+        return metrics;
+    }
+
+    /**
+     * Size of an in-memory result; streamed results are not measured
+     */
+    private static Long responseSize(Context ctx) {
+        InputStream result = ctx.resultInputStream();
+        return result instanceof ByteArrayInputStream bytes ? (long) bytes.available() : null;
+    }
+
     private void saveMetricsAsync(PerformanceMetrics metrics) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                metricsService.saveMetrics(metrics);
-            } catch (Exception e) {
-                logger.error("Failed to save metrics asynchronously", e);
-            }
-        });
+        if (ingestionPipeline == null) {
+            metricsService.saveMetrics(metrics);
+            return;
+        }
+        if (!ingestionPipeline.submit(metrics)) {
+            logger.debug("Metrics ingestion buffer full, dropped sample for {}", metrics.getTestName());
+        }
     }
     
     // Inner classes for data structures
     
+    /**
+     * Per-thread request state, reused across the requests served by the thread
+     */
     private static class RequestMetrics {
+        boolean active;
+        boolean sampled;
         long startTime;
-        String path;
-        String method;
-        String endpoint;
-        long initialMemory;
-    }
-    
-    private static class EndpointMetrics {
-        long totalRequests = 0;
-        double totalResponseTime = 0.0;
-        long successfulRequests = 0;
-        LocalDateTime lastRequestTime;
+        long allocatedBytesAtStart;
     }
 }
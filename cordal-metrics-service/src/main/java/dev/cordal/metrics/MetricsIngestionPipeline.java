@@ -0,0 +1,99 @@
+package dev.cordal.metrics;
+
+import dev.cordal.common.model.PerformanceMetrics;
+import dev.cordal.config.MetricsConfig;
+import dev.cordal.service.PerformanceMetricsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Asynchronous ingestion pipeline for performance metrics.
+ *
+ * Samples are buffered in a lock-free ring buffer and written by a single writer thread as
+ * JDBC batches; see {@link BatchingWriter} for the flush and overflow behaviour.
+ */
+public class MetricsIngestionPipeline implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsIngestionPipeline.class);
+
+    /**
+     * What to do with a sample when the buffer is full
+     */
+    public enum OverflowPolicy {
+        /** Discard the new sample */
+        DROP,
+        /** Wait up to the block timeout for space, then discard the sample */
+        BLOCK;
+
+        public static OverflowPolicy fromString(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return DROP;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                logger.warn("Unknown metrics overflow policy '{}', using DROP", value);
+                return DROP;
+            }
+        }
+    }
+
+    /**
+     * Destination of flushed batches
+     */
+    @FunctionalInterface
+    interface BatchSink {
+        void write(List<PerformanceMetrics> batch) throws Exception;
+    }
+
+    private final BatchingWriter<PerformanceMetrics> writer;
+
+    public MetricsIngestionPipeline(PerformanceMetricsService metricsService, MetricsConfig.IngestionSettings settings) {
+        this(metricsService::saveMetricsBatch, settings);
+    }
+
+    MetricsIngestionPipeline(BatchSink sink, MetricsConfig.IngestionSettings settings) {
+        this.writer = new BatchingWriter<>("metrics-writer", sink::write, settings);
+    }
+
+    /**
+     * Hand a sample to the writer without blocking on the database
+     *
+     * @return false if the sample was dropped
+     */
+    public boolean submit(PerformanceMetrics metrics) {
+        return writer.submit(metrics);
+    }
+
+    /**
+     * Stop accepting samples and wait for the writer to drain the buffer
+     */
+    @Override
+    public void close() {
+        writer.close();
+    }
+
+    /**
+     * Current queue depth
+     */
+    public int getQueueDepth() {
+        return writer.getQueueDepth();
+    }
+
+    public long getDroppedCount() {
+        return writer.getDroppedCount();
+    }
+
+    public long getFlushedCount() {
+        return writer.getFlushedCount();
+    }
+
+    /**
+     * Self-metrics of the pipeline: queue depth, throughput, drops and flush latency
+     */
+    public Map<String, Object> getStats() {
+        return writer.getStats();
+    }
+}
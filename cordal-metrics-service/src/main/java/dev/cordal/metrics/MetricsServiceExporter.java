@@ -0,0 +1,94 @@
+package dev.cordal.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import dev.cordal.common.metrics.OpenMetricsExporter;
+import dev.cordal.common.metrics.OpenMetricsWriter;
+import dev.cordal.config.MetricsDatabaseConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OpenMetrics exposition of the metrics service: request counts and latency quantiles from
+ * the endpoint recorders, the state of the ingestion writers and the metrics connection pool
+ */
+public class MetricsServiceExporter extends OpenMetricsExporter {
+    private static final double MICROS_PER_SECOND = 1_000_000.0;
+
+    private record EndpointSample(String endpoint, EndpointLatencyRecorder.LatencySnapshot snapshot) {
+    }
+
+    private final MetricsCollectionHandler collectionHandler;
+    private final MetricsIngestionPipeline ingestionPipeline;
+    private final ApplicationMetricsWriter applicationMetricsWriter;
+    private final Map<String, HikariDataSource> pools;
+
+    // Reused between scrapes, which the base class serialises
+    private final List<EndpointSample> endpoints = new ArrayList<>();
+
+    public MetricsServiceExporter(MetricsCollectionHandler collectionHandler,
+                                  MetricsIngestionPipeline ingestionPipeline,
+                                  ApplicationMetricsWriter applicationMetricsWriter,
+                                  MetricsDatabaseConfig databaseConfig) {
+        this.collectionHandler = collectionHandler;
+        this.ingestionPipeline = ingestionPipeline;
+        this.applicationMetricsWriter = applicationMetricsWriter;
+        this.pools = databaseConfig.getDataSource() instanceof HikariDataSource dataSource
+            ? Map.of(databaseConfig.getPoolName(), dataSource)
+            : Map.of();
+    }
+
+    @Override
+    protected void collect(OpenMetricsWriter writer) {
+        writeEndpoints(writer);
+        writeIngestion(writer);
+        writeConnectionPools(writer, pools);
+    }
+
+    private void writeEndpoints(OpenMetricsWriter writer) {
+        endpoints.clear();
+        collectionHandler.forEachEndpointSnapshot((endpoint, snapshot) -> endpoints.add(new EndpointSample(endpoint, snapshot)));
+
+        writer.family("cordal_http_requests", OpenMetricsWriter.COUNTER, "HTTP requests by endpoint and outcome");
+        for (EndpointSample sample : endpoints) {
+            long successful = sample.snapshot().successfulRequests();
+            writer.sample("cordal_http_requests_total", "endpoint", sample.endpoint(), "outcome", "success", successful);
+            writer.sample("cordal_http_requests_total", "endpoint", sample.endpoint(), "outcome", "failure",
+                          sample.snapshot().totalRequests() - successful);
+        }
+
+        writer.family("cordal_http_request_duration_seconds", OpenMetricsWriter.SUMMARY, "HTTP request latency by endpoint");
+        for (EndpointSample sample : endpoints) {
+            EndpointLatencyRecorder.LatencySnapshot snapshot = sample.snapshot();
+            String endpoint = sample.endpoint();
+            writer.sample("cordal_http_request_duration_seconds", "endpoint", endpoint, "quantile", "0.5", snapshot.p50Micros() / MICROS_PER_SECOND);
+            writer.sample("cordal_http_request_duration_seconds", "endpoint", endpoint, "quantile", "0.9", snapshot.p90Micros() / MICROS_PER_SECOND);
+            writer.sample("cordal_http_request_duration_seconds", "endpoint", endpoint, "quantile", "0.99", snapshot.p99Micros() / MICROS_PER_SECOND);
+            writer.sample("cordal_http_request_duration_seconds", "endpoint", endpoint, "quantile", "0.999", snapshot.p999Micros() / MICROS_PER_SECOND);
+            writer.sample("cordal_http_request_duration_seconds_sum", "endpoint", endpoint, snapshot.totalResponseTimeMicros() / MICROS_PER_SECOND);
+            writer.sample("cordal_http_request_duration_seconds_count", "endpoint", endpoint, snapshot.totalRequests());
+        }
+
+        writer.family("cordal_http_request_duration_max_seconds", OpenMetricsWriter.GAUGE, "Slowest HTTP request by endpoint");
+        for (EndpointSample sample : endpoints) {
+            writer.sample("cordal_http_request_duration_max_seconds", "endpoint", sample.endpoint(),
+                          sample.snapshot().maxMicros() / MICROS_PER_SECOND);
+        }
+        endpoints.clear();
+    }
+
+    private void writeIngestion(OpenMetricsWriter writer) {
+        writer.family("cordal_metrics_writer_queue_depth", OpenMetricsWriter.GAUGE, "Samples waiting in the writer buffer");
+        writer.sample("cordal_metrics_writer_queue_depth", "writer", "performance_metrics", ingestionPipeline.getQueueDepth());
+        writer.sample("cordal_metrics_writer_queue_depth", "writer", "application_metrics", applicationMetricsWriter.getQueueDepth());
+
+        writer.family("cordal_metrics_writer_flushed_samples", OpenMetricsWriter.COUNTER, "Samples written to the metrics database");
+        writer.sample("cordal_metrics_writer_flushed_samples_total", "writer", "performance_metrics", ingestionPipeline.getFlushedCount());
+        writer.sample("cordal_metrics_writer_flushed_samples_total", "writer", "application_metrics", applicationMetricsWriter.getFlushedCount());
+
+        writer.family("cordal_metrics_writer_dropped_samples", OpenMetricsWriter.COUNTER, "Samples dropped because the writer buffer was full");
+        writer.sample("cordal_metrics_writer_dropped_samples_total", "writer", "performance_metrics", ingestionPipeline.getDroppedCount());
+        writer.sample("cordal_metrics_writer_dropped_samples_total", "writer", "application_metrics", applicationMetricsWriter.getDroppedCount());
+    }
+}
@@ -0,0 +1,70 @@
+package dev.cordal.metrics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.cordal.common.model.PerformanceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Performance metrics sample of one API request that carries the raw request attributes and
+ * only derives the expensive values when the row is written.
+ *
+ * The additional metrics JSON and the heap usage are produced on first access, which with
+ * asyncSave is the batching writer thread rather than the request thread.
+ */
+final class RequestPerformanceMetrics extends PerformanceMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(RequestPerformanceMetrics.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String endpoint;
+    private final String method;
+    private final String path;
+    private final int statusCode;
+
+    RequestPerformanceMetrics(String endpoint, String method, String path, int statusCode) {
+        super("API Request - " + endpoint, "API_REQUEST");
+        this.endpoint = endpoint;
+        this.method = method;
+        this.path = path;
+        this.statusCode = statusCode;
+    }
+
+    @Override
+    public String getAdditionalMetrics() {
+        String additionalMetrics = super.getAdditionalMetrics();
+        if (additionalMetrics == null) {
+            additionalMetrics = encodeAdditionalMetrics();
+            setAdditionalMetrics(additionalMetrics);
+        }
+        return additionalMetrics;
+    }
+
+    @Override
+    public Long getMemoryUsageBytes() {
+        Long memoryUsageBytes = super.getMemoryUsageBytes();
+        if (memoryUsageBytes == null) {
+            Runtime runtime = Runtime.getRuntime();
+            memoryUsageBytes = runtime.totalMemory() - runtime.freeMemory();
+            setMemoryUsageBytes(memoryUsageBytes);
+        }
+        return memoryUsageBytes;
+    }
+
+    private String encodeAdditionalMetrics() {
+        Map<String, Object> additionalMetrics = new LinkedHashMap<>();
+        additionalMetrics.put("endpoint", endpoint);
+        additionalMetrics.put("method", method);
+        additionalMetrics.put("path", path);
+        additionalMetrics.put("statusCode", statusCode);
+        try {
+            return objectMapper.writeValueAsString(additionalMetrics);
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to serialize additional metrics", e);
+            return null;
+        }
+    }
+}
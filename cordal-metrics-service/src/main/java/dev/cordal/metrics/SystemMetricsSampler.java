@@ -0,0 +1,184 @@
+package dev.cordal.metrics;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import dev.cordal.config.MetricsConfig;
+import dev.cordal.config.MetricsDatabaseConfig;
+import dev.cordal.model.SystemMetric;
+import dev.cordal.repository.SystemMetricsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically samples JVM and system state into the system_metrics table: heap and non-heap
+ * memory, threads, garbage collection, CPU load and the state of the metrics connection pool.
+ *
+ * Each round reads the platform MXBeans once and writes all measurements as one JDBC batch
+ * from a single daemon thread, so the cost is independent of the request rate. Garbage
+ * collection figures are stored as COUNTER rows holding the increase since the previous round;
+ * everything else is a GAUGE.
+ */
+public class SystemMetricsSampler implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SystemMetricsSampler.class);
+
+    private final SystemMetricsRepository repository;
+    private final MetricsDatabaseConfig databaseConfig;
+    private final MetricsConfig.SystemSamplerSettings settings;
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+
+    // Collector totals at the previous round, only touched by the sampling thread
+    private final Map<String, long[]> previousGcTotals = new HashMap<>();
+    private volatile ScheduledExecutorService scheduler;
+    private volatile long samples;
+    private volatile long failedSamples;
+
+    public SystemMetricsSampler(SystemMetricsRepository repository, MetricsDatabaseConfig databaseConfig,
+                                MetricsConfig.SystemSamplerSettings settings) {
+        this.repository = repository;
+        this.databaseConfig = databaseConfig;
+        this.settings = settings;
+        for (GarbageCollectorMXBean gcBean : gcBeans) {
+            previousGcTotals.put(gcBean.getName(), new long[] {
+                Math.max(0, gcBean.getCollectionCount()), Math.max(0, gcBean.getCollectionTime())});
+        }
+    }
+
+    /**
+     * Start sampling on the configured interval
+     */
+    public synchronized void start() {
+        if (!settings.isEnabled() || settings.getSampleIntervalMs() <= 0 || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "system-metrics-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::sampleSafely, settings.getSampleIntervalMs(),
+                                      settings.getSampleIntervalMs(), TimeUnit.MILLISECONDS);
+        logger.info("System metrics sampler started: interval {}ms", settings.getSampleIntervalMs());
+    }
+
+    /**
+     * Take one round of measurements and store it
+     *
+     * @return the measurements written
+     */
+    public synchronized List<SystemMetric> sample() {
+        List<SystemMetric> metrics = collect(LocalDateTime.now());
+        repository.saveBatch(metrics);
+        samples++;
+        return metrics;
+    }
+
+    private List<SystemMetric> collect(LocalDateTime now) {
+        List<SystemMetric> metrics = new ArrayList<>(32);
+
+        MemoryUsage heap = memoryBean.getHeapMemoryUsage();
+        gauge(metrics, "jvm.memory.heap.used", heap.getUsed(), null, now);
+        gauge(metrics, "jvm.memory.heap.committed", heap.getCommitted(), null, now);
+        if (heap.getMax() >= 0) {
+            gauge(metrics, "jvm.memory.heap.max", heap.getMax(), null, now);
+        }
+        gauge(metrics, "jvm.memory.nonheap.used", memoryBean.getNonHeapMemoryUsage().getUsed(), null, now);
+
+        gauge(metrics, "jvm.threads.live", threadBean.getThreadCount(), null, now);
+        gauge(metrics, "jvm.threads.daemon", threadBean.getDaemonThreadCount(), null, now);
+        gauge(metrics, "jvm.threads.peak", threadBean.getPeakThreadCount(), null, now);
+
+        for (GarbageCollectorMXBean gcBean : gcBeans) {
+            long count = Math.max(0, gcBean.getCollectionCount());
+            long timeMs = Math.max(0, gcBean.getCollectionTime());
+            long[] previous = previousGcTotals.computeIfAbsent(gcBean.getName(), name -> new long[2]);
+            String tags = "gc=" + gcBean.getName();
+            metrics.add(new SystemMetric("jvm.gc.collections", count - previous[0], SystemMetric.COUNTER, tags, now));
+            metrics.add(new SystemMetric("jvm.gc.pause.time_ms", timeMs - previous[1], SystemMetric.COUNTER, tags, now));
+            previous[0] = count;
+            previous[1] = timeMs;
+        }
+
+        if (osBean instanceof com.sun.management.OperatingSystemMXBean sunOsBean) {
+            double processCpu = sunOsBean.getProcessCpuLoad();
+            if (processCpu >= 0) {
+                gauge(metrics, "process.cpu.usage", processCpu, null, now);
+            }
+            double systemCpu = sunOsBean.getCpuLoad();
+            if (systemCpu >= 0) {
+                gauge(metrics, "system.cpu.usage", systemCpu, null, now);
+            }
+        }
+        double loadAverage = osBean.getSystemLoadAverage();
+        if (loadAverage >= 0) {
+            gauge(metrics, "system.load.average.1m", loadAverage, null, now);
+        }
+        gauge(metrics, "system.cpu.count", osBean.getAvailableProcessors(), null, now);
+
+        HikariPoolMXBean pool = databaseConfig.getPoolMXBean();
+        if (pool != null) {
+            String tags = "pool=" + databaseConfig.getPoolName();
+            gauge(metrics, "db.pool.connections.active", pool.getActiveConnections(), tags, now);
+            gauge(metrics, "db.pool.connections.idle", pool.getIdleConnections(), tags, now);
+            gauge(metrics, "db.pool.connections.total", pool.getTotalConnections(), tags, now);
+            gauge(metrics, "db.pool.connections.pending", pool.getThreadsAwaitingConnection(), tags, now);
+        }
+
+        return metrics;
+    }
+
+    private static void gauge(List<SystemMetric> metrics, String name, double value, String tags, LocalDateTime now) {
+        metrics.add(new SystemMetric(name, value, SystemMetric.GAUGE, tags, now));
+    }
+
+    private void sampleSafely() {
+        try {
+            sample();
+        } catch (Exception e) {
+            failedSamples++;
+            logger.warn("System metrics sampling failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Sampler configuration and counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", settings.isEnabled());
+        stats.put("scheduled", scheduler != null);
+        stats.put("sampleIntervalMs", settings.getSampleIntervalMs());
+        stats.put("samples", samples);
+        stats.put("failedSamples", failedSamples);
+        return stats;
+    }
+
+    /**
+     * Stop sampling
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService current = scheduler;
+        if (current != null) {
+            current.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
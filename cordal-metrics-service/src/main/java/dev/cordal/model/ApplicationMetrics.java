@@ -0,0 +1,64 @@
+package dev.cordal.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One API request as stored in the typed application_metrics table
+ */
+public class ApplicationMetrics {
+    private Long id;
+    private String endpoint;
+    private String method;
+    private int statusCode;
+    private long responseTimeMs;
+    private Long requestSizeBytes;
+    private Long responseSizeBytes;
+    private String userAgent;
+    private String ipAddress;
+    private LocalDateTime timestamp;
+
+    public ApplicationMetrics() {
+        this.timestamp = LocalDateTime.now();
+    }
+
+    public ApplicationMetrics(String endpoint, String method, int statusCode, long responseTimeMs) {
+        this();
+        this.endpoint = endpoint;
+        this.method = method;
+        this.statusCode = statusCode;
+        this.responseTimeMs = responseTimeMs;
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getEndpoint() { return endpoint; }
+    public void setEndpoint(String endpoint) { this.endpoint = endpoint; }
+    public String getMethod() { return method; }
+    public void setMethod(String method) { this.method = method; }
+    public int getStatusCode() { return statusCode; }
+    public void setStatusCode(int statusCode) { this.statusCode = statusCode; }
+    public long getResponseTimeMs() { return responseTimeMs; }
+    public void setResponseTimeMs(long responseTimeMs) { this.responseTimeMs = responseTimeMs; }
+    public Long getRequestSizeBytes() { return requestSizeBytes; }
+    public void setRequestSizeBytes(Long requestSizeBytes) { this.requestSizeBytes = requestSizeBytes; }
+    public Long getResponseSizeBytes() { return responseSizeBytes; }
+    public void setResponseSizeBytes(Long responseSizeBytes) { this.responseSizeBytes = responseSizeBytes; }
+    public String getUserAgent() { return userAgent; }
+    public void setUserAgent(String userAgent) { this.userAgent = userAgent; }
+    public String getIpAddress() { return ipAddress; }
+    public void setIpAddress(String ipAddress) { this.ipAddress = ipAddress; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+
+    @Override
+    public String toString() {
+        return "ApplicationMetrics{" +
+                "endpoint='" + endpoint + '\'' +
+                ", method='" + method + '\'' +
+                ", statusCode=" + statusCode +
+                ", responseTimeMs=" + responseTimeMs +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
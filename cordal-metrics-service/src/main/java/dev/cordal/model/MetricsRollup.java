@@ -0,0 +1,119 @@
+package dev.cordal.model;
+
+import dev.cordal.metrics.LatencyHistogram;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate of the performance metrics of one test type within one time bucket:
+ * sample and pass counts, response time sum, min, max and a latency histogram
+ */
+public class MetricsRollup {
+    private final String testType;
+    private final LocalDateTime bucketStart;
+    private long sampleCount;
+    private long passedCount;
+    private long responseTimeCount;
+    private double responseTimeSumMs;
+    private Double minResponseTimeMs;
+    private Double maxResponseTimeMs;
+    private LocalDateTime lastSampleTime;
+    private final LatencyHistogram histogram;
+
+    public MetricsRollup(String testType, LocalDateTime bucketStart) {
+        this(testType, bucketStart, new LatencyHistogram());
+    }
+
+    public MetricsRollup(String testType, LocalDateTime bucketStart, LatencyHistogram histogram) {
+        this.testType = testType;
+        this.bucketStart = bucketStart;
+        this.histogram = histogram;
+    }
+
+    /**
+     * Add one sample; a null response time counts towards the sample total only
+     */
+    public void record(Double responseTimeMs, boolean passed, LocalDateTime sampleTime) {
+        sampleCount++;
+        if (passed) {
+            passedCount++;
+        }
+        if (responseTimeMs != null) {
+            responseTimeCount++;
+            responseTimeSumMs += responseTimeMs;
+            minResponseTimeMs = minResponseTimeMs == null ? responseTimeMs : Math.min(minResponseTimeMs, responseTimeMs);
+            maxResponseTimeMs = maxResponseTimeMs == null ? responseTimeMs : Math.max(maxResponseTimeMs, responseTimeMs);
+            histogram.record(Math.round(responseTimeMs * 1_000));
+        }
+        updateLastSampleTime(sampleTime);
+    }
+
+    /**
+     * Fold another aggregate into this one
+     */
+    public void merge(MetricsRollup other) {
+        sampleCount += other.sampleCount;
+        passedCount += other.passedCount;
+        responseTimeCount += other.responseTimeCount;
+        responseTimeSumMs += other.responseTimeSumMs;
+        if (other.minResponseTimeMs != null) {
+            minResponseTimeMs = minResponseTimeMs == null ? other.minResponseTimeMs : Math.min(minResponseTimeMs, other.minResponseTimeMs);
+        }
+        if (other.maxResponseTimeMs != null) {
+            maxResponseTimeMs = maxResponseTimeMs == null ? other.maxResponseTimeMs : Math.max(maxResponseTimeMs, other.maxResponseTimeMs);
+        }
+        histogram.add(other.histogram);
+        updateLastSampleTime(other.lastSampleTime);
+    }
+
+    private void updateLastSampleTime(LocalDateTime sampleTime) {
+        if (sampleTime != null && (lastSampleTime == null || sampleTime.isAfter(lastSampleTime))) {
+            lastSampleTime = sampleTime;
+        }
+    }
+
+    public double getAverageResponseTimeMs() {
+        return responseTimeCount > 0 ? responseTimeSumMs / responseTimeCount : 0.0;
+    }
+
+    public double getSuccessRate() {
+        return sampleCount > 0 ? (double) passedCount / sampleCount * 100 : 0.0;
+    }
+
+    /**
+     * Response time in milliseconds at the given percentile, from the histogram
+     */
+    public double getResponseTimePercentileMs(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    // Getters and setters used when reading rows back from the database
+    public String getTestType() { return testType; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public long getSampleCount() { return sampleCount; }
+    public void setSampleCount(long sampleCount) { this.sampleCount = sampleCount; }
+    public long getPassedCount() { return passedCount; }
+    public void setPassedCount(long passedCount) { this.passedCount = passedCount; }
+    public long getResponseTimeCount() { return responseTimeCount; }
+    public void setResponseTimeCount(long responseTimeCount) { this.responseTimeCount = responseTimeCount; }
+    public double getResponseTimeSumMs() { return responseTimeSumMs; }
+    public void setResponseTimeSumMs(double responseTimeSumMs) { this.responseTimeSumMs = responseTimeSumMs; }
+    public Double getMinResponseTimeMs() { return minResponseTimeMs; }
+    public void setMinResponseTimeMs(Double minResponseTimeMs) { this.minResponseTimeMs = minResponseTimeMs; }
+    public Double getMaxResponseTimeMs() { return maxResponseTimeMs; }
+    public void setMaxResponseTimeMs(Double maxResponseTimeMs) { this.maxResponseTimeMs = maxResponseTimeMs; }
+    public LocalDateTime getLastSampleTime() { return lastSampleTime; }
+    public void setLastSampleTime(LocalDateTime lastSampleTime) { this.lastSampleTime = lastSampleTime; }
+    public LatencyHistogram getHistogram() { return histogram; }
+
+    @Override
+    public String toString() {
+        return "MetricsRollup{" +
+                "testType='" + testType + '\'' +
+                ", bucketStart=" + bucketStart +
+                ", sampleCount=" + sampleCount +
+                ", averageResponseTimeMs=" + getAverageResponseTimeMs() +
+                ", successRate=" + getSuccessRate() +
+                '}';
+    }
+}
@@ -0,0 +1,46 @@
+package dev.cordal.model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Resolutions at which performance metrics are pre-aggregated
+ */
+public enum RollupTier {
+    MINUTE("1m", "performance_metrics_rollup_1m", ChronoUnit.MINUTES),
+    HOUR("1h", "performance_metrics_rollup_1h", ChronoUnit.HOURS),
+    DAY("1d", "performance_metrics_rollup_1d", ChronoUnit.DAYS);
+
+    private final String label;
+    private final String tableName;
+    private final ChronoUnit unit;
+
+    RollupTier(String label, String tableName, ChronoUnit unit) {
+        this.label = label;
+        this.tableName = tableName;
+        this.unit = unit;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Start of the bucket containing the given time
+     */
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    /**
+     * First bucket boundary at or after the given time
+     */
+    public LocalDateTime ceiling(LocalDateTime time) {
+        LocalDateTime start = bucketStart(time);
+        return start.equals(time) ? start : start.plus(1, unit);
+    }
+}
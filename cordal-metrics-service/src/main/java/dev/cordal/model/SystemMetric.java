@@ -0,0 +1,42 @@
+package dev.cordal.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One sampled JVM or system measurement as stored in the system_metrics table
+ */
+public class SystemMetric {
+    public static final String GAUGE = "GAUGE";
+    public static final String COUNTER = "COUNTER";
+
+    private final String metricName;
+    private final double metricValue;
+    private final String metricType;
+    private final String tags;
+    private final LocalDateTime timestamp;
+
+    public SystemMetric(String metricName, double metricValue, String metricType, String tags, LocalDateTime timestamp) {
+        this.metricName = metricName;
+        this.metricValue = metricValue;
+        this.metricType = metricType;
+        this.tags = tags;
+        this.timestamp = timestamp;
+    }
+
+    public String getMetricName() { return metricName; }
+    public double getMetricValue() { return metricValue; }
+    public String getMetricType() { return metricType; }
+    public String getTags() { return tags; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+
+    @Override
+    public String toString() {
+        return "SystemMetric{" +
+                "metricName='" + metricName + '\'' +
+                ", metricValue=" + metricValue +
+                ", metricType='" + metricType + '\'' +
+                ", tags='" + tags + '\'' +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
@@ -0,0 +1,122 @@
+package dev.cordal.repository;
+
+import dev.cordal.database.MetricsDatabaseManager;
+import dev.cordal.model.ApplicationMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repository for the typed per-request rows of the application_metrics table
+ */
+@Singleton
+public class ApplicationMetricsRepository {
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationMetricsRepository.class);
+
+    private static final String INSERT_SQL = """
+        INSERT INTO application_metrics (
+            endpoint, method, status_code, response_time_ms, request_size_bytes,
+            response_size_bytes, user_agent, ip_address, timestamp
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final MetricsDatabaseManager metricsDatabaseManager;
+
+    @Inject
+    public ApplicationMetricsRepository(MetricsDatabaseManager metricsDatabaseManager) {
+        this.metricsDatabaseManager = metricsDatabaseManager;
+    }
+
+    /**
+     * Save a batch of request rows with one JDBC batch in a single transaction
+     *
+     * @return the number of rows written
+     */
+    public int saveBatch(List<ApplicationMetrics> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try (Connection connection = metricsDatabaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                for (ApplicationMetrics metrics : batch) {
+                    statement.setString(1, metrics.getEndpoint());
+                    statement.setString(2, metrics.getMethod());
+                    statement.setInt(3, metrics.getStatusCode());
+                    statement.setLong(4, metrics.getResponseTimeMs());
+                    statement.setObject(5, metrics.getRequestSizeBytes());
+                    statement.setObject(6, metrics.getResponseSizeBytes());
+                    statement.setString(7, metrics.getUserAgent());
+                    statement.setString(8, metrics.getIpAddress());
+                    statement.setTimestamp(9, Timestamp.valueOf(metrics.getTimestamp()));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+            logger.debug("Saved batch of {} application metrics", batch.size());
+            return batch.size();
+
+        } catch (SQLException e) {
+            logger.error("Error saving batch of {} application metrics", batch.size(), e);
+            throw new RuntimeException("Failed to save application metrics batch", e);
+        }
+    }
+
+    /**
+     * Find the most recent rows of an endpoint, newest first
+     */
+    public List<ApplicationMetrics> findRecentByEndpoint(String endpoint, int limit) {
+        String sql = "SELECT * FROM application_metrics WHERE endpoint = ? ORDER BY timestamp DESC, id DESC LIMIT ?";
+        List<ApplicationMetrics> rows = new ArrayList<>();
+
+        try (Connection connection = metricsDatabaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            statement.setString(1, endpoint);
+            statement.setInt(2, limit);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rows.add(mapResultSetToApplicationMetrics(resultSet));
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error finding application metrics for endpoint: {}", endpoint, e);
+            throw new RuntimeException("Failed to find application metrics", e);
+        }
+
+        return rows;
+    }
+
+    private ApplicationMetrics mapResultSetToApplicationMetrics(ResultSet resultSet) throws SQLException {
+        ApplicationMetrics metrics = new ApplicationMetrics(
+            resultSet.getString("endpoint"),
+            resultSet.getString("method"),
+            resultSet.getInt("status_code"),
+            resultSet.getLong("response_time_ms"));
+        metrics.setId(resultSet.getLong("id"));
+        metrics.setRequestSizeBytes(resultSet.getObject("request_size_bytes", Long.class));
+        metrics.setResponseSizeBytes(resultSet.getObject("response_size_bytes", Long.class));
+        metrics.setUserAgent(resultSet.getString("user_agent"));
+        metrics.setIpAddress(resultSet.getString("ip_address"));
+        metrics.setTimestamp(resultSet.getTimestamp("timestamp").toLocalDateTime());
+        return metrics;
+    }
+}
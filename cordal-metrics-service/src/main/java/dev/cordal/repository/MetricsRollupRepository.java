@@ -0,0 +1,264 @@
+package dev.cordal.repository;
+
+import dev.cordal.database.MetricsDatabaseManager;
+import dev.cordal.metrics.LatencyHistogram;
+import dev.cordal.model.MetricsRollup;
+import dev.cordal.model.RollupTier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the pre-aggregated performance metrics rollup tables
+ */
+@Singleton
+public class MetricsRollupRepository {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRollupRepository.class);
+    private static final String STATE_NAME = "performance_metrics";
+
+    private static final String COLUMNS = """
+        bucket_start, test_type, sample_count, passed_count, response_time_count, response_time_sum_ms,
+        min_response_time_ms, max_response_time_ms, last_sample_time, histogram
+        """;
+
+    private final MetricsDatabaseManager metricsDatabaseManager;
+
+    @Inject
+    public MetricsRollupRepository(MetricsDatabaseManager metricsDatabaseManager) {
+        this.metricsDatabaseManager = metricsDatabaseManager;
+    }
+
+    /**
+     * Get a connection for a unit of work spanning several calls
+     */
+    public Connection getConnection() throws SQLException {
+        return metricsDatabaseManager.getConnection();
+    }
+
+    /**
+     * Add the given aggregates to the stored buckets of a tier, creating buckets that do not exist yet
+     */
+    public void mergeInto(Connection connection, RollupTier tier, Collection<MetricsRollup> rollups) throws SQLException {
+        if (rollups.isEmpty()) {
+            return;
+        }
+
+        String selectSql = "SELECT " + COLUMNS + " FROM " + tier.getTableName() +
+                           " WHERE bucket_start = ? AND test_type = ? FOR UPDATE";
+        String insertSql = "INSERT INTO " + tier.getTableName() + " (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String updateSql = """
+            UPDATE %s SET sample_count = ?, passed_count = ?, response_time_count = ?, response_time_sum_ms = ?,
+                min_response_time_ms = ?, max_response_time_ms = ?, last_sample_time = ?, histogram = ?
+            WHERE bucket_start = ? AND test_type = ?
+            """.formatted(tier.getTableName());
+
+        try (PreparedStatement select = connection.prepareStatement(selectSql);
+             PreparedStatement insert = connection.prepareStatement(insertSql);
+             PreparedStatement update = connection.prepareStatement(updateSql)) {
+
+            for (MetricsRollup rollup : rollups) {
+                select.setTimestamp(1, Timestamp.valueOf(rollup.getBucketStart()));
+                select.setString(2, rollup.getTestType());
+
+                MetricsRollup existing = null;
+                try (ResultSet resultSet = select.executeQuery()) {
+                    if (resultSet.next()) {
+                        existing = mapResultSetToRollup(resultSet);
+                    }
+                }
+
+                if (existing == null) {
+                    insert.setTimestamp(1, Timestamp.valueOf(rollup.getBucketStart()));
+                    insert.setString(2, rollup.getTestType());
+                    bindValues(insert, 3, rollup);
+                    insert.addBatch();
+                } else {
+                    existing.merge(rollup);
+                    int next = bindValues(update, 1, existing);
+                    update.setTimestamp(next, Timestamp.valueOf(existing.getBucketStart()));
+                    update.setString(next + 1, existing.getTestType());
+                    update.addBatch();
+                }
+            }
+
+            insert.executeBatch();
+            update.executeBatch();
+        }
+
+        logger.debug("Merged {} rollup buckets into {}", rollups.size(), tier.getTableName());
+    }
+
+    private int bindValues(PreparedStatement statement, int index, MetricsRollup rollup) throws SQLException {
+        statement.setLong(index++, rollup.getSampleCount());
+        statement.setLong(index++, rollup.getPassedCount());
+        statement.setLong(index++, rollup.getResponseTimeCount());
+        statement.setDouble(index++, rollup.getResponseTimeSumMs());
+        statement.setObject(index++, rollup.getMinResponseTimeMs());
+        statement.setObject(index++, rollup.getMaxResponseTimeMs());
+        statement.setTimestamp(index++, rollup.getLastSampleTime() != null ? Timestamp.valueOf(rollup.getLastSampleTime()) : null);
+        statement.setBytes(index++, rollup.getHistogram().toByteArray());
+        return index;
+    }
+
+    /**
+     * Find the buckets of a tier starting within [from, to); null bounds are open
+     */
+    public List<MetricsRollup> findBuckets(RollupTier tier, LocalDateTime from, LocalDateTime to, String testType) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM " + tier.getTableName() + " WHERE 1 = 1");
+        if (from != null) {
+            sql.append(" AND bucket_start >= ?");
+        }
+        if (to != null) {
+            sql.append(" AND bucket_start < ?");
+        }
+        if (testType != null) {
+            sql.append(" AND test_type = ?");
+        }
+
+        List<MetricsRollup> rollups = new ArrayList<>();
+
+        try (Connection connection = metricsDatabaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+
+            int index = 1;
+            if (from != null) {
+                statement.setTimestamp(index++, Timestamp.valueOf(from));
+            }
+            if (to != null) {
+                statement.setTimestamp(index++, Timestamp.valueOf(to));
+            }
+            if (testType != null) {
+                statement.setString(index, testType);
+            }
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rollups.add(mapResultSetToRollup(resultSet));
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error finding rollup buckets in {}", tier.getTableName(), e);
+            throw new RuntimeException("Failed to find performance metrics rollups", e);
+        }
+
+        return rollups;
+    }
+
+    /**
+     * Find the buckets of a tier starting within [from, to) on an existing connection
+     */
+    public List<MetricsRollup> findBuckets(Connection connection, RollupTier tier, LocalDateTime from, LocalDateTime to)
+            throws SQLException {
+        String sql = "SELECT " + COLUMNS + " FROM " + tier.getTableName() +
+                     (from != null ? " WHERE bucket_start >= ? AND bucket_start < ?" : " WHERE bucket_start < ?");
+
+        List<MetricsRollup> rollups = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            if (from != null) {
+                statement.setTimestamp(index++, Timestamp.valueOf(from));
+            }
+            statement.setTimestamp(index, Timestamp.valueOf(to));
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rollups.add(mapResultSetToRollup(resultSet));
+                }
+            }
+        }
+        return rollups;
+    }
+
+    /**
+     * Check whether the rollups have been initialised, i.e. a compaction state row exists
+     */
+    public boolean hasCompactionState() {
+        String sql = "SELECT 1 FROM performance_metrics_rollup_state WHERE name = ?";
+
+        try (Connection connection = metricsDatabaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            statement.setString(1, STATE_NAME);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error loading rollup compaction state", e);
+            throw new RuntimeException("Failed to load rollup compaction state", e);
+        }
+    }
+
+    /**
+     * Load the compaction watermark: minute buckets before it have been folded into the hour
+     * and day tiers. Null when nothing has been compacted yet.
+     */
+    public LocalDateTime loadCompactedUntil() {
+        String sql = "SELECT compacted_until FROM performance_metrics_rollup_state WHERE name = ?";
+
+        try (Connection connection = metricsDatabaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            statement.setString(1, STATE_NAME);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    Timestamp timestamp = resultSet.getTimestamp("compacted_until");
+                    return timestamp != null ? timestamp.toLocalDateTime() : null;
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error loading rollup compaction state", e);
+            throw new RuntimeException("Failed to load rollup compaction state", e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Store the compaction watermark
+     */
+    public void saveCompactedUntil(Connection connection, LocalDateTime compactedUntil) throws SQLException {
+        String sql = """
+            MERGE INTO performance_metrics_rollup_state (name, compacted_until, updated_at)
+            KEY (name) VALUES (?, ?, CURRENT_TIMESTAMP)
+            """;
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, STATE_NAME);
+            statement.setTimestamp(2, compactedUntil != null ? Timestamp.valueOf(compactedUntil) : null);
+            statement.executeUpdate();
+        }
+    }
+
+    private MetricsRollup mapResultSetToRollup(ResultSet resultSet) throws SQLException {
+        MetricsRollup rollup = new MetricsRollup(
+            resultSet.getString("test_type"),
+            resultSet.getTimestamp("bucket_start").toLocalDateTime(),
+            LatencyHistogram.fromByteArray(resultSet.getBytes("histogram")));
+
+        rollup.setSampleCount(resultSet.getLong("sample_count"));
+        rollup.setPassedCount(resultSet.getLong("passed_count"));
+        rollup.setResponseTimeCount(resultSet.getLong("response_time_count"));
+        rollup.setResponseTimeSumMs(resultSet.getDouble("response_time_sum_ms"));
+
+        double min = resultSet.getDouble("min_response_time_ms");
+        rollup.setMinResponseTimeMs(resultSet.wasNull() ? null : min);
+        double max = resultSet.getDouble("max_response_time_ms");
+        rollup.setMaxResponseTimeMs(resultSet.wasNull() ? null : max);
+
+        Timestamp lastSampleTime = resultSet.getTimestamp("last_sample_time");
+        if (lastSampleTime != null) {
+            rollup.setLastSampleTime(lastSampleTime.toLocalDateTime());
+        }
+        return rollup;
+    }
+}
@@ -12,6 +12,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Repository for performance metrics data access
@@ -27,35 +28,23 @@ public class PerformanceMetricsRepository {
         this.metricsDatabaseManager = metricsDatabaseManager;
     }
     
+    private static final String INSERT_SQL = """
+        INSERT INTO performance_metrics (
+            test_name, test_type, timestamp, total_requests, total_time_ms,
+            average_response_time_ms, concurrent_threads, requests_per_thread,
+            page_size, memory_usage_bytes, memory_increase_bytes, test_passed,
+            additional_metrics
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
     /**
      * Save performance metrics to database
      */
     public PerformanceMetrics save(PerformanceMetrics metrics) {
-        String sql = """
-            INSERT INTO performance_metrics (
-                test_name, test_type, timestamp, total_requests, total_time_ms,
-                average_response_time_ms, concurrent_threads, requests_per_thread,
-                page_size, memory_usage_bytes, memory_increase_bytes, test_passed,
-                additional_metrics
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-            """;
-        
         try (Connection connection = metricsDatabaseManager.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
             
-            statement.setString(1, metrics.getTestName());
-            statement.setString(2, metrics.getTestType());
-            statement.setTimestamp(3, Timestamp.valueOf(metrics.getTimestamp()));
-            statement.setObject(4, metrics.getTotalRequests());
-            statement.setObject(5, metrics.getTotalTimeMs());
-            statement.setObject(6, metrics.getAverageResponseTimeMs());
-            statement.setObject(7, metrics.getConcurrentThreads());
-            statement.setObject(8, metrics.getRequestsPerThread());
-            statement.setObject(9, metrics.getPageSize());
-            statement.setObject(10, metrics.getMemoryUsageBytes());
-            statement.setObject(11, metrics.getMemoryIncreaseBytes());
-            statement.setObject(12, metrics.getTestPassed());
-            statement.setString(13, metrics.getAdditionalMetrics());
+            bindInsert(statement, metrics);
             
             int affectedRows = statement.executeUpdate();
             if (affectedRows == 0) {
@@ -78,6 +67,61 @@ public class PerformanceMetricsRepository {
             throw new RuntimeException("Failed to save performance metrics", e);
         }
     }
+
+    /**
+     * Save a batch of performance metrics with one JDBC batch in a single transaction.
+     * Generated ids are not read back, so the saved objects keep a null id.
+     *
+     * @return the number of rows written
+     */
+    public int saveBatch(List<PerformanceMetrics> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try (Connection connection = metricsDatabaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                for (PerformanceMetrics metrics : batch) {
+                    bindInsert(statement, metrics);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+            logger.debug("Saved batch of {} performance metrics", batch.size());
+            return batch.size();
+
+        } catch (SQLException e) {
+            logger.error("Error saving batch of {} performance metrics", batch.size(), e);
+            throw new RuntimeException("Failed to save performance metrics batch", e);
+        }
+    }
+
+    private void bindInsert(PreparedStatement statement, PerformanceMetrics metrics) throws SQLException {
+        statement.setString(1, metrics.getTestName());
+        statement.setString(2, metrics.getTestType());
+        statement.setTimestamp(3, Timestamp.valueOf(metrics.getTimestamp()));
+        statement.setObject(4, metrics.getTotalRequests());
+        statement.setObject(5, metrics.getTotalTimeMs());
+        statement.setObject(6, metrics.getAverageResponseTimeMs());
+        statement.setObject(7, metrics.getConcurrentThreads());
+        statement.setObject(8, metrics.getRequestsPerThread());
+        statement.setObject(9, metrics.getPageSize());
+        statement.setObject(10, metrics.getMemoryUsageBytes());
+        statement.setObject(11, metrics.getMemoryIncreaseBytes());
+        statement.setObject(12, metrics.getTestPassed());
+        statement.setString(13, metrics.getAdditionalMetrics());
+    }
     
     /**
      * Find performance metrics by ID
@@ -205,6 +249,41 @@ public class PerformanceMetricsRepository {
         return metrics;
     }
     
+    /**
+     * Stream every stored row, oldest first, to the consumer in chunks of up to chunkSize
+     */
+    public long scanAll(int chunkSize, Consumer<List<PerformanceMetrics>> consumer) {
+        String sql = "SELECT * FROM performance_metrics ORDER BY timestamp";
+        long scanned = 0;
+
+        try (Connection connection = metricsDatabaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            statement.setFetchSize(chunkSize);
+            List<PerformanceMetrics> chunk = new ArrayList<>(chunkSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    chunk.add(mapResultSetToPerformanceMetrics(resultSet));
+                    if (chunk.size() >= chunkSize) {
+                        consumer.accept(chunk);
+                        scanned += chunk.size();
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                consumer.accept(chunk);
+                scanned += chunk.size();
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error scanning performance metrics", e);
+            throw new RuntimeException("Failed to scan performance metrics", e);
+        }
+
+        return scanned;
+    }
+    
     /**
      * Count total performance metrics
      */
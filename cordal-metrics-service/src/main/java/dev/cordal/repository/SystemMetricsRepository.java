@@ -0,0 +1,106 @@
+package dev.cordal.repository;
+
+import dev.cordal.database.MetricsDatabaseManager;
+import dev.cordal.model.SystemMetric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repository for the sampled JVM and system measurements of the system_metrics table
+ */
+@Singleton
+public class SystemMetricsRepository {
+    private static final Logger logger = LoggerFactory.getLogger(SystemMetricsRepository.class);
+
+    private static final String INSERT_SQL = """
+        INSERT INTO system_metrics (metric_name, metric_value, metric_type, tags, timestamp)
+        VALUES (?, ?, ?, ?, ?)
+        """;
+
+    private final MetricsDatabaseManager metricsDatabaseManager;
+
+    @Inject
+    public SystemMetricsRepository(MetricsDatabaseManager metricsDatabaseManager) {
+        this.metricsDatabaseManager = metricsDatabaseManager;
+    }
+
+    /**
+     * Save the measurements of one sampling round with one JDBC batch in a single transaction
+     *
+     * @return the number of rows written
+     */
+    public int saveBatch(List<SystemMetric> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try (Connection connection = metricsDatabaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                for (SystemMetric metric : batch) {
+                    statement.setString(1, metric.getMetricName());
+                    statement.setDouble(2, metric.getMetricValue());
+                    statement.setString(3, metric.getMetricType());
+                    statement.setString(4, metric.getTags());
+                    statement.setTimestamp(5, Timestamp.valueOf(metric.getTimestamp()));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+            logger.debug("Saved batch of {} system metrics", batch.size());
+            return batch.size();
+
+        } catch (SQLException e) {
+            logger.error("Error saving batch of {} system metrics", batch.size(), e);
+            throw new RuntimeException("Failed to save system metrics batch", e);
+        }
+    }
+
+    /**
+     * Find the most recent samples of a metric, newest first
+     */
+    public List<SystemMetric> findRecentByName(String metricName, int limit) {
+        String sql = "SELECT * FROM system_metrics WHERE metric_name = ? ORDER BY timestamp DESC, id DESC LIMIT ?";
+        List<SystemMetric> metrics = new ArrayList<>();
+
+        try (Connection connection = metricsDatabaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            statement.setString(1, metricName);
+            statement.setInt(2, limit);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    metrics.add(new SystemMetric(
+                        resultSet.getString("metric_name"),
+                        resultSet.getDouble("metric_value"),
+                        resultSet.getString("metric_type"),
+                        resultSet.getString("tags"),
+                        resultSet.getTimestamp("timestamp").toLocalDateTime()));
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error finding system metrics: {}", metricName, e);
+            throw new RuntimeException("Failed to find system metrics", e);
+        }
+
+        return metrics;
+    }
+}
@@ -0,0 +1,227 @@
+package dev.cordal.service;
+
+import dev.cordal.config.MetricsConfig;
+import dev.cordal.database.MetricsDatabaseManager;
+import dev.cordal.model.RollupTier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces the retention tiers of the metrics database.
+ *
+ * Raw rows are kept for the raw retention period, after which the minute, hour and day
+ * rollups carry the history at decreasing resolution until they expire in turn. Expired rows
+ * are deleted in bounded chunks, each in its own short transaction with a pause in between,
+ * so the job never holds locks long enough to stall ingest. The space freed by the deletes is
+ * reused by the database for new rows; shrinking the file itself (for H2, {@code SHUTDOWN
+ * COMPACT}) needs the database to go offline and is left to a maintenance window.
+ */
+@Singleton
+public class MetricsRetentionService implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRetentionService.class);
+
+    /**
+     * A table subject to retention, with the column that dates its rows and the column that
+     * orders rows sharing a date
+     */
+    private record RetentionTarget(String table, String timeColumn, String keyColumn, int retentionDays,
+                                   RollupTier tier) {
+    }
+
+    private final MetricsDatabaseManager databaseManager;
+    private final MetricsRollupService rollupService;
+    private final MetricsConfig.RetentionSettings settings;
+    private final List<RetentionTarget> targets;
+    private volatile ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    // Results of the most recent runs, for the retention stats endpoint
+    private volatile LocalDateTime lastRunTime;
+    private volatile long lastRunDurationMs;
+    private volatile Map<String, Long> lastRunDeleted = Map.of();
+    private volatile long totalDeleted;
+
+    @Inject
+    public MetricsRetentionService(MetricsDatabaseManager databaseManager, MetricsRollupService rollupService,
+                                   MetricsConfig.RetentionSettings settings) {
+        this.databaseManager = databaseManager;
+        this.rollupService = rollupService;
+        this.settings = settings;
+        this.targets = List.of(
+            new RetentionTarget("performance_metrics", "timestamp", "id", settings.getRawRetentionDays(), null),
+            new RetentionTarget("application_metrics", "timestamp", "id", settings.getRawRetentionDays(), null),
+            new RetentionTarget("system_metrics", "timestamp", "id", settings.getRawRetentionDays(), null),
+            new RetentionTarget(RollupTier.MINUTE.getTableName(), "bucket_start", "test_type",
+                                settings.getMinuteRollupRetentionDays(), RollupTier.MINUTE),
+            new RetentionTarget(RollupTier.HOUR.getTableName(), "bucket_start", "test_type",
+                                settings.getHourRollupRetentionDays(), RollupTier.HOUR),
+            new RetentionTarget(RollupTier.DAY.getTableName(), "bucket_start", "test_type",
+                                settings.getDayRollupRetentionDays(), RollupTier.DAY));
+    }
+
+    /**
+     * Start the retention schedule
+     */
+    public synchronized void start() {
+        if (!settings.isEnabled() || scheduler != null) {
+            return;
+        }
+        // Let range queries know straight away which tiers have been trimmed by earlier runs
+        LocalDateTime now = LocalDateTime.now();
+        for (RetentionTarget target : targets) {
+            if (target.tier() != null) {
+                LocalDateTime cutoff = cutoffFor(target, now);
+                if (cutoff != null) {
+                    rollupService.setRetainedFrom(target.tier(), cutoff);
+                }
+            }
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (settings.getIntervalMs() > 0) {
+            scheduler.scheduleWithFixedDelay(this::applyRetentionSafely, settings.getIntervalMs(),
+                                             settings.getIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+        logger.info("Metrics retention started: raw={}d, 1m={}d, 1h={}d, 1d={}d, interval {}ms, chunk size {}",
+                   settings.getRawRetentionDays(), settings.getMinuteRollupRetentionDays(),
+                   settings.getHourRollupRetentionDays(), settings.getDayRollupRetentionDays(),
+                   settings.getIntervalMs(), settings.getChunkSize());
+    }
+
+    /**
+     * Delete every row that has outlived its tier
+     *
+     * @return rows deleted per table
+     */
+    public synchronized Map<String, Long> applyRetention() {
+        long startTime = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Long> deleted = new LinkedHashMap<>();
+
+        for (RetentionTarget target : targets) {
+            LocalDateTime cutoff = cutoffFor(target, now);
+            if (cutoff == null) {
+                continue;
+            }
+            if (target.tier() != null) {
+                // Route queries to the coarser tier before the rows go away
+                rollupService.setRetainedFrom(target.tier(), cutoff);
+            }
+
+            long count = deleteInChunks(target, cutoff);
+            if (count > 0) {
+                deleted.put(target.table(), count);
+            }
+        }
+
+        long total = deleted.values().stream().mapToLong(Long::longValue).sum();
+        totalDeleted += total;
+        lastRunDeleted = Map.copyOf(deleted);
+        lastRunTime = now;
+        lastRunDurationMs = System.currentTimeMillis() - startTime;
+        logger.info("Metrics retention removed {} rows in {}ms: {}", total, lastRunDurationMs, deleted);
+        return deleted;
+    }
+
+    /**
+     * Time before which rows of the target have expired, or null if the target keeps everything
+     */
+    private LocalDateTime cutoffFor(RetentionTarget target, LocalDateTime now) {
+        if (target.retentionDays() <= 0) {
+            return null;
+        }
+        LocalDateTime cutoff = now.minusDays(target.retentionDays());
+        if (target.tier() == null) {
+            return cutoff;
+        }
+        cutoff = target.tier().bucketStart(cutoff);
+        if (target.tier() == RollupTier.MINUTE) {
+            // Minutes not yet folded into the hour and day tiers must stay
+            LocalDateTime compactedUntil = rollupService.getCompactedUntil();
+            if (compactedUntil == null) {
+                return null;
+            }
+            cutoff = cutoff.isBefore(compactedUntil) ? cutoff : compactedUntil;
+        }
+        return cutoff;
+    }
+
+    private long deleteInChunks(RetentionTarget target, LocalDateTime cutoff) {
+        int chunkSize = Math.max(1, settings.getChunkSize());
+        long deleted = 0;
+        try {
+            while (true) {
+                int count = databaseManager.deleteOlderThan(target.table(), target.timeColumn(), target.keyColumn(),
+                                                            cutoff, chunkSize);
+                deleted += count;
+                if (count < chunkSize || closed) {
+                    break;
+                }
+                if (settings.getChunkPauseMs() > 0) {
+                    Thread.sleep(settings.getChunkPauseMs());
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("Retention delete on {} stopped after {} rows: {}", target.table(), deleted, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("Retention delete on {} interrupted after {} rows", target.table(), deleted);
+        }
+        return deleted;
+    }
+
+    private void applyRetentionSafely() {
+        try {
+            applyRetention();
+        } catch (Exception e) {
+            logger.warn("Metrics retention run failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Retention configuration and the results of the latest runs
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", settings.isEnabled());
+        stats.put("scheduled", scheduler != null);
+        stats.put("rawRetentionDays", settings.getRawRetentionDays());
+        stats.put("minuteRollupRetentionDays", settings.getMinuteRollupRetentionDays());
+        stats.put("hourRollupRetentionDays", settings.getHourRollupRetentionDays());
+        stats.put("dayRollupRetentionDays", settings.getDayRollupRetentionDays());
+        stats.put("lastRunTime", lastRunTime);
+        stats.put("lastRunDurationMs", lastRunDurationMs);
+        stats.put("lastRunDeleted", lastRunDeleted);
+        stats.put("totalDeleted", totalDeleted);
+        return stats;
+    }
+
+    /**
+     * Stop the schedule; a run in progress stops after its current chunk
+     */
+    @Override
+    public void close() {
+        closed = true;
+        ScheduledExecutorService current = scheduler;
+        if (current != null) {
+            current.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
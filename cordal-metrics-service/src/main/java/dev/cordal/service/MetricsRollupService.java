@@ -0,0 +1,368 @@
+package dev.cordal.service;
+
+import dev.cordal.common.model.PerformanceMetrics;
+import dev.cordal.config.MetricsConfig;
+import dev.cordal.model.MetricsRollup;
+import dev.cordal.model.RollupTier;
+import dev.cordal.repository.MetricsRollupRepository;
+import dev.cordal.repository.PerformanceMetricsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maintains the 1-minute, 1-hour and 1-day performance metrics rollups.
+ *
+ * Batches written by the ingestion pipeline's single writer thread are folded into the minute
+ * tier straight away. Samples saved on request threads are only queued, without taking a lock or
+ * a connection, and are folded in by the background thread on a short interval, or earlier when
+ * a range query or compaction needs them. The same thread periodically folds closed minute
+ * buckets into the hour and day tiers and advances a watermark; samples that arrive for minutes
+ * already behind the watermark are written to all three tiers directly. Range queries are answered from the coarsest tier that exactly covers
+ * each part of the range, plus the minute buckets after the watermark, so the number of rows
+ * read depends on the number of days in the range rather than on the number of samples.
+ */
+@Singleton
+public class MetricsRollupService implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRollupService.class);
+
+    private final MetricsRollupRepository rollupRepository;
+    private final PerformanceMetricsRepository metricsRepository;
+    private final MetricsConfig.RollupSettings settings;
+    private final Queue<PerformanceMetrics> pendingSamples = new ConcurrentLinkedQueue<>();
+    private ScheduledExecutorService compactor;
+
+    // Minute buckets before this time have been folded into the hour and day tiers; null if none have
+    private volatile LocalDateTime compactedUntil;
+
+    // Oldest bucket the minute and hour tiers still hold after retention; null if they hold everything
+    private volatile LocalDateTime minuteRetainedFrom;
+    private volatile LocalDateTime hourRetainedFrom;
+
+    @Inject
+    public MetricsRollupService(MetricsRollupRepository rollupRepository,
+                                PerformanceMetricsRepository metricsRepository,
+                                MetricsConfig.RollupSettings settings) {
+        this.rollupRepository = rollupRepository;
+        this.metricsRepository = metricsRepository;
+        this.settings = settings;
+        this.compactedUntil = rollupRepository.loadCompactedUntil();
+    }
+
+    /**
+     * Build the rollups from existing raw rows if they have never been initialised, then start
+     * the background flush and compaction
+     */
+    public synchronized void start() {
+        if (!rollupRepository.hasCompactionState()) {
+            initialize();
+        }
+        if (compactor != null) {
+            return;
+        }
+
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-rollup-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long flushIntervalMs = Math.max(1, settings.getFlushIntervalMs());
+        compactor.scheduleWithFixedDelay(this::flushPendingSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (settings.getCompactionIntervalMs() > 0) {
+            compactor.scheduleWithFixedDelay(this::compactSafely, settings.getCompactionIntervalMs(),
+                                             settings.getCompactionIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+        logger.info("Metrics rollup compactor started, flush interval {}ms, compaction interval {}ms",
+                   flushIntervalMs, settings.getCompactionIntervalMs());
+    }
+
+    private void initialize() {
+        if (settings.isBackfillOnStartup()) {
+            long startTime = System.currentTimeMillis();
+            long scanned = metricsRepository.scanAll(Math.max(1, settings.getBackfillChunkSize()), this::record);
+            if (scanned > 0) {
+                logger.info("Backfilled metrics rollups from {} raw rows in {}ms", scanned, System.currentTimeMillis() - startTime);
+            }
+        }
+
+        try (Connection connection = rollupRepository.getConnection()) {
+            rollupRepository.saveCompactedUntil(connection, compactedUntil);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to initialise metrics rollup state", e);
+        }
+        compact();
+    }
+
+    /**
+     * Queue samples saved on a request thread; they reach the rollups on the next flush
+     */
+    public void submit(List<PerformanceMetrics> batch) {
+        pendingSamples.addAll(batch);
+    }
+
+    /**
+     * Fold every queued sample into the rollups
+     */
+    public void flushPending() {
+        if (pendingSamples.isEmpty()) {
+            return;
+        }
+        List<PerformanceMetrics> batch = new ArrayList<>();
+        PerformanceMetrics metrics;
+        while ((metrics = pendingSamples.poll()) != null) {
+            batch.add(metrics);
+        }
+        record(batch);
+    }
+
+    private void flushPendingSafely() {
+        try {
+            flushPending();
+        } catch (Exception e) {
+            // The raw rows are stored; a missing rollup update only affects summaries and trends
+            logger.warn("Failed to flush queued metrics rollup samples: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Fold a batch of samples into the rollups. Meant for the single ingestion writer thread and
+     * the background flush; request threads use {@link #submit}.
+     */
+    public synchronized void record(List<PerformanceMetrics> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<RollupTier, Map<String, MetricsRollup>> deltas = new HashMap<>();
+        LocalDateTime watermark = compactedUntil;
+        for (PerformanceMetrics metrics : batch) {
+            LocalDateTime timestamp = metrics.getTimestamp() != null ? metrics.getTimestamp() : LocalDateTime.now();
+            LocalDateTime minute = RollupTier.MINUTE.bucketStart(timestamp);
+
+            addSample(deltas, RollupTier.MINUTE, metrics, timestamp);
+            if (watermark != null && minute.isBefore(watermark)) {
+                // The compactor has already moved past this minute, so update the coarser tiers here
+                addSample(deltas, RollupTier.HOUR, metrics, timestamp);
+                addSample(deltas, RollupTier.DAY, metrics, timestamp);
+            }
+        }
+
+        write(deltas, null);
+    }
+
+    private void addSample(Map<RollupTier, Map<String, MetricsRollup>> deltas, RollupTier tier,
+                           PerformanceMetrics metrics, LocalDateTime timestamp) {
+        LocalDateTime bucketStart = tier.bucketStart(timestamp);
+        String testType = metrics.getTestType() != null ? metrics.getTestType() : "UNKNOWN";
+        deltas.computeIfAbsent(tier, t -> new HashMap<>())
+              .computeIfAbsent(bucketKey(bucketStart, testType), k -> new MetricsRollup(testType, bucketStart))
+              .record(metrics.getAverageResponseTimeMs(), Boolean.TRUE.equals(metrics.getTestPassed()), timestamp);
+    }
+
+    /**
+     * Fold every closed minute bucket after the watermark into the hour and day tiers
+     *
+     * @return the number of minute buckets compacted
+     */
+    public synchronized int compact() {
+        flushPending();
+        LocalDateTime target = RollupTier.MINUTE.bucketStart(LocalDateTime.now());
+        LocalDateTime watermark = compactedUntil;
+        if (watermark != null && !watermark.isBefore(target)) {
+            return 0;
+        }
+
+        try (Connection connection = rollupRepository.getConnection()) {
+            List<MetricsRollup> minutes = rollupRepository.findBuckets(connection, RollupTier.MINUTE, watermark, target);
+
+            Map<RollupTier, Map<String, MetricsRollup>> deltas = new HashMap<>();
+            for (MetricsRollup minute : minutes) {
+                for (RollupTier tier : List.of(RollupTier.HOUR, RollupTier.DAY)) {
+                    LocalDateTime bucketStart = tier.bucketStart(minute.getBucketStart());
+                    deltas.computeIfAbsent(tier, t -> new HashMap<>())
+                          .computeIfAbsent(bucketKey(bucketStart, minute.getTestType()),
+                                           k -> new MetricsRollup(minute.getTestType(), bucketStart))
+                          .merge(minute);
+                }
+            }
+
+            write(deltas, target);
+            logger.debug("Compacted {} minute rollup buckets up to {}", minutes.size(), target);
+            return minutes.size();
+
+        } catch (SQLException e) {
+            logger.error("Failed to compact metrics rollups", e);
+            throw new RuntimeException("Failed to compact metrics rollups", e);
+        }
+    }
+
+    private void compactSafely() {
+        try {
+            compact();
+        } catch (Exception e) {
+            logger.warn("Metrics rollup compaction failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Write deltas to all tiers in one transaction, optionally advancing the watermark with them
+     */
+    private void write(Map<RollupTier, Map<String, MetricsRollup>> deltas, LocalDateTime newCompactedUntil) {
+        try (Connection connection = rollupRepository.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                for (Map.Entry<RollupTier, Map<String, MetricsRollup>> entry : deltas.entrySet()) {
+                    rollupRepository.mergeInto(connection, entry.getKey(), entry.getValue().values());
+                }
+                if (newCompactedUntil != null) {
+                    rollupRepository.saveCompactedUntil(connection, newCompactedUntil);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to write metrics rollups", e);
+            throw new RuntimeException("Failed to write metrics rollups", e);
+        }
+
+        if (newCompactedUntil != null) {
+            compactedUntil = newCompactedUntil;
+        }
+    }
+
+    /**
+     * Rollup buckets that together cover exactly the minutes in [from, to] for the given test type.
+     * Null bounds are open; the range is widened to whole minutes; a null test type means all types.
+     * Queued samples are flushed first, so the answer includes every sample saved so far.
+     */
+    public List<MetricsRollup> findRollups(LocalDateTime from, LocalDateTime to, String testType) {
+        flushPendingSafely();
+        LocalDateTime start = from != null ? RollupTier.MINUTE.bucketStart(from) : null;
+        LocalDateTime end = to != null ? RollupTier.MINUTE.bucketStart(to).plusMinutes(1) : null;
+        LocalDateTime watermark = compactedUntil;
+
+        List<MetricsRollup> rollups = new ArrayList<>();
+        if (watermark != null) {
+            // Compacted part of the range, from the coarsest tiers that fit
+            LocalDateTime compactedEnd = end == null || end.isAfter(watermark) ? watermark : end;
+            collectCompacted(start, compactedEnd, testType, rollups);
+        }
+
+        // Minutes not yet compacted only exist in the minute tier
+        LocalDateTime recentStart = watermark == null || (start != null && start.isAfter(watermark)) ? start : watermark;
+        if (recentStart == null || end == null || recentStart.isBefore(end)) {
+            rollups.addAll(rollupRepository.findBuckets(RollupTier.MINUTE, recentStart, end, testType));
+        }
+        return rollups;
+    }
+
+    /**
+     * Decompose [start, end) into minute, hour and day segments: minutes up to the first hour
+     * boundary, hours up to the first day boundary, whole days, then hours and minutes again
+     */
+    private void collectCompacted(LocalDateTime start, LocalDateTime end, String testType, List<MetricsRollup> rollups) {
+        // Widen range ends that fall before what a fine tier still retains to the next coarser tier
+        if (start != null) {
+            start = widenToRetainedTier(start, false);
+        }
+        end = widenToRetainedTier(end, true);
+
+        if (start != null && !start.isBefore(end)) {
+            return;
+        }
+
+        LocalDateTime hourStart = start != null ? RollupTier.HOUR.ceiling(start) : null;
+        LocalDateTime hourEnd = RollupTier.HOUR.bucketStart(end);
+        if (hourStart != null && !hourStart.isBefore(hourEnd)) {
+            rollups.addAll(rollupRepository.findBuckets(RollupTier.MINUTE, start, end, testType));
+            return;
+        }
+
+        if (start != null && start.isBefore(hourStart)) {
+            rollups.addAll(rollupRepository.findBuckets(RollupTier.MINUTE, start, hourStart, testType));
+        }
+
+        LocalDateTime dayStart = hourStart != null ? RollupTier.DAY.ceiling(hourStart) : null;
+        LocalDateTime dayEnd = RollupTier.DAY.bucketStart(hourEnd);
+        if (dayStart != null && !dayStart.isBefore(dayEnd)) {
+            rollups.addAll(rollupRepository.findBuckets(RollupTier.HOUR, hourStart, hourEnd, testType));
+        } else {
+            if (hourStart != null && hourStart.isBefore(dayStart)) {
+                rollups.addAll(rollupRepository.findBuckets(RollupTier.HOUR, hourStart, dayStart, testType));
+            }
+            rollups.addAll(rollupRepository.findBuckets(RollupTier.DAY, dayStart, dayEnd, testType));
+            if (dayEnd.isBefore(hourEnd)) {
+                rollups.addAll(rollupRepository.findBuckets(RollupTier.HOUR, dayEnd, hourEnd, testType));
+            }
+        }
+
+        if (hourEnd.isBefore(end)) {
+            rollups.addAll(rollupRepository.findBuckets(RollupTier.MINUTE, hourEnd, end, testType));
+        }
+    }
+
+    private LocalDateTime widenToRetainedTier(LocalDateTime time, boolean roundUp) {
+        LocalDateTime hourLimit = hourRetainedFrom;
+        LocalDateTime minuteLimit = minuteRetainedFrom;
+        if (hourLimit != null && time.isBefore(hourLimit)) {
+            return roundUp ? RollupTier.DAY.ceiling(time) : RollupTier.DAY.bucketStart(time);
+        }
+        if (minuteLimit != null && time.isBefore(minuteLimit)) {
+            return roundUp ? RollupTier.HOUR.ceiling(time) : RollupTier.HOUR.bucketStart(time);
+        }
+        return time;
+    }
+
+    /**
+     * Record the oldest bucket a tier still holds after retention, so range queries older than
+     * that are answered from the next coarser tier instead
+     */
+    public void setRetainedFrom(RollupTier tier, LocalDateTime retainedFrom) {
+        switch (tier) {
+            case MINUTE -> minuteRetainedFrom = retainedFrom;
+            case HOUR -> hourRetainedFrom = retainedFrom;
+            case DAY -> { /* coarsest tier, nothing to fall back to */ }
+        }
+    }
+
+    public LocalDateTime getCompactedUntil() {
+        return compactedUntil;
+    }
+
+    private static String bucketKey(LocalDateTime bucketStart, String testType) {
+        return bucketStart + "|" + testType;
+    }
+
+    /**
+     * Stop the compactor after a final flush and compaction run
+     */
+    @Override
+    public synchronized void close() {
+        if (compactor == null) {
+            flushPendingSafely();
+            return;
+        }
+        compactor.shutdownNow();
+        compactor = null;
+        compactSafely();
+    }
+}
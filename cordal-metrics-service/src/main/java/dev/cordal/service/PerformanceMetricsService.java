@@ -4,6 +4,7 @@ import dev.cordal.common.dto.PagedResponse;
 import dev.cordal.common.model.PerformanceMetrics;
 import dev.cordal.dto.PerformanceSummaryDto;
 import dev.cordal.dto.PerformanceTrendsDto;
+import dev.cordal.model.MetricsRollup;
 import dev.cordal.repository.PerformanceMetricsRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,10 +12,12 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
 
 /**
  * Service for managing performance metrics
@@ -24,10 +27,12 @@ public class PerformanceMetricsService {
     private static final Logger logger = LoggerFactory.getLogger(PerformanceMetricsService.class);
     
     private final PerformanceMetricsRepository repository;
+    private final MetricsRollupService rollupService;
     
     @Inject
-    public PerformanceMetricsService(PerformanceMetricsRepository repository) {
+    public PerformanceMetricsService(PerformanceMetricsRepository repository, MetricsRollupService rollupService) {
         this.repository = repository;
+        this.rollupService = rollupService;
     }
     
     /**
@@ -35,7 +40,30 @@ public class PerformanceMetricsService {
      */
     public PerformanceMetrics saveMetrics(PerformanceMetrics metrics) {
         logger.info("Saving performance metrics for test: {}", metrics.getTestName());
-        return repository.save(metrics);
+        PerformanceMetrics saved = repository.save(metrics);
+        // Request threads only queue the sample; the rollup service folds it in off the hot path
+        rollupService.submit(List.of(saved));
+        return saved;
+    }
+
+    /**
+     * Save a batch of performance metrics in one database round-trip and fold it into the
+     * rollups straight away. Called from the ingestion pipeline's single writer thread.
+     */
+    public int saveMetricsBatch(List<PerformanceMetrics> batch) {
+        logger.debug("Saving batch of {} performance metrics", batch.size());
+        int saved = repository.saveBatch(batch);
+        updateRollups(batch);
+        return saved;
+    }
+
+    private void updateRollups(List<PerformanceMetrics> batch) {
+        try {
+            rollupService.record(batch);
+        } catch (Exception e) {
+            // The raw rows are stored; a missing rollup update only affects summaries and trends
+            logger.warn("Failed to update metrics rollups for {} samples: {}", batch.size(), e.getMessage());
+        }
     }
     
     /**
@@ -84,49 +112,44 @@ public class PerformanceMetricsService {
     }
     
     /**
-     * Get performance summary statistics
+     * Get performance summary statistics over all stored metrics
      * Returns type-safe DTO instead of unsafe Map<String, Object>
      */
     public PerformanceSummaryDto getPerformanceSummary() {
-        List<PerformanceMetrics> recentMetrics = repository.findAll(0, 100); // Get last 100 records
+        List<MetricsRollup> rollups = rollupService.findRollups(null, null, null);
 
-        if (recentMetrics.isEmpty()) {
+        if (rollups.isEmpty()) {
             logger.debug("No performance metrics found, returning empty summary");
             return new PerformanceSummaryDto(); // Empty summary
         }
 
-        // Calculate summary statistics
-        double avgResponseTime = recentMetrics.stream()
-            .filter(m -> m.getAverageResponseTimeMs() != null)
-            .mapToDouble(PerformanceMetrics::getAverageResponseTimeMs)
-            .average()
-            .orElse(0.0);
-
-        long passedTests = recentMetrics.stream()
-            .filter(m -> m.getTestPassed() != null && m.getTestPassed())
-            .count();
-
-        double successRate = (double) passedTests / recentMetrics.size() * 100;
+        // Merge all buckets into one overall aggregate and one per test type
+        MetricsRollup total = new MetricsRollup(null, null);
+        Map<String, MetricsRollup> byTestType = new TreeMap<>();
+        for (MetricsRollup rollup : rollups) {
+            total.merge(rollup);
+            byTestType.computeIfAbsent(rollup.getTestType(), type -> new MetricsRollup(type, null)).merge(rollup);
+        }
 
-        Map<String, Long> testTypeDistribution = recentMetrics.stream()
-            .collect(Collectors.groupingBy(
-                PerformanceMetrics::getTestType,
-                Collectors.counting()
-            ));
+        Map<String, Long> testTypeDistribution = new LinkedHashMap<>();
+        byTestType.forEach((testType, rollup) -> testTypeDistribution.put(testType, rollup.getSampleCount()));
 
-        List<String> testTypes = getAvailableTestTypes();
-        LocalDateTime lastTestTime = recentMetrics.get(0).getTimestamp();
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", total.getResponseTimePercentileMs(50.0));
+        percentiles.put("p90", total.getResponseTimePercentileMs(90.0));
+        percentiles.put("p99", total.getResponseTimePercentileMs(99.0));
 
-        logger.debug("Generated performance summary: {} tests, {:.2f}ms avg response time, {:.1f}% success rate",
-                    recentMetrics.size(), avgResponseTime, successRate);
+        logger.debug("Generated performance summary from {} rollup buckets: {} tests, {}ms avg response time, {}% success rate",
+                    rollups.size(), total.getSampleCount(), total.getAverageResponseTimeMs(), total.getSuccessRate());
 
         return new PerformanceSummaryDto(
-            recentMetrics.size(),
-            avgResponseTime,
-            successRate,
-            testTypes,
+            (int) Math.min(Integer.MAX_VALUE, total.getSampleCount()),
+            total.getAverageResponseTimeMs(),
+            total.getSuccessRate(),
+            new ArrayList<>(byTestType.keySet()),
             testTypeDistribution,
-            lastTestTime
+            total.getLastSampleTime(),
+            percentiles
         );
     }
     
@@ -140,61 +163,38 @@ public class PerformanceMetricsService {
 
         logger.debug("Retrieving performance trends for testType='{}' over {} days", testType, days);
 
-        List<PerformanceMetrics> metrics = repository.findByDateRange(startDate, endDate, 0, 1000);
+        List<MetricsRollup> rollups = rollupService.findRollups(
+            startDate, endDate, testType != null && !testType.isEmpty() ? testType : null);
 
-        if (testType != null && !testType.isEmpty()) {
-            metrics = metrics.stream()
-                .filter(m -> testType.equals(m.getTestType()))
-                .collect(Collectors.toList());
-            logger.debug("Filtered to {} metrics for test type '{}'", metrics.size(), testType);
+        // Group by date for trend analysis
+        Map<String, MetricsRollup> dailyMetrics = new TreeMap<>();
+        for (MetricsRollup rollup : rollups) {
+            dailyMetrics.computeIfAbsent(rollup.getBucketStart().toLocalDate().toString(), date -> new MetricsRollup(testType, null))
+                        .merge(rollup);
         }
 
-        if (metrics.isEmpty()) {
+        if (dailyMetrics.isEmpty()) {
             logger.debug("No metrics found for the specified criteria, returning empty trends");
             return new PerformanceTrendsDto(); // Empty trends
         }
 
-        // Group by date for trend analysis
-        Map<String, List<PerformanceMetrics>> dailyMetrics = metrics.stream()
-            .collect(Collectors.groupingBy(
-                m -> m.getTimestamp().toLocalDate().toString()
-            ));
-
-        // Calculate daily averages
-        Map<String, Double> dailyAverageResponseTimes = dailyMetrics.entrySet().stream()
-            .collect(Collectors.toMap(
-                Map.Entry::getKey,
-                entry -> entry.getValue().stream()
-                    .filter(m -> m.getAverageResponseTimeMs() != null)
-                    .mapToDouble(PerformanceMetrics::getAverageResponseTimeMs)
-                    .average()
-                    .orElse(0.0)
-            ));
-
-        Map<String, Double> dailySuccessRates = dailyMetrics.entrySet().stream()
-            .collect(Collectors.toMap(
-                Map.Entry::getKey,
-                entry -> {
-                    List<PerformanceMetrics> dayMetrics = entry.getValue();
-                    long passed = dayMetrics.stream()
-                        .filter(m -> m.getTestPassed() != null && m.getTestPassed())
-                        .count();
-                    return (double) passed / dayMetrics.size() * 100;
-                }
-            ));
-
-        List<String> sortedDates = dailyAverageResponseTimes.keySet().stream()
-            .sorted()
-            .collect(Collectors.toList());
+        Map<String, Double> dailyAverageResponseTimes = new LinkedHashMap<>();
+        Map<String, Double> dailySuccessRates = new LinkedHashMap<>();
+        long totalDataPoints = 0;
+        for (Map.Entry<String, MetricsRollup> entry : dailyMetrics.entrySet()) {
+            dailyAverageResponseTimes.put(entry.getKey(), entry.getValue().getAverageResponseTimeMs());
+            dailySuccessRates.put(entry.getKey(), entry.getValue().getSuccessRate());
+            totalDataPoints += entry.getValue().getSampleCount();
+        }
 
-        logger.debug("Generated performance trends: {} dates, {} total data points",
-                    sortedDates.size(), metrics.size());
+        logger.debug("Generated performance trends: {} dates, {} total data points from {} rollup buckets",
+                    dailyMetrics.size(), totalDataPoints, rollups.size());
 
         return new PerformanceTrendsDto(
-            sortedDates,
+            new ArrayList<>(dailyMetrics.keySet()),
             dailyAverageResponseTimes,
             dailySuccessRates,
-            metrics.size()
+            (int) Math.min(Integer.MAX_VALUE, totalDataPoints)
         );
     }
     
@@ -25,4 +25,6 @@ module dev.cordal.metrics {
     // Java platform modules
     requires java.sql;
     requires java.net.http;
+    requires java.management;
+    requires jdk.management;
 }
\ No newline at end of file
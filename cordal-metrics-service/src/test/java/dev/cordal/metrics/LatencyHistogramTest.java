@@ -0,0 +1,124 @@
+package dev.cordal.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for the log-bucketed latency histogram and the per-endpoint recorder
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void testBucketsCoverEveryValueWithBoundedError() {
+        for (long value : new long[] {0, 1, 31, 32, 33, 63, 64, 1_000, 12_345, 1_000_000, 987_654_321L}) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertThat(index).isBetween(0, LatencyHistogram.BUCKET_COUNT - 1);
+            assertThat(LatencyHistogram.lowestEquivalentValue(index)).isLessThanOrEqualTo(value);
+            assertThat(LatencyHistogram.highestEquivalentValue(index)).isGreaterThanOrEqualTo(value);
+            assertThat((double) LatencyHistogram.highestEquivalentValue(index) - LatencyHistogram.lowestEquivalentValue(index))
+                .isLessThanOrEqualTo(Math.max(0, value / 32.0));
+        }
+    }
+
+    @Test
+    void testPercentilesOfUniformDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i);
+        }
+
+        assertThat(histogram.getTotalCount()).isEqualTo(10_000);
+        assertThat(histogram.getMaxValue()).isEqualTo(10_000);
+        assertThat((double) histogram.getValueAtPercentile(50.0)).isCloseTo(5_000, within(5_000 * 0.04));
+        assertThat((double) histogram.getValueAtPercentile(90.0)).isCloseTo(9_000, within(9_000 * 0.04));
+        assertThat((double) histogram.getValueAtPercentile(99.0)).isCloseTo(9_900, within(9_900 * 0.04));
+        assertThat(histogram.getValueAtPercentile(100.0)).isEqualTo(10_000);
+    }
+
+    @Test
+    void testAddAndResetHistograms() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(20);
+        second.record(5_000);
+
+        first.add(second);
+        assertThat(first.getTotalCount()).isEqualTo(3);
+        assertThat(first.getMaxValue()).isEqualTo(5_000);
+
+        first.reset();
+        assertThat(first.getTotalCount()).isZero();
+        assertThat(first.getValueAtPercentile(99.0)).isZero();
+    }
+
+    @Test
+    void testByteArrayRoundTrip() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 1000; i++) {
+            histogram.record(i * 37L);
+        }
+        histogram.record(5_000_000);
+
+        LatencyHistogram decoded = LatencyHistogram.fromByteArray(histogram.toByteArray());
+        assertThat(decoded.getTotalCount()).isEqualTo(histogram.getTotalCount());
+        assertThat(decoded.getMaxValue()).isEqualTo(5_000_000);
+        assertThat(decoded.getValueAtPercentile(90.0)).isEqualTo(histogram.getValueAtPercentile(90.0));
+        assertThat(LatencyHistogram.fromByteArray(null).getTotalCount()).isZero();
+    }
+
+    @Test
+    void testRecorderSnapshotsDoNotLoseConcurrentSamples() throws InterruptedException {
+        EndpointLatencyRecorder recorder = new EndpointLatencyRecorder();
+        int writers = 4;
+        int samplesPerWriter = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < samplesPerWriter; i++) {
+                    recorder.record(100 + (i % 900), i % 10 != 0, System.currentTimeMillis());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // Keep taking snapshots while the writers are recording
+        Thread reader = new Thread(() -> {
+            while (writing.get()) {
+                recorder.snapshot();
+            }
+        });
+        reader.start();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        writing.set(false);
+        reader.join();
+
+        EndpointLatencyRecorder.LatencySnapshot snapshot = recorder.snapshot();
+        long expected = (long) writers * samplesPerWriter;
+        assertThat(snapshot.totalRequests()).isEqualTo(expected);
+        assertThat(snapshot.successRate()).isCloseTo(90.0, within(0.01));
+        assertThat(snapshot.maxMicros()).isEqualTo(999);
+        assertThat(snapshot.p50Micros()).isBetween(500L, 600L);
+        assertThat(snapshot.p999Micros()).isBetween(snapshot.p99Micros(), snapshot.maxMicros());
+        assertThat(snapshot.lastRequestTimeMillis()).isPositive();
+    }
+}
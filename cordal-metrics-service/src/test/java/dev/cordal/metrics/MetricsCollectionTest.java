@@ -2,12 +2,16 @@ package dev.cordal.metrics;
 
 import dev.cordal.metrics.MetricsApplication;
 import dev.cordal.common.model.PerformanceMetrics;
+import dev.cordal.config.MetricsConfig;
+import dev.cordal.model.ApplicationMetrics;
+import dev.cordal.repository.ApplicationMetricsRepository;
 import dev.cordal.service.PerformanceMetricsService;
 import io.javalin.Javalin;
 import io.javalin.testtools.JavalinTest;
 import org.junit.jupiter.api.*;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -225,9 +229,40 @@ public class MetricsCollectionTest {
             // Verify memory metrics are included (based on test configuration)
             assertThat(healthMetric.getMemoryUsageBytes()).isNotNull();
             assertThat(healthMetric.getMemoryUsageBytes()).isGreaterThan(0);
+
+            // Bytes allocated while serving the request
+            assertThat(healthMetric.getMemoryIncreaseBytes()).isNotNull();
+            assertThat(healthMetric.getMemoryIncreaseBytes()).isGreaterThan(0);
         });
     }
 
+    @Test
+    void testUnsampledRequestsOnlyFeedEndpointMetrics() {
+        Javalin app = application.getApp();
+        MetricsConfig metricsConfig = application.getInjector().getInstance(MetricsConfig.class);
+        MetricsCollectionHandler handler = application.getInjector().getInstance(MetricsCollectionHandler.class);
+        double samplingRate = metricsConfig.getMetricsCollection().getSamplingRate();
+        metricsConfig.getMetricsCollection().setSamplingRate(0.0);
+        handler.resetMetrics();
+
+        try {
+            JavalinTest.test(app, (server, client) -> {
+                for (int i = 0; i < 3; i++) {
+                    assertThat(client.get("/api/health").code()).isEqualTo(200);
+                }
+
+                assertThat(metricsService.getAllMetrics(0, 100).getData()).isEmpty();
+
+                @SuppressWarnings("unchecked")
+                Map<String, Object> health = (Map<String, Object>) handler.getEndpointMetricsSummary().get("GET /api/health");
+                assertThat(health).isNotNull();
+                assertThat(health.get("totalRequests")).isEqualTo(3L);
+            });
+        } finally {
+            metricsConfig.getMetricsCollection().setSamplingRate(samplingRate);
+        }
+    }
+
     @Test
     void testMetricsForAsyncEndpoints() {
         Javalin app = application.getApp();
@@ -293,6 +328,51 @@ public class MetricsCollectionTest {
         });
     }
 
+    @Test
+    void testApplicationMetricsRowIsWrittenWithTypedColumns() {
+        Javalin app = application.getApp();
+        ApplicationMetricsRepository repository = application.getInjector().getInstance(ApplicationMetricsRepository.class);
+
+        JavalinTest.test(app, (server, client) -> {
+            var response = client.get("/api/health", builder -> builder.header("User-Agent", "metrics-test-agent"));
+            assertThat(response.code()).isEqualTo(200);
+
+            List<ApplicationMetrics> rows = repository.findRecentByEndpoint("/api/health", 10);
+
+            assertThat(rows).isNotEmpty();
+            ApplicationMetrics row = rows.get(0);
+            assertThat(row.getMethod()).isEqualTo("GET");
+            assertThat(row.getStatusCode()).isEqualTo(200);
+            assertThat(row.getResponseTimeMs()).isGreaterThanOrEqualTo(0);
+            assertThat(row.getResponseSizeBytes()).isPositive();
+            assertThat(row.getUserAgent()).isEqualTo("metrics-test-agent");
+            assertThat(row.getIpAddress()).isNotBlank();
+        });
+    }
+
+    @Test
+    void testOpenMetricsEndpointExposesInMemoryCounters() {
+        Javalin app = application.getApp();
+
+        JavalinTest.test(app, (server, client) -> {
+            client.get("/api/health");
+            client.get("/api/health");
+
+            var response = client.get("/metrics", builder -> builder.header("Accept", "application/openmetrics-text"));
+            assertThat(response.code()).isEqualTo(200);
+            assertThat(response.header("Content-Type")).startsWith("application/openmetrics-text");
+
+            String body = response.body().string();
+            assertThat(body).contains("# TYPE cordal_http_requests counter");
+            assertThat(body).contains("cordal_http_requests_total{endpoint=\"GET /api/health\",outcome=\"success\"} 2");
+            assertThat(body).contains("cordal_http_request_duration_seconds_count{endpoint=\"GET /api/health\"} 2");
+            assertThat(body).contains("cordal_metrics_writer_queue_depth{writer=\"performance_metrics\"}");
+            assertThat(body).contains("cordal_db_pool_connections{pool=");
+            assertThat(body).doesNotContain("/metrics\"");
+            assertThat(body).endsWith("# EOF\n");
+        });
+    }
+
     @Test
     void testMetricsTimestampAccuracy() {
         Javalin app = application.getApp();
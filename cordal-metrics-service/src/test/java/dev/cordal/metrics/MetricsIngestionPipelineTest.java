@@ -0,0 +1,159 @@
+package dev.cordal.metrics;
+
+import dev.cordal.common.model.PerformanceMetrics;
+import dev.cordal.config.MetricsConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the batched metrics ingestion pipeline
+ */
+class MetricsIngestionPipelineTest {
+
+    private static MetricsConfig.IngestionSettings settings(int capacity, int batchSize, long flushIntervalMs, String policy) {
+        MetricsConfig.IngestionSettings settings = new MetricsConfig.IngestionSettings();
+        settings.setQueueCapacity(capacity);
+        settings.setBatchSize(batchSize);
+        settings.setFlushIntervalMs(flushIntervalMs);
+        settings.setOverflowPolicy(policy);
+        settings.setBlockTimeoutMs(2000);
+        return settings;
+    }
+
+    private static PerformanceMetrics sample(int i) {
+        PerformanceMetrics metrics = new PerformanceMetrics("API Request - GET /api/test/" + i, "API_REQUEST");
+        metrics.setTotalRequests(1);
+        return metrics;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    @Test
+    void testFullBatchesAreFlushedBySize() throws InterruptedException {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        MetricsIngestionPipeline pipeline = new MetricsIngestionPipeline(
+            batch -> batchSizes.add(batch.size()), settings(64, 10, 60_000, "drop"));
+
+        for (int i = 0; i < 25; i++) {
+            assertThat(pipeline.submit(sample(i))).isTrue();
+        }
+        await(() -> batchSizes.size() >= 2);
+        assertThat(batchSizes).containsExactly(10, 10);
+
+        // The remainder is written when the pipeline is closed
+        pipeline.close();
+        assertThat(batchSizes).containsExactly(10, 10, 5);
+        assertThat(pipeline.getFlushedCount()).isEqualTo(25);
+        assertThat(pipeline.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void testPartialBatchIsFlushedAfterInterval() throws InterruptedException {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        MetricsIngestionPipeline pipeline = new MetricsIngestionPipeline(
+            batch -> batchSizes.add(batch.size()), settings(64, 100, 50, "drop"));
+
+        try {
+            pipeline.submit(sample(1));
+            pipeline.submit(sample(2));
+            pipeline.submit(sample(3));
+
+            await(() -> !batchSizes.isEmpty());
+            assertThat(batchSizes).containsExactly(3);
+            assertThat(pipeline.getStats()).containsEntry("flushes", 1L).containsEntry("flushedSamples", 3L);
+        } finally {
+            pipeline.close();
+        }
+    }
+
+    @Test
+    void testSamplesAreDroppedWhenBufferIsFull() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger written = new AtomicInteger();
+        MetricsIngestionPipeline pipeline = new MetricsIngestionPipeline(batch -> {
+            writing.countDown();
+            release.await();
+            written.addAndGet(batch.size());
+        }, settings(4, 1, 60_000, "drop"));
+
+        // The writer takes the first sample and stalls in the sink, so the buffer fills up
+        pipeline.submit(sample(0));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i <= 4; i++) {
+            assertThat(pipeline.submit(sample(i))).isTrue();
+        }
+        assertThat(pipeline.submit(sample(5))).isFalse();
+        assertThat(pipeline.getDroppedCount()).isEqualTo(1);
+        assertThat(pipeline.getQueueDepth()).isEqualTo(4);
+
+        release.countDown();
+        pipeline.close();
+        assertThat(written.get()).isEqualTo(5);
+        assertThat(pipeline.getStats()).containsEntry("enqueued", 5L).containsEntry("dropped", 1L);
+    }
+
+    @Test
+    void testBlockPolicyAppliesBackpressureToConcurrentProducers() throws InterruptedException {
+        AtomicInteger written = new AtomicInteger();
+        MetricsIngestionPipeline pipeline = new MetricsIngestionPipeline(
+            batch -> written.addAndGet(batch.size()), settings(16, 8, 10, "block"));
+
+        int producers = 4;
+        int samplesPerProducer = 5000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < samplesPerProducer; i++) {
+                    pipeline.submit(sample(i));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        pipeline.close();
+
+        assertThat(pipeline.getDroppedCount()).isZero();
+        assertThat(written.get()).isEqualTo(producers * samplesPerProducer);
+        assertThat((Long) pipeline.getStats().get("blockedOffers")).isPositive();
+    }
+
+    @Test
+    void testFailedFlushesAreCountedAndDoNotStopTheWriter() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        MetricsIngestionPipeline pipeline = new MetricsIngestionPipeline(batch -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("database unavailable");
+            }
+        }, settings(64, 2, 60_000, "drop"));
+
+        for (int i = 0; i < 4; i++) {
+            pipeline.submit(sample(i));
+        }
+        pipeline.close();
+
+        assertThat(pipeline.getStats())
+            .containsEntry("failedFlushes", 1L)
+            .containsEntry("failedSamples", 2L)
+            .containsEntry("flushedSamples", 2L);
+        assertThat(pipeline.submit(sample(99))).isFalse();
+    }
+}
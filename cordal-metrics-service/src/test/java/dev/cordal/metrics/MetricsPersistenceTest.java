@@ -276,4 +276,21 @@ class MetricsPersistenceTest {
             assertThat(metricTimestamp).isBetween(beforeRequest, afterRequest + 5000); // Allow 5 second buffer
         });
     }
+
+    @Test
+    void testBatchSaveWritesAllRowsInOneCall() {
+        List<PerformanceMetrics> batch = new java.util.ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            PerformanceMetrics metrics = new PerformanceMetrics("API Request - GET /api/batch/" + i, "API_REQUEST");
+            metrics.setTotalRequests(1);
+            metrics.setAverageResponseTimeMs(i * 1.5);
+            metrics.setTestPassed(true);
+            batch.add(metrics);
+        }
+
+        assertThat(metricsService.saveMetricsBatch(batch)).isEqualTo(50);
+
+        List<PerformanceMetrics> saved = metricsService.getAllMetrics(0, 100).getData();
+        assertThat(saved).filteredOn(m -> m.getTestName().startsWith("API Request - GET /api/batch/")).hasSize(50);
+    }
 }
@@ -0,0 +1,77 @@
+package dev.cordal.metrics;
+
+import dev.cordal.database.MetricsDatabaseManager;
+import dev.cordal.model.SystemMetric;
+import dev.cordal.repository.SystemMetricsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the JVM and system sampler feeding the system_metrics table
+ */
+class SystemMetricsSamplerTest {
+
+    private MetricsApplication application;
+    private SystemMetricsSampler sampler;
+    private SystemMetricsRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty("metrics.config.file", "application-test.yml");
+        application = new MetricsApplication();
+        application.initializeForTesting();
+
+        application.getInjector().getInstance(MetricsDatabaseManager.class).cleanDatabase();
+        sampler = application.getInjector().getInstance(SystemMetricsSampler.class);
+        repository = application.getInjector().getInstance(SystemMetricsRepository.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (application != null) {
+            application.stop();
+        }
+        System.clearProperty("metrics.config.file");
+    }
+
+    @Test
+    void testSampleWritesJvmAndPoolMeasurements() {
+        List<SystemMetric> sampled = sampler.sample();
+
+        assertThat(sampled).extracting(SystemMetric::getMetricName)
+            .contains("jvm.memory.heap.used", "jvm.threads.live", "jvm.gc.collections",
+                      "db.pool.connections.active", "db.pool.connections.total");
+
+        List<SystemMetric> heap = repository.findRecentByName("jvm.memory.heap.used", 10);
+        assertThat(heap).hasSize(1);
+        assertThat(heap.get(0).getMetricValue()).isPositive();
+        assertThat(heap.get(0).getMetricType()).isEqualTo(SystemMetric.GAUGE);
+
+        List<SystemMetric> pool = repository.findRecentByName("db.pool.connections.total", 10);
+        assertThat(pool).hasSize(1);
+        assertThat(pool.get(0).getMetricValue()).isGreaterThanOrEqualTo(1);
+        assertThat(pool.get(0).getTags()).isEqualTo("pool=MetricsPool");
+    }
+
+    @Test
+    void testGarbageCollectionIsRecordedAsDeltaBetweenRounds() {
+        sampler.sample();
+        System.gc();
+        List<SystemMetric> second = sampler.sample();
+
+        List<SystemMetric> collections = second.stream()
+            .filter(metric -> metric.getMetricName().equals("jvm.gc.collections"))
+            .toList();
+        assertThat(collections).isNotEmpty();
+        assertThat(collections).allSatisfy(metric -> {
+            assertThat(metric.getMetricType()).isEqualTo(SystemMetric.COUNTER);
+            assertThat(metric.getMetricValue()).isGreaterThanOrEqualTo(0);
+        });
+        assertThat(collections.stream().mapToDouble(SystemMetric::getMetricValue).sum()).isGreaterThanOrEqualTo(1);
+    }
+}
@@ -0,0 +1,158 @@
+package dev.cordal.service;
+
+import dev.cordal.common.model.PerformanceMetrics;
+import dev.cordal.config.MetricsConfig;
+import dev.cordal.database.MetricsDatabaseManager;
+import dev.cordal.metrics.MetricsApplication;
+import dev.cordal.model.RollupTier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for retention tiers and chunked deletes of the metrics database
+ */
+class MetricsRetentionServiceTest {
+
+    private MetricsApplication application;
+    private MetricsDatabaseManager databaseManager;
+    private MetricsRollupService rollupService;
+    private PerformanceMetricsService metricsService;
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty("metrics.config.file", "application-test.yml");
+        application = new MetricsApplication();
+        application.initializeForTesting();
+
+        databaseManager = application.getInjector().getInstance(MetricsDatabaseManager.class);
+        rollupService = application.getInjector().getInstance(MetricsRollupService.class);
+        metricsService = application.getInjector().getInstance(PerformanceMetricsService.class);
+        databaseManager.cleanDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (application != null) {
+            try {
+                application.stop();
+            } catch (Exception e) {
+                // Ignore cleanup errors
+            }
+        }
+        System.clearProperty("metrics.config.file");
+    }
+
+    private static PerformanceMetrics sample(LocalDateTime timestamp) {
+        PerformanceMetrics metrics = new PerformanceMetrics("Retention test", "RETENTION");
+        metrics.setTimestamp(timestamp);
+        metrics.setAverageResponseTimeMs(10.0);
+        metrics.setTestPassed(true);
+        return metrics;
+    }
+
+    private long countRows(String table) throws SQLException {
+        try (Connection connection = databaseManager.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private MetricsRetentionService retentionService() {
+        MetricsConfig.RetentionSettings settings = new MetricsConfig.RetentionSettings();
+        settings.setRawRetentionDays(7);
+        settings.setMinuteRollupRetentionDays(3);
+        settings.setHourRollupRetentionDays(30);
+        settings.setChunkSize(4);
+        settings.setChunkPauseMs(0);
+        return new MetricsRetentionService(databaseManager, rollupService, settings);
+    }
+
+    @Test
+    void testExpiredRowsAreDeletedInChunksWhileRollupsKeepHistory() throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        List<PerformanceMetrics> samples = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            samples.add(sample(now.minusDays(10).plusMinutes(i)));
+        }
+        for (int i = 0; i < 5; i++) {
+            samples.add(sample(now.minusHours(1).plusMinutes(i)));
+        }
+        metricsService.saveMetricsBatch(samples);
+        rollupService.compact();
+
+        Map<String, Long> deleted = retentionService().applyRetention();
+
+        // Raw rows past the raw tier are gone, recent ones stay
+        assertThat(deleted).containsEntry("performance_metrics", 25L);
+        assertThat(countRows("performance_metrics")).isEqualTo(5);
+
+        // Minute buckets older than three days are gone, hour and day buckets remain
+        assertThat(deleted).containsEntry(RollupTier.MINUTE.getTableName(), 25L);
+        assertThat(countRows(RollupTier.MINUTE.getTableName())).isEqualTo(5);
+        assertThat(countRows(RollupTier.HOUR.getTableName())).isPositive();
+
+        // The summary still covers the expired raw rows through the rollups
+        assertThat(metricsService.getPerformanceSummary().getTotalTests()).isEqualTo(30);
+        assertThat(metricsService.getPerformanceTrends("RETENTION", 14).getTotalDataPoints()).isEqualTo(30);
+    }
+
+    @Test
+    void testNothingIsDeletedWhenAllRowsAreWithinRetention() {
+        metricsService.saveMetrics(sample(LocalDateTime.now()));
+
+        MetricsRetentionService service = retentionService();
+        assertThat(service.applyRetention()).isEmpty();
+        assertThat(service.getStats())
+            .containsEntry("totalDeleted", 0L)
+            .containsEntry("rawRetentionDays", 7)
+            .containsKey("lastRunTime");
+    }
+
+    private void saveBoundaryBurst(LocalDateTime base) {
+        List<PerformanceMetrics> samples = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            samples.add(sample(base));
+        }
+        for (int i = 1; i <= 3; i++) {
+            samples.add(sample(base.plusMinutes(i)));
+        }
+        metricsService.saveMetricsBatch(samples);
+    }
+
+    @Test
+    void testChunkEndsAtTheTimeOfItsLastRow() throws SQLException {
+        saveBoundaryBurst(LocalDateTime.now().minusDays(10).withNano(0));
+        LocalDateTime cutoff = LocalDateTime.now();
+
+        // Without a key column, rows sharing the boundary time stay together in one chunk
+        assertThat(databaseManager.deleteOlderThan("performance_metrics", "timestamp", null, cutoff, 2)).isEqualTo(3);
+        assertThat(databaseManager.deleteOlderThan("performance_metrics", "timestamp", null, cutoff, 2)).isEqualTo(2);
+        assertThat(databaseManager.deleteOlderThan("performance_metrics", "timestamp", null, cutoff, 2)).isEqualTo(1);
+        assertThat(databaseManager.deleteOlderThan("performance_metrics", "timestamp", null, cutoff, 2)).isZero();
+    }
+
+    @Test
+    void testKeyColumnSplitsRowsSharingTheBoundaryTime() throws SQLException {
+        saveBoundaryBurst(LocalDateTime.now().minusDays(10).withNano(0));
+        LocalDateTime cutoff = LocalDateTime.now();
+
+        assertThat(databaseManager.deleteOlderThan("performance_metrics", "timestamp", "id", cutoff, 2)).isEqualTo(2);
+        assertThat(databaseManager.deleteOlderThan("performance_metrics", "timestamp", "id", cutoff, 2)).isEqualTo(2);
+        assertThat(databaseManager.deleteOlderThan("performance_metrics", "timestamp", "id", cutoff, 2)).isEqualTo(2);
+        assertThat(databaseManager.deleteOlderThan("performance_metrics", "timestamp", "id", cutoff, 2)).isZero();
+    }
+}
@@ -0,0 +1,207 @@
+package dev.cordal.service;
+
+import dev.cordal.common.model.PerformanceMetrics;
+import dev.cordal.config.MetricsConfig;
+import dev.cordal.database.MetricsDatabaseManager;
+import dev.cordal.dto.PerformanceSummaryDto;
+import dev.cordal.dto.PerformanceTrendsDto;
+import dev.cordal.metrics.MetricsApplication;
+import dev.cordal.model.MetricsRollup;
+import dev.cordal.model.RollupTier;
+import dev.cordal.repository.MetricsRollupRepository;
+import dev.cordal.repository.PerformanceMetricsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for the time-bucketed performance metrics rollups
+ */
+class MetricsRollupServiceTest {
+
+    private MetricsApplication application;
+    private MetricsRollupService rollupService;
+    private PerformanceMetricsService metricsService;
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty("metrics.config.file", "application-test.yml");
+        application = new MetricsApplication();
+        application.initializeForTesting();
+
+        rollupService = application.getInjector().getInstance(MetricsRollupService.class);
+        metricsService = application.getInjector().getInstance(PerformanceMetricsService.class);
+        application.getInjector().getInstance(MetricsDatabaseManager.class).cleanDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (application != null) {
+            try {
+                application.stop();
+            } catch (Exception e) {
+                // Ignore cleanup errors
+            }
+        }
+        System.clearProperty("metrics.config.file");
+    }
+
+    private static PerformanceMetrics sample(String testType, LocalDateTime timestamp, double responseTimeMs, boolean passed) {
+        PerformanceMetrics metrics = new PerformanceMetrics("Rollup test", testType);
+        metrics.setTimestamp(timestamp);
+        metrics.setTotalRequests(1);
+        metrics.setAverageResponseTimeMs(responseTimeMs);
+        metrics.setTestPassed(passed);
+        return metrics;
+    }
+
+    private static long countBetween(List<PerformanceMetrics> samples, LocalDateTime from, LocalDateTime to, String testType) {
+        LocalDateTime start = RollupTier.MINUTE.bucketStart(from);
+        LocalDateTime end = RollupTier.MINUTE.bucketStart(to).plusMinutes(1);
+        return samples.stream()
+            .filter(m -> testType == null || testType.equals(m.getTestType()))
+            .filter(m -> !m.getTimestamp().isBefore(start) && m.getTimestamp().isBefore(end))
+            .count();
+    }
+
+    private static long sum(List<MetricsRollup> rollups) {
+        return rollups.stream().mapToLong(MetricsRollup::getSampleCount).sum();
+    }
+
+    @Test
+    void testRangeQueriesMatchRawSamplesAcrossTiers() throws Exception {
+        // Start from uninitialised rollup state so the first batch is only in the minute tier until compaction
+        try (Connection connection = application.getInjector().getInstance(MetricsDatabaseManager.class).getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM performance_metrics_rollup_state");
+        }
+        rollupService = new MetricsRollupService(
+            application.getInjector().getInstance(MetricsRollupRepository.class),
+            application.getInjector().getInstance(PerformanceMetricsRepository.class),
+            new MetricsConfig.RollupSettings());
+        assertThat(rollupService.getCompactedUntil()).isNull();
+
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).minusDays(3);
+        List<PerformanceMetrics> samples = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            LocalDateTime timestamp = base.plusSeconds(random.nextInt(3 * 24 * 3600));
+            samples.add(sample(i % 3 == 0 ? "CONCURRENT" : "SEQUENTIAL", timestamp, 1 + random.nextInt(200), i % 10 != 0));
+        }
+
+        // Half before compaction, half afterwards so they arrive behind the watermark
+        rollupService.record(samples.subList(0, 1000));
+        assertThat(rollupService.compact()).isPositive();
+        assertThat(rollupService.getCompactedUntil()).isNotNull();
+        rollupService.record(samples.subList(1000, 2000));
+
+        LocalDateTime[][] ranges = {
+            {base, base.plusDays(3)},
+            {base.plusHours(5).plusMinutes(17), base.plusDays(2).plusHours(3).plusMinutes(42)},
+            {base.plusHours(7).plusMinutes(3), base.plusHours(7).plusMinutes(48)},
+            {base.plusHours(23).plusMinutes(30), base.plusDays(1).plusHours(1).plusMinutes(10)},
+            {base.plusDays(1), base.plusDays(2).minusMinutes(1)}
+        };
+        for (LocalDateTime[] range : ranges) {
+            assertThat(sum(rollupService.findRollups(range[0], range[1], null)))
+                .as("samples between %s and %s", range[0], range[1])
+                .isEqualTo(countBetween(samples, range[0], range[1], null));
+            assertThat(sum(rollupService.findRollups(range[0], range[1], "CONCURRENT")))
+                .isEqualTo(countBetween(samples, range[0], range[1], "CONCURRENT"));
+        }
+
+        // A multi-day range is answered mostly from day buckets rather than minute buckets
+        List<MetricsRollup> rollups = rollupService.findRollups(base.plusMinutes(1), base.plusDays(3), null);
+        assertThat(rollups.size()).isLessThan(200);
+        assertThat(sum(rollupService.findRollups(null, null, null))).isEqualTo(samples.size());
+    }
+
+    @Test
+    void testRollupKeepsMinMaxAndPercentiles() {
+        LocalDateTime minute = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(2).plusMinutes(5);
+        List<PerformanceMetrics> samples = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            samples.add(sample("LOAD", minute.plusSeconds(i % 60), i, true));
+        }
+        rollupService.record(samples);
+        rollupService.compact();
+
+        List<MetricsRollup> hour = rollupService.findRollups(minute.truncatedTo(ChronoUnit.HOURS),
+            minute.truncatedTo(ChronoUnit.HOURS).plusMinutes(59), "LOAD");
+        MetricsRollup merged = new MetricsRollup("LOAD", null);
+        hour.forEach(merged::merge);
+
+        assertThat(merged.getSampleCount()).isEqualTo(100);
+        assertThat(merged.getMinResponseTimeMs()).isEqualTo(1.0);
+        assertThat(merged.getMaxResponseTimeMs()).isEqualTo(100.0);
+        assertThat(merged.getAverageResponseTimeMs()).isCloseTo(50.5, within(0.001));
+        assertThat(merged.getResponseTimePercentileMs(50.0)).isCloseTo(50.0, within(2.0));
+        assertThat(merged.getResponseTimePercentileMs(99.0)).isCloseTo(99.0, within(4.0));
+    }
+
+    @Test
+    void testSummaryAndTrendsAreServedFromRollups() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        metricsService.saveMetrics(sample("CONCURRENT", now.minusDays(2), 100.0, true));
+        metricsService.saveMetrics(sample("CONCURRENT", now.minusDays(1), 200.0, false));
+        metricsService.saveMetricsBatch(List.of(
+            sample("SEQUENTIAL", now.minusMinutes(5), 30.0, true),
+            sample("SEQUENTIAL", now, 70.0, true)));
+
+        PerformanceSummaryDto summary = metricsService.getPerformanceSummary();
+        assertThat(summary.getTotalTests()).isEqualTo(4);
+        assertThat(summary.getAverageResponseTime()).isEqualTo(100.0);
+        assertThat(summary.getSuccessRate()).isEqualTo(75.0);
+        assertThat(summary.getTestTypes()).containsExactly("CONCURRENT", "SEQUENTIAL");
+        assertThat(summary.getTestTypeDistribution()).containsEntry("CONCURRENT", 2L).containsEntry("SEQUENTIAL", 2L);
+        assertThat(summary.getLastTestTime()).isEqualTo(now);
+        assertThat(summary.getResponseTimePercentiles()).containsKeys("p50", "p90", "p99");
+
+        PerformanceTrendsDto trends = metricsService.getPerformanceTrends("CONCURRENT", 7);
+        assertThat(trends.getTotalDataPoints()).isEqualTo(2);
+        assertThat(trends.getDates()).containsExactly(
+            now.minusDays(2).toLocalDate().toString(), now.minusDays(1).toLocalDate().toString());
+        assertThat(trends.getSuccessRates()).containsEntry(now.minusDays(1).toLocalDate().toString(), 0.0);
+
+        PerformanceTrendsDto allTypes = metricsService.getPerformanceTrends(null, 7);
+        assertThat(allTypes.getTotalDataPoints()).isEqualTo(4);
+    }
+
+    @Test
+    void testSubmittedSamplesAreQueuedUntilFlushed() throws Exception {
+        MetricsDatabaseManager databaseManager = application.getInjector().getInstance(MetricsDatabaseManager.class);
+        MetricsRollupService service = new MetricsRollupService(
+            application.getInjector().getInstance(MetricsRollupRepository.class),
+            application.getInjector().getInstance(PerformanceMetricsRepository.class),
+            new MetricsConfig.RollupSettings());
+        LocalDateTime now = LocalDateTime.now();
+
+        service.submit(List.of(sample("CONCURRENT", now, 10.0, true), sample("CONCURRENT", now, 30.0, true)));
+        assertThat(countMinuteBuckets(databaseManager)).isZero();
+
+        // A range query flushes the queue first, so it sees every submitted sample
+        assertThat(sum(service.findRollups(now.minusMinutes(1), now, "CONCURRENT"))).isEqualTo(2);
+        assertThat(countMinuteBuckets(databaseManager)).isEqualTo(1);
+    }
+
+    private static long countMinuteBuckets(MetricsDatabaseManager databaseManager) throws Exception {
+        try (Connection connection = databaseManager.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + RollupTier.MINUTE.getTableName())) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}